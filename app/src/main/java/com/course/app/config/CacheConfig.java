@@ -0,0 +1,47 @@
+package com.course.app.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Enables the Caffeine-backed cache manager; cache names and specs are set in application.yml.
+ * Caches that need their own expiry are registered here.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Daily attendance aggregates of a location, keyed by location ID */
+    public static final String ATTENDANCE_CALENDAR = "attendanceCalendar";
+
+    /** Per-location and per-course top student lists, keyed by scope, ID and limit; expire after app.rankings.cache-ttl */
+    public static final String STUDENT_RANKINGS = "studentRankings";
+
+    /** Per-location counts shown on an admin's dashboard, keyed by admin ID; expire after app.dashboard.cache-ttl */
+    public static final String ADMIN_DASHBOARD = "adminDashboard";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> studentRankingsCacheCustomizer(
+            @Value("${app.rankings.cache-ttl:30s}") Duration rankingsTtl) {
+        return cacheManager -> cacheManager.registerCustomCache(STUDENT_RANKINGS, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(rankingsTtl)
+                .build());
+    }
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> adminDashboardCacheCustomizer(
+            @Value("${app.dashboard.cache-ttl:60s}") Duration dashboardTtl) {
+        return cacheManager -> cacheManager.registerCustomCache(ADMIN_DASHBOARD, Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterWrite(dashboardTtl)
+                .build());
+    }
+}
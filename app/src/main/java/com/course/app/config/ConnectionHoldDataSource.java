@@ -0,0 +1,96 @@
+package com.course.app.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * DataSource wrapper that measures how long each borrowed connection is held, from getConnection() until it
+ * is closed (returned to the pool). Hold times are summed per thread while {@link #startRecording()} is active,
+ * which {@link ConnectionHoldMetricsFilter} does around every request.
+ * Closing it closes the wrapped pool, which would otherwise not be shut down with the context.
+ */
+public class ConnectionHoldDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final ThreadLocal<Hold> CURRENT = new ThreadLocal<>();
+
+    public ConnectionHoldDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    /**
+     * Connections borrowed by a thread and their summed hold time in nanoseconds
+     */
+    public static final class Hold {
+        private long connections;
+        private long nanos;
+
+        public long getConnections() {
+            return connections;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+
+    /**
+     * Start summing the connections held by the current thread
+     */
+    public static Hold startRecording() {
+        Hold hold = new Hold();
+        CURRENT.set(hold);
+        return hold;
+    }
+
+    /**
+     * Stop summing for the current thread
+     */
+    public static void stopRecording() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return timed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return timed(super.getConnection(username, password));
+    }
+
+    private Connection timed(Connection target) {
+        Hold hold = CURRENT.get();
+        if (hold == null) {
+            return target;
+        }
+
+        long borrowedAt = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(ConnectionHoldDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        hold.connections++;
+                        hold.nanos += System.nanoTime() - borrowedAt;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
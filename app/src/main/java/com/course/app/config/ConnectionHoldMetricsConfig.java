@@ -0,0 +1,40 @@
+package com.course.app.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request connection hold time. With open-in-view disabled a request holds a connection only while a
+ * service transaction runs, so this timer shows how much of a request is spent on the pool.
+ * DataSources are also wrapped for the statement counts of {@link QueryDiagnosticsConfig}.
+ */
+@Configuration
+public class ConnectionHoldMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionHoldDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldDataSource)) {
+                    return new ConnectionHoldDataSource(new QueryDiagnosticsDataSource(dataSource));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionHoldMetricsFilter> connectionHoldMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConnectionHoldMetricsFilter> registration =
+                new FilterRegistrationBean<>(new ConnectionHoldMetricsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,50 @@
+package com.course.app.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the time a request held database connections as the db.connection.hold timer, tagged like
+ * http.server.requests with the method, URI pattern and status. Requests that never borrowed a
+ * connection are not recorded.
+ */
+public class ConnectionHoldMetricsFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "db.connection.hold";
+
+    private final MeterRegistry meterRegistry;
+
+    public ConnectionHoldMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConnectionHoldDataSource.Hold hold = ConnectionHoldDataSource.startRecording();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConnectionHoldDataSource.stopRecording();
+            if (hold.getConnections() > 0) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Timer.builder(METRIC_NAME)
+                        .description("Time a request held database connections")
+                        .tag("method", request.getMethod())
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .tag("status", String.valueOf(response.getStatus()))
+                        .register(meterRegistry)
+                        .record(hold.getNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.course.app.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Reads of the annotated method go to the primary, also in a read-only transaction, so they are never older
+ * than state kept on the primary: ETag versions, or caches that writes evict when they commit. Takes effect for
+ * the connections fetched while the method runs, so it belongs on the method that starts the transaction.
+ * Without replicas it has no effect.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PrimaryRead {
+}
@@ -0,0 +1,28 @@
+package com.course.app.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pins the connections of {@link PrimaryRead} methods to the primary. Ordered outside the transaction
+ * interceptor, so the pin is in place before the transaction fetches its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class PrimaryReadAspect {
+
+    @Around("@annotation(com.course.app.config.PrimaryRead)")
+    public Object readFromPrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        ReplicaRoutingDataSource.pinPrimary();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingDataSource.unpinPrimary();
+        }
+    }
+}
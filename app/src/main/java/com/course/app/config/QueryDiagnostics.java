@@ -0,0 +1,144 @@
+package com.course.app.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * SQL work of one request: statements executed, time spent executing them, entities Hibernate loaded, and the
+ * executions and bind parameters per SQL fingerprint. Collected between {@link #start()} and {@link #stop()}
+ * on the request thread, and on the threads of tasks handed off with {@link #propagate(Runnable)}; which
+ * {@link QueryDiagnosticsFilter} does around every request.
+ */
+public final class QueryDiagnostics {
+
+    private static final ThreadLocal<QueryDiagnostics> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+
+    private final AtomicLong statements = new AtomicLong();
+    private final AtomicLong jdbcNanos = new AtomicLong();
+    private final AtomicLong entities = new AtomicLong();
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * One normalized statement with its executions and bind parameters in this request
+     */
+    public static final class Fingerprint {
+        private final String sql;
+        private final AtomicLong executions = new AtomicLong();
+        private final AtomicLong binds = new AtomicLong();
+
+        private Fingerprint(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getExecutions() {
+            return executions.get();
+        }
+
+        public long getBinds() {
+            return binds.get();
+        }
+    }
+
+    /**
+     * Start collecting for the current thread
+     */
+    public static QueryDiagnostics start() {
+        QueryDiagnostics diagnostics = new QueryDiagnostics();
+        CURRENT.set(diagnostics);
+        return diagnostics;
+    }
+
+    /**
+     * Stop collecting for the current thread
+     */
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Diagnostics of the current thread, null outside a request
+     */
+    public static QueryDiagnostics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Collect the SQL of a task into the diagnostics of the thread submitting it, on whichever thread it runs
+     */
+    public static Runnable propagate(Runnable task) {
+        QueryDiagnostics diagnostics = CURRENT.get();
+        if (diagnostics == null) {
+            return task;
+        }
+        return () -> {
+            QueryDiagnostics previous = CURRENT.get();
+            CURRENT.set(diagnostics);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    /**
+     * SQL with literals replaced by ? and IN lists collapsed, so repeats of a statement share one fingerprint
+     */
+    public static String fingerprint(String sql) {
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = STRING_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        return IN_LIST.matcher(normalized).replaceAll("in (?...)");
+    }
+
+    void recordStatement(String sql, long binds, long nanos) {
+        statements.incrementAndGet();
+        jdbcNanos.addAndGet(nanos);
+        Fingerprint fingerprint = fingerprints.computeIfAbsent(fingerprint(sql), Fingerprint::new);
+        fingerprint.executions.incrementAndGet();
+        fingerprint.binds.addAndGet(binds);
+    }
+
+    void recordEntityLoad() {
+        entities.incrementAndGet();
+    }
+
+    public long getStatements() {
+        return statements.get();
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos.get();
+    }
+
+    public long getEntities() {
+        return entities.get();
+    }
+
+    /**
+     * Fingerprints by executions, most executed first
+     */
+    public List<Fingerprint> getFingerprints() {
+        List<Fingerprint> sorted = new ArrayList<>(fingerprints.values());
+        sorted.sort(Comparator.comparingLong(Fingerprint::getExecutions).reversed());
+        return sorted;
+    }
+}
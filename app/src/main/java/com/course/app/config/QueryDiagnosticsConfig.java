@@ -0,0 +1,65 @@
+package com.course.app.config;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.List;
+
+/**
+ * Per-request SQL diagnostics (app.query-diagnostics.*). Statements and their JDBC time are reported by
+ * {@link QueryDiagnosticsDataSource}, which {@link ConnectionHoldMetricsConfig} wraps around every DataSource;
+ * entities are counted by a Hibernate post-load listener, which also sees entities assembled from the
+ * second-level cache.
+ */
+@Configuration
+public class QueryDiagnosticsConfig {
+
+    @Bean
+    public FilterRegistrationBean<QueryDiagnosticsFilter> queryDiagnosticsFilter(
+            @Value("${app.query-diagnostics.headers:false}") boolean headers,
+            @Value("${app.query-diagnostics.slow-request-ms:1000}") long slowRequestMs,
+            @Value("${app.query-diagnostics.slow-request-statements:50}") long slowRequestStatements) {
+        FilterRegistrationBean<QueryDiagnosticsFilter> registration = new FilterRegistrationBean<>(
+                new QueryDiagnosticsFilter(headers, slowRequestMs, slowRequestStatements));
+        // Right inside the connection hold filter, so security's user lookups are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityLoadDiagnosticsCustomizer() {
+        Integrator entityLoads = new Integrator() {
+            @Override
+            public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                                  SessionFactoryImplementor sessionFactory) {
+                sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class)
+                        .appendListeners(EventType.POST_LOAD, event -> {
+                            QueryDiagnostics diagnostics = QueryDiagnostics.current();
+                            if (diagnostics != null) {
+                                diagnostics.recordEntityLoad();
+                            }
+                        });
+            }
+
+            @Override
+            public void disintegrate(SessionFactoryImplementor sessionFactory,
+                                     SessionFactoryServiceRegistry serviceRegistry) {
+            }
+        };
+        return properties -> properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(entityLoads));
+    }
+}
@@ -0,0 +1,101 @@
+package com.course.app.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * DataSource wrapper that reports the statements executed on its connections to the {@link QueryDiagnostics}
+ * of the current thread: one statement per execute call (a batch counts once), the time the call took, and
+ * the bind parameters set for it. Reading the result set is not part of the time. Connections borrowed while
+ * no diagnostics are collected are returned unwrapped.
+ */
+public class QueryDiagnosticsDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public QueryDiagnosticsDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return diagnosed(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return diagnosed(super.getConnection(username, password));
+    }
+
+    private Connection diagnosed(Connection target) {
+        if (QueryDiagnostics.current() == null) {
+            return target;
+        }
+        return (Connection) Proxy.newProxyInstance(QueryDiagnosticsDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return switch (method.getName()) {
+                        case "prepareStatement", "prepareCall", "createStatement" -> statement(
+                                (Statement) result, method.getName().equals("createStatement") ? null : (String) args[0]);
+                        default -> result;
+                    };
+                });
+    }
+
+    private static Statement statement(Statement target, String preparedSql) {
+        Class<?> type = target instanceof CallableStatement ? CallableStatement.class
+                : target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        long[] binds = new long[1];
+        String[] batchSql = new String[1];
+        return (Statement) Proxy.newProxyInstance(QueryDiagnosticsDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.startsWith("set") && args != null && args.length >= 2) {
+                        // Parameter setters take the index or name first; the statement's own setters take one argument
+                        binds[0]++;
+                    } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                        batchSql[0] = (String) args[0];
+                    } else if (EXECUTE_METHODS.contains(name)) {
+                        String sql = preparedSql != null ? preparedSql
+                                : args != null && args.length > 0 && args[0] instanceof String s ? s : batchSql[0];
+                        long startedAt = System.nanoTime();
+                        try {
+                            return invoke(target, method, args);
+                        } finally {
+                            QueryDiagnostics diagnostics = QueryDiagnostics.current();
+                            if (diagnostics != null && sql != null) {
+                                diagnostics.recordStatement(sql, binds[0], System.nanoTime() - startedAt);
+                            }
+                            binds[0] = 0;
+                        }
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.course.app.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the {@link QueryDiagnostics} of every request. With headers enabled the statement count, the JDBC
+ * time in milliseconds and the entities loaded are returned as X-Query-Count, X-Db-Time and X-Entity-Count,
+ * set when the response is committed. Requests slower than the latency threshold or running more statements
+ * than the statement threshold are written to the slow-requests logger with their SQL fingerprints.
+ * Streaming (async) requests are not logged.
+ */
+public class QueryDiagnosticsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String DB_TIME_HEADER = "X-Db-Time";
+    public static final String ENTITY_COUNT_HEADER = "X-Entity-Count";
+
+    private static final Logger SLOW_REQUESTS = LoggerFactory.getLogger("slow-requests");
+
+    private final boolean headers;
+    private final long slowRequestNanos;
+    private final long slowRequestStatements;
+
+    public QueryDiagnosticsFilter(boolean headers, long slowRequestMs, long slowRequestStatements) {
+        this.headers = headers;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMs);
+        this.slowRequestStatements = slowRequestStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryDiagnostics diagnostics = QueryDiagnostics.start();
+        long startedAt = System.nanoTime();
+        HttpServletResponse target = !headers ? response : new OnCommittedResponseWrapper(response) {
+            @Override
+            protected void onResponseCommitted() {
+                writeHeaders(diagnostics, response);
+            }
+        };
+        try {
+            filterChain.doFilter(request, target);
+        } finally {
+            QueryDiagnostics.stop();
+            if (headers && !response.isCommitted()) {
+                writeHeaders(diagnostics, response);
+            }
+            long elapsed = System.nanoTime() - startedAt;
+            if (!request.isAsyncStarted()
+                    && (elapsed > slowRequestNanos || diagnostics.getStatements() > slowRequestStatements)) {
+                logSlowRequest(request, response, diagnostics, elapsed);
+            }
+        }
+    }
+
+    private static void writeHeaders(QueryDiagnostics diagnostics, HttpServletResponse response) {
+        response.setHeader(QUERY_COUNT_HEADER, String.valueOf(diagnostics.getStatements()));
+        response.setHeader(DB_TIME_HEADER, millis(diagnostics.getJdbcNanos()));
+        response.setHeader(ENTITY_COUNT_HEADER, String.valueOf(diagnostics.getEntities()));
+    }
+
+    private static void logSlowRequest(HttpServletRequest request, HttpServletResponse response,
+                                       QueryDiagnostics diagnostics, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder message = new StringBuilder()
+                .append(request.getMethod()).append(' ')
+                .append(pattern != null ? pattern : request.getRequestURI()).append(' ')
+                .append(response.getStatus()).append(" in ").append(millis(elapsedNanos)).append(" ms: ")
+                .append(diagnostics.getStatements()).append(" statements, ")
+                .append(millis(diagnostics.getJdbcNanos())).append(" ms JDBC, ")
+                .append(diagnostics.getEntities()).append(" entities");
+        for (QueryDiagnostics.Fingerprint fingerprint : diagnostics.getFingerprints()) {
+            message.append("\n  ").append(fingerprint.getExecutions()).append("x (")
+                    .append(fingerprint.getBinds()).append(" binds) ").append(fingerprint.getSql());
+        }
+        SLOW_REQUESTS.warn(message.toString());
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,65 @@
+package com.course.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by app.datasource.replica-urls. Replaces the auto-configured DataSource with a
+ * {@link ReplicaRoutingDataSource}: the primary pool is built from spring.datasource as before, and every
+ * replica gets a pool of its own with the same spring.datasource.hikari settings.
+ */
+@Configuration
+@ConditionalOnProperty("app.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource dataSource(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${app.datasource.replica-username:}") String replicaUsername,
+            @Value("${app.datasource.replica-password:}") String replicaPassword,
+            @Value("${app.datasource.replica-lag-query}") String lagQuery,
+            @Value("${app.datasource.max-replica-lag:5s}") Duration maxLag,
+            @Value("${app.datasource.lag-check-interval:2s}") Duration lagCheckInterval) {
+        HikariDataSource primary = pool(environment, meterRegistry, "primary", dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword(),
+                dataSourceProperties.determineDriverClassName());
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            replicas.add(pool(environment, meterRegistry, "replica-" + (replicas.size() + 1), url.trim(),
+                    replicaUsername.isEmpty() ? primary.getUsername() : replicaUsername,
+                    replicaPassword.isEmpty() ? primary.getPassword() : replicaPassword,
+                    dataSourceProperties.determineDriverClassName()));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, lagQuery, maxLag, lagCheckInterval, meterRegistry);
+    }
+
+    private static HikariDataSource pool(Environment environment, MeterRegistry meterRegistry, String name, String url,
+                                         String username, String password, String driverClassName) {
+        HikariDataSource pool = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setDriverClassName(driverClassName);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
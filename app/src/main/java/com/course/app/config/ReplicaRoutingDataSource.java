@@ -0,0 +1,226 @@
+package com.course.app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends read-only transactions to replica pools and everything else to the primary pool.
+ *
+ * The physical connection is fetched lazily, on the first statement, so the read-only flag the transaction
+ * manager sets when the transaction begins is known by then. Read-only connections are spread round-robin over
+ * the replicas that answered the last lag check and were no further behind the primary than the allowed lag;
+ * with none left they come from the primary. Each target has its own Hikari pool, with the Hikari metrics
+ * tagged by pool name. Connections are counted per target in db.routing.connections, and each replica's lag
+ * is the db.replica.lag gauge (NaN while it does not answer).
+ *
+ * Reads in a read-only transaction may not see a write committed just before on the primary, up to the
+ * replica's lag; paths that must read their own writes run in a read-write transaction. Reads whose result is
+ * paired with state kept on the primary, such as ETag versions or caches evicted when a write commits, are
+ * marked {@link PrimaryRead}: connections fetched while such a method runs come from the primary even for
+ * read-only transactions.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    public static final String ROUTING_METRIC = "db.routing.connections";
+    public static final String LAG_METRIC = "db.replica.lag";
+
+    /** Depth of the {@link PrimaryRead} methods running on this thread */
+    private static final ThreadLocal<Integer> PRIMARY_READS = ThreadLocal.withInitial(() -> 0);
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryFallbacks;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final Duration lagCheckInterval;
+    private final ScheduledExecutorService lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * One replica pool with the outcome of its last lag check
+     */
+    private static final class Replica {
+        final HikariDataSource pool;
+        final Counter connections;
+        volatile double lagSeconds = Double.NaN;
+        volatile boolean available;
+
+        Replica(HikariDataSource pool, Counter connections) {
+            this.pool = pool;
+            this.connections = connections;
+        }
+    }
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools, String lagQuery,
+                                    Duration maxLag, Duration lagCheckInterval, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagCheckInterval = lagCheckInterval;
+
+        Counter primaryConnections = routingCounter(meterRegistry, primary.getPoolName(), false);
+        this.primaryFallbacks = routingCounter(meterRegistry, primary.getPoolName(), true);
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool, routingCounter(meterRegistry, pool.getPoolName(), true));
+            Gauge.builder(LAG_METRIC, replica, r -> r.lagSeconds)
+                    .description("Replication lag of a read replica at its last check")
+                    .baseUnit("seconds")
+                    .tag("target", pool.getPoolName())
+                    .register(meterRegistry);
+            replicas.add(replica);
+        }
+
+        setTargetDataSource(new CountingDataSource(primary, primaryConnections));
+        setReadOnlyDataSource(new ReadOnlyDataSource());
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+        long intervalMs = lagCheckInterval.toMillis();
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    /**
+     * Measure the lag of every replica and take the ones too far behind, or not answering, out of rotation
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            double lag;
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                // No row or NULL: not replaying anything, so not behind
+                lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+            } catch (SQLException | RuntimeException e) {
+                if (replica.available) {
+                    log.warn("Read replica {} does not answer, reading from the primary: {}",
+                            replica.pool.getPoolName(), e.getMessage());
+                }
+                replica.lagSeconds = Double.NaN;
+                replica.available = false;
+                continue;
+            }
+
+            boolean available = lag <= maxLagSeconds;
+            if (available != replica.available) {
+                log.info("Read replica {} is {} ({}s behind)", replica.pool.getPoolName(),
+                        available ? "back in rotation" : "out of rotation", lag);
+            }
+            replica.lagSeconds = lag;
+            replica.available = available;
+        }
+    }
+
+    /**
+     * Send the read-only connections fetched on this thread to the primary until {@link #unpinPrimary()}
+     */
+    static void pinPrimary() {
+        PRIMARY_READS.set(PRIMARY_READS.get() + 1);
+    }
+
+    static void unpinPrimary() {
+        int depth = PRIMARY_READS.get() - 1;
+        if (depth == 0) {
+            PRIMARY_READS.remove();
+        } else {
+            PRIMARY_READS.set(depth);
+        }
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, boolean readOnly) {
+        return Counter.builder(ROUTING_METRIC)
+                .description("Connections fetched per routing target")
+                .tag("target", target)
+                .tag("read-only", String.valueOf(readOnly))
+                .register(meterRegistry);
+    }
+
+    /**
+     * Target of read-only connections: the next available replica, else the primary; always the primary for
+     * {@link PrimaryRead} methods
+     */
+    private final class ReadOnlyDataSource extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return target().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return target().getConnection(username, password);
+        }
+
+        private DataSource target() {
+            int count = PRIMARY_READS.get() > 0 ? 0 : replicas.size();
+            int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(count, 1));
+            for (int i = 0; i < count; i++) {
+                Replica replica = replicas.get((start + i) % count);
+                if (replica.available) {
+                    replica.connections.increment();
+                    return replica.pool;
+                }
+            }
+            primaryFallbacks.increment();
+            return primary;
+        }
+    }
+
+    /**
+     * Primary pool counting the connections fetched for read-write work
+     */
+    private static final class CountingDataSource extends AbstractDataSource {
+
+        private final DataSource target;
+        private final Counter connections;
+
+        CountingDataSource(DataSource target, Counter connections) {
+            this.target = target;
+            this.connections = connections;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            connections.increment();
+            return target.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            connections.increment();
+            return target.getConnection(username, password);
+        }
+    }
+}
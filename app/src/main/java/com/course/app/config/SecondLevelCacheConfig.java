@@ -0,0 +1,91 @@
+package com.course.app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the reference entities that are read constantly and change rarely
+ * (locations, courses, lessons, users) and for the association collections walked when they are rendered.
+ *
+ * Regions live in an in-process Caffeine JCache manager. Each region is created here with the size and
+ * time-to-live under app.second-level-cache.regions; Hibernate refuses to start when an entity names a region
+ * that is not configured. Hit, miss, put and removal counts are published per region as the cache.* meters,
+ * tagged with the region name.
+ *
+ * Entities are cached read-write, so Hibernate replaces or invalidates an entry when it flushes a change to
+ * it. Changes it cannot see are evicted by {@link com.course.app.service.SecondLevelCacheEvictor}.
+ *
+ * The regions are per JVM: a write on one instance does not reach the caches of the others, which serve their
+ * entries until the region's TTL expires. Authorization must not rely on cached state, so the admin checks of a
+ * location query course_location_admins instead of walking {@link #COURSE_LOCATION_ADMINS}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String COURSE_LOCATION = "course-location";
+    public static final String COURSE_LOCATION_ADMINS = "course-location-admins";
+    public static final String COURSE = "course";
+    public static final String COURSE_LOCATIONS = "course-locations";
+    public static final String LESSON = "lesson";
+    public static final String USER = "user";
+
+    /**
+     * Sizing of one region: maximum entries, and how long an entry lives after it was written
+     */
+    public record Region(long maxSize, Duration ttl) {
+    }
+
+    @Bean
+    public CacheManager secondLevelCacheManager(Environment environment, MeterRegistry meterRegistry) {
+        Map<String, Region> regions = Binder.get(environment)
+                .bind("app.second-level-cache.regions", Bindable.mapOf(String.class, Region.class))
+                .orElseThrow(() -> new IllegalStateException("app.second-level-cache.regions is not configured"));
+
+        // One manager per application context; test contexts share the JVM and its provider
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        regions.forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+            // Hibernate stores immutable disassembled state, copying it on every access would be wasted
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            Cache<Object, Object> cache = cacheManager.createCache(name, configuration);
+            JCacheMetrics.monitor(meterRegistry, cache);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -2,21 +2,30 @@ package com.course.app.controller;
 
 import com.course.app.dto.AdminDashboardDTO;
 import com.course.app.service.AdminDashboardService;
+import com.course.app.service.DashboardStreamService;
 import com.course.app.util.SecurityUtils;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/admin/dashboard")
 public class AdminDashboardController {
 
     private final AdminDashboardService adminDashboardService;
+    private final DashboardStreamService dashboardStreamService;
 
-    public AdminDashboardController(AdminDashboardService adminDashboardService) {
+    public AdminDashboardController(AdminDashboardService adminDashboardService,
+                                    DashboardStreamService dashboardStreamService) {
         this.adminDashboardService = adminDashboardService;
+        this.dashboardStreamService = dashboardStreamService;
     }
 
     /**
@@ -37,4 +46,40 @@ public class AdminDashboardController {
         AdminDashboardDTO dashboardData = adminDashboardService.getDashboardData(currentUserId);
         return ResponseEntity.ok(dashboardData);
     }
+
+    /**
+     * Get older activities of the current admin's locations
+     * @param before Return activities older than this activity ID
+     * @param size Page size
+     * @return Activities, newest first
+     */
+    @GetMapping("/activities")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<AdminDashboardDTO.ActivityDTO>> getActivityHistory(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        
+        if (currentUserId == null || size < 1 || size > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(adminDashboardService.getActivityHistory(currentUserId, before, size));
+    }
+
+    /**
+     * Stream counter changes and new activities of the current admin's locations as server-sent events
+     * @return Event stream; starts with a snapshot of the counters
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<SseEmitter> streamDashboard() {
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        
+        if (currentUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(dashboardStreamService.subscribe(currentUserId));
+    }
 }
@@ -4,13 +4,17 @@ import com.course.app.dto.LessonNoteCreateRequest;
 import com.course.app.dto.LessonNoteDTO;
 import com.course.app.dto.LessonNoteHistoryDTO;
 import com.course.app.dto.LessonNoteUpdateRequest;
+import com.course.app.dto.LessonStatsDTO;
 import com.course.app.service.LessonNoteService;
+import com.course.app.service.LessonStatsService;
+import com.course.app.service.ResourceVersions;
 import com.course.app.util.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -21,26 +25,37 @@ import java.util.List;
 public class AdminLessonNoteController {
 
     private final LessonNoteService lessonNoteService;
+    private final LessonStatsService lessonStatsService;
+    private final ResourceVersions resourceVersions;
 
     @Autowired
-    public AdminLessonNoteController(LessonNoteService lessonNoteService) {
+    public AdminLessonNoteController(LessonNoteService lessonNoteService, LessonStatsService lessonStatsService,
+                                     ResourceVersions resourceVersions) {
         this.lessonNoteService = lessonNoteService;
+        this.lessonStatsService = lessonStatsService;
+        this.resourceVersions = resourceVersions;
     }
 
     /**
      * Get all lesson notes
      */
     @GetMapping
-    public ResponseEntity<List<LessonNoteDTO>> getAllLessonNotes() {
+    public ResponseEntity<List<LessonNoteDTO>> getAllLessonNotes(WebRequest webRequest) {
         String currentRole = SecurityUtils.getCurrentUserRole();
         Long currentUserId = SecurityUtils.getCurrentUserId();
         
         if ("ROLE_ADMIN".equals(currentRole)) {
+            if (webRequest.checkNotModified(resourceVersions.adminETag("lesson-notes", currentUserId))) {
+                return null;
+            }
             // Admin kullanıcısı için sadece kendi lokasyonlarındaki öğrencilerin notlarını getir
             List<LessonNoteDTO> lessonNotes = lessonNoteService.getLessonNotesForAdmin(currentUserId);
             return ResponseEntity.ok(lessonNotes);
         } else {
             // Superadmin için tüm notları getir
+            if (webRequest.checkNotModified(resourceVersions.globalETag("lesson-notes"))) {
+                return null;
+            }
             List<LessonNoteDTO> lessonNotes = lessonNoteService.getAllLessonNotes();
             return ResponseEntity.ok(lessonNotes);
         }
@@ -65,6 +80,22 @@ public class AdminLessonNoteController {
         }
     }
 
+    /**
+     * Get pass rate, mean score and score distribution for a lesson
+     */
+    @GetMapping("/lesson/{lessonId}/stats")
+    public ResponseEntity<LessonStatsDTO> getLessonStats(@PathVariable Long lessonId) {
+        return ResponseEntity.ok(lessonStatsService.getLessonStats(lessonId));
+    }
+
+    /**
+     * Get pass rate, mean score and score distribution for every lesson of a course
+     */
+    @GetMapping("/course/{courseId}/stats")
+    public ResponseEntity<List<LessonStatsDTO>> getCourseLessonStats(@PathVariable Long courseId) {
+        return ResponseEntity.ok(lessonStatsService.getCourseLessonStats(courseId));
+    }
+
     /**
      * Get lesson notes by student ID
      */
@@ -1,14 +1,18 @@
 package com.course.app.controller;
 
+import com.course.app.dto.AttendanceDTO;
+import com.course.app.dto.StudentAttendanceSummaryDTO;
 import com.course.app.dto.StudentDetailDTO;
 import com.course.app.service.AdminStudentService;
 import com.course.app.service.AttendanceService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Map;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/admin/students")
@@ -28,10 +32,25 @@ public class AdminStudentController {
     }
     
     /**
-     * Get attendance details for a student
+     * Get attendance statistics for a student, overall and per course
      */
     @GetMapping("/{id}/attendance")
-    public ResponseEntity<Map<String, Object>> getStudentAttendanceDetails(@PathVariable Long id) {
-        return ResponseEntity.ok(attendanceService.getStudentAttendanceDetails(id));
+    public ResponseEntity<StudentAttendanceSummaryDTO> getStudentAttendanceSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(attendanceService.getStudentAttendanceSummary(id));
+    }
+    
+    /**
+     * Get attendance records for a student between two dates (default: the last three months), newest first
+     */
+    @GetMapping("/{id}/attendance/records")
+    public ResponseEntity<PagedModel<AttendanceDTO>> getStudentAttendanceRecords(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(3);
+        return ResponseEntity.ok(new PagedModel<>(attendanceService.getStudentAttendanceRecords(id, start, end, page, size)));
     }
 }
@@ -1,7 +1,13 @@
 package com.course.app.controller;
 
+import com.course.app.dto.AttendanceCalendarDTO;
 import com.course.app.dto.AttendanceDTO;
+import com.course.app.dto.AttendanceRateDTO;
 import com.course.app.dto.AttendanceRequest;
+import com.course.app.dto.AttendanceSessionDTO;
+import com.course.app.dto.AttendanceSessionRequest;
+import com.course.app.dto.AttendanceSessionResultDTO;
+import com.course.app.dto.DailyPresenceDTO;
 import com.course.app.service.AttendanceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -26,6 +32,21 @@ public class AttendanceController {
         return ResponseEntity.ok(attendanceService.saveAttendanceRecords(request));
     }
 
+    @GetMapping("/session")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<AttendanceSessionDTO> getAttendanceSession(
+            @RequestParam Long courseId,
+            @RequestParam Long courseLocationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(attendanceService.getAttendanceSession(courseId, courseLocationId, date));
+    }
+
+    @PutMapping("/session")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<AttendanceSessionResultDTO> saveAttendanceSession(@RequestBody AttendanceSessionRequest request) {
+        return ResponseEntity.ok(attendanceService.saveAttendanceSession(request));
+    }
+
     @GetMapping("/location/{locationId}/date/{date}")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
     public ResponseEntity<List<AttendanceDTO>> getAttendanceByLocationAndDate(
@@ -52,4 +73,41 @@ public class AttendanceController {
     public ResponseEntity<Map<String, Long>> getStudentAttendanceStats(@PathVariable Long studentId) {
         return ResponseEntity.ok(attendanceService.getStudentAttendanceStats(studentId));
     }
+
+    @GetMapping("/student/{studentId}/rates")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<AttendanceRateDTO>> getStudentAttendanceRates(
+            @PathVariable Long studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(attendanceService.getStudentAttendanceRates(studentId, from, to));
+    }
+
+    @GetMapping("/course/{courseId}/absentees")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<AttendanceRateDTO>> getCourseAbsentees(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "3") int minAbsences,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(attendanceService.getCourseAbsentees(courseId, minAbsences, from, to));
+    }
+
+    @GetMapping("/location/{locationId}/daily-presence")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<List<DailyPresenceDTO>> getDailyPresence(
+            @PathVariable Long locationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(attendanceService.getDailyPresence(locationId, from, to));
+    }
+
+    @GetMapping("/location/{locationId}/calendar")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
+    public ResponseEntity<AttendanceCalendarDTO> getLocationCalendar(
+            @PathVariable Long locationId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(attendanceService.getLocationCalendar(locationId, from, to));
+    }
 }
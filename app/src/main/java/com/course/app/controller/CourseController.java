@@ -4,6 +4,7 @@ import com.course.app.dto.CourseCreateRequest;
 import com.course.app.dto.CourseDTO;
 import com.course.app.dto.CourseUpdateRequest;
 import com.course.app.service.CourseService;
+import com.course.app.service.ResourceVersions;
 import com.course.app.util.SecurityUtils;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -20,17 +22,25 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final ResourceVersions resourceVersions;
     
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
-    public ResponseEntity<List<CourseDTO>> getAllCourses() {
+    public ResponseEntity<List<CourseDTO>> getAllCourses(WebRequest webRequest) {
         String currentRole = SecurityUtils.getCurrentUserRole();
         
         if ("ROLE_ADMIN".equals(currentRole)) {
             // Admin kullanıcısı için sadece kendi lokasyonlarındaki kursları getir
-            return ResponseEntity.ok(courseService.getCoursesForCurrentAdmin());
+            Long currentUserId = SecurityUtils.getCurrentUserId();
+            if (webRequest.checkNotModified(resourceVersions.adminETag("courses", currentUserId))) {
+                return null;
+            }
+            return ResponseEntity.ok(courseService.getCoursesForAdmin(currentUserId));
         } else {
             // Superadmin için tüm kursları getir
+            if (webRequest.checkNotModified(resourceVersions.globalETag("courses"))) {
+                return null;
+            }
             return ResponseEntity.ok(courseService.getAllCourses());
         }
     }
@@ -18,8 +18,27 @@ public class PublicRankingController {
 
     @GetMapping("/top-students")
     public ResponseEntity<List<StudentRankingDTO>> getTopStudents(
-            @RequestParam(defaultValue = "10") int limit) {
-        return ResponseEntity.ok(studentRankingService.getTopStudents(limit));
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        if (offset < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentRankingService.getTopStudents(offset, limit));
+    }
+
+    @GetMapping("/students/{nationalId}")
+    public ResponseEntity<StudentRankingDTO> getStudentStanding(
+            @PathVariable String nationalId,
+            @RequestParam(required = false) Long locationId) {
+        return ResponseEntity.ok(studentRankingService.getStudentStanding(nationalId, locationId));
+    }
+
+    @GetMapping("/students/{nationalId}/around")
+    public ResponseEntity<List<StudentRankingDTO>> getStudentsAround(
+            @PathVariable String nationalId,
+            @RequestParam(required = false) Long locationId,
+            @RequestParam(defaultValue = "5") int k) {
+        return ResponseEntity.ok(studentRankingService.getStudentsAround(nationalId, locationId, k));
     }
 
     @GetMapping("/top-students/location/{locationId}")
@@ -28,4 +47,11 @@ public class PublicRankingController {
             @RequestParam(defaultValue = "10") int limit) {
         return ResponseEntity.ok(studentRankingService.getTopStudentsByLocation(locationId, limit));
     }
+
+    @GetMapping("/top-students/course/{courseId}")
+    public ResponseEntity<List<StudentRankingDTO>> getTopStudentsByCourse(
+            @PathVariable Long courseId,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(studentRankingService.getTopStudentsByCourse(courseId, limit));
+    }
 }
@@ -1,10 +1,15 @@
 package com.course.app.controller;
 
 import com.course.app.dto.StudentPerformanceDTO;
+import com.course.app.entity.StudentPerformanceSnapshot;
 import com.course.app.service.PublicStudentService;
+import com.course.app.service.StudentPerformanceSnapshotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/public/students")
@@ -12,14 +17,23 @@ import org.springframework.web.bind.annotation.*;
 public class PublicStudentController {
 
     private final PublicStudentService publicStudentService;
+    private final StudentPerformanceSnapshotService studentPerformanceSnapshotService;
     
     /**
      * Get student performance details by national ID
      * This endpoint is publicly accessible for parents to check their children's performance
      */
     @GetMapping("/performance/{nationalId}")
-    public ResponseEntity<StudentPerformanceDTO> getStudentPerformance(@PathVariable String nationalId) {
-        StudentPerformanceDTO performance = publicStudentService.getStudentPerformanceByNationalId(nationalId);
-        return ResponseEntity.ok(performance);
+    public ResponseEntity<StudentPerformanceDTO> getStudentPerformance(@PathVariable String nationalId,
+                                                                       WebRequest webRequest) {
+        Optional<StudentPerformanceSnapshot> snapshot = studentPerformanceSnapshotService.findSnapshot(nationalId);
+        if (snapshot.isEmpty()) {
+            // New student whose snapshot is not built yet
+            return ResponseEntity.ok(publicStudentService.getStudentPerformanceByNationalId(nationalId));
+        }
+        if (webRequest.checkNotModified(studentPerformanceSnapshotService.etag(snapshot.get()))) {
+            return null;
+        }
+        return ResponseEntity.ok(studentPerformanceSnapshotService.read(snapshot.get()));
     }
 }
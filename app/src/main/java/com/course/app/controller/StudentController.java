@@ -13,10 +13,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.course.app.dto.StudentCreateRequest;
 import com.course.app.dto.StudentDTO;
 import com.course.app.dto.StudentUpdateRequest;
+import com.course.app.service.ResourceVersions;
 import com.course.app.service.StudentService;
 
 import jakarta.validation.Valid;
@@ -28,10 +30,11 @@ import lombok.RequiredArgsConstructor;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ResourceVersions resourceVersions;
     
     @GetMapping
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_SUPERADMIN')")
-    public ResponseEntity<List<StudentDTO>> getAllStudents() {
+    public ResponseEntity<List<StudentDTO>> getAllStudents(WebRequest webRequest) {
         System.out.println("DEBUG StudentController: getAllStudents endpoint called");
         
         // Güvenlik bağlamından mevcut kullanıcı ID'sini ve rolünü al
@@ -44,6 +47,9 @@ public class StudentController {
         // Eğer kullanıcı ADMIN ise, sadece kendi lokasyonlarındaki öğrencileri getir
         if (currentUserId != null && "ROLE_ADMIN".equals(currentUserRole)) {
             System.out.println("DEBUG StudentController: Admin user detected, calling getStudentsByAdminId");
+            if (webRequest.checkNotModified(resourceVersions.adminETag("students", currentUserId))) {
+                return null;
+            }
             List<StudentDTO> adminStudents = studentService.getStudentsByAdminId(currentUserId);
             System.out.println("DEBUG StudentController: Admin students count = " + adminStudents.size());
             return ResponseEntity.ok(adminStudents);
@@ -51,6 +57,9 @@ public class StudentController {
         
         // SUPERADMIN için tüm öğrencileri getir
         System.out.println("DEBUG StudentController: Superadmin or other role, calling getAllStudents");
+        if (webRequest.checkNotModified(resourceVersions.globalETag("students"))) {
+            return null;
+        }
         List<StudentDTO> allStudents = studentService.getAllStudents();
         System.out.println("DEBUG StudentController: All students count = " + allStudents.size());
         return ResponseEntity.ok(allStudents);
@@ -64,11 +64,20 @@ public class AdminDashboardDTO {
     
     // Nested DTO for recent activities
     public static class ActivityDTO {
-        private String type; // add, edit, create
+        private Long id; // paging cursor for older activities
+        private String type; // add, edit, create, attendance
         private String text;
         private LocalDateTime timestamp;
         private String formattedTime;
         
+        public Long getId() {
+            return id;
+        }
+        
+        public void setId(Long id) {
+            this.id = id;
+        }
+        
         public String getType() {
             return type;
         }
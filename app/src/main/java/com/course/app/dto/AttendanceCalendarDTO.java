@@ -0,0 +1,42 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceCalendarDTO {
+    private Long courseLocationId;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private long presentCount;
+    private long absentCount;
+    
+    // Only days with at least one mark, in date order
+    private List<Day> days;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private long presentCount;
+        private long absentCount;
+        private double attendanceRate;
+        private List<CourseDay> courses;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseDay {
+        private Long courseId;
+        private long presentCount;
+        private long absentCount;
+    }
+}
@@ -0,0 +1,26 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceRateDTO {
+    private Long studentId;
+    private String studentName;
+    private Long courseId;
+    private String courseName;
+    
+    // Requested period, null bounds mean open-ended
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    
+    private long totalDays;
+    private long presentDays;
+    private long absentDays;
+    private double attendanceRate;
+}
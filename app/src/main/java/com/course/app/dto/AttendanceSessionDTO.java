@@ -0,0 +1,56 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSessionDTO {
+    private Long courseId;
+    private Long courseLocationId;
+    private LocalDate attendanceDate;
+    private int rosterSize;
+    
+    // Sent back with the bitmap; see rosterVersion(Collection)
+    private String rosterVersion;
+    private List<RosterEntry> roster;
+    
+    // Base64 encoded bitmaps over the roster order
+    private String presentBitmap;
+    private String recordedBitmap;
+    
+    /**
+     * Version of a roster: a hash of its student IDs in roster order. A bitmap built for another roster of the
+     * same size (a student swapped for another) is rejected instead of marking the wrong students
+     */
+    public static String rosterVersion(Collection<Long> studentIds) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer id = ByteBuffer.allocate(Long.BYTES);
+            for (Long studentId : studentIds) {
+                digest.update(id.clear().putLong(studentId).array());
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RosterEntry {
+        private Long studentId;
+        private String studentName;
+    }
+}
@@ -0,0 +1,35 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Compact attendance payload for a whole class session.
+ * Presence is sent as a bitmap over the roster returned by the session endpoint
+ * (students of the location ordered by ID), bit i set meaning roster[i] is present.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSessionRequest {
+    private Long courseId;
+    private Long courseLocationId;
+    private LocalDate attendanceDate;
+    private String notes;
+    
+    // Number of roster entries the bitmap was built for, used to reject stale rosters
+    private Integer rosterSize;
+    
+    // rosterVersion of the roster the bitmap was built for; a changed roster is rejected even at the same size
+    private String rosterVersion;
+    
+    // Base64 encoded little-endian bitmap (java.util.BitSet#toByteArray layout), no bits past the roster
+    private String presentBitmap;
+    
+    // Per-student overrides applied on top of the bitmap
+    private List<AttendanceRequest.StudentAttendanceRecord> exceptions;
+}
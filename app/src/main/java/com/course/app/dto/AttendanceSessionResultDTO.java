@@ -0,0 +1,19 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceSessionResultDTO {
+    private int created;
+    private int updated;
+    private int unchanged;
+    
+    // Only the rows that were written
+    private List<AttendanceDTO> changedRecords;
+}
@@ -52,9 +52,9 @@ public class CourseDTO {
             dto.setCourseLocations(new ArrayList<>());
         }
         
-        // For backward compatibility
-        if (course.getCourseLocation() != null) {
-            dto.setCourseLocation(CourseLocationDTO .fromEntity(course.getCourseLocation()));
+        // For backward compatibility: the first mapped location
+        if (!dto.getCourseLocations().isEmpty()) {
+            dto.setCourseLocation(dto.getCourseLocations().get(0));
         }
         
         if (course.getCreatedBy() != null) {
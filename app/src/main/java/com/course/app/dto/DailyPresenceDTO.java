@@ -0,0 +1,19 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyPresenceDTO {
+    private LocalDate date;
+    
+    // Distinct students with a record / marked present on this day
+    private long recordedStudents;
+    private long presentStudents;
+    private long absentStudents;
+}
@@ -0,0 +1,21 @@
+package com.course.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Change of the dashboard counters since the previous snapshot or delta pushed on the dashboard stream
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardCounterDeltaDTO {
+    private int courseCount;
+    private int studentCount;
+    private int lessonCount;
+    private int noteCount;
+    private Map<Long, Integer> locationStudentCounts; // Only locations whose student count changed
+}
@@ -0,0 +1,78 @@
+package com.course.app.dto;
+
+import com.course.app.entity.LessonStats;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonStatsDTO {
+    private Long lessonId;
+    private String lessonName;
+    private LocalDate lessonDate;
+    private long noteCount;
+    private long passedCount;
+    private long scoredCount;
+    private double passRate;
+    private double meanScore;
+    private double scoreStdDev;
+    private List<ScoreBucketDTO> distribution;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScoreBucketDTO {
+        private int fromScore;
+        private Integer toScore; // Exclusive upper bound, null for the last open bucket
+        private long count;
+    }
+    
+    // Static method to convert entity to DTO
+    public static LessonStatsDTO fromEntity(LessonStats stats) {
+        if (stats == null) return null;
+        
+        LessonStatsDTO dto = new LessonStatsDTO();
+        dto.setLessonId(stats.getLessonId());
+        if (stats.getLesson() != null) {
+            dto.setLessonId(stats.getLesson().getId());
+            dto.setLessonName(stats.getLesson().getName());
+            dto.setLessonDate(stats.getLesson().getDate());
+        }
+        dto.setNoteCount(stats.getNoteCount());
+        dto.setPassedCount(stats.getPassedCount());
+        dto.setScoredCount(stats.getScoredCount());
+        
+        if (stats.getNoteCount() > 0) {
+            dto.setPassRate(round((double) stats.getPassedCount() / stats.getNoteCount() * 100));
+        }
+        
+        if (stats.getScoredCount() > 0) {
+            double mean = (double) stats.getScoreSum() / stats.getScoredCount();
+            double variance = (double) stats.getScoreSquareSum() / stats.getScoredCount() - mean * mean;
+            dto.setMeanScore(round(mean));
+            dto.setScoreStdDev(round(Math.sqrt(Math.max(variance, 0))));
+        }
+        
+        List<ScoreBucketDTO> distribution = new ArrayList<>();
+        long[] buckets = stats.getScoreBuckets();
+        for (int i = 0; i < LessonStats.BUCKET_COUNT; i++) {
+            int from = i * LessonStats.BUCKET_WIDTH;
+            Integer to = i == LessonStats.BUCKET_COUNT - 1 ? null : from + LessonStats.BUCKET_WIDTH;
+            long count = buckets != null && i < buckets.length ? buckets[i] : 0;
+            distribution.add(new ScoreBucketDTO(from, to, count));
+        }
+        dto.setDistribution(distribution);
+        
+        return dto;
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0; // Round to 2 decimal places
+    }
+}
@@ -0,0 +1,38 @@
+package com.course.app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentAttendanceSummaryDTO {
+    // Overall statistics
+    private long totalDays;
+    private long presentDays;
+    private long absentDays;
+    private double attendanceRate;
+    
+    // Statistics per course, sorted by course name
+    private List<CourseAttendance> courseAttendance;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseAttendance {
+        private Long courseId;
+        private String courseName;
+        private long totalDays;
+        private long presentDays;
+        private long absentDays;
+        private double attendanceRate;
+        
+        // Records newest first; only filled for the public performance page, admins page through them separately
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private List<AttendanceDTO> records;
+    }
+}
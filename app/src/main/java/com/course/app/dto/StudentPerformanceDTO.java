@@ -6,7 +6,6 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -44,5 +43,5 @@ public class StudentPerformanceDTO {
     private String teacherComment; // General comment about student's performance
     
     // Attendance information
-    private Map<String, Object> attendanceData; // Attendance statistics and records
+    private StudentAttendanceSummaryDTO attendanceData; // Attendance statistics and records per course
 }
@@ -17,6 +17,7 @@ public class StudentRankingDTO {
     private Double totalScore;
     private Double averageScore;
     private Integer rank;
+    private Double percentile;
     private Long courseLocationId;
     private String courseLocationName;
 }
@@ -0,0 +1,41 @@
+package com.course.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted recent-activity history, one row per (activity, location). Rows are appended in batches by
+ * the activity feed and read only for pages older than the in-memory feed.
+ */
+@Entity
+@Table(name = "activity_log",
+       indexes = @Index(name = "idx_activity_log_location_activity", columnList = "course_location_id, activity_id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "activity_id", nullable = false)
+    private Long activityId;
+
+    @Column(name = "course_location_id", nullable = false)
+    private Long courseLocationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "activity_type", nullable = false, length = 32)
+    private ActivityType activityType;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,21 @@
+package com.course.app.entity;
+
+/**
+ * Kinds of recent-activity entries; the dashboard type selects the icon shown by the admin frontend
+ */
+public enum ActivityType {
+    STUDENT_CREATED("add"),
+    NOTE_GRADED("edit"),
+    COURSE_CREATED("create"),
+    ATTENDANCE_TAKEN("attendance");
+
+    private final String dashboardType;
+
+    ActivityType(String dashboardType) {
+        this.dashboardType = dashboardType;
+    }
+
+    public String getDashboardType() {
+        return dashboardType;
+    }
+}
@@ -11,25 +11,35 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(EntityWriteListener.class)
 @Table(name = "attendances")
+@NamedEntityGraph(name = Attendance.WITH_REFERENCES, attributeNodes = {
+        @NamedAttributeNode("student"),
+        @NamedAttributeNode("course"),
+        @NamedAttributeNode("courseLocation"),
+        @NamedAttributeNode("createdBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Attendance {
+
+    /** Attendance lists rendered as AttendanceDTO */
+    public static final String WITH_REFERENCES = "Attendance.withReferences";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id")
     private Student student;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     private Course course;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_location_id")
     private CourseLocation courseLocation;
     
@@ -40,7 +50,7 @@ public class Attendance {
     @Column(columnDefinition = "TEXT")
     private String notes;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id")
     private User createdBy;
     
@@ -0,0 +1,44 @@
+package com.course.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read model with the number of present and absent marks of a course at a location on a day.
+ * Rows are maintained by deltas from the attendance write path, so calendars never scan attendances.
+ */
+@Entity
+@Table(name = "attendance_daily_aggregates",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"course_location_id", "course_id", "attendance_date"}),
+       indexes = @Index(name = "idx_attendance_daily_aggregates_location_date", columnList = "course_location_id, attendance_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDailyAggregate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "course_location_id", nullable = false)
+    private Long courseLocationId;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "attendance_date", nullable = false)
+    private LocalDate attendanceDate;
+
+    private long presentCount;
+
+    private long absentCount;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
@@ -1,9 +1,12 @@
 package com.course.app.entity;
 
+import com.course.app.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -13,11 +16,20 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(EntityWriteListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.COURSE)
 @Table(name = "courses")
+@NamedEntityGraph(name = Course.WITH_LOCATIONS, attributeNodes = {
+        @NamedAttributeNode("courseLocations"),
+        @NamedAttributeNode("createdBy")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Course {
+
+    /** Course lists rendered as CourseDTO; location admins are batch fetched */
+    public static final String WITH_LOCATIONS = "Course.withLocations";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,19 +51,22 @@ public class Course {
     
     // Relations
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.COURSE_LOCATIONS)
     @JoinTable(
         name = "course_locations_mapping",
         joinColumns = @JoinColumn(name = "course_id"),
-        inverseJoinColumns = @JoinColumn(name = "location_id")
+        inverseJoinColumns = @JoinColumn(name = "location_id"),
+        indexes = @Index(name = "idx_course_locations_mapping_location_course", columnList = "location_id, course_id")
     )
     private List<CourseLocation> courseLocations = new ArrayList<>();
     
-    // For backward compatibility during transition
-    @ManyToOne
+    // Legacy primary location: still written so older builds keep working, never read.
+    // Migration V8 copied it into course_locations_mapping.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_location_id")
     private CourseLocation courseLocation;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id")
     private User createdBy;
     
@@ -1,9 +1,12 @@
 package com.course.app.entity;
 
+import com.course.app.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(EntityWriteListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.COURSE_LOCATION)
 @Table(name = "course_locations")
 @Data
 @NoArgsConstructor
@@ -35,6 +40,7 @@ public class CourseLocation {
     private LocalDateTime updatedAt;
     
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.COURSE_LOCATION_ADMINS)
     @JoinTable(
         name = "course_location_admins",
         joinColumns = @JoinColumn(name = "location_id"),
@@ -46,10 +52,6 @@ public class CourseLocation {
     @ManyToMany(mappedBy = "courseLocations")
     private List<Course> courses = new ArrayList<>();
     
-    // For backward compatibility during transition
-    @OneToMany(mappedBy = "courseLocation")
-    private List<Course> legacyCourses;
-    
     @OneToMany(mappedBy = "courseLocation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<StudentCourseLocation> students = new ArrayList<>();
 }
@@ -0,0 +1,28 @@
+package com.course.app.entity;
+
+import com.course.app.event.EntityWrittenEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that publishes an {@link EntityWrittenEvent} for every write of the entities it is
+ * attached to, so the bookkeeping of a write lives in the services without the entities depending on them.
+ * Created by Hibernate through Spring's bean container.
+ */
+public class EntityWriteListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityWriteListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        eventPublisher.publishEvent(new EntityWrittenEvent(entity));
+    }
+}
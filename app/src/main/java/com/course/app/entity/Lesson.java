@@ -1,9 +1,12 @@
 package com.course.app.entity;
 
+import com.course.app.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,11 +15,22 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "lessons")
+@EntityListeners(EntityWriteListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.LESSON)
+@Table(name = "lessons",
+       indexes = @Index(name = "idx_lessons_course", columnList = "course_id, id"))
+@NamedEntityGraph(name = Lesson.WITH_COURSE, attributeNodes = {
+        @NamedAttributeNode(value = "course", subgraph = "course")
+}, subgraphs = {
+        @NamedSubgraph(name = "course", attributeNodes = @NamedAttributeNode("createdBy"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Lesson {
+
+    /** Lesson lists rendered as LessonDTO with their course */
+    public static final String WITH_COURSE = "Lesson.withCourse";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -37,11 +51,11 @@ public class Lesson {
     private LocalDateTime updatedAt;
     
     // Relations
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     private Course course;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by_id")
     private User createdBy;
     
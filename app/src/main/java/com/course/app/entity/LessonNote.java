@@ -11,11 +11,24 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "lesson_notes")
+@EntityListeners(EntityWriteListener.class)
+// Covers the per-course and per-location ranking aggregates: lesson -> (student, score) without heap reads
+@Table(name = "lesson_notes",
+       indexes = @Index(name = "idx_lesson_notes_lesson_student_score", columnList = "lesson_id, student_id, score"))
+@NamedEntityGraph(name = LessonNote.WITH_STUDENT_AND_LESSON, attributeNodes = {
+        @NamedAttributeNode(value = "student", subgraph = "student"),
+        @NamedAttributeNode(value = "lesson", subgraph = "lesson")
+}, subgraphs = {
+        @NamedSubgraph(name = "student", attributeNodes = @NamedAttributeNode("user")),
+        @NamedSubgraph(name = "lesson", attributeNodes = @NamedAttributeNode("course"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class LessonNote {
+
+    /** Lesson note lists rendered as LessonNoteDTO with their student and lesson */
+    public static final String WITH_STUDENT_AND_LESSON = "LessonNote.withStudentAndLesson";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,11 +47,11 @@ public class LessonNote {
     private LocalDateTime updatedAt;
     
     // Relations
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id")
     private Student student;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lesson_id")
     private Lesson lesson;
     
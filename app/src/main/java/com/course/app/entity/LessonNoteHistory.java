@@ -11,10 +11,14 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "lesson_note_histories")
+@NamedEntityGraph(name = LessonNoteHistory.WITH_MODIFIED_BY, attributeNodes = @NamedAttributeNode("modifiedBy"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class LessonNoteHistory {
+
+    /** History lists rendered as LessonNoteHistoryDTO */
+    public static final String WITH_MODIFIED_BY = "LessonNoteHistory.withModifiedBy";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,11 +39,11 @@ public class LessonNoteHistory {
     private LocalDateTime updatedAt;
     
     // Relations
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lesson_note_id")
     private LessonNote lessonNote;
     
-    @ManyToOne(optional = true)
+    @ManyToOne(fetch = FetchType.LAZY, optional = true)
     @JoinColumn(name = "modified_by_id", nullable = true)
     private User modifiedBy;
 }
@@ -0,0 +1,77 @@
+package com.course.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model with running aggregates of the notes of a single lesson.
+ * Rows are maintained by deltas from the note write paths, so reading the
+ * statistics of a lesson never touches lesson_notes.
+ */
+@Entity
+@Table(name = "lesson_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LessonStats {
+
+    /** Width of a score bucket; scores are expected in the 0-100 range */
+    public static final int BUCKET_WIDTH = 10;
+
+    /** Number of buckets; the last one also holds scores of 100 and above */
+    public static final int BUCKET_COUNT = 10;
+
+    @Id
+    private Long lessonId;
+
+    private long noteCount;
+
+    private long passedCount;
+
+    private long scoredCount;
+
+    private long scoreSum;
+
+    private long scoreSquareSum;
+
+    private long[] scoreBuckets = new long[BUCKET_COUNT];
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+
+    // Relations
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "lesson_id")
+    private Lesson lesson;
+
+    /**
+     * Add (sign = 1) or remove (sign = -1) a single note from the aggregates
+     */
+    public void apply(Integer score, Boolean passed, int sign) {
+        noteCount += sign;
+        if (Boolean.TRUE.equals(passed)) {
+            passedCount += sign;
+        }
+        if (score != null) {
+            scoredCount += sign;
+            scoreSum += (long) sign * score;
+            scoreSquareSum += (long) sign * score * score;
+            long[] buckets = scoreBuckets.clone();
+            buckets[bucketOf(score)] += sign;
+            scoreBuckets = buckets;
+        }
+    }
+
+    public static int bucketOf(int score) {
+        if (score < 0) {
+            return 0;
+        }
+        return Math.min(score / BUCKET_WIDTH, BUCKET_COUNT - 1);
+    }
+}
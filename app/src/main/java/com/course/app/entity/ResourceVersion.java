@@ -0,0 +1,25 @@
+package com.course.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ETag version of one scope of the large read endpoints: the catalog, a location, or the students without a
+ * location. Bumped with plain SQL in the transaction of every write, see ResourceVersions.
+ */
+@Entity
+@Table(name = "resource_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersion {
+
+    @Id
+    @Column(length = 64)
+    private String scope;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -13,11 +13,21 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(EntityWriteListener.class)
 @Table(name = "students")
+@NamedEntityGraph(name = Student.WITH_LOCATIONS, attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode(value = "courseLocations", subgraph = "courseLocations")
+}, subgraphs = {
+        @NamedSubgraph(name = "courseLocations", attributeNodes = @NamedAttributeNode("courseLocation"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Student {
+
+    /** Student lists rendered as StudentDTO with their locations; location admins are batch fetched */
+    public static final String WITH_LOCATIONS = "Student.withLocations";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -52,7 +62,7 @@ public class Student {
     private LocalDateTime updatedAt;
     
     // Relations
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
     
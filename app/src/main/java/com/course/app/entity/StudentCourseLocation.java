@@ -10,21 +10,31 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "student_course_locations")
+@EntityListeners(EntityWriteListener.class)
+@Table(name = "student_course_locations",
+       indexes = @Index(name = "idx_student_course_locations_location_student", columnList = "course_location_id, student_id"))
+@NamedEntityGraph(name = StudentCourseLocation.WITH_STUDENT, attributeNodes = {
+        @NamedAttributeNode(value = "student", subgraph = "student")
+}, subgraphs = {
+        @NamedSubgraph(name = "student", attributeNodes = @NamedAttributeNode("user"))
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StudentCourseLocation {
+
+    /** Location rosters rendered as StudentDTO */
+    public static final String WITH_STUDENT = "StudentCourseLocation.withStudent";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id")
     private Student student;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_location_id")
     private CourseLocation courseLocation;
     
@@ -0,0 +1,44 @@
+package com.course.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model with the public performance page of a single student: summary, courses with their lessons,
+ * notes and attendance aggregates, serialized as the StudentPerformanceDTO JSON.
+ * Rows are rebuilt in the background whenever something on the page changes, so the public endpoint reads
+ * one row by national ID instead of walking locations, courses, notes and attendances.
+ */
+@Entity
+@Table(name = "student_performance_snapshot")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentPerformanceSnapshot {
+
+    /** Bumped when the page changes shape; snapshots of an older format are rebuilt at startup */
+    public static final int FORMAT_VERSION = 1;
+
+    @Id
+    private Long studentId;
+
+    @Column(nullable = false, unique = true)
+    private String nationalId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    private int formatVersion;
+
+    /** Incremented by every rebuild that changed the payload; part of the page's ETag */
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    private LocalDateTime updatedAt;
+}
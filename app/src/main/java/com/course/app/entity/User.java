@@ -1,9 +1,12 @@
 package com.course.app.entity;
 
+import com.course.app.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -11,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -46,9 +50,8 @@ public class User {
     private LocalDateTime lastLoginAt;
     
     // Relations
-    @OneToOne(mappedBy = "user")
-    private Student student;
-    
+    // The student of a user account is looked up through StudentRepository.findByUserId; an inverse
+    // one-to-one here could not be lazy and cost one select per loaded user.
     @OneToMany(mappedBy = "createdBy")
     private List<Course> courses;
     
@@ -0,0 +1,39 @@
+package com.course.app.event;
+
+import com.course.app.entity.ActivityType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Domain event published by the write services for the recent-activity feed. It is recorded for every
+ * listed location once the publishing transaction commits.
+ */
+public record ActivityEvent(ActivityType type, String message, Set<Long> locationIds, LocalDateTime occurredAt) {
+
+    public static ActivityEvent studentCreated(String firstName, String lastName, Collection<Long> locationIds) {
+        return of(ActivityType.STUDENT_CREATED, "Yeni öğrenci eklendi: " + firstName + " " + lastName, locationIds);
+    }
+
+    public static ActivityEvent noteGraded(boolean created, String studentName, String lessonName, Integer score,
+                                           Collection<Long> locationIds) {
+        String message = (created ? "Ders notu girildi: " : "Ders notu güncellendi: ") + lessonName + " - "
+                + studentName + (score != null ? " (" + score + ")" : "");
+        return of(ActivityType.NOTE_GRADED, message, locationIds);
+    }
+
+    public static ActivityEvent courseCreated(String courseName, Collection<Long> locationIds) {
+        return of(ActivityType.COURSE_CREATED, "Yeni kurs oluşturuldu: " + courseName, locationIds);
+    }
+
+    public static ActivityEvent attendanceTaken(String courseName, String date, long present, long total,
+                                                Long locationId) {
+        return of(ActivityType.ATTENDANCE_TAKEN, "Yoklama alındı: " + courseName + " " + date + " ("
+                + present + "/" + total + " mevcut)", Set.of(locationId));
+    }
+
+    private static ActivityEvent of(ActivityType type, String message, Collection<Long> locationIds) {
+        return new ActivityEvent(type, message, Set.copyOf(locationIds), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,8 @@
+package com.course.app.event;
+
+/**
+ * Published by {@link com.course.app.entity.EntityWriteListener} for every entity Hibernate inserts, updates or
+ * deletes. It is delivered synchronously inside the flush, so listeners must not use the EntityManager.
+ */
+public record EntityWrittenEvent(Object entity) {
+}
@@ -0,0 +1,35 @@
+package com.course.app.repository;
+
+import com.course.app.entity.ActivityLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ActivityLogRepository extends JpaRepository<ActivityLog, Long> {
+
+    /**
+     * Latest activities of the given locations, newest first, one row per (activity, location):
+     * activity ID, location ID, type, message, occurred at
+     */
+    @Query(value = "SELECT a.activity_id, a.course_location_id, a.activity_type, a.message, a.occurred_at " +
+            "FROM (SELECT l.*, ROW_NUMBER() OVER (PARTITION BY l.course_location_id ORDER BY l.activity_id DESC) AS position " +
+            "FROM activity_log l) a " +
+            "WHERE a.position <= :perLocation ORDER BY a.activity_id", nativeQuery = true)
+    List<Object[]> findLatestPerLocation(@Param("perLocation") int perLocation);
+
+    /**
+     * A page of the activities of the given locations older than an activity ID, newest first:
+     * activity ID, type, message, occurred at
+     */
+    @Query(value = "SELECT DISTINCT a.activity_id, a.activity_type, a.message, a.occurred_at FROM activity_log a " +
+            "WHERE a.course_location_id IN (:locationIds) AND a.activity_id < :beforeId " +
+            "ORDER BY a.activity_id DESC LIMIT :size", nativeQuery = true)
+    List<Object[]> findPageBefore(@Param("locationIds") Collection<Long> locationIds,
+                                  @Param("beforeId") long beforeId,
+                                  @Param("size") int size);
+}
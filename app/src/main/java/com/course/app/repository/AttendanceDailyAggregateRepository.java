@@ -0,0 +1,42 @@
+package com.course.app.repository;
+
+import com.course.app.entity.AttendanceDailyAggregate;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AttendanceDailyAggregateRepository extends JpaRepository<AttendanceDailyAggregate, Long> {
+
+    /**
+     * Find and lock the aggregate of a course at a location on a day so concurrent deltas serialize
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM AttendanceDailyAggregate d WHERE d.courseLocationId = :locationId " +
+           "AND d.courseId = :courseId AND d.attendanceDate = :date")
+    Optional<AttendanceDailyAggregate> findForUpdate(@Param("locationId") Long locationId,
+                                                     @Param("courseId") Long courseId,
+                                                     @Param("date") LocalDate date);
+
+    /**
+     * Insert an empty aggregate of a course at a location on a day unless it exists. Transactions writing the
+     * first marks of the same day wait for each other here instead of failing on the unique key
+     */
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_aggregates (course_location_id, course_id, attendance_date, " +
+            "present_count, absent_count, updated_at) VALUES (:locationId, :courseId, :date, 0, 0, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("locationId") Long locationId,
+                       @Param("courseId") Long courseId,
+                       @Param("date") LocalDate date);
+
+    List<AttendanceDailyAggregate> findByCourseLocationIdOrderByAttendanceDateAscCourseIdAsc(Long courseLocationId);
+}
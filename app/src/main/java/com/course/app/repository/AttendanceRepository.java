@@ -4,6 +4,9 @@ import com.course.app.entity.Attendance;
 import com.course.app.entity.Course;
 import com.course.app.entity.CourseLocation;
 import com.course.app.entity.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,24 +21,65 @@ public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
     
     List<Attendance> findByCourseAndAttendanceDate(Course course, LocalDate attendanceDate);
     
+    @EntityGraph(Attendance.WITH_REFERENCES)
     List<Attendance> findByCourseLocationAndAttendanceDate(CourseLocation courseLocation, LocalDate attendanceDate);
     
     List<Attendance> findByStudentAndAttendanceDateBetween(Student student, LocalDate startDate, LocalDate endDate);
     
     Optional<Attendance> findByStudentAndCourseAndAttendanceDate(Student student, Course course, LocalDate attendanceDate);
     
+    @EntityGraph(Attendance.WITH_REFERENCES)
     @Query("SELECT a FROM Attendance a WHERE a.courseLocation.id IN :locationIds AND a.attendanceDate = :date")
     List<Attendance> findByLocationIdsAndDate(@Param("locationIds") List<Long> locationIds, @Param("date") LocalDate date);
     
-    @Query("SELECT DISTINCT a.attendanceDate FROM Attendance a WHERE a.courseLocation.id IN :locationIds ORDER BY a.attendanceDate DESC")
-    List<LocalDate> findDistinctAttendanceDatesByLocationIds(@Param("locationIds") List<Long> locationIds);
-    
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student.id = :studentId AND a.isPresent = true")
     Long countPresentDaysByStudentId(@Param("studentId") Long studentId);
     
     @Query("SELECT COUNT(a) FROM Attendance a WHERE a.student.id = :studentId AND a.isPresent = false")
     Long countAbsentDaysByStudentId(@Param("studentId") Long studentId);
     
-    @Query("SELECT a FROM Attendance a WHERE a.student.id = :studentId ORDER BY a.attendanceDate DESC")
-    List<Attendance> findByStudentId(@Param("studentId") Long studentId);
+    /**
+     * Count the recorded and present days of a student per course: (courseId, courseName, total, present)
+     */
+    @Query("SELECT c.id, c.name, COUNT(a), SUM(CASE WHEN a.isPresent = true THEN 1 ELSE 0 END) " +
+           "FROM Attendance a JOIN a.course c WHERE a.student.id = :studentId " +
+           "GROUP BY c.id, c.name ORDER BY c.name")
+    List<Object[]> summarizeByStudentIdGroupByCourse(@Param("studentId") Long studentId);
+    
+    /**
+     * Find all attendance records of a student with their associations, newest first
+     */
+    @EntityGraph(Attendance.WITH_REFERENCES)
+    List<Attendance> findByStudentIdOrderByAttendanceDateDescIdAsc(Long studentId);
+    
+    /**
+     * Find one page of the attendance records of a student between two dates with their associations
+     */
+    @EntityGraph(Attendance.WITH_REFERENCES)
+    Page<Attendance> findByStudentIdAndAttendanceDateBetween(Long studentId, LocalDate startDate, LocalDate endDate,
+                                                            Pageable pageable);
+    
+    /**
+     * Find the attendance records of a course on a date for the students of a location
+     */
+    @Query("SELECT a FROM Attendance a WHERE a.course.id = :courseId AND a.attendanceDate = :date " +
+           "AND a.student.id IN (SELECT scl.student.id FROM StudentCourseLocation scl WHERE scl.courseLocation.id = :locationId)")
+    List<Attendance> findSessionRecords(@Param("courseId") Long courseId,
+                                        @Param("locationId") Long locationId,
+                                        @Param("date") LocalDate date);
+    
+    /**
+     * Load the columns the attendance bitmap index is built from
+     */
+    @Query("SELECT a.student.id, a.course.id, a.courseLocation.id, a.attendanceDate, a.isPresent FROM Attendance a")
+    List<Object[]> findIndexRows();
+    
+    /**
+     * Count present and absent marks per location, course and day: (locationId, courseId, date, present, absent)
+     */
+    @Query("SELECT a.courseLocation.id, a.course.id, a.attendanceDate, " +
+           "SUM(CASE WHEN a.isPresent = true THEN 1 ELSE 0 END), SUM(CASE WHEN a.isPresent = true THEN 0 ELSE 1 END) " +
+           "FROM Attendance a WHERE a.courseLocation IS NOT NULL AND a.course IS NOT NULL " +
+           "GROUP BY a.courseLocation.id, a.course.id, a.attendanceDate")
+    List<Object[]> summarizeByLocationCourseAndDate();
 }
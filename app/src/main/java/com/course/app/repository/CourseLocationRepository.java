@@ -1,12 +1,15 @@
 package com.course.app.repository;
 
 import com.course.app.entity.CourseLocation;
+import com.course.app.entity.Role;
 import com.course.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +23,64 @@ public interface CourseLocationRepository extends JpaRepository<CourseLocation,
     @Query("SELECT cl FROM CourseLocation cl JOIN cl.admins a WHERE a.id = :adminId")
     List<CourseLocation> findAllByAdminId(@Param("adminId") Long adminId);
     
-    List<CourseLocation> findByAdminsContaining(User admin);
+    /**
+     * Locations of an admin, through the join table's user_id index rather than a membership test per location
+     */
+    @Query("SELECT cl FROM CourseLocation cl JOIN cl.admins a WHERE a = :admin")
+    List<CourseLocation> findByAdminsContaining(@Param("admin") User admin);
+    
+    @Query("SELECT cl.id FROM CourseLocation cl JOIN cl.admins a WHERE a.id = :adminId")
+    List<Long> findIdsByAdminId(@Param("adminId") Long adminId);
+    
+    /**
+     * Whether a user is an admin of a location, read from the join table rather than the cached admins collection
+     */
+    @Query("SELECT COUNT(a) > 0 FROM CourseLocation cl JOIN cl.admins a WHERE cl.id = :locationId AND a.id = :adminId")
+    boolean isAdminOfLocation(@Param("locationId") Long locationId, @Param("adminId") Long adminId);
+    
+    @Query("SELECT cl.id FROM Course c JOIN c.courseLocations cl WHERE c.id = :courseId")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId);
+    
+    /**
+     * Load location summaries with their admins as scalars, one row per (location, admin)
+     */
+    @Query("SELECT cl.id AS id, cl.name AS name, cl.address AS address, cl.phone AS phone, " +
+           "cl.createdAt AS createdAt, cl.updatedAt AS updatedAt, a.id AS adminId, a.username AS adminUsername, " +
+           "a.role AS adminRole, a.firstName AS adminFirstName, a.lastName AS adminLastName, a.phone AS adminPhone " +
+           "FROM CourseLocation cl LEFT JOIN cl.admins a WHERE cl.id IN :ids ORDER BY cl.id, a.id")
+    List<LocationSummaryRow> findSummaryRowsWithAdminsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Location summary row; the admin columns are null for locations without admins
+     */
+    interface LocationSummaryRow {
+        Long getId();
+        String getName();
+        String getAddress();
+        String getPhone();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getAdminId();
+        String getAdminUsername();
+        Role getAdminRole();
+        String getAdminFirstName();
+        String getAdminLastName();
+        String getAdminPhone();
+    }
+    
+    /**
+     * Dashboard counts of every location of an admin in one statement, one row per location:
+     * id, name, address, phone, student count, lesson count, lesson note count
+     */
+    @Query(value = "SELECT cl.id, cl.name, cl.address, cl.phone, " +
+           "(SELECT COUNT(*) FROM student_course_locations scl WHERE scl.course_location_id = cl.id), " +
+           "(SELECT COUNT(*) FROM course_locations_mapping clm " +
+           "JOIN lessons l ON l.course_id = clm.course_id WHERE clm.location_id = cl.id), " +
+           "(SELECT COUNT(*) FROM course_locations_mapping clm " +
+           "JOIN lessons l ON l.course_id = clm.course_id " +
+           "JOIN lesson_notes ln ON ln.lesson_id = l.id WHERE clm.location_id = cl.id) " +
+           "FROM course_locations cl " +
+           "JOIN course_location_admins cla ON cla.location_id = cl.id " +
+           "WHERE cla.user_id = :adminId ORDER BY cl.id", nativeQuery = true)
+    List<Object[]> findDashboardCountsByAdminId(@Param("adminId") Long adminId);
 }
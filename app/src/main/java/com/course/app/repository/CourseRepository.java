@@ -2,19 +2,79 @@ package com.course.app.repository;
 
 import com.course.app.entity.Course;
 import com.course.app.entity.CourseLocation;
+import com.course.app.entity.Role;
 import com.course.app.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
-    // Legacy methods for backward compatibility
-    List<Course> findByCourseLocation(CourseLocation courseLocation);
     List<Course> findByCreatedBy(User createdBy);
-    List<Course> findByCourseLocationIn(List<CourseLocation> courseLocations);
     
-    // New methods for multi-location support
-    List<Course> findByCourseLocationsContaining(CourseLocation location);
+    @Override
+    @EntityGraph(Course.WITH_LOCATIONS)
+    List<Course> findAll();
+    
+    /**
+     * Courses of a location with their locations, through the mapping table's location_id index rather than a
+     * membership test per course
+     */
+    @EntityGraph(Course.WITH_LOCATIONS)
+    @Query("SELECT c FROM Course c WHERE c.id IN (SELECT c2.id FROM Course c2 JOIN c2.courseLocations cl " +
+           "WHERE cl = :location)")
+    List<Course> findByCourseLocationsContaining(@Param("location") CourseLocation location);
+    
+    /**
+     * Find the distinct courses mapped to any of the given locations with their lessons
+     */
+    @Query("SELECT DISTINCT c FROM Course c LEFT JOIN FETCH c.lessons " +
+           "WHERE c.id IN (SELECT c2.id FROM Course c2 JOIN c2.courseLocations cl WHERE cl.id IN :locationIds)")
+    List<Course> findWithLessonsByLocationIds(@Param("locationIds") Collection<Long> locationIds);
+    
+    /**
+     * Find the courses of the given locations through the mapping table, one row per (course, mapped location)
+     */
+    @Query("SELECT DISTINCT c.id AS id, c.name AS name, c.description AS description, c.startDate AS startDate, " +
+           "c.endDate AS endDate, c.createdAt AS createdAt, c.updatedAt AS updatedAt, " +
+           "mapped.id AS mappedLocationId, cb.id AS creatorId, cb.username AS creatorUsername, " +
+           "cb.role AS creatorRole, cb.firstName AS creatorFirstName, cb.lastName AS creatorLastName, " +
+           "cb.phone AS creatorPhone " +
+           "FROM Course c JOIN c.courseLocations mapped LEFT JOIN c.createdBy cb " +
+           "WHERE c.id IN (SELECT c2.id FROM Course c2 JOIN c2.courseLocations l2 WHERE l2.id IN :locationIds) " +
+           "ORDER BY c.id, mapped.id")
+    List<CourseListingRow> findListingRowsByLocationIds(@Param("locationIds") List<Long> locationIds);
+    
+    /**
+     * Course listing row; the creator columns are null for courses without a creator
+     */
+    interface CourseListingRow {
+        Long getId();
+        String getName();
+        String getDescription();
+        LocalDate getStartDate();
+        LocalDate getEndDate();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+        Long getMappedLocationId();
+        Long getCreatorId();
+        String getCreatorUsername();
+        Role getCreatorRole();
+        String getCreatorFirstName();
+        String getCreatorLastName();
+        String getCreatorPhone();
+    }
+    
+    /**
+     * IDs of the courses mapped to any location of an admin
+     */
+    @Query("SELECT DISTINCT c.id FROM Course c JOIN c.courseLocations cl JOIN cl.admins a WHERE a.id = :adminId")
+    List<Long> findIdsByAdminId(@Param("adminId") Long adminId);
 }
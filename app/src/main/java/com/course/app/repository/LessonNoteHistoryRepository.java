@@ -1,9 +1,11 @@
 package com.course.app.repository;
 
 import com.course.app.entity.LessonNoteHistory;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -27,8 +29,15 @@ public interface LessonNoteHistoryRepository extends JpaRepository<LessonNoteHis
     /**
      * Find all history entries for a specific lesson note ordered by change date descending
      */
+    @EntityGraph(LessonNoteHistory.WITH_MODIFIED_BY)
     List<LessonNoteHistory> findByLessonNoteIdOrderByChangeDateDesc(Long lessonNoteId);
     
+    /**
+     * Find all history entries of the given lesson notes ordered by change date descending
+     */
+    @EntityGraph(LessonNoteHistory.WITH_MODIFIED_BY)
+    List<LessonNoteHistory> findByLessonNoteIdInOrderByChangeDateDesc(Collection<Long> lessonNoteIds);
+    
     /**
      * Count history entries for a specific lesson note
      */
@@ -1,11 +1,13 @@
 package com.course.app.repository;
 
 import com.course.app.entity.LessonNote;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,14 +18,29 @@ public interface LessonNoteRepository extends JpaRepository<LessonNote, Long> {
      */
     void deleteByStudentId(Long studentId);
     
+    /**
+     * Find all lesson notes with their student and lesson
+     */
+    @Override
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
+    List<LessonNote> findAll();
+    
     /**
      * Find all lesson notes for a specific student
      */
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
     List<LessonNote> findByStudentId(Long studentId);
     
+    /**
+     * Find all lesson notes of the given students
+     */
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
+    List<LessonNote> findByStudentIdIn(Collection<Long> studentIds);
+    
     /**
      * Find all lesson notes for a specific lesson
      */
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
     List<LessonNote> findByLessonId(Long lessonId);
     
     /**
@@ -32,9 +49,11 @@ public interface LessonNoteRepository extends JpaRepository<LessonNote, Long> {
     LessonNote findByStudentIdAndLessonId(Long studentId, Long lessonId);
     
     /**
-     * Find all lesson notes for a specific course (via lesson's course)
+     * Find all lesson notes for a specific course (via lesson's course), looked up by the lessons of the course
      */
-    List<LessonNote> findByLessonCourseId(Long courseId);
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
+    @Query("SELECT ln FROM LessonNote ln WHERE ln.lesson.id IN (SELECT l.id FROM Lesson l WHERE l.course.id = :courseId)")
+    List<LessonNote> findByLessonCourseId(@Param("courseId") Long courseId);
     
     /**
      * Count lesson notes by lesson ID
@@ -49,11 +68,13 @@ public interface LessonNoteRepository extends JpaRepository<LessonNote, Long> {
     /**
      * Find all passed lesson notes for a student
      */
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
     List<LessonNote> findByStudentIdAndPassedTrue(Long studentId);
     
     /**
      * Find all failed lesson notes for a student
      */
+    @EntityGraph(LessonNote.WITH_STUDENT_AND_LESSON)
     List<LessonNote> findByStudentIdAndPassedFalse(Long studentId);
     
     /**
@@ -61,6 +82,14 @@ public interface LessonNoteRepository extends JpaRepository<LessonNote, Long> {
      * @param locationId Location ID
      * @return Number of lesson notes in the location
      */
-    @Query("SELECT COUNT(ln) FROM LessonNote ln WHERE ln.lesson.course.courseLocation.id = :locationId")
+    @Query("SELECT COUNT(ln) FROM LessonNote ln JOIN ln.lesson.course.courseLocations cl WHERE cl.id = :locationId")
     int countByLocationId(@Param("locationId") Long locationId);
+    
+    /**
+     * Find the score and passed flag of every note of a lesson
+     * @param lessonId Lesson ID
+     * @return Rows of [score, passed]
+     */
+    @Query("SELECT ln.score, ln.passed FROM LessonNote ln WHERE ln.lesson.id = :lessonId")
+    List<Object[]> findScoresByLessonId(@Param("lessonId") Long lessonId);
 }
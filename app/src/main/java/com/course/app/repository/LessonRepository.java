@@ -1,6 +1,7 @@
 package com.course.app.repository;
 
 import com.course.app.entity.Lesson;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,10 +12,17 @@ import java.util.List;
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
     
+    // Find all lessons with their course
+    @Override
+    @EntityGraph(Lesson.WITH_COURSE)
+    List<Lesson> findAll();
+    
     // Find lessons by course ID
+    @EntityGraph(Lesson.WITH_COURSE)
     List<Lesson> findByCourseId(Long courseId);
     
     // Find lessons by course ID and order by date
+    @EntityGraph(Lesson.WITH_COURSE)
     List<Lesson> findByCourseIdOrderByDateAsc(Long courseId);
     
     // Count lessons by course ID
@@ -25,6 +33,13 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
      * @param locationId Location ID
      * @return Number of lessons in the location
      */
-    @Query("SELECT COUNT(l) FROM Lesson l WHERE l.course.courseLocation.id = :locationId")
+    @Query("SELECT COUNT(l) FROM Lesson l JOIN l.course.courseLocations cl WHERE cl.id = :locationId")
     int countByLocationId(@Param("locationId") Long locationId);
+    
+    /**
+     * Find lessons that do not have a lesson_stats row yet
+     * @return Lessons without statistics
+     */
+    @Query("SELECT l FROM Lesson l WHERE NOT EXISTS (SELECT s FROM LessonStats s WHERE s.lessonId = l.id)")
+    List<Lesson> findLessonsWithoutStats();
 }
@@ -0,0 +1,41 @@
+package com.course.app.repository;
+
+import com.course.app.entity.LessonStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LessonStatsRepository extends JpaRepository<LessonStats, Long> {
+
+    /**
+     * Find the statistics row of a lesson and lock it so concurrent deltas do not overwrite each other
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM LessonStats s WHERE s.lessonId = :lessonId")
+    Optional<LessonStats> findByLessonIdForUpdate(@Param("lessonId") Long lessonId);
+
+    /**
+     * Insert an empty statistics row (score buckets unset) for an existing lesson unless it already has one.
+     * Concurrent writers of the same lesson wait for each other here instead of failing on the primary key;
+     * returns 1 when this call created the row
+     */
+    @Modifying
+    @Query(value = "INSERT INTO lesson_stats (lesson_id, note_count, passed_count, scored_count, score_sum, " +
+            "score_square_sum, updated_at) SELECT l.id, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP FROM lessons l " +
+            "WHERE l.id = :lessonId ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("lessonId") Long lessonId);
+
+    /**
+     * Find the statistics of every lesson of a course together with the lesson itself
+     */
+    @Query("SELECT s FROM LessonStats s JOIN FETCH s.lesson l WHERE l.course.id = :courseId ORDER BY l.date ASC")
+    List<LessonStats> findByCourseId(@Param("courseId") Long courseId);
+}
@@ -0,0 +1,32 @@
+package com.course.app.repository;
+
+import com.course.app.entity.ResourceVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ResourceVersionRepository extends JpaRepository<ResourceVersion, String> {
+
+    /**
+     * Version of one scope, read without loading the entity
+     */
+    interface VersionRow {
+        String getScope();
+
+        long getVersion();
+    }
+
+    @Query("SELECT r.scope AS scope, r.version AS version FROM ResourceVersion r WHERE r.scope IN :scopes")
+    List<VersionRow> findVersions(@Param("scopes") Collection<String> scopes);
+
+    /**
+     * Sum of all versions, which grows with every bump of any scope
+     */
+    @Query("SELECT COALESCE(SUM(r.version), 0) FROM ResourceVersion r")
+    long sumVersions();
+}
@@ -3,11 +3,13 @@ package com.course.app.repository;
 import com.course.app.entity.CourseLocation;
 import com.course.app.entity.Student;
 import com.course.app.entity.StudentCourseLocation;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +18,7 @@ public interface StudentCourseLocationRepository extends JpaRepository<StudentCo
     
     List<StudentCourseLocation> findByStudent(Student student);
     
+    @EntityGraph(StudentCourseLocation.WITH_STUDENT)
     List<StudentCourseLocation> findByCourseLocation(CourseLocation courseLocation);
     
     Optional<StudentCourseLocation> findByStudentAndCourseLocation(Student student, CourseLocation courseLocation);
@@ -30,11 +33,39 @@ public interface StudentCourseLocationRepository extends JpaRepository<StudentCo
     @Query("SELECT COUNT(scl) FROM StudentCourseLocation scl WHERE scl.courseLocation.id = :locationId")
     int countByLocationId(@Param("locationId") Long locationId);
     
+    /**
+     * Find the IDs of the students enrolled in any of the given locations
+     * @param locationIds Location IDs
+     * @return Distinct student IDs
+     */
+    @Query("SELECT DISTINCT scl.student.id FROM StudentCourseLocation scl WHERE scl.courseLocation.id IN :locationIds")
+    List<Long> findStudentIdsByLocationIds(@Param("locationIds") Collection<Long> locationIds);
+    
+    /**
+     * Find the enrollments of the given students
+     * @param studentIds Student IDs
+     * @return Rows of student ID and location ID
+     */
+    @Query("SELECT scl.student.id, scl.courseLocation.id FROM StudentCourseLocation scl WHERE scl.student.id IN :studentIds")
+    List<Object[]> findLocationIdsByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+    
+    /**
+     * Check whether a student is enrolled in any of the given locations
+     * @param studentId Student ID
+     * @param locationIds Location IDs
+     * @return true if at least one enrollment exists
+     */
+    @Query("SELECT COUNT(scl) > 0 FROM StudentCourseLocation scl "
+            + "WHERE scl.student.id = :studentId AND scl.courseLocation.id IN :locationIds")
+    boolean existsByStudentIdAndLocationIds(@Param("studentId") Long studentId,
+                                            @Param("locationIds") Collection<Long> locationIds);
+    
     /**
      * Find all student-course location mappings for a specific location
      * @param courseLocationId Location ID
      * @return List of student-course location mappings
      */
+    @EntityGraph(StudentCourseLocation.WITH_STUDENT)
     @Query("SELECT scl FROM StudentCourseLocation scl WHERE scl.courseLocation.id = :courseLocationId")
     List<StudentCourseLocation> findByCourseLocationId(@Param("courseLocationId") Long courseLocationId);
 }
@@ -26,6 +26,7 @@ public interface StudentLessonNoteRepository extends StudentRepository {
      * Find students by course ID with their lesson notes for a specific lesson
      */
     @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.lessonNotes ln LEFT JOIN FETCH ln.lesson l " +
-           "JOIN s.courseLocations scl JOIN scl.courseLocation cl JOIN cl.courses c WHERE c.id = :courseId AND (l.id = :lessonId OR l IS NULL)")
+           "WHERE s.id IN (SELECT scl.student.id FROM StudentCourseLocation scl JOIN scl.courseLocation cl " +
+           "JOIN cl.courses c WHERE c.id = :courseId) AND (l.id = :lessonId OR l IS NULL)")
     List<Student> findByCourseIdWithLessonNotes(@Param("courseId") Long courseId, @Param("lessonId") Long lessonId);
 }
@@ -0,0 +1,23 @@
+package com.course.app.repository;
+
+import com.course.app.entity.StudentPerformanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StudentPerformanceSnapshotRepository extends JpaRepository<StudentPerformanceSnapshot, Long> {
+
+    Optional<StudentPerformanceSnapshot> findByNationalId(String nationalId);
+
+    /**
+     * Find students without a snapshot of the given format, to be built at startup
+     */
+    @Query("SELECT s.id FROM Student s WHERE NOT EXISTS (SELECT p FROM StudentPerformanceSnapshot p " +
+           "WHERE p.studentId = s.id AND p.formatVersion = :formatVersion)")
+    List<Long> findStudentIdsWithoutSnapshot(@Param("formatVersion") int formatVersion);
+}
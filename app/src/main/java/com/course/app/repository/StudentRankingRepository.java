@@ -11,28 +11,70 @@ import java.util.List;
 @Repository
 public interface StudentRankingRepository extends JpaRepository<Student, Long> {
 
+    /**
+     * Top students of a location by the notes of the courses mapped to it, counting only students assigned
+     * to the location: id, first name, last name, national ID, total score, average score, location ID,
+     * location name. Notes are filtered through course_locations_mapping before they are aggregated.
+     */
     @Query(value = "SELECT s.id, s.first_name, s.last_name, s.national_id, " +
+            "t.total_score, t.average_score, cl.id as location_id, cl.name as location_name " +
+            "FROM (SELECT ln.student_id, " +
             "COALESCE(SUM(ln.score), 0) as total_score, " +
             "COALESCE(AVG(ln.score), 0) as average_score " +
-            "FROM students s " +
-            "LEFT JOIN lesson_notes ln ON s.id = ln.student_id " +
-            "GROUP BY s.id, s.first_name, s.last_name, s.national_id " +
-            "ORDER BY total_score DESC, average_score DESC " +
+            "FROM course_locations_mapping clm " +
+            "JOIN lessons l ON l.course_id = clm.course_id " +
+            "JOIN lesson_notes ln ON ln.lesson_id = l.id " +
+            "JOIN student_course_locations scl ON scl.course_location_id = clm.location_id " +
+            "AND scl.student_id = ln.student_id " +
+            "WHERE clm.location_id = :locationId " +
+            "GROUP BY ln.student_id) t " +
+            "JOIN students s ON s.id = t.student_id " +
+            "JOIN course_locations cl ON cl.id = :locationId " +
+            "ORDER BY t.total_score DESC, t.average_score DESC, s.id " +
             "LIMIT :limit", nativeQuery = true)
-    List<Object[]> findTopStudentsByScore(@Param("limit") int limit);
+    List<Object[]> findTopStudentsByScoreAndLocation(@Param("locationId") Long locationId, @Param("limit") int limit);
 
+    /**
+     * Top students of a course by the notes of its lessons: id, first name, last name, national ID,
+     * total score, average score
+     */
     @Query(value = "SELECT s.id, s.first_name, s.last_name, s.national_id, " +
+            "t.total_score, t.average_score " +
+            "FROM (SELECT ln.student_id, " +
             "COALESCE(SUM(ln.score), 0) as total_score, " +
-            "COALESCE(AVG(ln.score), 0) as average_score, " +
-            "cl.id as location_id, cl.name as location_name " +
-            "FROM students s " +
-            "LEFT JOIN lesson_notes ln ON s.id = ln.student_id " +
-            "LEFT JOIN lessons l ON ln.lesson_id = l.id " +
-            "LEFT JOIN courses c ON l.course_id = c.id " +
-            "LEFT JOIN course_locations cl ON c.location_id = cl.id " +
-            "WHERE cl.id = :locationId " +
-            "GROUP BY s.id, s.first_name, s.last_name, s.national_id, cl.id, cl.name " +
-            "ORDER BY total_score DESC, average_score DESC " +
+            "COALESCE(AVG(ln.score), 0) as average_score " +
+            "FROM lessons l " +
+            "JOIN lesson_notes ln ON ln.lesson_id = l.id " +
+            "WHERE l.course_id = :courseId " +
+            "GROUP BY ln.student_id) t " +
+            "JOIN students s ON s.id = t.student_id " +
+            "ORDER BY t.total_score DESC, t.average_score DESC, s.id " +
             "LIMIT :limit", nativeQuery = true)
-    List<Object[]> findTopStudentsByScoreAndLocation(@Param("locationId") Long locationId, @Param("limit") int limit);
+    List<Object[]> findTopStudentsByScoreAndCourse(@Param("courseId") Long courseId, @Param("limit") int limit);
+
+    /**
+     * Score totals of every student per course for the leaderboard: student ID, course ID, sum of scores,
+     * number of non-null scores. Students without notes come with a null course ID
+     */
+    @Query("SELECT s.id, l.course.id, COALESCE(SUM(ln.score), 0), COUNT(ln.score) FROM Student s " +
+            "LEFT JOIN LessonNote ln ON ln.student = s LEFT JOIN ln.lesson l GROUP BY s.id, l.course.id")
+    List<Object[]> findScoreTotalsByCourse();
+
+    /**
+     * Locations every course is mapped to: course ID, course location ID
+     */
+    @Query("SELECT c.id, cl.id FROM Course c JOIN c.courseLocations cl")
+    List<Object[]> findCourseLocationMappings();
+
+    /**
+     * Non-null note scores of a lesson: student ID, score
+     */
+    @Query("SELECT ln.student.id, ln.score FROM LessonNote ln WHERE ln.lesson.id = :lessonId AND ln.score IS NOT NULL")
+    List<Object[]> findNoteScoresByLessonId(@Param("lessonId") Long lessonId);
+
+    /**
+     * Location assignments of every student: student ID, course location ID
+     */
+    @Query("SELECT scl.student.id, scl.courseLocation.id FROM StudentCourseLocation scl")
+    List<Object[]> findLocationAssignments();
 }
@@ -3,6 +3,7 @@ package com.course.app.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,6 +20,10 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     Optional<Student> findByUserId(Long userId);
     
+    @Override
+    @EntityGraph(Student.WITH_LOCATIONS)
+    List<Student> findAll();
+    
     /**
      * Admin'in kendi lokasyonlarındaki öğrencileri bul
      * @param adminId Admin kullanıcı ID'si
@@ -30,4 +35,13 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
            "JOIN course_location_admins cla ON cl.id = cla.location_id " +
            "WHERE cla.user_id = :adminId", nativeQuery = true)
     List<Student> findByLocationAdminId(@Param("adminId") Long adminId);
+    
+    /**
+     * Find the students of a location ordered by ID, together with their user accounts
+     * @param courseLocationId Location ID
+     * @return Roster of the location
+     */
+    @Query("SELECT s FROM StudentCourseLocation scl JOIN scl.student s LEFT JOIN FETCH s.user " +
+           "WHERE scl.courseLocation.id = :courseLocationId ORDER BY s.id")
+    List<Student> findRosterByCourseLocationId(@Param("courseLocationId") Long courseLocationId);
 }
@@ -1,5 +1,9 @@
 package com.course.app.security;
 
+import com.course.app.config.QueryDiagnosticsFilter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +30,12 @@ public class SecurityConfig {
     private final JwtTokenProvider tokenProvider;
     private final JwtAuthenticationEntryPoint unauthorizedHandler;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     public SecurityConfig(JwtTokenProvider tokenProvider, JwtAuthenticationEntryPoint unauthorizedHandler) {
         this.tokenProvider = tokenProvider;
         this.unauthorizedHandler = unauthorizedHandler;
@@ -58,8 +68,14 @@ public class SecurityConfig {
                 sessionManagement.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
             .authorizeHttpRequests(authorize -> authorize
+                // Completion and timeout of SSE streams; the request was authorized on its initial dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/public/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/livez", "/readyz").permitAll()
+                .requestMatchers(this::isPrometheusScrape).permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_SUPERADMIN")
                 .requestMatchers("/api/users/admins").hasAnyAuthority("ROLE_ADMIN", "ROLE_SUPERADMIN")
                 .requestMatchers("/api/users/**").hasAuthority("ROLE_SUPERADMIN")
                 .requestMatchers("/api/students/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_SUPERADMIN")
@@ -70,13 +86,24 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Prometheus scrapes without a token, but only on a separate management port, which is not published
+     * outside the cluster; on the application port the endpoint stays superadmin-only
+     */
+    private boolean isPrometheusScrape(HttpServletRequest request) {
+        return managementPort > 0 && managementPort != serverPort && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:4200"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Auth-Token"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Auth-Token"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Auth-Token",
+                QueryDiagnosticsFilter.QUERY_COUNT_HEADER, QueryDiagnosticsFilter.DB_TIME_HEADER,
+                QueryDiagnosticsFilter.ENTITY_COUNT_HEADER));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
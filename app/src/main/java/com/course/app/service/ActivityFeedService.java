@@ -0,0 +1,238 @@
+package com.course.app.service;
+
+import com.course.app.entity.ActivityType;
+import com.course.app.event.ActivityEvent;
+import com.course.app.repository.ActivityLogRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Recent-activity feed. Committed {@link ActivityEvent}s are kept in a fixed-size ring per location, so the
+ * latest activities of any set of locations are read from memory without touching the database. Every
+ * activity is also queued and appended to activity_log in batches by a background writer; older pages are
+ * read from there. If the queue is full the activity stays in memory only and is logged as dropped.
+ *
+ * The rings belong to the instance: they hold the activities recorded here and those read from the log at
+ * startup. Activities recorded by other instances show up in the history pages once their writer has flushed
+ * them, and in the recent list only after a restart.
+ *
+ * Every activity takes its own ID from activity_id_seq, so IDs follow the order activities were recorded on all
+ * instances sharing the database, and the history pages by ID stay in time order. A batch is written in one
+ * transaction; when it fails it goes back to the head of the queue and is retried on the next flush, up to
+ * app.activity.max-write-attempts times.
+ */
+@Slf4j
+@Service
+public class ActivityFeedService {
+
+    /**
+     * One activity as shown in the feed; the ID orders activities and is the paging cursor
+     */
+    public record Activity(long id, ActivityType type, String message, LocalDateTime occurredAt) {
+    }
+
+    private record PendingRow(Activity activity, Long locationId, int attempts) {
+    }
+
+    private static final String NEXT_ID_SQL = "SELECT nextval('activity_id_seq')";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_log (activity_id, course_location_id, activity_type, message, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final ActivityLogRepository activityLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, ActivityRingBuffer> buffers = new ConcurrentHashMap<>();
+    private final List<BiConsumer<Activity, Set<Long>>> listeners = new CopyOnWriteArrayList<>();
+    private final BlockingDeque<PendingRow> pending;
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "activity-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.activity.buffer-size:50}")
+    private int bufferSize;
+
+    @Value("${app.activity.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.activity.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.activity.max-write-attempts:5}")
+    private int maxWriteAttempts;
+
+    public ActivityFeedService(
+            ActivityLogRepository activityLogRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.activity.queue-capacity:10000}") int queueCapacity) {
+        this.activityLogRepository = activityLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pending = new LinkedBlockingDeque<>(queueCapacity);
+    }
+
+    /**
+     * Refill the rings from the log before any event can be recorded
+     */
+    @PostConstruct
+    public void start() {
+        for (Object[] row : activityLogRepository.findLatestPerLocation(bufferSize)) {
+            Activity activity = new Activity(((Number) row[0]).longValue(), ActivityType.valueOf((String) row[2]),
+                    (String) row[3], toLocalDateTime(row[4]));
+            bufferFor(((Number) row[1]).longValue()).add(activity);
+        }
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (!pending.isEmpty()) {
+            log.error("Shutting down with {} activity log rows not written", pending.size());
+        }
+    }
+
+    /**
+     * Record an activity once the transaction that published it has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onActivity(ActivityEvent event) {
+        if (event.locationIds().isEmpty()) {
+            return;
+        }
+        Activity activity = new Activity(nextActivityId(), event.type(), event.message(),
+                event.occurredAt());
+        for (Long locationId : event.locationIds()) {
+            bufferFor(locationId).add(activity);
+            if (!pending.offerLast(new PendingRow(activity, locationId, 0))) {
+                log.warn("Activity log queue full, activity {} of location {} is kept in memory only",
+                        activity.id(), locationId);
+            }
+        }
+        for (BiConsumer<Activity, Set<Long>> listener : listeners) {
+            listener.accept(activity, event.locationIds());
+        }
+    }
+
+    /**
+     * Call a listener with every recorded activity and its locations, on the thread that recorded it
+     */
+    public void addListener(BiConsumer<Activity, Set<Long>> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Get the latest activities of the given locations, newest first, from memory
+     */
+    public List<Activity> getRecentActivities(Collection<Long> locationIds, int limit) {
+        Map<Long, Activity> merged = new HashMap<>();
+        for (Long locationId : locationIds) {
+            ActivityRingBuffer buffer = buffers.get(locationId);
+            if (buffer != null) {
+                buffer.latest(limit).forEach(activity -> merged.putIfAbsent(activity.id(), activity));
+            }
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(Activity::id).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Get a page of the activities of the given locations older than an activity ID, newest first
+     */
+    public List<Activity> getActivityHistory(Collection<Long> locationIds, Long beforeId, int size) {
+        if (locationIds.isEmpty()) {
+            return List.of();
+        }
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        return activityLogRepository.findPageBefore(locationIds, before, size).stream()
+                .map(row -> new Activity(((Number) row[0]).longValue(), ActivityType.valueOf((String) row[1]),
+                        (String) row[2], toLocalDateTime(row[3])))
+                .toList();
+    }
+
+    /**
+     * Write everything queued so far to activity_log. A failed batch is put back at the head of the queue and
+     * the rest waits for the next flush.
+     */
+    void flush() {
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        while (pending.drainTo(batch, batchSize) > 0) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(batch));
+            } catch (RuntimeException e) {
+                log.error("Failed to write activity log batch of {} rows, retrying on the next flush", batch.size(), e);
+                requeue(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void insert(List<PendingRow> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (statement, row) -> {
+            statement.setLong(1, row.activity().id());
+            statement.setLong(2, row.locationId());
+            statement.setString(3, row.activity().type().name());
+            statement.setString(4, row.activity().message());
+            statement.setTimestamp(5, Timestamp.valueOf(row.activity().occurredAt()));
+        });
+    }
+
+    /**
+     * Put a failed batch back in front of the queue in its original order. Rows that failed too often, or that
+     * no longer fit because new activities filled the queue meanwhile, are dropped.
+     */
+    private void requeue(List<PendingRow> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            PendingRow row = batch.get(i);
+            if (row.attempts() + 1 >= maxWriteAttempts) {
+                log.error("Dropping activity {} of location {} after {} failed writes",
+                        row.activity().id(), row.locationId(), row.attempts() + 1);
+            } else if (!pending.offerFirst(new PendingRow(row.activity(), row.locationId(), row.attempts() + 1))) {
+                log.warn("Activity log queue full, activity {} of location {} is kept in memory only",
+                        row.activity().id(), row.locationId());
+            }
+        }
+    }
+
+    /**
+     * Next activity ID. Taken from the sequence for every activity rather than from a block reserved per
+     * instance, which would order the activities of different instances by block
+     */
+    private long nextActivityId() {
+        return jdbcTemplate.queryForObject(NEXT_ID_SQL, Long.class);
+    }
+
+    private ActivityRingBuffer bufferFor(Long locationId) {
+        return buffers.computeIfAbsent(locationId, id -> new ActivityRingBuffer(bufferSize));
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+}
@@ -0,0 +1,45 @@
+package com.course.app.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring of the latest activities of one location. Writers claim a sequence number and
+ * overwrite the slot it maps to; readers walk back from the newest sequence and skip slots that were already
+ * overwritten by a newer lap or not yet written by a concurrent writer.
+ */
+class ActivityRingBuffer {
+
+    private record Slot(long sequence, ActivityFeedService.Activity activity) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong nextSequence = new AtomicLong();
+
+    ActivityRingBuffer(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void add(ActivityFeedService.Activity activity) {
+        long sequence = nextSequence.getAndIncrement();
+        slots.set((int) (sequence % slots.length()), new Slot(sequence, activity));
+    }
+
+    /**
+     * Up to limit of the latest activities, newest first
+     */
+    List<ActivityFeedService.Activity> latest(int limit) {
+        long end = nextSequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<ActivityFeedService.Activity> activities = new ArrayList<>(Math.min(limit, slots.length()));
+        for (long sequence = end - 1; sequence >= start && activities.size() < limit; sequence--) {
+            Slot slot = slots.get((int) (sequence % slots.length()));
+            if (slot != null && slot.sequence() == sequence) {
+                activities.add(slot.activity());
+            }
+        }
+        return activities;
+    }
+}
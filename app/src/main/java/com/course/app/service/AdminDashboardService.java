@@ -1,46 +1,70 @@
 package com.course.app.service;
 
+import com.course.app.config.CacheConfig;
+import com.course.app.config.PrimaryRead;
 import com.course.app.dto.AdminDashboardDTO;
 import com.course.app.dto.UserSummaryDTO;
-import com.course.app.entity.CourseLocation;
+import com.course.app.entity.Role;
 import com.course.app.entity.User;
 import com.course.app.repository.CourseLocationRepository;
-import com.course.app.repository.LessonNoteRepository;
-import com.course.app.repository.LessonRepository;
-import com.course.app.repository.StudentCourseLocationRepository;
-import com.course.app.repository.StudentRepository;
+import com.course.app.repository.CourseRepository;
 import com.course.app.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+/**
+ * Admin dashboard counts. The counts of all locations of an admin are read with one statement and cached per
+ * admin for app.dashboard.cache-ttl. Writes that change a count evict the dashboards of the admins whose
+ * locations or courses they touch once the transaction commits; writes that change which locations or courses
+ * an admin sees clear the whole cache. A load that overlaps an eviction is returned but not cached, since it
+ * may have read the data from before the commit. Cached entries are immutable and copied into new DTOs on
+ * every read. Recent activities come from the in-memory {@link ActivityFeedService}.
+ */
 @Service
 public class AdminDashboardService {
 
+    private static final int RECENT_ACTIVITY_LIMIT = 10;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
     private final UserRepository userRepository;
     private final CourseLocationRepository courseLocationRepository;
-    private final StudentRepository studentRepository;
-    private final StudentCourseLocationRepository studentCourseLocationRepository;
-    private final LessonRepository lessonRepository;
-    private final LessonNoteRepository lessonNoteRepository;
+    private final CourseRepository courseRepository;
+    private final CacheManager cacheManager;
+    private final ActivityFeedService activityFeedService;
+
+    // Evictions so far, counted under the instance lock; a load is only cached when none ran while it read
+    private final AtomicLong evictions = new AtomicLong();
 
     public AdminDashboardService(
             UserRepository userRepository,
             CourseLocationRepository courseLocationRepository,
-            StudentRepository studentRepository,
-            StudentCourseLocationRepository studentCourseLocationRepository,
-            LessonRepository lessonRepository,
-            LessonNoteRepository lessonNoteRepository) {
+            CourseRepository courseRepository,
+            CacheManager cacheManager,
+            ActivityFeedService activityFeedService) {
         this.userRepository = userRepository;
         this.courseLocationRepository = courseLocationRepository;
-        this.studentRepository = studentRepository;
-        this.studentCourseLocationRepository = studentCourseLocationRepository;
-        this.lessonRepository = lessonRepository;
-        this.lessonNoteRepository = lessonNoteRepository;
+        this.courseRepository = courseRepository;
+        this.cacheManager = cacheManager;
+        this.activityFeedService = activityFeedService;
     }
 
     /**
@@ -49,105 +73,224 @@ public class AdminDashboardService {
      * @return Dashboard data
      */
     @Transactional(readOnly = true)
+    @PrimaryRead
     public AdminDashboardDTO getDashboardData(Long adminId) {
-        // Get admin user
-        User admin = userRepository.findById(adminId)
-                .orElseThrow(() -> new RuntimeException("Admin user not found"));
+        AdminDashboardDTO dashboardDTO = getDashboardCounters(adminId);
+        
+        // Latest activities of the admin locations, from the in-memory feed
+        dashboardDTO.setRecentActivities(activityFeedService
+                .getRecentActivities(locationIds(dashboardDTO), RECENT_ACTIVITY_LIMIT).stream()
+                .map(AdminDashboardService::toActivityDTO)
+                .toList());
+        
+        return dashboardDTO;
+    }
+
+    /**
+     * Get the dashboard counters and locations of an admin without recent activities. Served from the cache
+     * when present, so it can be called repeatedly outside a transaction.
+     * @param adminId Admin user ID
+     * @return Dashboard data without recent activities
+     */
+    @PrimaryRead
+    public AdminDashboardDTO getDashboardCounters(Long adminId) {
+        DashboardCounts counts = getCounts(adminId);
 
         // Create dashboard DTO
         AdminDashboardDTO dashboardDTO = new AdminDashboardDTO();
+        dashboardDTO.setAdmin(counts.admin().toDTO());
+        dashboardDTO.setCourseCount(counts.locations().size());
+        dashboardDTO.setStudentCount(counts.studentCount());
+        dashboardDTO.setLessonCount(counts.lessonCount());
+        dashboardDTO.setNoteCount(counts.noteCount());
+        dashboardDTO.setLocations(counts.locations().stream().map(LocationCounts::toDTO).collect(Collectors.toList()));
         
-        // Set admin info
-        UserSummaryDTO adminDTO = new UserSummaryDTO();
-        adminDTO.setId(admin.getId());
-        adminDTO.setUsername(admin.getUsername());
-        adminDTO.setRole(admin.getRole());
-        adminDTO.setFirstName(admin.getFirstName());
-        adminDTO.setLastName(admin.getLastName());
-        adminDTO.setPhone(admin.getPhone());
-        dashboardDTO.setAdmin(adminDTO);
-
-        // Get admin locations
-        List<CourseLocation> adminLocations = courseLocationRepository.findByAdminsContaining(admin);
-        
-        // Log admin locations for debugging
-        System.out.println("Admin locations found: " + adminLocations.size() + " for admin ID: " + adminId);
-        
-        // Get total student count in system for reference (using studentRepository)
-        long totalStudentsInSystem = studentRepository.count();
-        System.out.println("Total students in system: " + totalStudentsInSystem);
-        
-        // Calculate counts
+        return dashboardDTO;
+    }
+
+    /**
+     * Get older activities of the current admin's locations
+     * @param adminId Admin user ID
+     * @param beforeId Return activities older than this activity ID; the newest ones when null
+     * @param size Page size
+     * @return Activities, newest first
+     */
+    @Transactional(readOnly = true)
+    @PrimaryRead
+    public List<AdminDashboardDTO.ActivityDTO> getActivityHistory(Long adminId, Long beforeId, int size) {
+        DashboardCounts counts = getCounts(adminId);
+        return activityFeedService.getActivityHistory(counts.locationIds(), beforeId, size).stream()
+                .map(AdminDashboardService::toActivityDTO)
+                .toList();
+    }
+
+    /**
+     * Drop the cached dashboards that show any of the given locations, after the current transaction commits
+     */
+    public void evictLocations(Collection<Long> locationIds) {
+        Set<Long> ids = new HashSet<>(locationIds);
+        evictAfterCommit(counts -> counts.locationIds().stream().anyMatch(ids::contains));
+    }
+
+    /**
+     * Drop the cached dashboards whose locations contain the given course, after the current transaction commits
+     */
+    public void evictCourse(Long courseId) {
+        evictCourses(List.of(courseId));
+    }
+
+    /**
+     * Drop the cached dashboards whose locations contain any of the given courses, after the current
+     * transaction commits
+     */
+    public void evictCourses(Collection<Long> courseIds) {
+        Set<Long> ids = new HashSet<>(courseIds);
+        evictAfterCommit(counts -> counts.courseIds().stream().anyMatch(ids::contains));
+    }
+
+    /**
+     * Drop every cached dashboard, after the current transaction commits
+     */
+    public void evictAll() {
+        evictAfterCommit(counts -> true);
+    }
+
+    private DashboardCounts getCounts(Long adminId) {
+        Cache cache = getCache();
+        DashboardCounts cached = cache.get(adminId, DashboardCounts.class);
+        if (cached != null) {
+            return cached;
+        }
+        long evictionsBefore = evictions.get();
+        DashboardCounts counts = loadCounts(adminId);
+        // Checked and stored under the eviction lock, so no eviction can slip in between
+        synchronized (this) {
+            if (evictions.get() == evictionsBefore) {
+                cache.put(adminId, counts);
+            }
+        }
+        return counts;
+    }
+
+    private DashboardCounts loadCounts(Long adminId) {
+        // Get admin user
+        User admin = userRepository.findById(adminId)
+                .orElseThrow(() -> new RuntimeException("Admin user not found"));
+
+        // Count students, lessons and notes of every admin location in one query
         int totalStudents = 0;
         int totalLessons = 0;
         int totalNotes = 0;
+        Set<Long> locationIds = new HashSet<>();
+        List<LocationCounts> locations = new ArrayList<>();
         
-        // Process each location
-        List<AdminDashboardDTO.CourseLocationSummaryDTO> locationDTOs = new ArrayList<>();
+        for (Object[] row : courseLocationRepository.findDashboardCountsByAdminId(adminId)) {
+            LocationCounts location = new LocationCounts(((Number) row[0]).longValue(), (String) row[1],
+                    (String) row[2], (String) row[3], ((Number) row[4]).intValue());
+            locations.add(location);
+            locationIds.add(location.id());
+
+            totalStudents += location.studentCount();
+            totalLessons += ((Number) row[5]).intValue();
+            totalNotes += ((Number) row[6]).intValue();
+        }
         
-        for (CourseLocation location : adminLocations) {
+        return new DashboardCounts(AdminSummary.of(admin), List.copyOf(locations), totalStudents, totalLessons,
+                totalNotes, Set.copyOf(locationIds), Set.copyOf(courseRepository.findIdsByAdminId(adminId)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictAfterCommit(Predicate<DashboardCounts> stale) {
+        Runnable evict = () -> {
+            Map<Object, Object> entries =
+                    ((com.github.benmanes.caffeine.cache.Cache<Object, Object>) getCache().getNativeCache()).asMap();
+            synchronized (this) {
+                evictions.incrementAndGet();
+                entries.values().removeIf(value -> stale.test((DashboardCounts) value));
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.ADMIN_DASHBOARD),
+                "Cache not configured: " + CacheConfig.ADMIN_DASHBOARD);
+    }
+
+    /**
+     * Cached part of a dashboard, with the locations and courses whose writes make it stale
+     */
+    private record DashboardCounts(AdminSummary admin, List<LocationCounts> locations,
+                                   int studentCount, int lessonCount, int noteCount,
+                                   Set<Long> locationIds, Set<Long> courseIds) {
+    }
+
+    private record AdminSummary(Long id, String username, Role role, String firstName, String lastName,
+                                String phone) {
+
+        static AdminSummary of(User admin) {
+            return new AdminSummary(admin.getId(), admin.getUsername(), admin.getRole(), admin.getFirstName(),
+                    admin.getLastName(), admin.getPhone());
+        }
+
+        UserSummaryDTO toDTO() {
+            return new UserSummaryDTO(id, username, role, firstName, lastName, phone);
+        }
+    }
+
+    private record LocationCounts(Long id, String name, String address, String phone, int studentCount) {
+
+        AdminDashboardDTO.CourseLocationSummaryDTO toDTO() {
             AdminDashboardDTO.CourseLocationSummaryDTO locationDTO = new AdminDashboardDTO.CourseLocationSummaryDTO();
-            locationDTO.setId(location.getId());
-            locationDTO.setName(location.getName());
-            locationDTO.setAddress(location.getAddress());
-            locationDTO.setPhone(location.getPhone());
-            
-            // Count students in this location
-            int studentCount = studentCourseLocationRepository.countByLocationId(location.getId());
+            locationDTO.setId(id);
+            locationDTO.setName(name);
+            locationDTO.setAddress(address);
+            locationDTO.setPhone(phone);
             locationDTO.setStudentCount(studentCount);
-            totalStudents += studentCount;
-            
-            // Add to list
-            locationDTOs.add(locationDTO);
-            
-            // Count lessons and notes for this location
-            totalLessons += lessonRepository.countByLocationId(location.getId());
-            totalNotes += lessonNoteRepository.countByLocationId(location.getId());
+            return locationDTO;
         }
-        
-        // Set counts
-        dashboardDTO.setCourseCount(adminLocations.size());
-        dashboardDTO.setStudentCount(totalStudents);
-        dashboardDTO.setLessonCount(totalLessons);
-        dashboardDTO.setNoteCount(totalNotes);
-        dashboardDTO.setLocations(locationDTOs);
-        
-        // Add recent activities (mock data for now)
-        dashboardDTO.setRecentActivities(getRecentActivities());
-        
-        return dashboardDTO;
     }
-    
+
     /**
-     * Generate mock recent activities
-     * In a real application, this would come from an activity log table
+     * Get the location IDs shown on a dashboard
      */
-    private List<AdminDashboardDTO.ActivityDTO> getRecentActivities() {
-        List<AdminDashboardDTO.ActivityDTO> activities = new ArrayList<>();
-        // Use direct formatting in the activity objects
-        
-        // Add some mock activities
-        AdminDashboardDTO.ActivityDTO activity1 = new AdminDashboardDTO.ActivityDTO();
-        activity1.setType("add");
-        activity1.setText("Yeni öğrenci eklendi: Ahmet Yılmaz");
-        activity1.setTimestamp(LocalDateTime.now().minusHours(2));
-        activity1.setFormattedTime("Bugün, " + activity1.getTimestamp().format(DateTimeFormatter.ofPattern("HH:mm")));
-        activities.add(activity1);
-        
-        AdminDashboardDTO.ActivityDTO activity2 = new AdminDashboardDTO.ActivityDTO();
-        activity2.setType("edit");
-        activity2.setText("Ders notu güncellendi: Matematik 101");
-        activity2.setTimestamp(LocalDateTime.now().minusHours(5));
-        activity2.setFormattedTime("Bugün, " + activity2.getTimestamp().format(DateTimeFormatter.ofPattern("HH:mm")));
-        activities.add(activity2);
-        
-        AdminDashboardDTO.ActivityDTO activity3 = new AdminDashboardDTO.ActivityDTO();
-        activity3.setType("create");
-        activity3.setText("Yeni kurs oluşturuldu: İngilizce Konuşma");
-        activity3.setTimestamp(LocalDateTime.now().minusDays(1));
-        activity3.setFormattedTime("Dün, " + activity3.getTimestamp().format(DateTimeFormatter.ofPattern("HH:mm")));
-        activities.add(activity3);
-        
-        return activities;
+    public static Set<Long> locationIds(AdminDashboardDTO dashboardDTO) {
+        Set<Long> ids = new HashSet<>();
+        dashboardDTO.getLocations().forEach(location -> ids.add(location.getId()));
+        return ids;
+    }
+
+    /**
+     * Convert a feed activity to its dashboard form
+     */
+    public static AdminDashboardDTO.ActivityDTO toActivityDTO(ActivityFeedService.Activity activity) {
+        AdminDashboardDTO.ActivityDTO activityDTO = new AdminDashboardDTO.ActivityDTO();
+        activityDTO.setId(activity.id());
+        activityDTO.setType(activity.type().getDashboardType());
+        activityDTO.setText(activity.message());
+        activityDTO.setTimestamp(activity.occurredAt());
+        activityDTO.setFormattedTime(formatTime(activity.occurredAt()));
+        return activityDTO;
+    }
+
+    private static String formatTime(LocalDateTime timestamp) {
+        String time = timestamp.format(TIME_FORMAT);
+        LocalDate today = LocalDate.now();
+        if (timestamp.toLocalDate().equals(today)) {
+            return "Bugün, " + time;
+        }
+        if (timestamp.toLocalDate().equals(today.minusDays(1))) {
+            return "Dün, " + time;
+        }
+        return timestamp.format(DATE_FORMAT) + ", " + time;
     }
 }
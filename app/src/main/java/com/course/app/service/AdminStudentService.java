@@ -6,7 +6,6 @@ import com.course.app.exception.ResourceNotFoundException;
 import com.course.app.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -16,14 +15,58 @@ import java.util.stream.Collectors;
 public class AdminStudentService {
 
     private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
     private final LessonNoteRepository lessonNoteRepository;
     private final LessonNoteHistoryRepository lessonNoteHistoryRepository;
+    private final QueryFanOut queryFanOut;
 
     /**
      * Get detailed information about a student including courses, lesson notes, and statistics
+     * The student with their courses and the lesson notes with their history are loaded concurrently
      */
-    @Transactional(readOnly = true)
     public StudentDetailDTO getStudentDetails(Long studentId) {
+        StudentDetailDTO detailDTO;
+        List<LessonNoteDTO> lessonNoteDTOs;
+        try (QueryFanOut.Scope scope = queryFanOut.open()) {
+            QueryFanOut.Branch<StudentDetailDTO> student = scope.fork(() -> getStudentWithCourses(studentId));
+            QueryFanOut.Branch<List<LessonNoteDTO>> lessonNotes = scope.fork(() -> getLessonNotesWithHistory(studentId));
+            scope.join();
+            detailDTO = student.get();
+            lessonNoteDTOs = lessonNotes.get();
+        }
+        detailDTO.setLessonNotes(lessonNoteDTOs);
+        
+        // Calculate summary statistics
+        detailDTO.setTotalCourses(detailDTO.getCourses().size());
+        
+        int totalLessons = lessonNoteDTOs.size();
+        detailDTO.setTotalLessons(totalLessons);
+        
+        long passedLessons = lessonNoteDTOs.stream()
+                .filter(note -> Boolean.TRUE.equals(note.getPassed()))
+                .count();
+        detailDTO.setPassedLessons((int) passedLessons);
+        
+        long failedLessons = lessonNoteDTOs.stream()
+                .filter(note -> Boolean.FALSE.equals(note.getPassed()))
+                .count();
+        detailDTO.setFailedLessons((int) failedLessons);
+        
+        // Calculate average score
+        double averageScore = lessonNoteDTOs.stream()
+                .filter(note -> note.getScore() != null)
+                .mapToInt(LessonNoteDTO::getScore)
+                .average()
+                .orElse(0.0);
+        detailDTO.setAverageScore(Math.round(averageScore * 100.0) / 100.0); // Round to 2 decimal places
+        
+        return detailDTO;
+    }
+
+    /**
+     * Get a student with their locations and the courses of those locations; runs in a fan-out branch
+     */
+    private StudentDetailDTO getStudentWithCourses(Long studentId) {
         // Find the student
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + studentId));
@@ -88,23 +131,14 @@ public class AdminStudentService {
         detailDTO.setCourseLocations(locationDTOs);
         
         // Get courses the student is enrolled in
-        Set<Course> studentCourses = new HashSet<>();
-        
-        // Get courses from the student's course locations
-        if (student.getCourseLocations() != null) {
-            for (StudentCourseLocation scl : student.getCourseLocations()) {
-                CourseLocation location = scl.getCourseLocation();
-                
-                // Add courses from the many-to-many relationship
-                if (location.getCourses() != null) {
-                    studentCourses.addAll(location.getCourses());
-                }
-                
-                // Add courses from the legacy one-to-many relationship
-                if (location.getLegacyCourses() != null) {
-                    studentCourses.addAll(location.getLegacyCourses());
-                }
-            }
+        Set<Course> studentCourses = new LinkedHashSet<>();
+        
+        // Get courses of all the student's course locations with their lessons in one query
+        if (student.getCourseLocations() != null && !student.getCourseLocations().isEmpty()) {
+            List<Long> locationIds = student.getCourseLocations().stream()
+                    .map(scl -> scl.getCourseLocation().getId())
+                    .collect(Collectors.toList());
+            studentCourses.addAll(courseRepository.findWithLessonsByLocationIds(locationIds));
         }
         
         // Convert courses to DTOs
@@ -138,8 +172,24 @@ public class AdminStudentService {
                 .collect(Collectors.toList());
         detailDTO.setCourses(courseDTOs);
         
+        // Set total score from student entity
+        detailDTO.setTotalScore(student.getTotalScore());
+        
+        return detailDTO;
+    }
+
+    /**
+     * Get the lesson notes of a student with their history; runs in a fan-out branch
+     */
+    private List<LessonNoteDTO> getLessonNotesWithHistory(Long studentId) {
         // Get lesson notes for the student
         List<LessonNote> lessonNotes = lessonNoteRepository.findByStudentId(studentId);
+        
+        // Get the history of all these notes in one query
+        Map<Long, List<LessonNoteHistory>> historiesByNote = lessonNotes.isEmpty() ? Map.of()
+                : lessonNoteHistoryRepository.findByLessonNoteIdInOrderByChangeDateDesc(
+                        lessonNotes.stream().map(LessonNote::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(history -> history.getLessonNote().getId()));
         List<LessonNoteDTO> lessonNoteDTOs = lessonNotes.stream()
                 .map(note -> {
                     LessonNoteDTO noteDTO = new LessonNoteDTO();
@@ -170,8 +220,8 @@ public class AdminStudentService {
                         noteDTO.setLesson(lessonDTO);
                     }
                     
-                    // Fetch and set lesson note history
-                    List<LessonNoteHistory> histories = lessonNoteHistoryRepository.findByLessonNoteIdOrderByChangeDateDesc(note.getId());
+                    // Set lesson note history
+                    List<LessonNoteHistory> histories = historiesByNote.get(note.getId());
                     if (histories != null && !histories.isEmpty()) {
                         List<LessonNoteHistoryDTO> historyDTOs = LessonNoteHistoryDTO.fromEntities(histories);
                         noteDTO.setHistory(historyDTOs);
@@ -180,35 +230,6 @@ public class AdminStudentService {
                     return noteDTO;
                 })
                 .collect(Collectors.toList());
-        detailDTO.setLessonNotes(lessonNoteDTOs);
-        
-        // Calculate summary statistics
-        detailDTO.setTotalCourses(courseDTOs.size());
-        
-        int totalLessons = lessonNoteDTOs.size();
-        detailDTO.setTotalLessons(totalLessons);
-        
-        long passedLessons = lessonNoteDTOs.stream()
-                .filter(note -> Boolean.TRUE.equals(note.getPassed()))
-                .count();
-        detailDTO.setPassedLessons((int) passedLessons);
-        
-        long failedLessons = lessonNoteDTOs.stream()
-                .filter(note -> Boolean.FALSE.equals(note.getPassed()))
-                .count();
-        detailDTO.setFailedLessons((int) failedLessons);
-        
-        // Calculate average score
-        double averageScore = lessonNoteDTOs.stream()
-                .filter(note -> note.getScore() != null)
-                .mapToInt(LessonNoteDTO::getScore)
-                .average()
-                .orElse(0.0);
-        detailDTO.setAverageScore(Math.round(averageScore * 100.0) / 100.0); // Round to 2 decimal places
-        
-        // Set total score from student entity
-        detailDTO.setTotalScore(student.getTotalScore());
-        
-        return detailDTO;
+        return lessonNoteDTOs;
     }
 }
@@ -0,0 +1,192 @@
+package com.course.app.service;
+
+import com.course.app.config.CacheConfig;
+import com.course.app.dto.AttendanceCalendarDTO;
+import com.course.app.entity.AttendanceDailyAggregate;
+import com.course.app.repository.AttendanceDailyAggregateRepository;
+import com.course.app.repository.AttendanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the attendance_daily_aggregates read model and the per-location calendar cache on top of it.
+ * Deltas are applied to locked rows; a missing row is first inserted empty with ON CONFLICT DO NOTHING, so
+ * concurrent first marks of a day add up in the same row.
+ * The cached days of a location are evicted after every committed transaction that changed one of its marks.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AttendanceAggregateService {
+
+    private final AttendanceDailyAggregateRepository aggregateRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final CacheManager cacheManager;
+
+    /**
+     * A mark that was created (previous value null) or flipped between present and absent
+     */
+    public record MarkChange(Long courseLocationId, Long courseId, LocalDate date,
+                             Boolean previousPresent, Boolean present, boolean created) {
+    }
+
+    private record AggregateKey(Long courseLocationId, Long courseId, LocalDate date) {
+    }
+
+    /**
+     * Present and absent marks of a course at a location on a day, as cached per location
+     */
+    private record CourseDayCount(LocalDate date, Long courseId, long present, long absent) {
+    }
+
+    /**
+     * Apply mark changes to the daily aggregates; must run in the transaction that wrote the marks
+     */
+    @Transactional
+    public void recordChanges(List<MarkChange> changes) {
+        Map<AggregateKey, long[]> deltas = new LinkedHashMap<>();
+        for (MarkChange change : changes) {
+            if (change.courseLocationId() == null || change.courseId() == null) {
+                continue;
+            }
+            long[] delta = deltas.computeIfAbsent(
+                    new AggregateKey(change.courseLocationId(), change.courseId(), change.date()), key -> new long[2]);
+            if (!change.created()) {
+                delta[Boolean.TRUE.equals(change.previousPresent()) ? 0 : 1]--;
+            }
+            delta[Boolean.TRUE.equals(change.present()) ? 0 : 1]++;
+        }
+
+        Set<Long> locationIds = new HashSet<>();
+        List<AttendanceDailyAggregate> changed = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (delta[0] == 0 && delta[1] == 0) {
+                return;
+            }
+            AttendanceDailyAggregate aggregate = lockAggregate(key);
+            aggregate.setPresentCount(aggregate.getPresentCount() + delta[0]);
+            aggregate.setAbsentCount(aggregate.getAbsentCount() + delta[1]);
+            changed.add(aggregate);
+            locationIds.add(key.courseLocationId());
+        });
+
+        if (!changed.isEmpty()) {
+            aggregateRepository.saveAll(changed);
+            evictAfterCommit(locationIds);
+        }
+    }
+
+    /**
+     * Build the attendance calendar of a location between two dates from the cached daily aggregates
+     */
+    public AttendanceCalendarDTO getLocationCalendar(Long locationId, LocalDate from, LocalDate to) {
+        Map<LocalDate, AttendanceCalendarDTO.Day> days = new LinkedHashMap<>();
+        long presentCount = 0;
+        long absentCount = 0;
+
+        for (CourseDayCount count : getLocationDays(locationId)) {
+            if (count.date().isBefore(from) || count.date().isAfter(to)) {
+                continue;
+            }
+            AttendanceCalendarDTO.Day day = days.computeIfAbsent(count.date(),
+                    date -> new AttendanceCalendarDTO.Day(date, 0, 0, 0, new ArrayList<>()));
+            day.setPresentCount(day.getPresentCount() + count.present());
+            day.setAbsentCount(day.getAbsentCount() + count.absent());
+            day.getCourses().add(new AttendanceCalendarDTO.CourseDay(count.courseId(), count.present(), count.absent()));
+            presentCount += count.present();
+            absentCount += count.absent();
+        }
+
+        for (AttendanceCalendarDTO.Day day : days.values()) {
+            long total = day.getPresentCount() + day.getAbsentCount();
+            day.setAttendanceRate(total > 0
+                    ? Math.round((double) day.getPresentCount() / total * 100 * 100.0) / 100.0 : 0); // Round to 2 decimal places
+        }
+
+        return new AttendanceCalendarDTO(locationId, from, to, presentCount, absentCount, new ArrayList<>(days.values()));
+    }
+
+    /**
+     * Get the days with at least one mark at any of the given locations, newest first
+     */
+    public List<LocalDate> getAttendanceDates(Collection<Long> locationIds) {
+        return locationIds.stream()
+                .flatMap(locationId -> getLocationDays(locationId).stream())
+                .filter(count -> count.present() + count.absent() > 0)
+                .map(CourseDayCount::date)
+                .distinct()
+                .sorted(Comparator.reverseOrder())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Seed the read model from attendances when it is empty (first start after it was introduced)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (aggregateRepository.count() > 0) {
+            return;
+        }
+
+        List<AttendanceDailyAggregate> aggregates = attendanceRepository.summarizeByLocationCourseAndDate().stream()
+                .map(row -> new AttendanceDailyAggregate(null, (Long) row[0], (Long) row[1], (LocalDate) row[2],
+                        ((Number) row[3]).longValue(), ((Number) row[4]).longValue(), null))
+                .collect(Collectors.toList());
+        if (!aggregates.isEmpty()) {
+            aggregateRepository.saveAll(aggregates);
+            log.info("Backfilled {} attendance daily aggregates", aggregates.size());
+        }
+    }
+
+    /**
+     * Lock the aggregate of a course at a location on a day, creating it empty first when it is missing
+     */
+    private AttendanceDailyAggregate lockAggregate(AggregateKey key) {
+        return aggregateRepository.findForUpdate(key.courseLocationId(), key.courseId(), key.date())
+                .orElseGet(() -> {
+                    aggregateRepository.insertIfAbsent(key.courseLocationId(), key.courseId(), key.date());
+                    return aggregateRepository.findForUpdate(key.courseLocationId(), key.courseId(), key.date())
+                            .orElseThrow(() -> new IllegalStateException("Attendance aggregate not created: " + key));
+                });
+    }
+
+    private List<CourseDayCount> getLocationDays(Long locationId) {
+        return getCache().get(locationId, () -> aggregateRepository
+                .findByCourseLocationIdOrderByAttendanceDateAscCourseIdAsc(locationId).stream()
+                .map(aggregate -> new CourseDayCount(aggregate.getAttendanceDate(), aggregate.getCourseId(),
+                        aggregate.getPresentCount(), aggregate.getAbsentCount()))
+                .collect(Collectors.toUnmodifiableList()));
+    }
+
+    private void evictAfterCommit(Set<Long> locationIds) {
+        Runnable evict = () -> locationIds.forEach(getCache()::evict);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.ATTENDANCE_CALENDAR),
+                "Cache not configured: " + CacheConfig.ATTENDANCE_CALENDAR);
+    }
+}
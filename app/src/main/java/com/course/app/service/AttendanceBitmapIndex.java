@@ -0,0 +1,315 @@
+package com.course.app.service;
+
+import com.course.app.repository.AttendanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory attendance index built from compressed bitmaps.
+ *
+ * For every (student, course) pair two bitmaps are kept over epoch days: the days with a stored record and
+ * the days marked present. Attendance rates and absence counts are popcounts over a day range. A second,
+ * transposed view keeps one pair of bitmaps over student IDs per (location, course, day) session for the
+ * daily presence of a location.
+ *
+ * The index is rebuilt from the attendances table at startup and kept current by {@link AttendanceService}
+ * after each committed write; deleted students, courses and locations are dropped once their delete commits.
+ * Changes are absolute (a mark is set, a student is gone), so changes committed while a rebuild reads the table
+ * are applied to the live index and replayed on the rebuilt one before it is swapped in, whether or not the read
+ * saw them. Bitmaps are not thread-safe, so every read and write of a pair locks it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AttendanceBitmapIndex {
+
+    private final AttendanceRepository attendanceRepository;
+
+    private final Object changeLock = new Object();
+
+    private volatile Indexes indexes = new Indexes();
+
+    // Changes applied while a rebuild is reading the table, replayed on the rebuilt index; guarded by changeLock
+    private List<Consumer<Indexes>> changesDuringRebuild;
+
+    /**
+     * Rebuild the whole index from the attendances table. Runs in a read-write transaction so it reads the
+     * primary, not a replica that may be behind
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (changeLock) {
+            changesDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Indexes rebuilt = new Indexes();
+            List<Object[]> rows = attendanceRepository.findIndexRows();
+            for (Object[] row : rows) {
+                rebuilt.record((Long) row[0], (Long) row[1], (Long) row[2], (LocalDate) row[3], (Boolean) row[4]);
+            }
+            int replayed;
+            synchronized (changeLock) {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                replayed = changesDuringRebuild.size();
+                indexes = rebuilt;
+            }
+            log.info("Attendance bitmap index rebuilt from {} records and {} concurrent changes in {} ms",
+                    rows.size(), replayed, System.currentTimeMillis() - started);
+        } finally {
+            synchronized (changeLock) {
+                changesDuringRebuild = null;
+            }
+        }
+    }
+
+    /**
+     * Record (or overwrite) the mark of a student for a course on a date; called once the write has committed
+     */
+    public void record(Long studentId, Long courseId, Long courseLocationId, LocalDate date, Boolean present) {
+        apply(indexes -> indexes.record(studentId, courseId, courseLocationId, date, present));
+    }
+
+    /**
+     * Drop every mark of a deleted student once the surrounding transaction commits
+     */
+    public void removeStudent(Long studentId) {
+        afterCommit(() -> apply(indexes -> indexes.removeStudent(studentId)));
+    }
+
+    /**
+     * Drop every mark of a deleted course once the surrounding transaction commits
+     */
+    public void removeCourse(Long courseId) {
+        afterCommit(() -> apply(indexes -> indexes.removeCourse(courseId)));
+    }
+
+    /**
+     * Drop the sessions of a deleted location once the surrounding transaction commits
+     */
+    public void removeLocation(Long courseLocationId) {
+        afterCommit(() -> apply(indexes -> indexes.removeLocation(courseLocationId)));
+    }
+
+    /**
+     * Count the recorded and present days of a student in each of their courses, optionally within [from, to]
+     */
+    public Map<Long, DayCounts> countByCourse(Long studentId, LocalDate from, LocalDate to) {
+        Map<Long, StudentCourseBits> courses = indexes.byStudent.get(studentId);
+        if (courses == null) {
+            return Collections.emptyMap();
+        }
+
+        long start = startDay(from);
+        long end = endDay(to);
+        Map<Long, DayCounts> counts = new TreeMap<>();
+        courses.forEach((courseId, bits) -> counts.put(courseId, bits.count(start, end)));
+        return counts;
+    }
+
+    /**
+     * Count the recorded and present days of every student of a course, optionally within [from, to]
+     */
+    public Map<Long, DayCounts> countByStudent(Long courseId, LocalDate from, LocalDate to) {
+        Map<Long, StudentCourseBits> students = indexes.byCourse.get(courseId);
+        if (students == null) {
+            return Collections.emptyMap();
+        }
+
+        long start = startDay(from);
+        long end = endDay(to);
+        Map<Long, DayCounts> counts = new TreeMap<>();
+        students.forEach((studentId, bits) -> counts.put(studentId, bits.count(start, end)));
+        return counts;
+    }
+
+    /**
+     * Count the distinct recorded and present students of a location per day within [from, to]
+     */
+    public SortedMap<LocalDate, DayCounts> countDailyPresence(Long courseLocationId, LocalDate from, LocalDate to) {
+        Map<SessionKey, SessionBits> sessions = indexes.byLocation.get(courseLocationId);
+        SortedMap<LocalDate, DayCounts> counts = new TreeMap<>();
+        if (sessions == null) {
+            return counts;
+        }
+
+        long start = startDay(from);
+        long end = endDay(to);
+        Map<Integer, RoaringBitmap> recordedByDay = new HashMap<>();
+        Map<Integer, RoaringBitmap> presentByDay = new HashMap<>();
+        sessions.forEach((key, bits) -> {
+            if (key.day() < start || key.day() >= end) {
+                return;
+            }
+            synchronized (bits) {
+                recordedByDay.computeIfAbsent(key.day(), day -> new RoaringBitmap()).or(bits.recorded);
+                presentByDay.computeIfAbsent(key.day(), day -> new RoaringBitmap()).or(bits.present);
+            }
+        });
+
+        recordedByDay.forEach((day, recorded) -> counts.put(LocalDate.ofEpochDay(day),
+                new DayCounts(recorded.getLongCardinality(), presentByDay.get(day).getLongCardinality())));
+        return counts;
+    }
+
+    private void apply(Consumer<Indexes> change) {
+        synchronized (changeLock) {
+            change.accept(indexes);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable apply) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+
+    // Bitmaps hold unsigned values, so day ranges are clamped to [0, 2^32)
+    private static long startDay(LocalDate from) {
+        return from != null ? Math.max(0, from.toEpochDay()) : 0;
+    }
+
+    private static long endDay(LocalDate to) {
+        return to != null ? Math.max(0, to.toEpochDay() + 1) : 1L << 32;
+    }
+
+    /**
+     * Recorded and present day (or student) counts; absences are the recorded ones that are not present
+     */
+    public record DayCounts(long recorded, long present) {
+
+        public long absent() {
+            return recorded - present;
+        }
+
+        public double rate() {
+            return recorded > 0 ? (double) present / recorded * 100 : 0;
+        }
+    }
+
+    /**
+     * All views of the index, swapped as a whole on rebuild
+     */
+    private static final class Indexes {
+        private final Map<Long, Map<Long, StudentCourseBits>> byStudent = new ConcurrentHashMap<>();
+        private final Map<Long, Map<Long, StudentCourseBits>> byCourse = new ConcurrentHashMap<>();
+        private final Map<Long, Map<SessionKey, SessionBits>> byLocation = new ConcurrentHashMap<>();
+
+        void record(Long studentId, Long courseId, Long courseLocationId, LocalDate date, Boolean present) {
+            // Days before 1970 cannot be stored as unsigned offsets; no such records exist
+            if (studentId == null || courseId == null || date == null || date.toEpochDay() < 0) {
+                return;
+            }
+            int day = Math.toIntExact(date.toEpochDay());
+            boolean isPresent = Boolean.TRUE.equals(present);
+
+            StudentCourseBits bits = byStudent
+                    .computeIfAbsent(studentId, id -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(courseId, id -> new StudentCourseBits());
+            byCourse.computeIfAbsent(courseId, id -> new ConcurrentHashMap<>()).putIfAbsent(studentId, bits);
+            bits.mark(day, isPresent);
+
+            if (courseLocationId != null) {
+                byLocation.computeIfAbsent(courseLocationId, id -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(new SessionKey(courseId, day), key -> new SessionBits())
+                        .mark(Math.toIntExact(studentId), isPresent);
+            }
+        }
+
+        void removeStudent(Long studentId) {
+            Map<Long, StudentCourseBits> courses = byStudent.remove(studentId);
+            if (courses != null) {
+                courses.keySet().forEach(courseId -> byCourse.computeIfPresent(courseId, (id, students) -> {
+                    students.remove(studentId);
+                    return students;
+                }));
+            }
+            int student = Math.toIntExact(studentId);
+            byLocation.values().forEach(sessions -> sessions.values().forEach(bits -> bits.unmark(student)));
+        }
+
+        void removeCourse(Long courseId) {
+            Map<Long, StudentCourseBits> students = byCourse.remove(courseId);
+            if (students != null) {
+                students.keySet().forEach(studentId -> byStudent.computeIfPresent(studentId, (id, courses) -> {
+                    courses.remove(courseId);
+                    return courses;
+                }));
+            }
+            byLocation.values().forEach(sessions -> sessions.keySet().removeIf(key -> key.courseId().equals(courseId)));
+        }
+
+        void removeLocation(Long courseLocationId) {
+            byLocation.remove(courseLocationId);
+        }
+    }
+
+    /**
+     * Days of a (student, course) pair with a record and days marked present
+     */
+    private static final class StudentCourseBits {
+        private final RoaringBitmap recorded = new RoaringBitmap();
+        private final RoaringBitmap present = new RoaringBitmap();
+
+        synchronized void mark(int day, boolean isPresent) {
+            recorded.add(day);
+            if (isPresent) {
+                present.add(day);
+            } else {
+                present.remove(day);
+            }
+        }
+
+        synchronized DayCounts count(long start, long end) {
+            return new DayCounts(recorded.rangeCardinality(start, end), present.rangeCardinality(start, end));
+        }
+    }
+
+    private record SessionKey(Long courseId, int day) {
+    }
+
+    /**
+     * Students of a session with a record and students marked present
+     */
+    private static final class SessionBits {
+        private final RoaringBitmap recorded = new RoaringBitmap();
+        private final RoaringBitmap present = new RoaringBitmap();
+
+        synchronized void mark(int studentId, boolean isPresent) {
+            recorded.add(studentId);
+            if (isPresent) {
+                present.add(studentId);
+            } else {
+                present.remove(studentId);
+            }
+        }
+
+        synchronized void unmark(int studentId) {
+            recorded.remove(studentId);
+            present.remove(studentId);
+        }
+    }
+}
@@ -1,19 +1,37 @@
 package com.course.app.service;
 
+import com.course.app.config.PrimaryRead;
+import com.course.app.dto.AttendanceCalendarDTO;
 import com.course.app.dto.AttendanceDTO;
+import com.course.app.dto.AttendanceRateDTO;
 import com.course.app.dto.AttendanceRequest;
+import com.course.app.dto.AttendanceSessionDTO;
+import com.course.app.dto.AttendanceSessionRequest;
+import com.course.app.dto.AttendanceSessionResultDTO;
+import com.course.app.dto.DailyPresenceDTO;
+import com.course.app.dto.StudentAttendanceSummaryDTO;
 import com.course.app.entity.*;
+import com.course.app.event.ActivityEvent;
 import com.course.app.repository.AttendanceRepository;
 import com.course.app.repository.CourseLocationRepository;
 import com.course.app.repository.CourseRepository;
+import com.course.app.repository.StudentCourseLocationRepository;
 import com.course.app.repository.StudentRepository;
 import com.course.app.util.SecurityUtils;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -25,6 +43,15 @@ public class AttendanceService {
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final CourseLocationRepository courseLocationRepository;
+    private final StudentCourseLocationRepository studentCourseLocationRepository;
+    private final AttendanceBitmapIndex attendanceBitmapIndex;
+    private final AttendanceAggregateService attendanceAggregateService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessMetrics businessMetrics;
+    
+    private static final int MAX_RECORDS_PAGE_SIZE = 200;
+    private static final DateTimeFormatter ACTIVITY_DATE = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final int MAX_CALENDAR_DAYS = 400;
 
     @Transactional
     public List<AttendanceDTO> saveAttendanceRecords(AttendanceRequest request) {
@@ -38,72 +65,131 @@ public class AttendanceService {
         CourseLocation courseLocation = courseLocationRepository.findById(request.getCourseLocationId())
                 .orElseThrow(() -> new EntityNotFoundException("Course location not found"));
         
-        List<Attendance> attendances = new ArrayList<>();
+        // Prefetch the roster and the stored records of this session
+        Map<Long, Student> roster = loadRoster(courseLocation.getId());
+        Map<Long, Attendance> existing = loadSessionRecords(course.getId(), courseLocation.getId(), request.getAttendanceDate());
         
+        Map<Long, Boolean> marks = new LinkedHashMap<>();
         for (AttendanceRequest.StudentAttendanceRecord record : request.getStudentRecords()) {
-            Student student = studentRepository.findById(record.getStudentId())
-                    .orElseThrow(() -> new EntityNotFoundException("Student not found with ID: " + record.getStudentId()));
-            
-            // Check if attendance record already exists for this student, course, and date
-            Optional<Attendance> existingAttendance = attendanceRepository
-                    .findByStudentAndCourseAndAttendanceDate(student, course, request.getAttendanceDate());
-            
-            Attendance attendance;
-            if (existingAttendance.isPresent()) {
-                // Update existing record
-                attendance = existingAttendance.get();
-                attendance.setIsPresent(record.getIsPresent());
-                attendance.setNotes(request.getNotes());
-            } else {
-                // Create new record
-                attendance = new Attendance();
-                attendance.setStudent(student);
-                attendance.setCourse(course);
-                attendance.setCourseLocation(courseLocation);
-                attendance.setAttendanceDate(request.getAttendanceDate());
-                attendance.setIsPresent(record.getIsPresent());
-                attendance.setNotes(request.getNotes());
-                attendance.setCreatedBy(currentUser);
-            }
-            
-            attendances.add(attendance);
+            requireRosterMember(roster, record.getStudentId());
+            marks.put(record.getStudentId(), record.getIsPresent());
         }
         
-        List<Attendance> savedAttendances = attendanceRepository.saveAll(attendances);
-        return savedAttendances.stream()
+        SessionWrite write = writeSession(course, courseLocation, request.getAttendanceDate(), request.getNotes(),
+                currentUser, roster, existing, marks);
+        return write.records().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
-    public List<AttendanceDTO> getAttendanceByLocationAndDate(Long locationId, LocalDate date) {
-        // Get current user role and ID
-        String currentRole = SecurityUtils.getCurrentUserRole();
-        Long currentUserId = SecurityUtils.getCurrentUserId();
+    /**
+     * Get the roster of a location with the stored attendance of a course on a date
+     */
+    @Transactional(readOnly = true)
+    public AttendanceSessionDTO getAttendanceSession(Long courseId, Long courseLocationId, LocalDate date) {
+        courseRepository.findById(courseId)
+                .orElseThrow(() -> new EntityNotFoundException("Course not found"));
         
-        CourseLocation location = courseLocationRepository.findById(locationId)
+        CourseLocation courseLocation = courseLocationRepository.findById(courseLocationId)
                 .orElseThrow(() -> new EntityNotFoundException("Course location not found"));
+        checkLocationAccess(courseLocation);
         
-        // Check if admin has access to this location
-        if ("ROLE_ADMIN".equals(currentRole)) {
-            boolean hasAccess = false;
-            
-            // Check if admin is assigned to this location
-            if (location.getAdmins() != null) {
-                hasAccess = location.getAdmins().stream()
-                        .anyMatch(admin -> admin.getId().equals(currentUserId));
+        Map<Long, Student> roster = loadRoster(courseLocationId);
+        Map<Long, Attendance> existing = loadSessionRecords(courseId, courseLocationId, date);
+        
+        List<AttendanceSessionDTO.RosterEntry> entries = new ArrayList<>(roster.size());
+        BitSet present = new BitSet(roster.size());
+        BitSet recorded = new BitSet(roster.size());
+        int index = 0;
+        for (Student student : roster.values()) {
+            entries.add(new AttendanceSessionDTO.RosterEntry(student.getId(),
+                    student.getFirstName() + " " + student.getLastName()));
+            Attendance attendance = existing.get(student.getId());
+            if (attendance != null) {
+                recorded.set(index);
+                present.set(index, Boolean.TRUE.equals(attendance.getIsPresent()));
             }
-            
-            if (!hasAccess) {
-                throw new org.springframework.security.access.AccessDeniedException("Bu lokasyona erişim yetkiniz yok: " + locationId);
+            index++;
+        }
+        
+        return new AttendanceSessionDTO(courseId, courseLocationId, date, roster.size(),
+                AttendanceSessionDTO.rosterVersion(roster.keySet()), entries,
+                encodeBitmap(present), encodeBitmap(recorded));
+    }
+    
+    /**
+     * Save the attendance of a whole session from a roster bitmap.
+     * Only rows that differ from what is stored are written.
+     */
+    @Transactional
+    public AttendanceSessionResultDTO saveAttendanceSession(AttendanceSessionRequest request) {
+        if (request.getAttendanceDate() == null) {
+            throw new IllegalArgumentException("Attendance date is required");
+        }
+        
+        Long currentUserId = SecurityUtils.getCurrentUserId();
+        User currentUser = getUserById(currentUserId);
+        
+        Course course = courseRepository.findById(request.getCourseId())
+                .orElseThrow(() -> new EntityNotFoundException("Course not found"));
+        
+        CourseLocation courseLocation = courseLocationRepository.findById(request.getCourseLocationId())
+                .orElseThrow(() -> new EntityNotFoundException("Course location not found"));
+        checkLocationAccess(courseLocation);
+        
+        Map<Long, Student> roster = loadRoster(courseLocation.getId());
+        if (request.getRosterSize() == null || request.getRosterSize() != roster.size()) {
+            throw new IllegalArgumentException("Roster has changed, expected " + roster.size()
+                    + " students but bitmap covers " + request.getRosterSize());
+        }
+        if (!AttendanceSessionDTO.rosterVersion(roster.keySet()).equals(request.getRosterVersion())) {
+            throw new IllegalArgumentException("Roster has changed since the session was loaded, reload it");
+        }
+        BitSet present = decodeBitmap(request.getPresentBitmap());
+        if (present.length() > roster.size()) {
+            throw new IllegalArgumentException("Bitmap marks position " + (present.length() - 1)
+                    + " but the roster has " + roster.size() + " students");
+        }
+        Map<Long, Attendance> existing = loadSessionRecords(course.getId(), courseLocation.getId(), request.getAttendanceDate());
+        
+        // Expand the bitmap over the roster order, then apply the exceptions
+        Map<Long, Boolean> marks = new LinkedHashMap<>();
+        int index = 0;
+        for (Long studentId : roster.keySet()) {
+            marks.put(studentId, present.get(index++));
+        }
+        if (request.getExceptions() != null) {
+            for (AttendanceRequest.StudentAttendanceRecord exception : request.getExceptions()) {
+                requireRosterMember(roster, exception.getStudentId());
+                marks.put(exception.getStudentId(), Boolean.TRUE.equals(exception.getIsPresent()));
             }
         }
         
+        SessionWrite write = writeSession(course, courseLocation, request.getAttendanceDate(), request.getNotes(),
+                currentUser, roster, existing, marks);
+        
+        List<AttendanceDTO> changed = new ArrayList<>();
+        write.created().forEach(attendance -> changed.add(convertToDTO(attendance)));
+        write.updated().forEach(attendance -> changed.add(convertToDTO(attendance)));
+        return new AttendanceSessionResultDTO(write.created().size(), write.updated().size(),
+                write.unchanged(), changed);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<AttendanceDTO> getAttendanceByLocationAndDate(Long locationId, LocalDate date) {
+        CourseLocation location = courseLocationRepository.findById(locationId)
+                .orElseThrow(() -> new EntityNotFoundException("Course location not found"));
+        
+        // Check if admin has access to this location
+        checkLocationAccess(location);
+        
         List<Attendance> attendances = attendanceRepository.findByCourseLocationAndAttendanceDate(location, date);
         return attendances.stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public List<AttendanceDTO> getAttendanceByUserLocationsAndDate(LocalDate date) {
         Long currentUserId = SecurityUtils.getCurrentUserId();
         List<Long> locationIds = courseLocationRepository.findAllByAdminId(currentUserId)
@@ -121,6 +207,8 @@ public class AttendanceService {
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
+    @PrimaryRead
     public List<LocalDate> getAttendanceDatesByUserLocations() {
         Long currentUserId = SecurityUtils.getCurrentUserId();
         List<Long> locationIds = courseLocationRepository.findAllByAdminId(currentUserId)
@@ -132,88 +220,353 @@ public class AttendanceService {
             return new ArrayList<>();
         }
         
-        return attendanceRepository.findDistinctAttendanceDatesByLocationIds(locationIds);
+        return attendanceAggregateService.getAttendanceDates(locationIds);
+    }
+    
+    /**
+     * Get the day-by-day attendance calendar of a location for a whole term
+     */
+    @Transactional(readOnly = true)
+    @PrimaryRead
+    public AttendanceCalendarDTO getLocationCalendar(Long locationId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (from.plusDays(MAX_CALENDAR_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Calendar range must not exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        
+        CourseLocation location = courseLocationRepository.findById(locationId)
+                .orElseThrow(() -> new EntityNotFoundException("Course location not found"));
+        checkLocationAccess(location);
+        
+        return attendanceAggregateService.getLocationCalendar(locationId, from, to);
     }
     
+    @Transactional(readOnly = true)
     public Map<String, Long> getStudentAttendanceStats(Long studentId) {
-        Long presentDays = attendanceRepository.countPresentDaysByStudentId(studentId);
-        Long absentDays = attendanceRepository.countAbsentDaysByStudentId(studentId);
+        long presentDays = 0;
+        long totalDays = 0;
+        for (AttendanceBitmapIndex.DayCounts counts : attendanceBitmapIndex.countByCourse(studentId, null, null).values()) {
+            presentDays += counts.present();
+            totalDays += counts.recorded();
+        }
         
         return Map.of(
             "presentDays", presentDays,
-            "absentDays", absentDays,
-            "totalDays", presentDays + absentDays
+            "absentDays", totalDays - presentDays,
+            "totalDays", totalDays
         );
     }
     
     /**
-     * Get detailed attendance records for a student
-     * @param studentId The student ID
-     * @return Map containing attendance statistics and records grouped by course
+     * Get the attendance rate of a student in each course, optionally within a date range
      */
-    public Map<String, Object> getStudentAttendanceDetails(Long studentId) {
-        // Get all attendance records for the student
-        List<Attendance> attendances = attendanceRepository.findByStudentId(studentId);
+    @Transactional(readOnly = true)
+    public List<AttendanceRateDTO> getStudentAttendanceRates(Long studentId, LocalDate from, LocalDate to) {
+        checkStudentAccess(studentId);
+        Map<Long, AttendanceBitmapIndex.DayCounts> countsByCourse = attendanceBitmapIndex.countByCourse(studentId, from, to);
+        if (countsByCourse.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Convert to DTOs
-        List<AttendanceDTO> attendanceDTOs = attendances.stream()
-                .map(this::convertToDTO)
+        Map<Long, String> courseNames = courseRepository.findAllById(countsByCourse.keySet()).stream()
+                .collect(Collectors.toMap(Course::getId, Course::getName));
+        
+        List<AttendanceRateDTO> rates = new ArrayList<>();
+        countsByCourse.forEach((courseId, counts) -> {
+            if (counts.recorded() > 0) {
+                rates.add(toRateDTO(studentId, null, courseId, courseNames.get(courseId), from, to, counts));
+            }
+        });
+        return rates;
+    }
+    
+    /**
+     * Get the students of a course with at least the given number of absences, most absences first
+     */
+    @Transactional(readOnly = true)
+    public List<AttendanceRateDTO> getCourseAbsentees(Long courseId, int minAbsences, LocalDate from, LocalDate to) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new EntityNotFoundException("Course not found"));
+        // Admins only see the students of their own locations of the course
+        Set<Long> visibleStudentIds = null;
+        if ("ROLE_ADMIN".equals(SecurityUtils.getCurrentUserRole())) {
+            Set<Long> locationIds = new HashSet<>(courseLocationRepository.findIdsByAdminId(SecurityUtils.getCurrentUserId()));
+            locationIds.retainAll(courseLocationRepository.findIdsByCourseId(courseId));
+            if (locationIds.isEmpty()) {
+                throw new org.springframework.security.access.AccessDeniedException("Bu kursa erişim yetkiniz yok: " + courseId);
+            }
+            visibleStudentIds = new HashSet<>(studentCourseLocationRepository.findStudentIdsByLocationIds(locationIds));
+        }
+        Set<Long> visible = visibleStudentIds;
+        
+        Map<Long, AttendanceBitmapIndex.DayCounts> absentees = new HashMap<>();
+        attendanceBitmapIndex.countByStudent(courseId, from, to).forEach((studentId, counts) -> {
+            if ((visible == null || visible.contains(studentId))
+                    && counts.recorded() > 0 && counts.absent() >= minAbsences) {
+                absentees.put(studentId, counts);
+            }
+        });
+        if (absentees.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        Map<Long, String> studentNames = studentRepository.findAllById(absentees.keySet()).stream()
+                .collect(Collectors.toMap(Student::getId, student -> student.getFirstName() + " " + student.getLastName()));
+        
+        return absentees.entrySet().stream()
+                .map(entry -> toRateDTO(entry.getKey(), studentNames.get(entry.getKey()), courseId, course.getName(),
+                        from, to, entry.getValue()))
+                .sorted(Comparator.comparingLong(AttendanceRateDTO::getAbsentDays).reversed()
+                        .thenComparing(AttendanceRateDTO::getStudentId))
                 .collect(Collectors.toList());
+    }
+    
+    /**
+     * Get the number of distinct present and absent students of a location per day
+     */
+    @Transactional(readOnly = true)
+    public List<DailyPresenceDTO> getDailyPresence(Long locationId, LocalDate from, LocalDate to) {
+        CourseLocation location = courseLocationRepository.findById(locationId)
+                .orElseThrow(() -> new EntityNotFoundException("Course location not found"));
+        checkLocationAccess(location);
+        
+        List<DailyPresenceDTO> days = new ArrayList<>();
+        attendanceBitmapIndex.countDailyPresence(locationId, from, to).forEach((date, counts) ->
+                days.add(new DailyPresenceDTO(date, counts.recorded(), counts.present(), counts.absent())));
+        return days;
+    }
+    
+    /**
+     * Get the attendance statistics of a student, overall and per course
+     * @param studentId The student ID
+     * @return Totals computed by a single grouped query; records are served by getStudentAttendanceRecords
+     */
+    @Transactional(readOnly = true)
+    public StudentAttendanceSummaryDTO getStudentAttendanceSummary(Long studentId) {
+        checkStudentAccess(studentId);
+        return summarizeStudentAttendance(studentId);
+    }
+    
+    private StudentAttendanceSummaryDTO summarizeStudentAttendance(Long studentId) {
+        List<StudentAttendanceSummaryDTO.CourseAttendance> courseAttendance = new ArrayList<>();
+        long totalDays = 0;
+        long presentDays = 0;
         
-        // Calculate overall statistics
-        long totalDays = attendanceDTOs.size();
-        long presentDays = attendanceDTOs.stream().filter(AttendanceDTO::getIsPresent).count();
-        long absentDays = totalDays - presentDays;
+        for (Object[] row : attendanceRepository.summarizeByStudentIdGroupByCourse(studentId)) {
+            long courseTotalDays = ((Number) row[2]).longValue();
+            long coursePresentDays = row[3] != null ? ((Number) row[3]).longValue() : 0;
+            courseAttendance.add(new StudentAttendanceSummaryDTO.CourseAttendance(
+                    (Long) row[0], (String) row[1], courseTotalDays, coursePresentDays,
+                    courseTotalDays - coursePresentDays, roundedRate(coursePresentDays, courseTotalDays), null));
+            totalDays += courseTotalDays;
+            presentDays += coursePresentDays;
+        }
         
-        // Group by course
-        Map<Long, List<AttendanceDTO>> attendanceByCoursesMap = attendanceDTOs.stream()
+        return new StudentAttendanceSummaryDTO(totalDays, presentDays, totalDays - presentDays,
+                roundedRate(presentDays, totalDays), courseAttendance);
+    }
+    
+    /**
+     * Get the attendance statistics of a student with the records of each course, as shown on the public
+     * performance page
+     */
+    public StudentAttendanceSummaryDTO getStudentAttendanceDetails(Long studentId) {
+        StudentAttendanceSummaryDTO summary = summarizeStudentAttendance(studentId);
+        Map<Long, List<AttendanceDTO>> recordsByCourse = attendanceRepository
+                .findByStudentIdOrderByAttendanceDateDescIdAsc(studentId).stream()
+                .map(this::convertToDTO)
                 .collect(Collectors.groupingBy(AttendanceDTO::getCourseId));
+        summary.getCourseAttendance().forEach(course ->
+                course.setRecords(recordsByCourse.getOrDefault(course.getCourseId(), new ArrayList<>())));
+        return summary;
+    }
+    
+    /**
+     * Get one page of the attendance records of a student between two dates, newest first
+     */
+    @Transactional(readOnly = true)
+    public Page<AttendanceDTO> getStudentAttendanceRecords(Long studentId, LocalDate from, LocalDate to, int page, int size) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+        if (page < 0 || size < 1 || size > MAX_RECORDS_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_RECORDS_PAGE_SIZE);
+        }
+        checkStudentAccess(studentId);
         
-        // Create course-based attendance records
-        List<Map<String, Object>> courseAttendance = new ArrayList<>();
+        Pageable pageable = PageRequest.of(page, size,
+                Sort.by(Sort.Direction.DESC, "attendanceDate").and(Sort.by("id")));
+        return attendanceRepository.findByStudentIdAndAttendanceDateBetween(studentId, from, to, pageable)
+                .map(this::convertToDTO);
+    }
+    
+    private static double roundedRate(long presentDays, long totalDays) {
+        return totalDays > 0 ? Math.round((double) presentDays / totalDays * 100 * 100.0) / 100.0 : 0; // Round to 2 decimal places
+    }
+    
+    /**
+     * Load the students of a location keyed by ID in roster (ascending ID) order
+     */
+    private Map<Long, Student> loadRoster(Long courseLocationId) {
+        Map<Long, Student> roster = new LinkedHashMap<>();
+        for (Student student : studentRepository.findRosterByCourseLocationId(courseLocationId)) {
+            roster.put(student.getId(), student);
+        }
+        return roster;
+    }
+    
+    /**
+     * Load the stored records of a session keyed by student ID
+     */
+    private Map<Long, Attendance> loadSessionRecords(Long courseId, Long courseLocationId, LocalDate date) {
+        Map<Long, Attendance> records = new HashMap<>();
+        for (Attendance attendance : attendanceRepository.findSessionRecords(courseId, courseLocationId, date)) {
+            records.put(attendance.getStudent().getId(), attendance);
+        }
+        return records;
+    }
+    
+    private void requireRosterMember(Map<Long, Student> roster, Long studentId) {
+        if (studentId == null || !roster.containsKey(studentId)) {
+            throw new IllegalArgumentException("Student " + studentId + " is not registered at this location");
+        }
+    }
+    
+    /**
+     * Diff the requested marks against the stored records and write only the changed rows in one batch
+     */
+    private SessionWrite writeSession(Course course, CourseLocation courseLocation, LocalDate date, String notes,
+                                      User currentUser, Map<Long, Student> roster, Map<Long, Attendance> existing,
+                                      Map<Long, Boolean> marks) {
+        List<Attendance> records = new ArrayList<>(marks.size());
+        List<Attendance> created = new ArrayList<>();
+        List<Attendance> updated = new ArrayList<>();
+        List<AttendanceAggregateService.MarkChange> markChanges = new ArrayList<>();
+        int unchanged = 0;
         
-        attendanceByCoursesMap.forEach((courseId, records) -> {
-            // Skip if no records
-            if (records.isEmpty()) {
-                return;
-            }
-            
-            // Get course name from first record
-            String courseName = records.get(0).getCourseName();
+        for (Map.Entry<Long, Boolean> mark : marks.entrySet()) {
+            Attendance attendance = existing.get(mark.getKey());
             
-            // Calculate course statistics
-            long courseTotalDays = records.size();
-            long coursePresentDays = records.stream().filter(AttendanceDTO::getIsPresent).count();
-            long courseAbsentDays = courseTotalDays - coursePresentDays;
-            double attendanceRate = courseTotalDays > 0 ? (double) coursePresentDays / courseTotalDays * 100 : 0;
-            
-            // Sort records by date (newest first)
-            records.sort((a, b) -> b.getAttendanceDate().compareTo(a.getAttendanceDate()));
-            
-            Map<String, Object> courseData = new HashMap<>();
-            courseData.put("courseId", courseId);
-            courseData.put("courseName", courseName);
-            courseData.put("totalDays", courseTotalDays);
-            courseData.put("presentDays", coursePresentDays);
-            courseData.put("absentDays", courseAbsentDays);
-            courseData.put("attendanceRate", Math.round(attendanceRate * 100.0) / 100.0); // Round to 2 decimal places
-            courseData.put("records", records);
+            if (attendance == null) {
+                attendance = new Attendance();
+                attendance.setStudent(roster.get(mark.getKey()));
+                attendance.setCourse(course);
+                attendance.setCourseLocation(courseLocation);
+                attendance.setAttendanceDate(date);
+                attendance.setIsPresent(mark.getValue());
+                attendance.setNotes(notes);
+                attendance.setCreatedBy(currentUser);
+                created.add(attendance);
+                markChanges.add(new AttendanceAggregateService.MarkChange(courseLocation.getId(), course.getId(),
+                        date, null, mark.getValue(), true));
+            } else if (!Objects.equals(attendance.getIsPresent(), mark.getValue())
+                    || !Objects.equals(attendance.getNotes(), notes)) {
+                if (Boolean.TRUE.equals(attendance.getIsPresent()) != Boolean.TRUE.equals(mark.getValue())) {
+                    markChanges.add(new AttendanceAggregateService.MarkChange(
+                            attendance.getCourseLocation() != null ? attendance.getCourseLocation().getId() : null,
+                            course.getId(), date, attendance.getIsPresent(), mark.getValue(), false));
+                }
+                attendance.setIsPresent(mark.getValue());
+                attendance.setNotes(notes);
+                updated.add(attendance);
+            } else {
+                unchanged++;
+            }
             
-            courseAttendance.add(courseData);
-        });
+            records.add(attendance);
+        }
         
-        // Sort courses by name
-        courseAttendance.sort(Comparator.comparing(m -> (String) m.get("courseName")));
+        List<Attendance> changed = new ArrayList<>(created);
+        changed.addAll(updated);
+        if (!changed.isEmpty()) {
+            attendanceRepository.saveAll(changed);
+            attendanceAggregateService.recordChanges(markChanges);
+            indexAfterCommit(changed);
+            long present = marks.values().stream().filter(Boolean.TRUE::equals).count();
+            eventPublisher.publishEvent(ActivityEvent.attendanceTaken(course.getName(), date.format(ACTIVITY_DATE),
+                    present, marks.size(), courseLocation.getId()));
+            businessMetrics.attendanceMarked(changed);
+        }
         
-        // Create result map
-        Map<String, Object> result = new HashMap<>();
-        result.put("totalDays", totalDays);
-        result.put("presentDays", presentDays);
-        result.put("absentDays", absentDays);
-        result.put("attendanceRate", totalDays > 0 ? Math.round((double) presentDays / totalDays * 100 * 100.0) / 100.0 : 0);
-        result.put("courseAttendance", courseAttendance);
+        return new SessionWrite(records, created, updated, unchanged);
+    }
+    
+    /**
+     * Apply written records to the bitmap index once the transaction has committed
+     */
+    private void indexAfterCommit(List<Attendance> records) {
+        List<Object[]> marks = records.stream()
+                .map(attendance -> new Object[] {attendance.getStudent().getId(), attendance.getCourse().getId(),
+                        attendance.getCourseLocation().getId(), attendance.getAttendanceDate(), attendance.getIsPresent()})
+                .collect(Collectors.toList());
+        Runnable apply = () -> marks.forEach(mark -> attendanceBitmapIndex.record(
+                (Long) mark[0], (Long) mark[1], (Long) mark[2], (LocalDate) mark[3], (Boolean) mark[4]));
         
-        return result;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+        });
+    }
+    
+    private AttendanceRateDTO toRateDTO(Long studentId, String studentName, Long courseId, String courseName,
+                                        LocalDate from, LocalDate to, AttendanceBitmapIndex.DayCounts counts) {
+        return new AttendanceRateDTO(studentId, studentName, courseId, courseName, from, to,
+                counts.recorded(), counts.present(), counts.absent(),
+                Math.round(counts.rate() * 100.0) / 100.0); // Round to 2 decimal places
+    }
+    
+    /**
+     * Admins only see the students enrolled in one of their locations
+     */
+    private void checkStudentAccess(Long studentId) {
+        if (!"ROLE_ADMIN".equals(SecurityUtils.getCurrentUserRole())) {
+            return;
+        }
+        
+        List<Long> locationIds = courseLocationRepository.findIdsByAdminId(SecurityUtils.getCurrentUserId());
+        if (locationIds.isEmpty() || !studentCourseLocationRepository.existsByStudentIdAndLocationIds(studentId, locationIds)) {
+            throw new org.springframework.security.access.AccessDeniedException("Bu öğrenciye erişim yetkiniz yok: " + studentId);
+        }
+    }
+    
+    private void checkLocationAccess(CourseLocation location) {
+        if (!"ROLE_ADMIN".equals(SecurityUtils.getCurrentUserRole())) {
+            return;
+        }
+        
+        if (!courseLocationRepository.isAdminOfLocation(location.getId(), SecurityUtils.getCurrentUserId())) {
+            throw new org.springframework.security.access.AccessDeniedException("Bu lokasyona erişim yetkiniz yok: " + location.getId());
+        }
+    }
+    
+    private static String encodeBitmap(BitSet bitmap) {
+        return Base64.getEncoder().encodeToString(bitmap.toByteArray());
+    }
+    
+    private static BitSet decodeBitmap(String bitmap) {
+        if (bitmap == null || bitmap.isEmpty()) {
+            return new BitSet();
+        }
+        try {
+            return BitSet.valueOf(Base64.getDecoder().decode(bitmap));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Present bitmap is not valid Base64", e);
+        }
+    }
+    
+    /**
+     * Outcome of a session write: every requested record plus the rows that were inserted or updated
+     */
+    private record SessionWrite(List<Attendance> records, List<Attendance> created,
+                                List<Attendance> updated, int unchanged) {
     }
     
     private AttendanceDTO convertToDTO(Attendance attendance) {
@@ -0,0 +1,87 @@
+package com.course.app.service;
+
+import com.course.app.entity.Attendance;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Business counters: app.notes.graded (action: created, updated), app.attendance.marks (status: present,
+ * absent) and app.logins (outcome: success, failure). Writes are counted once their transaction commits;
+ * logins are counted from the authentication events of the authentication manager.
+ */
+@Component
+public class BusinessMetrics {
+
+    private final Counter notesCreated;
+    private final Counter notesUpdated;
+    private final Counter attendancePresent;
+    private final Counter attendanceAbsent;
+    private final Counter loginSuccesses;
+    private final Counter loginFailures;
+
+    public BusinessMetrics(MeterRegistry meterRegistry) {
+        this.notesCreated = counter(meterRegistry, "app.notes.graded", "Lesson notes graded", "action", "created");
+        this.notesUpdated = counter(meterRegistry, "app.notes.graded", "Lesson notes graded", "action", "updated");
+        this.attendancePresent = counter(meterRegistry, "app.attendance.marks", "Attendance marks written",
+                "status", "present");
+        this.attendanceAbsent = counter(meterRegistry, "app.attendance.marks", "Attendance marks written",
+                "status", "absent");
+        this.loginSuccesses = counter(meterRegistry, "app.logins", "Login attempts", "outcome", "success");
+        this.loginFailures = counter(meterRegistry, "app.logins", "Login attempts", "outcome", "failure");
+    }
+
+    /**
+     * A lesson note was entered or changed
+     */
+    public void noteGraded(boolean created) {
+        afterCommit(() -> (created ? notesCreated : notesUpdated).increment());
+    }
+
+    /**
+     * Attendance records were created or changed
+     */
+    public void attendanceMarked(Collection<Attendance> records) {
+        long present = records.stream().filter(record -> Boolean.TRUE.equals(record.getIsPresent())).count();
+        long absent = records.size() - present;
+        afterCommit(() -> {
+            attendancePresent.increment(present);
+            attendanceAbsent.increment(absent);
+        });
+    }
+
+    @EventListener
+    public void onLoginSuccess(AuthenticationSuccessEvent event) {
+        loginSuccesses.increment();
+    }
+
+    @EventListener
+    public void onLoginFailure(AbstractAuthenticationFailureEvent event) {
+        loginFailures.increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description, String tag,
+                                   String value) {
+        return Counter.builder(name).description(description).tag(tag, value).register(meterRegistry);
+    }
+
+    private void afterCommit(Runnable count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            count.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                count.run();
+            }
+        });
+    }
+}
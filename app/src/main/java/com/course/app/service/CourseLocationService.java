@@ -23,6 +23,12 @@ public class CourseLocationService {
 
     private final CourseLocationRepository courseLocationRepository;
     private final UserRepository userRepository;
+    private final StudentLeaderboard studentLeaderboard;
+    private final AdminDashboardService adminDashboardService;
+    private final ResourceVersions resourceVersions;
+    private final StudentPerformanceSnapshotService studentPerformanceSnapshotService;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
+    private final AttendanceBitmapIndex attendanceBitmapIndex;
 
     @Transactional(readOnly = true)
     public List<CourseLocationResponse> getAllLocations() {
@@ -57,6 +63,7 @@ public class CourseLocationService {
         }
 
         CourseLocation savedLocation = courseLocationRepository.save(location);
+        adminDashboardService.evictAll();
         return mapToResponse(savedLocation);
     }
 
@@ -92,6 +99,10 @@ public class CourseLocationService {
         }
 
         CourseLocation updatedLocation = courseLocationRepository.save(location);
+        adminDashboardService.evictAll();
+        // Mapping-only changes fire no entity update callback, so the listener does not see them
+        resourceVersions.catalogChanged();
+        studentPerformanceSnapshotService.locationsChanged(List.of(location.getId()));
         return mapToResponse(updatedLocation);
     }
 
@@ -101,6 +112,11 @@ public class CourseLocationService {
             throw new ResourceNotFoundException("Course location not found with id: " + id);
         }
         courseLocationRepository.deleteById(id);
+        // Cached location lists of courses would still reference the deleted location
+        secondLevelCacheEvictor.courseLocationsChanged();
+        studentLeaderboard.removeLocation(id);
+        attendanceBitmapIndex.removeLocation(id);
+        adminDashboardService.evictAll();
     }
 
     @Transactional
@@ -117,6 +133,9 @@ public class CourseLocationService {
         
         location.setAdmins(admins);
         CourseLocation updatedLocation = courseLocationRepository.save(location);
+        adminDashboardService.evictAll();
+        resourceVersions.catalogChanged();
+        studentPerformanceSnapshotService.locationsChanged(List.of(location.getId()));
         return mapToResponse(updatedLocation);
     }
 
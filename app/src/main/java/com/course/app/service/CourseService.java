@@ -1,23 +1,29 @@
 package com.course.app.service;
 
+import com.course.app.config.PrimaryRead;
 import com.course.app.dto.CourseCreateRequest;
 import com.course.app.dto.CourseDTO;
+import com.course.app.dto.CourseLocationDTO;
 import com.course.app.dto.CourseUpdateRequest;
+import com.course.app.dto.UserSummaryDTO;
 import com.course.app.entity.Course;
 import com.course.app.entity.CourseLocation;
 import com.course.app.entity.User;
+import com.course.app.event.ActivityEvent;
 import com.course.app.exception.ResourceNotFoundException;
 import org.springframework.security.access.AccessDeniedException;
 import com.course.app.repository.CourseLocationRepository;
 import com.course.app.repository.CourseRepository;
 import com.course.app.repository.UserRepository;
+import com.course.app.util.SecurityUtils;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,10 +33,19 @@ public class CourseService {
     private final CourseRepository courseRepository;
     private final CourseLocationRepository courseLocationRepository;
     private final UserRepository userRepository;
+    private final AdminDashboardService adminDashboardService;
+    private final ResourceVersions resourceVersions;
+    private final StudentPerformanceSnapshotService studentPerformanceSnapshotService;
+    private final AttendanceBitmapIndex attendanceBitmapIndex;
+    private final StudentLeaderboard studentLeaderboard;
+    private final StudentRankingService studentRankingService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get all courses
      */
+    @Transactional(readOnly = true)
+    @PrimaryRead
     public List<CourseDTO> getAllCourses() {
         return courseRepository.findAll().stream()
                 .map(CourseDTO::fromEntity)
@@ -38,40 +53,87 @@ public class CourseService {
     }
 
     /**
-     * Get courses for the current admin user
+     * Get courses for the current admin user.
+     * Served by three queries whatever the number of locations and courses: the admin's location IDs,
+     * the courses with their mapped locations, and the referenced location summaries.
      */
+    @Transactional(readOnly = true)
     public List<CourseDTO> getCoursesForCurrentAdmin() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String username = authentication.getName();
-        
-        User currentUser = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + username));
+        return getCoursesForAdmin(SecurityUtils.getCurrentUserId());
+    }
+
+    /**
+     * Get courses in the locations of an admin user
+     */
+    @Transactional(readOnly = true)
+    @PrimaryRead
+    public List<CourseDTO> getCoursesForAdmin(Long adminId) {
+        if (adminId == null) {
+            throw new ResourceNotFoundException("Kullanıcı bulunamadı");
+        }
         
         // Get all course locations where the admin is assigned
-        List<CourseLocation> adminLocations = courseLocationRepository.findByAdminsContaining(currentUser);
+        List<Long> adminLocationIds = courseLocationRepository.findIdsByAdminId(adminId);
+        if (adminLocationIds.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // Get all courses for these locations - using both legacy and new methods
-        List<Course> legacyCourses = courseRepository.findByCourseLocationIn(adminLocations);
-        List<Course> newCourses = new java.util.ArrayList<>();
+        // One row per (course, mapped location)
+        Map<Long, CourseDTO> courses = new LinkedHashMap<>();
+        Map<Long, List<Long>> mappedLocationIds = new HashMap<>();
+        Set<Long> referencedLocationIds = new HashSet<>();
+        for (CourseRepository.CourseListingRow row : courseRepository.findListingRowsByLocationIds(adminLocationIds)) {
+            courses.computeIfAbsent(row.getId(), id -> toCourseDTO(row));
+            mappedLocationIds.computeIfAbsent(row.getId(), id -> new ArrayList<>()).add(row.getMappedLocationId());
+            referencedLocationIds.add(row.getMappedLocationId());
+        }
+        if (courses.isEmpty()) {
+            return new ArrayList<>();
+        }
         
-        // For each admin location, find courses that have this location in their courseLocations list
-        for (CourseLocation location : adminLocations) {
-            newCourses.addAll(courseRepository.findByCourseLocationsContaining(location));
+        // Location summaries with their admins for every referenced location in one batch
+        Map<Long, CourseLocationDTO> locations = new HashMap<>();
+        for (CourseLocationRepository.LocationSummaryRow row
+                : courseLocationRepository.findSummaryRowsWithAdminsByIdIn(referencedLocationIds)) {
+            CourseLocationDTO location = locations.computeIfAbsent(row.getId(), id -> new CourseLocationDTO(
+                    id, row.getName(), row.getAddress(), row.getPhone(),
+                    row.getCreatedAt(), row.getUpdatedAt(), new ArrayList<>()));
+            if (row.getAdminId() != null) {
+                location.getAdmins().add(new UserSummaryDTO(row.getAdminId(), row.getAdminUsername(),
+                        row.getAdminRole(), row.getAdminFirstName(), row.getAdminLastName(), row.getAdminPhone()));
+            }
         }
         
-        // Combine both lists and remove duplicates
-        java.util.Set<Course> allCourses = new java.util.HashSet<>(legacyCourses);
-        allCourses.addAll(newCourses);
+        courses.forEach((courseId, dto) -> {
+            dto.setCourseLocations(mappedLocationIds.get(courseId).stream()
+                    .map(locations::get)
+                    .collect(Collectors.toList()));
+            dto.setCourseLocation(dto.getCourseLocations().get(0));
+        });
         
-        // Convert to DTOs
-        return allCourses.stream()
-                .map(CourseDTO::fromEntity)
-                .collect(Collectors.toList());
+        return new ArrayList<>(courses.values());
+    }
+    
+    private static CourseDTO toCourseDTO(CourseRepository.CourseListingRow row) {
+        CourseDTO dto = new CourseDTO();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setDescription(row.getDescription());
+        dto.setStartDate(row.getStartDate());
+        dto.setEndDate(row.getEndDate());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+        if (row.getCreatorId() != null) {
+            dto.setCreatedBy(new UserSummaryDTO(row.getCreatorId(), row.getCreatorUsername(), row.getCreatorRole(),
+                    row.getCreatorFirstName(), row.getCreatorLastName(), row.getCreatorPhone()));
+        }
+        return dto;
     }
 
     /**
      * Get course by ID
      */
+    @Transactional(readOnly = true)
     public CourseDTO getCourseById(Long id) {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Kurs bulunamadı: " + id));
@@ -81,6 +143,7 @@ public class CourseService {
     /**
      * Get course by ID for admin user (only courses in admin's locations)
      */
+    @Transactional(readOnly = true)
     public CourseDTO getCourseByIdForAdmin(Long id) {
         // Get current admin user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -98,20 +161,10 @@ public class CourseService {
         
         // Check if course is in admin's locations
         boolean hasAccess = false;
-        
-        // Check primary location
-        if (course.getCourseLocation() != null) {
-            hasAccess = adminLocations.stream()
-                    .anyMatch(loc -> loc.getId().equals(course.getCourseLocation().getId()));
-        }
-        
-        // Check all locations
-        if (!hasAccess) {
-            for (CourseLocation courseLocation : course.getCourseLocations()) {
-                if (adminLocations.stream().anyMatch(loc -> loc.getId().equals(courseLocation.getId()))) {
-                    hasAccess = true;
-                    break;
-                }
+        for (CourseLocation courseLocation : course.getCourseLocations()) {
+            if (adminLocations.stream().anyMatch(loc -> loc.getId().equals(courseLocation.getId()))) {
+                hasAccess = true;
+                break;
             }
         }
         
@@ -170,6 +223,10 @@ public class CourseService {
         }
         
         Course savedCourse = courseRepository.save(course);
+        studentLeaderboard.mapCourse(savedCourse.getId(), locationIds(savedCourse));
+        adminDashboardService.evictAll();
+        eventPublisher.publishEvent(ActivityEvent.courseCreated(savedCourse.getName(),
+                savedCourse.getCourseLocations().stream().map(CourseLocation::getId).toList()));
         return CourseDTO.fromEntity(savedCourse);
     }
 
@@ -210,6 +267,11 @@ public class CourseService {
             course.setEndDate(request.getEndDate());
         }
         
+        // Students of locations the course leaves no longer see it on their performance page
+        List<Long> previousLocationIds = course.getCourseLocations().stream()
+                .map(CourseLocation::getId)
+                .collect(Collectors.toList());
+        
         // Check if we're using the multi-location approach (superadmin) or single location (admin)
         if (request.getCourseLocationIds() != null) {
             // Superadmin flow - multiple locations
@@ -253,6 +315,13 @@ public class CourseService {
         }
         
         Course updatedCourse = courseRepository.save(course);
+        studentLeaderboard.mapCourse(id, locationIds(updatedCourse));
+        adminDashboardService.evictAll();
+        // Mapping-only changes fire no entity update callback, so the listener does not see them
+        resourceVersions.catalogChanged();
+        studentRankingService.evictAll();
+        studentPerformanceSnapshotService.locationsChanged(previousLocationIds);
+        studentPerformanceSnapshotService.courseChanged(id);
         return CourseDTO.fromEntity(updatedCourse);
     }
 
@@ -276,7 +345,12 @@ public class CourseService {
         if (!courseRepository.existsById(id)) {
             throw new ResourceNotFoundException("Kurs bulunamadı: " + id);
         }
+        // Resolved before the delete removes the course's location mappings
+        studentPerformanceSnapshotService.locationsChanged(courseLocationRepository.findIdsByCourseId(id));
         courseRepository.deleteById(id);
+        attendanceBitmapIndex.removeCourse(id);
+        studentLeaderboard.mapCourse(id, List.of());
+        adminDashboardService.evictAll();
     }
     
     /**
@@ -309,6 +383,11 @@ public class CourseService {
         }
         
         Course updatedCourse = courseRepository.save(course);
+        studentLeaderboard.mapCourse(courseId, locationIds(updatedCourse));
+        adminDashboardService.evictAll();
+        resourceVersions.catalogChanged();
+        studentRankingService.evictAll();
+        studentPerformanceSnapshotService.locationsChanged(List.of(locationId));
         return CourseDTO.fromEntity(updatedCourse);
     }
     
@@ -340,12 +419,18 @@ public class CourseService {
         }
         
         Course updatedCourse = courseRepository.save(course);
+        studentLeaderboard.mapCourse(courseId, locationIds(updatedCourse));
+        adminDashboardService.evictAll();
+        resourceVersions.catalogChanged();
+        studentRankingService.evictAll();
+        studentPerformanceSnapshotService.locationsChanged(List.of(locationId));
         return CourseDTO.fromEntity(updatedCourse);
     }
     
     /**
      * Get all courses for a specific location
      */
+    @Transactional(readOnly = true)
     public List<CourseDTO> getCoursesByLocationId(Long locationId) {
         CourseLocation location = courseLocationRepository.findById(locationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kurs lokasyonu bulunamadı: " + locationId));
@@ -358,6 +443,7 @@ public class CourseService {
     /**
      * Get all courses for a specific location for admin user (only if admin has access to this location)
      */
+    @Transactional(readOnly = true)
     public List<CourseDTO> getCoursesByLocationIdForAdmin(Long locationId) {
         // Get current admin user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -385,4 +471,8 @@ public class CourseService {
                 .map(CourseDTO::fromEntity)
                 .collect(Collectors.toList());
     }
+    
+    private static List<Long> locationIds(Course course) {
+        return course.getCourseLocations().stream().map(CourseLocation::getId).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,417 @@
+package com.course.app.service;
+
+import com.course.app.dto.AdminDashboardDTO;
+import com.course.app.dto.DashboardCounterDeltaDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server-sent event stream of the admin dashboard. Connections are async, so an open stream holds no
+ * request thread; events are written by a small shared sender pool.
+ *
+ * Every connected admin has one shared state: the counters last pushed, refreshed from the dashboard cache
+ * every app.dashboard.stream.refresh-interval-ms and fanned out as deltas to all of the admin's connections.
+ * New activities are fanned out to the connections whose locations they touch. Each connection has a
+ * bounded buffer; when it overflows the buffered events are dropped and replaced by a fresh snapshot, so a
+ * slow client never holds memory or misses a counter change. A heartbeat comment is sent on idle
+ * connections, and a connection whose write fails is closed.
+ *
+ * Writes block the sender thread until the client takes the bytes. A write still running after
+ * app.dashboard.stream.send-timeout-ms drops its connection and the pool gets a replacement thread, so clients
+ * that stopped reading cannot take the whole pool. The stuck sender completes the emitter and leaves the pool
+ * once the container gives up on the write.
+ *
+ * Event names: snapshot (AdminDashboardDTO without activities), counters (DashboardCounterDeltaDTO),
+ * activity (AdminDashboardDTO.ActivityDTO, with the activity ID as event ID).
+ */
+@Slf4j
+@Service
+public class DashboardStreamService {
+
+    private final AdminDashboardService adminDashboardService;
+    private final ActivityFeedService activityFeedService;
+    private final Map<Long, AdminStream> streams = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            daemonThreads("dashboard-stream-scheduler"));
+    private final ThreadPoolExecutor sender;
+
+    @Value("${app.dashboard.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.dashboard.stream.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${app.dashboard.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${app.dashboard.stream.refresh-interval-ms:2000}")
+    private long refreshIntervalMs;
+
+    @Value("${app.dashboard.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    public DashboardStreamService(
+            AdminDashboardService adminDashboardService,
+            ActivityFeedService activityFeedService,
+            @Value("${app.dashboard.stream.sender-threads:2}") int senderThreads) {
+        this.adminDashboardService = adminDashboardService;
+        this.activityFeedService = activityFeedService;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("dashboard-stream-sender"));
+    }
+
+    /**
+     * Event as buffered per connection; an SSE event builder is built per send, since builders are not reusable
+     */
+    private record StreamEvent(String name, String id, Object data, String comment) {
+
+        SseEmitter.SseEventBuilder toBuilder() {
+            SseEmitter.SseEventBuilder builder = SseEmitter.event();
+            if (comment != null) {
+                return builder.comment(comment);
+            }
+            if (id != null) {
+                builder.id(id);
+            }
+            return builder.name(name).data(data);
+        }
+    }
+
+    /**
+     * Pushed state shared by all connections of one admin
+     */
+    private static class AdminStream {
+        final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        AdminDashboardDTO counters;
+        volatile Set<Long> locationIds = Set.of();
+    }
+
+    /**
+     * One open connection with its bounded buffer of unsent events
+     */
+    private static class Subscriber {
+        final Long adminId;
+        final SseEmitter emitter;
+        final Deque<StreamEvent> buffer = new ArrayDeque<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        boolean overflowed;
+        volatile boolean closed;
+        /** System.nanoTime() when the running write started, 0 while no write runs; guarded by the subscriber */
+        long sendStartedAt;
+        /** The running write timed out and its sender thread was replaced; guarded by the subscriber */
+        boolean sendExpired;
+
+        Subscriber(Long adminId, SseEmitter emitter) {
+            this.adminId = adminId;
+            this.emitter = emitter;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        activityFeedService.addListener(this::publishActivity);
+        scheduler.scheduleWithFixedDelay(this::refreshCounters, refreshIntervalMs, refreshIntervalMs,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatIntervalMs, heartbeatIntervalMs,
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::expireSlowSends, sendTimeoutMs, sendTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        streams.values().forEach(stream -> stream.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    /**
+     * Open a dashboard stream for an admin; the first event is a snapshot of the counters
+     * @param adminId Admin user ID
+     * @return Emitter kept open until the client disconnects or the stream times out
+     */
+    public SseEmitter subscribe(Long adminId) {
+        // Load before taking any lock, so a cold cache does not stall the fan-out of other admins
+        AdminDashboardDTO current = adminDashboardService.getDashboardCounters(adminId);
+
+        Subscriber subscriber = new Subscriber(adminId, new SseEmitter(timeoutMs));
+        subscriber.emitter.onCompletion(() -> close(subscriber));
+        subscriber.emitter.onTimeout(() -> {
+            // End the stream normally; the client reconnects, and no error response is written to it
+            close(subscriber);
+            subscriber.emitter.complete();
+        });
+        subscriber.emitter.onError(error -> close(subscriber));
+
+        while (true) {
+            AdminStream stream = streams.computeIfAbsent(adminId, id -> new AdminStream());
+            synchronized (stream) {
+                // The last connection of the admin may have closed and dropped this state meanwhile
+                if (streams.get(adminId) != stream) {
+                    continue;
+                }
+                if (stream.counters == null) {
+                    stream.counters = current;
+                    stream.locationIds = AdminDashboardService.locationIds(current);
+                }
+                stream.subscribers.add(subscriber);
+                enqueue(subscriber, snapshotEvent(stream.counters));
+                return subscriber.emitter;
+            }
+        }
+    }
+
+    private void publishActivity(ActivityFeedService.Activity activity, Set<Long> locationIds) {
+        StreamEvent event = null;
+        for (AdminStream stream : streams.values()) {
+            if (Collections.disjoint(stream.locationIds, locationIds)) {
+                continue;
+            }
+            if (event == null) {
+                event = new StreamEvent("activity", String.valueOf(activity.id()),
+                        AdminDashboardService.toActivityDTO(activity), null);
+            }
+            synchronized (stream) {
+                for (Subscriber subscriber : stream.subscribers) {
+                    enqueue(subscriber, event);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare the cached counters of every connected admin with the last pushed ones and push what changed
+     */
+    private void refreshCounters() {
+        streams.forEach((adminId, stream) -> {
+            try {
+                AdminDashboardDTO current = adminDashboardService.getDashboardCounters(adminId);
+                synchronized (stream) {
+                    StreamEvent event = changeEvent(stream.counters, current);
+                    if (event == null) {
+                        return;
+                    }
+                    stream.counters = current;
+                    stream.locationIds = AdminDashboardService.locationIds(current);
+                    for (Subscriber subscriber : stream.subscribers) {
+                        enqueue(subscriber, event);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh dashboard counters of admin {}", adminId, e);
+            }
+        });
+    }
+
+    private void sendHeartbeats() {
+        StreamEvent heartbeat = new StreamEvent(null, null, null, "heartbeat");
+        for (AdminStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                synchronized (subscriber) {
+                    // A connection with pending events does not need a heartbeat
+                    if (!subscriber.buffer.isEmpty()) {
+                        continue;
+                    }
+                }
+                enqueue(subscriber, heartbeat);
+            }
+        }
+    }
+
+    /**
+     * Buffer an event and make sure a sender drains the connection; on overflow the buffer is replaced
+     * by a snapshot when it is drained
+     */
+    private void enqueue(Subscriber subscriber, StreamEvent event) {
+        if (subscriber.closed) {
+            return;
+        }
+        synchronized (subscriber) {
+            if (subscriber.buffer.size() >= bufferSize) {
+                subscriber.buffer.clear();
+                subscriber.overflowed = true;
+            }
+            subscriber.buffer.addLast(event);
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            StreamEvent next = nextEvent(subscriber);
+            if (next == null) {
+                subscriber.draining.set(false);
+                // An event enqueued after the empty poll but before the flag was cleared has no sender yet
+                synchronized (subscriber) {
+                    if (subscriber.buffer.isEmpty() && !subscriber.overflowed) {
+                        return;
+                    }
+                }
+                if (!subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            synchronized (subscriber) {
+                subscriber.sendStartedAt = System.nanoTime();
+            }
+            Exception failure = null;
+            try {
+                subscriber.emitter.send(next.toBuilder());
+            } catch (IOException | IllegalStateException e) {
+                failure = e;
+            }
+            boolean expired;
+            synchronized (subscriber) {
+                subscriber.sendStartedAt = 0;
+                expired = subscriber.sendExpired;
+                if (expired) {
+                    // This thread was replaced while it was blocked; leave the pool to its replacement
+                    resizeSender(-1);
+                }
+            }
+            if (failure != null || expired) {
+                log.debug("Closing dashboard stream of admin {}: {}", subscriber.adminId,
+                        failure != null ? failure.getMessage() : "write timed out");
+                if (failure != null) {
+                    subscriber.emitter.completeWithError(failure);
+                } else {
+                    subscriber.emitter.complete();
+                }
+                close(subscriber);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drop the connections whose running write exceeded the send timeout and give the pool a thread for each.
+     * The emitter is not completed here: completing waits for the blocked write to release the emitter.
+     */
+    private void expireSlowSends() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        for (AdminStream stream : streams.values()) {
+            for (Subscriber subscriber : stream.subscribers) {
+                synchronized (subscriber) {
+                    if (subscriber.sendStartedAt == 0 || subscriber.sendExpired
+                            || now - subscriber.sendStartedAt < timeoutNanos) {
+                        continue;
+                    }
+                    subscriber.sendExpired = true;
+                    resizeSender(1);
+                }
+                log.info("Dashboard stream write to admin {} took over {} ms, dropping the connection",
+                        subscriber.adminId, sendTimeoutMs);
+                close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Grow or shrink the sender pool by one thread; the core size never exceeds the maximum
+     */
+    private synchronized void resizeSender(int delta) {
+        if (delta > 0) {
+            sender.setMaximumPoolSize(sender.getMaximumPoolSize() + delta);
+            sender.setCorePoolSize(sender.getCorePoolSize() + delta);
+        } else {
+            sender.setCorePoolSize(sender.getCorePoolSize() + delta);
+            sender.setMaximumPoolSize(sender.getMaximumPoolSize() + delta);
+        }
+    }
+
+    private StreamEvent nextEvent(Subscriber subscriber) {
+        if (subscriber.closed) {
+            return null;
+        }
+        AdminStream stream = streams.get(subscriber.adminId);
+        if (stream == null) {
+            return null;
+        }
+        // Same lock order as the fan-out: stream, then subscriber
+        synchronized (stream) {
+            synchronized (subscriber) {
+                if (subscriber.overflowed) {
+                    subscriber.overflowed = false;
+                    subscriber.buffer.clear();
+                    log.debug("Dashboard stream of admin {} overflowed, resending snapshot", subscriber.adminId);
+                    return snapshotEvent(stream.counters);
+                }
+                return subscriber.buffer.pollFirst();
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        AdminStream stream = streams.get(subscriber.adminId);
+        if (stream == null) {
+            return;
+        }
+        synchronized (stream) {
+            stream.subscribers.remove(subscriber);
+            if (stream.subscribers.isEmpty()) {
+                streams.remove(subscriber.adminId, stream);
+            }
+        }
+    }
+
+    private static StreamEvent snapshotEvent(AdminDashboardDTO counters) {
+        return new StreamEvent("snapshot", null, counters, null);
+    }
+
+    /**
+     * A counters delta, a snapshot when the admin's locations changed, or null when nothing changed
+     */
+    private static StreamEvent changeEvent(AdminDashboardDTO previous, AdminDashboardDTO current) {
+        Map<Long, Integer> previousCounts = studentCountsByLocation(previous);
+        Map<Long, Integer> currentCounts = studentCountsByLocation(current);
+        if (!previousCounts.keySet().equals(currentCounts.keySet())) {
+            return snapshotEvent(current);
+        }
+
+        Map<Long, Integer> locationDeltas = new HashMap<>();
+        currentCounts.forEach((locationId, count) -> {
+            int delta = count - previousCounts.get(locationId);
+            if (delta != 0) {
+                locationDeltas.put(locationId, delta);
+            }
+        });
+        DashboardCounterDeltaDTO delta = new DashboardCounterDeltaDTO(
+                current.getCourseCount() - previous.getCourseCount(),
+                current.getStudentCount() - previous.getStudentCount(),
+                current.getLessonCount() - previous.getLessonCount(),
+                current.getNoteCount() - previous.getNoteCount(),
+                locationDeltas);
+        if (locationDeltas.isEmpty() && delta.getCourseCount() == 0 && delta.getStudentCount() == 0
+                && delta.getLessonCount() == 0 && delta.getNoteCount() == 0) {
+            return null;
+        }
+        return new StreamEvent("counters", null, delta, null);
+    }
+
+    private static Map<Long, Integer> studentCountsByLocation(AdminDashboardDTO dashboardDTO) {
+        Map<Long, Integer> counts = new HashMap<>();
+        dashboardDTO.getLocations().forEach(location -> counts.put(location.getId(), location.getStudentCount()));
+        return counts;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,5 +1,6 @@
 package com.course.app.service;
 
+import com.course.app.config.PrimaryRead;
 import com.course.app.dto.LessonNoteCreateRequest;
 import com.course.app.dto.LessonNoteDTO;
 import com.course.app.dto.LessonNoteHistoryDTO;
@@ -11,6 +12,7 @@ import com.course.app.entity.CourseLocation;
 import com.course.app.entity.Role;
 import com.course.app.entity.Student;
 import com.course.app.entity.User;
+import com.course.app.event.ActivityEvent;
 import com.course.app.exception.ResourceNotFoundException;
 import com.course.app.repository.CourseLocationRepository;
 import com.course.app.repository.LessonNoteHistoryRepository;
@@ -19,11 +21,11 @@ import com.course.app.repository.LessonRepository;
 import com.course.app.repository.StudentRepository;
 import com.course.app.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -37,6 +39,11 @@ public class LessonNoteService {
     private final UserRepository userRepository;
     private final CourseLocationRepository courseLocationRepository;
     private final StudentService studentService;
+    private final LessonStatsService lessonStatsService;
+    private final StudentLeaderboard studentLeaderboard;
+    private final AdminDashboardService adminDashboardService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessMetrics businessMetrics;
 
     @Autowired
     public LessonNoteService(
@@ -46,7 +53,12 @@ public class LessonNoteService {
             StudentRepository studentRepository,
             UserRepository userRepository,
             CourseLocationRepository courseLocationRepository,
-            StudentService studentService) {
+            StudentService studentService,
+            LessonStatsService lessonStatsService,
+            StudentLeaderboard studentLeaderboard,
+            AdminDashboardService adminDashboardService,
+            ApplicationEventPublisher eventPublisher,
+            BusinessMetrics businessMetrics) {
         this.lessonNoteRepository = lessonNoteRepository;
         this.lessonNoteHistoryRepository = lessonNoteHistoryRepository;
         this.lessonRepository = lessonRepository;
@@ -54,11 +66,18 @@ public class LessonNoteService {
         this.userRepository = userRepository;
         this.courseLocationRepository = courseLocationRepository;
         this.studentService = studentService;
+        this.lessonStatsService = lessonStatsService;
+        this.studentLeaderboard = studentLeaderboard;
+        this.adminDashboardService = adminDashboardService;
+        this.eventPublisher = eventPublisher;
+        this.businessMetrics = businessMetrics;
     }
 
     /**
      * Get all lesson notes
      */
+    @Transactional(readOnly = true)
+    @PrimaryRead
     public List<LessonNoteDTO> getAllLessonNotes() {
         List<LessonNote> lessonNotes = lessonNoteRepository.findAll();
         return LessonNoteDTO.fromEntities(lessonNotes);
@@ -67,6 +86,8 @@ public class LessonNoteService {
     /**
      * Get lesson notes for admin user (only notes of students in admin's locations)
      */
+    @Transactional(readOnly = true)
+    @PrimaryRead
     public List<LessonNoteDTO> getLessonNotesForAdmin(Long adminId) {
         // Get admin user
         User admin = userRepository.findById(adminId)
@@ -93,13 +114,8 @@ public class LessonNoteService {
             return List.of();
         }
         
-        // Get lesson notes for these students
-        List<LessonNote> lessonNotes = new ArrayList<>();
-        
-        for (Long studentId : studentIds) {
-            List<LessonNote> studentNotes = lessonNoteRepository.findByStudentId(studentId);
-            lessonNotes.addAll(studentNotes);
-        }
+        // Get lesson notes for these students in one query
+        List<LessonNote> lessonNotes = lessonNoteRepository.findByStudentIdIn(studentIds);
         
         return LessonNoteDTO.fromEntities(lessonNotes);
     }
@@ -107,6 +123,7 @@ public class LessonNoteService {
     /**
      * Get lesson notes by lesson ID
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getLessonNotesByLessonId(Long lessonId) {
         // Verify lesson exists
         lessonRepository.findById(lessonId)
@@ -119,6 +136,7 @@ public class LessonNoteService {
     /**
      * Get lesson notes by lesson ID for admin user (only notes of students in admin's locations)
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getLessonNotesByLessonIdForAdmin(Long lessonId, Long adminId) {
         // Verify lesson exists
         lessonRepository.findById(lessonId)
@@ -163,6 +181,7 @@ public class LessonNoteService {
     /**
      * Get lesson notes by student ID
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getLessonNotesByStudentId(Long studentId) {
         // Verify student exists
         studentRepository.findById(studentId)
@@ -175,6 +194,7 @@ public class LessonNoteService {
     /**
      * Get lesson notes by student ID for admin user (only if student is in admin's locations)
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getLessonNotesByStudentIdForAdmin(Long studentId, Long adminId) {
         // Verify student exists
         if (!studentRepository.existsById(studentId)) {
@@ -219,6 +239,7 @@ public class LessonNoteService {
     /**
      * Get lesson note by ID
      */
+    @Transactional(readOnly = true)
     public LessonNoteDTO getLessonNoteById(Long id) {
         LessonNote lessonNote = lessonNoteRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson note not found with id: " + id));
@@ -280,6 +301,12 @@ public class LessonNoteService {
             savedLessonNote = lessonNoteRepository.save(savedLessonNote);
         }
         
+        // Add the note to the lesson statistics
+        lessonStatsService.recordCreated(savedLessonNote);
+        studentLeaderboard.recordScoreChange(student.getId(), lesson.getCourse().getId(), null, savedLessonNote.getScore());
+        adminDashboardService.evictCourse(lesson.getCourse().getId());
+        publishNoteGraded(true, savedLessonNote);
+        
         // Update student's total score if passed
         if (Boolean.TRUE.equals(request.getPassed())) {
             studentService.updateStudentTotalScore(student.getId());
@@ -397,6 +424,12 @@ public class LessonNoteService {
             studentService.updateStudentTotalScore(lessonNote.getStudent().getId());
         }
         
+        // Apply the score change to the lesson statistics
+        lessonStatsService.recordUpdated(updatedLessonNote, history.getOldScore(), history.getOldPassed());
+        studentLeaderboard.recordScoreChange(lessonNote.getStudent().getId(),
+                updatedLessonNote.getLesson().getCourse().getId(), history.getOldScore(), updatedLessonNote.getScore());
+        publishNoteGraded(false, updatedLessonNote);
+        
         return LessonNoteDTO.fromEntity(updatedLessonNote);
     }
 
@@ -406,21 +439,27 @@ public class LessonNoteService {
     @Transactional
     public void deleteLessonNote(Long id) {
         // Check if lesson note exists
-        if (!lessonNoteRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Lesson note not found with id: " + id);
-        }
+        LessonNote lessonNote = lessonNoteRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Lesson note not found with id: " + id));
         
         // Delete all history records first
         List<LessonNoteHistory> histories = lessonNoteHistoryRepository.findByLessonNoteId(id);
         lessonNoteHistoryRepository.deleteAll(histories);
         
         // Then delete the lesson note
-        lessonNoteRepository.deleteById(id);
+        lessonNoteRepository.delete(lessonNote);
+        
+        // Remove the note from the lesson statistics
+        lessonStatsService.recordDeleted(lessonNote);
+        studentLeaderboard.recordScoreChange(lessonNote.getStudent().getId(), lessonNote.getLesson().getCourse().getId(),
+                lessonNote.getScore(), null);
+        adminDashboardService.evictCourse(lessonNote.getLesson().getCourse().getId());
     }
     
     /**
      * Get history for a lesson note
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteHistoryDTO> getLessonNoteHistory(Long lessonNoteId) {
         // Verify lesson note exists
         lessonNoteRepository.findById(lessonNoteId)
@@ -433,6 +472,7 @@ public class LessonNoteService {
     /**
      * Get lesson notes by course ID
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getLessonNotesByCourseId(Long courseId) {
         List<LessonNote> lessonNotes = lessonNoteRepository.findByLessonCourseId(courseId);
         return LessonNoteDTO.fromEntities(lessonNotes);
@@ -441,6 +481,7 @@ public class LessonNoteService {
     /**
      * Get lesson notes by course ID for admin user (only notes of students in admin's locations)
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getLessonNotesByCourseIdForAdmin(Long courseId, Long adminId) {
         // Get admin user
         User admin = userRepository.findById(adminId)
@@ -481,6 +522,7 @@ public class LessonNoteService {
     /**
      * Get passed lesson notes by student ID
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getPassedLessonNotesByStudentId(Long studentId) {
         // Verify student exists
         studentRepository.findById(studentId)
@@ -493,6 +535,7 @@ public class LessonNoteService {
     /**
      * Get failed lesson notes by student ID
      */
+    @Transactional(readOnly = true)
     public List<LessonNoteDTO> getFailedLessonNotesByStudentId(Long studentId) {
         // Verify student exists
         studentRepository.findById(studentId)
@@ -501,4 +544,13 @@ public class LessonNoteService {
         List<LessonNote> lessonNotes = lessonNoteRepository.findByStudentIdAndPassedFalse(studentId);
         return LessonNoteDTO.fromEntities(lessonNotes);
     }
+
+    private void publishNoteGraded(boolean created, LessonNote lessonNote) {
+        Student student = lessonNote.getStudent();
+        Lesson lesson = lessonNote.getLesson();
+        eventPublisher.publishEvent(ActivityEvent.noteGraded(created,
+                student.getFirstName() + " " + student.getLastName(), lesson.getName(), lessonNote.getScore(),
+                courseLocationRepository.findIdsByCourseId(lesson.getCourse().getId())));
+        businessMetrics.noteGraded(created);
+    }
 }
@@ -24,17 +24,26 @@ public class LessonService {
     private final LessonRepository lessonRepository;
     private final CourseRepository courseRepository;
     private final UserRepository userRepository;
+    private final LessonStatsService lessonStatsService;
+    private final AdminDashboardService adminDashboardService;
+    private final StudentLeaderboard studentLeaderboard;
 
     @Autowired
-    public LessonService(LessonRepository lessonRepository, CourseRepository courseRepository, UserRepository userRepository) {
+    public LessonService(LessonRepository lessonRepository, CourseRepository courseRepository, UserRepository userRepository,
+                         LessonStatsService lessonStatsService, AdminDashboardService adminDashboardService,
+                         StudentLeaderboard studentLeaderboard) {
         this.lessonRepository = lessonRepository;
         this.courseRepository = courseRepository;
         this.userRepository = userRepository;
+        this.lessonStatsService = lessonStatsService;
+        this.adminDashboardService = adminDashboardService;
+        this.studentLeaderboard = studentLeaderboard;
     }
 
     /**
      * Get all lessons
      */
+    @Transactional(readOnly = true)
     public List<LessonDTO> getAllLessons() {
         List<Lesson> lessons = lessonRepository.findAll();
         return LessonDTO.fromEntities(lessons);
@@ -43,6 +52,7 @@ public class LessonService {
     /**
      * Get lessons by course ID
      */
+    @Transactional(readOnly = true)
     public List<LessonDTO> getLessonsByCourseId(Long courseId) {
         // Verify course exists
         courseRepository.findById(courseId)
@@ -55,6 +65,7 @@ public class LessonService {
     /**
      * Get lesson by ID
      */
+    @Transactional(readOnly = true)
     public LessonDTO getLessonById(Long id) {
         Lesson lesson = lessonRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id: " + id));
@@ -90,6 +101,8 @@ public class LessonService {
 
         // Save and return
         Lesson savedLesson = lessonRepository.save(lesson);
+        lessonStatsService.initializeLesson(savedLesson);
+        adminDashboardService.evictCourse(course.getId());
         return LessonDTO.fromEntity(savedLesson);
     }
 
@@ -123,6 +136,8 @@ public class LessonService {
         if (request.getCourseId() != null) {
             Course course = courseRepository.findById(request.getCourseId())
                     .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + request.getCourseId()));
+            adminDashboardService.evictCourses(List.of(lesson.getCourse().getId(), course.getId()));
+            studentLeaderboard.recordLessonMoved(lesson.getId(), lesson.getCourse().getId(), course.getId());
             lesson.setCourse(course);
         }
 
@@ -159,12 +174,15 @@ public class LessonService {
             throw new UnauthorizedException("Only the creator of the lesson or a superadmin can delete it");
         }
         
+        lessonStatsService.deleteLesson(id);
         lessonRepository.deleteById(id);
+        adminDashboardService.evictCourse(lesson.getCourse().getId());
     }
     
     /**
      * Count lessons by course ID
      */
+    @Transactional(readOnly = true)
     public long countLessonsByCourseId(Long courseId) {
         // Verify course exists
         courseRepository.findById(courseId)
@@ -184,6 +202,7 @@ public class LessonService {
         for (Long id : lessonIds) {
             try {
                 if (lessonRepository.existsById(id)) {
+                    lessonStatsService.deleteLesson(id);
                     lessonRepository.deleteById(id);
                     deletedCount++;
                 }
@@ -192,6 +211,7 @@ public class LessonService {
                 System.err.println("Error deleting lesson with id: " + id + ". Error: " + e.getMessage());
             }
         }
+        adminDashboardService.evictAll();
         
         return deletedCount;
     }
@@ -214,6 +234,7 @@ public class LessonService {
                         .orElse(null);
                         
                 if (lesson != null) {
+                    studentLeaderboard.recordLessonMoved(id, lesson.getCourse().getId(), targetCourseId);
                     lesson.setCourse(targetCourse);
                     lessonRepository.save(lesson);
                     movedCount++;
@@ -223,6 +244,7 @@ public class LessonService {
                 System.err.println("Error moving lesson with id: " + id + ". Error: " + e.getMessage());
             }
         }
+        adminDashboardService.evictAll();
         
         return movedCount;
     }
@@ -0,0 +1,201 @@
+package com.course.app.service;
+
+import com.course.app.dto.LessonStatsDTO;
+import com.course.app.entity.Lesson;
+import com.course.app.entity.LessonNote;
+import com.course.app.entity.LessonStats;
+import com.course.app.exception.ResourceNotFoundException;
+import com.course.app.repository.CourseRepository;
+import com.course.app.repository.LessonNoteRepository;
+import com.course.app.repository.LessonRepository;
+import com.course.app.repository.LessonStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the lesson_stats read model.
+ * Every method that records a change must be called after the note itself has been
+ * written in the same transaction: when a lesson has no statistics row yet, the row is
+ * created with INSERT ... ON CONFLICT DO NOTHING and seeded from lesson_notes, and the
+ * seed already contains the change. A concurrent writer of the same lesson waits for
+ * that insert, finds the row and applies its own change as a delta.
+ */
+@Service
+@RequiredArgsConstructor
+public class LessonStatsService {
+
+    private final LessonStatsRepository lessonStatsRepository;
+    private final LessonRepository lessonRepository;
+    private final LessonNoteRepository lessonNoteRepository;
+    private final CourseRepository courseRepository;
+
+    /**
+     * Get statistics for a single lesson
+     */
+    @Transactional(readOnly = true)
+    public LessonStatsDTO getLessonStats(Long lessonId) {
+        return lessonStatsRepository.findById(lessonId)
+                .map(LessonStatsDTO::fromEntity)
+                .orElseGet(() -> {
+                    Lesson lesson = lessonRepository.findById(lessonId)
+                            .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id: " + lessonId));
+                    return LessonStatsDTO.fromEntity(emptyStats(lesson));
+                });
+    }
+
+    /**
+     * Get statistics for every lesson of a course
+     */
+    @Transactional(readOnly = true)
+    public List<LessonStatsDTO> getCourseLessonStats(Long courseId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new ResourceNotFoundException("Course not found with id: " + courseId);
+        }
+        
+        return lessonStatsRepository.findByCourseId(courseId).stream()
+                .map(LessonStatsDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Create the empty statistics row of a newly created lesson
+     */
+    @Transactional
+    public void initializeLesson(Lesson lesson) {
+        if (!lessonStatsRepository.existsById(lesson.getId())) {
+            lessonStatsRepository.save(emptyStats(lesson));
+        }
+    }
+
+    /**
+     * Remove the statistics row of a lesson that is about to be deleted
+     */
+    @Transactional
+    public void deleteLesson(Long lessonId) {
+        lessonStatsRepository.findById(lessonId).ifPresent(lessonStatsRepository::delete);
+    }
+
+    /**
+     * Record a note that has just been created
+     */
+    @Transactional
+    public void recordCreated(LessonNote note) {
+        applyChange(note.getLesson().getId(), null, null, note.getScore(), note.getPassed(), false, true);
+    }
+
+    /**
+     * Record a note whose score or passed flag has just been changed
+     */
+    @Transactional
+    public void recordUpdated(LessonNote note, Integer oldScore, Boolean oldPassed) {
+        if (Objects.equals(oldScore, note.getScore()) && Objects.equals(oldPassed, note.getPassed())) {
+            return;
+        }
+        applyChange(note.getLesson().getId(), oldScore, oldPassed, note.getScore(), note.getPassed(), true, true);
+    }
+
+    /**
+     * Record a note that has just been deleted
+     */
+    @Transactional
+    public void recordDeleted(LessonNote note) {
+        recordDeleted(List.of(note));
+    }
+
+    /**
+     * Record notes that have just been deleted; each lesson's row is locked and written once
+     */
+    @Transactional
+    public void recordDeleted(Collection<LessonNote> notes) {
+        // Lessons in ID order, so two transactions deleting notes of the same lessons lock them in the same order
+        Map<Long, List<LessonNote>> notesByLesson = notes.stream()
+                .collect(Collectors.groupingBy(note -> note.getLesson().getId(), TreeMap::new, Collectors.toList()));
+        notesByLesson.forEach((lessonId, lessonNotes) -> {
+            LessonStats stats = lockForChange(lessonId);
+            if (stats == null) {
+                return;
+            }
+            lessonNotes.forEach(note -> stats.apply(note.getScore(), note.getPassed(), -1));
+            lessonStatsRepository.save(stats);
+        });
+    }
+
+    /**
+     * Seed statistics rows for lessons that existed before the read model was introduced
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillMissingLessons() {
+        for (Lesson lesson : lessonRepository.findLessonsWithoutStats()) {
+            seedIfAbsent(lesson.getId());
+        }
+    }
+
+    private void applyChange(Long lessonId, Integer oldScore, Boolean oldPassed,
+                             Integer newScore, Boolean newPassed, boolean removeOld, boolean addNew) {
+        LessonStats stats = lockForChange(lessonId);
+        if (stats == null) {
+            return;
+        }
+        
+        if (removeOld) {
+            stats.apply(oldScore, oldPassed, -1);
+        }
+        if (addNew) {
+            stats.apply(newScore, newPassed, 1);
+        }
+        lessonStatsRepository.save(stats);
+    }
+
+    /**
+     * Lock the statistics row of a lesson for a delta; null when this call created the row, whose seed
+     * already reflects the notes written by the current transaction
+     */
+    private LessonStats lockForChange(Long lessonId) {
+        Optional<LessonStats> stats = lessonStatsRepository.findByLessonIdForUpdate(lessonId);
+        if (stats.isPresent()) {
+            return stats.get();
+        }
+        if (seedIfAbsent(lessonId)) {
+            return null;
+        }
+        // Created by a concurrent transaction since the lookup; its seed did not see this transaction's notes
+        return lessonStatsRepository.findByLessonIdForUpdate(lessonId)
+                .orElseThrow(() -> new ResourceNotFoundException("Lesson not found with id: " + lessonId));
+    }
+
+    /**
+     * Create the statistics row of a lesson from its notes; false when the lesson already has one
+     */
+    private boolean seedIfAbsent(Long lessonId) {
+        if (lessonStatsRepository.insertIfAbsent(lessonId) == 0) {
+            return false;
+        }
+        LessonStats stats = lessonStatsRepository.findByLessonIdForUpdate(lessonId)
+                .orElseThrow(() -> new IllegalStateException("Lesson statistics not found for lesson " + lessonId));
+        stats.setScoreBuckets(new long[LessonStats.BUCKET_COUNT]);
+        for (Object[] row : lessonNoteRepository.findScoresByLessonId(lessonId)) {
+            stats.apply((Integer) row[0], (Boolean) row[1], 1);
+        }
+        lessonStatsRepository.save(stats);
+        return true;
+    }
+
+    private LessonStats emptyStats(Lesson lesson) {
+        // The identifier is derived from the lesson (@MapsId), so the row is persisted rather than merged
+        LessonStats stats = new LessonStats();
+        stats.setLesson(lesson);
+        return stats;
+    }
+}
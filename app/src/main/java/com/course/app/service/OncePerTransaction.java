@@ -0,0 +1,45 @@
+package com.course.app.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keys already handled by the current transaction, so bookkeeping written alongside every entity of a write is
+ * done once per key. The keys are kept by a synchronization of the transaction, so a suspended outer transaction
+ * keeps its own; without a transaction every call is the first.
+ */
+final class OncePerTransaction {
+
+    private OncePerTransaction() {
+    }
+
+    /**
+     * Whether the current transaction has not seen this key of this owner yet; remembers it
+     */
+    static boolean first(Object owner, Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return true;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Keys keys && keys.owner == owner) {
+                return keys.keys.add(key);
+            }
+        }
+        Keys keys = new Keys(owner);
+        keys.keys.add(key);
+        TransactionSynchronizationManager.registerSynchronization(keys);
+        return true;
+    }
+
+    private static final class Keys implements TransactionSynchronization {
+        final Object owner;
+        final Set<Object> keys = new HashSet<>();
+
+        Keys(Object owner) {
+            this.owner = owner;
+        }
+    }
+}
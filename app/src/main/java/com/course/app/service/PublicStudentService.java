@@ -3,6 +3,7 @@ package com.course.app.service;
 import com.course.app.dto.*;
 import com.course.app.entity.*;
 import com.course.app.exception.ResourceNotFoundException;
+import com.course.app.repository.CourseRepository;
 import com.course.app.repository.LessonNoteRepository;
 import com.course.app.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
@@ -17,19 +18,26 @@ import java.util.stream.Collectors;
 public class PublicStudentService {
 
     private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
     private final LessonNoteRepository lessonNoteRepository;
     private final AttendanceService attendanceService;
 
     /**
-     * Get student performance details by national ID
-     * This method is used for the public API for parents
+     * Get student performance details by national ID, computed from the live tables
+     * The public API serves the snapshots of StudentPerformanceSnapshotService, which are built by this service
      */
     @Transactional(readOnly = true)
     public StudentPerformanceDTO getStudentPerformanceByNationalId(String nationalId) {
         // Find the student by national ID
         Student student = studentRepository.findByNationalId(nationalId)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + nationalId));
-        
+        return buildStudentPerformance(student);
+    }
+
+    /**
+     * Build the performance details of a student; must run in a transaction
+     */
+    public StudentPerformanceDTO buildStudentPerformance(Student student) {
         // Create the DTO
         StudentPerformanceDTO performanceDTO = new StudentPerformanceDTO();
         
@@ -79,23 +87,14 @@ public class PublicStudentService {
         performanceDTO.setCourseLocations(locationDTOs);
         
         // Get courses the student is enrolled in
-        Set<Course> studentCourses = new HashSet<>();
-        
-        // Get courses from the student's course locations
-        if (student.getCourseLocations() != null) {
-            for (StudentCourseLocation scl : student.getCourseLocations()) {
-                CourseLocation location = scl.getCourseLocation();
-                
-                // Add courses from the many-to-many relationship
-                if (location.getCourses() != null) {
-                    studentCourses.addAll(location.getCourses());
-                }
-                
-                // Add courses from the legacy one-to-many relationship
-                if (location.getLegacyCourses() != null) {
-                    studentCourses.addAll(location.getLegacyCourses());
-                }
-            }
+        Set<Course> studentCourses = new LinkedHashSet<>();
+        
+        // Get courses of all the student's course locations with their lessons in one query
+        if (student.getCourseLocations() != null && !student.getCourseLocations().isEmpty()) {
+            List<Long> locationIds = student.getCourseLocations().stream()
+                    .map(scl -> scl.getCourseLocation().getId())
+                    .collect(Collectors.toList());
+            studentCourses.addAll(courseRepository.findWithLessonsByLocationIds(locationIds));
         }
         
         // Convert courses to DTOs
@@ -235,8 +234,7 @@ public class PublicStudentService {
         
         // Get attendance data for the student
         try {
-            Map<String, Object> attendanceData = attendanceService.getStudentAttendanceDetails(student.getId());
-            performanceDTO.setAttendanceData(attendanceData);
+            performanceDTO.setAttendanceData(attendanceService.getStudentAttendanceDetails(student.getId()));
         } catch (Exception e) {
             // If there's an error getting attendance data, just log it and continue
             System.err.println("Error getting attendance data for student " + student.getId() + ": " + e.getMessage());
@@ -0,0 +1,190 @@
+package com.course.app.service;
+
+import jakarta.annotation.PreDestroy;
+import com.course.app.config.QueryDiagnostics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent sub-queries of a composite read endpoint concurrently, so the endpoint takes about as
+ * long as its slowest branch instead of the sum of all of them.
+ *
+ * Branches run on a shared bounded executor (app.fanout.*), each in its own read-only transaction and with
+ * the security context and query diagnostics of the thread that forked it. The caller should not hold a transaction itself, or its
+ * connection sits idle while the branches run. At most app.fanout.max-branches-per-request branches of a scope
+ * run at once, which caps the connections one request takes from the pool; the others wait for a free slot.
+ * When the executor is saturated a branch runs on the forking thread instead of queueing without bound.
+ *
+ * A branch that fails or exceeds app.fanout.branch-timeout-ms fails the scope at once; branches that have not
+ * started yet are cancelled. The timeout counts from when the branch starts running, not while it waits for a
+ * slot, and is also the timeout of its transaction, so the driver cancels its statements and the connection goes
+ * back to the pool rather than staying with a branch nobody waits for.
+ */
+@Component
+public class QueryFanOut {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxBranchesPerRequest;
+    private final long branchTimeoutMs;
+
+    public QueryFanOut(
+            ThreadPoolTaskExecutorBuilder executorBuilder,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.fanout.threads:8}") int threads,
+            @Value("${app.fanout.queue-capacity:100}") int queueCapacity,
+            @Value("${app.fanout.max-branches-per-request:2}") int maxBranchesPerRequest,
+            @Value("${app.fanout.branch-timeout-ms:5000}") long branchTimeoutMs) {
+        this.executor = executorBuilder
+                .corePoolSize(threads)
+                .maxPoolSize(threads)
+                .queueCapacity(queueCapacity)
+                .threadNamePrefix("query-fanout-")
+                .build();
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.initialize();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Whole seconds; applied to the branch's statements as their query timeout
+        this.transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(branchTimeoutMs + 999)));
+        this.maxBranchesPerRequest = maxBranchesPerRequest;
+        this.branchTimeoutMs = branchTimeoutMs;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Open a scope for the branches of one request; close it with try-with-resources
+     */
+    public Scope open() {
+        return new Scope();
+    }
+
+    /**
+     * Result of one branch, readable once its scope has been joined
+     */
+    public static final class Branch<T> {
+
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Branch read before its scope was joined");
+            }
+            return future.join();
+        }
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final List<Branch<?>> branches = new ArrayList<>();
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int running;
+
+        /**
+         * Start a branch, or queue it until one of the scope's running branches finishes
+         */
+        public <T> Branch<T> fork(Supplier<T> query) {
+            Branch<T> branch = new Branch<>();
+            branches.add(branch);
+
+            Runnable task = QueryDiagnostics.propagate(new DelegatingSecurityContextRunnable(() -> run(branch, query)));
+            synchronized (this) {
+                if (running >= maxBranchesPerRequest) {
+                    waiting.addLast(task);
+                    return branch;
+                }
+                running++;
+            }
+            executor.execute(task);
+            return branch;
+        }
+
+        /**
+         * Wait for every branch; rethrows the first failure, a timeout as a QueryTimeoutException
+         */
+        public void join() {
+            CompletableFuture<Void> outcome = new CompletableFuture<>();
+            for (Branch<?> branch : branches) {
+                branch.future.whenComplete((result, error) -> {
+                    if (error != null) {
+                        outcome.completeExceptionally(error);
+                    }
+                });
+            }
+            CompletableFuture.allOf(branches.stream().map(branch -> branch.future).toArray(CompletableFuture[]::new))
+                    .whenComplete((result, error) -> outcome.complete(null));
+
+            try {
+                outcome.join();
+            } catch (CompletionException e) {
+                close();
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    throw new QueryTimeoutException("Query branch did not finish within " + branchTimeoutMs + " ms");
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+
+        /**
+         * Cancel the branches that have not finished; a running branch completes, but its result is dropped
+         */
+        @Override
+        public void close() {
+            synchronized (this) {
+                waiting.clear();
+            }
+            branches.forEach(branch -> branch.future.cancel(false));
+        }
+
+        private <T> void run(Branch<T> branch, Supplier<T> query) {
+            try {
+                // Skipped when the scope failed or the branch timed out while it waited
+                if (!branch.future.isDone()) {
+                    branch.future.orTimeout(branchTimeoutMs, TimeUnit.MILLISECONDS);
+                    branch.future.complete(transactionTemplate.execute(status -> query.get()));
+                }
+            } catch (RuntimeException | Error e) {
+                branch.future.completeExceptionally(e);
+            } finally {
+                Runnable next;
+                synchronized (this) {
+                    next = waiting.pollFirst();
+                    if (next == null) {
+                        running--;
+                    }
+                }
+                if (next != null) {
+                    executor.execute(next);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.course.app.service;
+
+import com.course.app.entity.Attendance;
+import com.course.app.entity.Course;
+import com.course.app.entity.CourseLocation;
+import com.course.app.entity.Lesson;
+import com.course.app.entity.LessonNote;
+import com.course.app.entity.Student;
+import com.course.app.entity.StudentCourseLocation;
+import com.course.app.event.EntityWrittenEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bumps the {@link ResourceVersions} of every write, marks the affected student performance snapshots stale and
+ * evicts the cached rankings it changes, so no write path can leave a stale ETag, page or ranking behind. Runs on
+ * the {@link EntityWrittenEvent}s published during Hibernate's flush; the versions are bumped when the
+ * transaction commits.
+ */
+@Component
+public class ResourceVersionListener {
+
+    private final ResourceVersions resourceVersions;
+    private final StudentPerformanceSnapshotService studentPerformanceSnapshotService;
+    private final StudentRankingService studentRankingService;
+
+    public ResourceVersionListener(ResourceVersions resourceVersions,
+                                   StudentPerformanceSnapshotService studentPerformanceSnapshotService,
+                                   StudentRankingService studentRankingService) {
+        this.resourceVersions = resourceVersions;
+        this.studentPerformanceSnapshotService = studentPerformanceSnapshotService;
+        this.studentRankingService = studentRankingService;
+    }
+
+    @EventListener
+    public void onWrite(EntityWrittenEvent event) {
+        Object entity = event.entity();
+        if (entity instanceof Student student) {
+            // Not the rankings: every note write updates the student's total score. StudentService evicts
+            // them when a student is edited or deleted
+            studentChanged(student.getId(), null);
+        } else if (entity instanceof StudentCourseLocation enrollment) {
+            studentChanged(enrollment.getStudent().getId(), enrollment.getCourseLocation().getId());
+            studentRankingService.evictLocation(enrollment.getCourseLocation().getId());
+        } else if (entity instanceof LessonNote note) {
+            studentChanged(note.getStudent().getId(), null);
+            studentRankingService.evictCourse(note.getLesson().getCourse().getId());
+        } else if (entity instanceof Attendance attendance) {
+            // Attendance is only part of the student's own performance page
+            studentPerformanceSnapshotService.studentChanged(attendance.getStudent().getId());
+        } else {
+            resourceVersions.catalogChanged();
+            // Lessons move between courses, courses between locations
+            studentRankingService.evictAll();
+            if (entity instanceof Lesson lesson && lesson.getCourse() != null) {
+                studentPerformanceSnapshotService.courseChanged(lesson.getCourse().getId());
+            } else if (entity instanceof Course course) {
+                studentPerformanceSnapshotService.courseChanged(course.getId());
+            } else if (entity instanceof CourseLocation location) {
+                studentPerformanceSnapshotService.locationsChanged(List.of(location.getId()));
+            }
+        }
+    }
+
+    private void studentChanged(Long studentId, Long locationId) {
+        resourceVersions.studentChanged(studentId, locationId);
+        studentPerformanceSnapshotService.studentChanged(studentId);
+    }
+}
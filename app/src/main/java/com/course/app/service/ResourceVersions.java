@@ -0,0 +1,250 @@
+package com.course.app.service;
+
+import com.course.app.config.PrimaryRead;
+import com.course.app.repository.CourseLocationRepository;
+import com.course.app.repository.ResourceVersionRepository;
+import com.course.app.repository.StudentCourseLocationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Version counters behind the ETags of the large read endpoints, so a conditional GET is answered with one
+ * primary-key lookup before any heavy query runs. The counters are rows of resource_versions, bumped in the
+ * transaction of the write, so every instance sees a new version exactly when the write commits and a rolled
+ * back write bumps nothing:
+ * <ul>
+ *   <li>catalog: courses, lessons, locations and users, which appear in every listing; rare writes</li>
+ *   <li>per location: students enrolled there and their notes; an admin's scope is the sum over their
+ *       locations. Students without a location share the unassigned row</li>
+ * </ul>
+ * {@link ResourceVersionListener} reports the scopes of every entity Hibernate flushes. They are collected for
+ * the transaction and bumped once each just before it commits, after a last flush, in scope order: the rows are
+ * locked only for the commit itself, and two transactions touching the same rows lock them in the same order.
+ * Read-write transactions get their collector when they begin, as Hibernate's own flush at commit comes after
+ * Spring's before-commit callbacks.
+ * Versions, and the bodies served under them, are read from the primary: a lagging replica would pair a new
+ * version with an old body. The public performance page of a student is versioned by its snapshot instead, see
+ * {@link StudentPerformanceSnapshotService}.
+ */
+@Component
+public class ResourceVersions implements TransactionExecutionListener {
+
+    static final String CATALOG = "catalog";
+    static final String UNASSIGNED = "unassigned";
+
+    private static final String BUMP_SQL = "UPDATE resource_versions SET version = version + 1 WHERE scope = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO resource_versions (scope, version) VALUES (?, 1) ON CONFLICT DO NOTHING";
+
+    private final CourseLocationRepository courseLocationRepository;
+    private final ResourceVersionRepository resourceVersionRepository;
+    private final StudentCourseLocationRepository studentCourseLocationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, AdminScope> adminScopes = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ResourceVersions(CourseLocationRepository courseLocationRepository,
+                            ResourceVersionRepository resourceVersionRepository,
+                            StudentCourseLocationRepository studentCourseLocationRepository, JdbcTemplate jdbcTemplate) {
+        this.courseLocationRepository = courseLocationRepository;
+        this.resourceVersionRepository = resourceVersionRepository;
+        this.studentCourseLocationRepository = studentCourseLocationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Locations of an admin, valid while the catalog version it was loaded at is current
+     */
+    private record AdminScope(long catalogVersion, long[] locationIds) {
+    }
+
+    /**
+     * Get the ETag of a resource listed across all locations
+     */
+    @PrimaryRead
+    public String globalETag(String resource) {
+        return etag(resource, "all", String.valueOf(resourceVersionRepository.sumVersions()));
+    }
+
+    /**
+     * Get the ETag of a resource listed for the locations of an admin
+     */
+    @PrimaryRead
+    public String adminETag(String resource, Long adminId) {
+        AdminScope scope = adminScopes.get(adminId);
+        Map<String, Long> versions = versions(scope != null ? scope.locationIds() : new long[0]);
+        long catalog = versions.getOrDefault(CATALOG, 0L);
+        if (scope == null || scope.catalogVersion() != catalog) {
+            long[] locationIds = courseLocationRepository.findIdsByAdminId(adminId).stream()
+                    .mapToLong(Long::longValue).sorted().toArray();
+            // Stamped with the catalog read before the locations, so a change in between reloads them next time
+            scope = new AdminScope(catalog, locationIds);
+            adminScopes.put(adminId, scope);
+            versions = versions(locationIds);
+            catalog = versions.getOrDefault(CATALOG, 0L);
+        }
+        long data = 0;
+        for (long locationId : scope.locationIds()) {
+            data += versions.getOrDefault(locationScope(locationId), 0L);
+        }
+        return etag(resource, "admin:" + Arrays.hashCode(scope.locationIds()), catalog + "-" + data);
+    }
+
+    /**
+     * A course, lesson, location or user changed; bumped when the current transaction commits
+     */
+    public void catalogChanged() {
+        Changes changes = changes();
+        if (changes != null) {
+            changes.addScope(CATALOG);
+        } else {
+            bump(List.of(CATALOG));
+        }
+    }
+
+    /**
+     * A student, their enrollment or one of their notes changed; bumped when the current transaction commits at
+     * the student's locations, and at the given location they were enrolled at or removed from
+     */
+    public void studentChanged(Long studentId, @Nullable Long locationId) {
+        Changes changes = changes();
+        if (changes == null) {
+            changes = new Changes();
+            changes.add(studentId, locationId);
+            // No transaction, so the write is flushed already
+            bump(changes.resolveScopes());
+            return;
+        }
+        changes.add(studentId, locationId);
+    }
+
+    /**
+     * Open the collector of a read-write transaction
+     */
+    @Override
+    public void afterBegin(TransactionExecution transaction, @Nullable Throwable beginFailure) {
+        if (beginFailure == null && !transaction.isReadOnly()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new Changes());
+        }
+    }
+
+    /**
+     * The collector of the current transaction, registered on first use when the transaction began without one;
+     * null without a transaction
+     */
+    @Nullable
+    private Changes changes() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof Changes changes) {
+                return changes;
+            }
+        }
+        Changes changes = new Changes();
+        TransactionSynchronizationManager.registerSynchronization(changes);
+        return changes;
+    }
+
+    private Map<String, Long> versions(long[] locationIds) {
+        List<String> scopes = new ArrayList<>(locationIds.length + 1);
+        scopes.add(CATALOG);
+        for (long locationId : locationIds) {
+            scopes.add(locationScope(locationId));
+        }
+        Map<String, Long> versions = new HashMap<>();
+        resourceVersionRepository.findVersions(scopes).forEach(row -> versions.put(row.getScope(), row.getVersion()));
+        return versions;
+    }
+
+    private void bump(Collection<String> scopes) {
+        // In scope order, so concurrent transactions lock shared rows in the same order
+        for (String scope : new TreeSet<>(scopes)) {
+            if (jdbcTemplate.update(BUMP_SQL, scope) == 0 && jdbcTemplate.update(INSERT_SQL, scope) == 0) {
+                // Another transaction created the row meanwhile
+                jdbcTemplate.update(BUMP_SQL, scope);
+            }
+        }
+    }
+
+    /**
+     * Scopes changed by a transaction. Students are kept by ID and resolved to their locations at commit, once
+     * their enrollments are flushed
+     */
+    private final class Changes implements TransactionSynchronization {
+        final Set<String> scopes = new HashSet<>();
+        // Student ID to the locations they were enrolled at or removed from in the transaction
+        final Map<Long, Set<Long>> students = new HashMap<>();
+        boolean bumped;
+
+        void addScope(String scope) {
+            scopes.add(scope);
+            bumpIfLate();
+        }
+
+        void add(Long studentId, @Nullable Long locationId) {
+            Set<Long> locationIds = students.computeIfAbsent(studentId, id -> new HashSet<>());
+            if (locationId != null) {
+                locationIds.add(locationId);
+            }
+            bumpIfLate();
+        }
+
+        private void bumpIfLate() {
+            if (bumped) {
+                // Written by a before-commit callback that ran after this one
+                bump(resolveScopes());
+            }
+        }
+
+        Set<String> resolveScopes() {
+            Set<String> resolved = new HashSet<>(scopes);
+            if (!students.isEmpty()) {
+                for (Object[] row : studentCourseLocationRepository.findLocationIdsByStudentIds(students.keySet())) {
+                    students.get((Long) row[0]).add((Long) row[1]);
+                }
+                students.values().forEach(locationIds -> {
+                    if (locationIds.isEmpty()) {
+                        resolved.add(UNASSIGNED);
+                    }
+                    locationIds.forEach(locationId -> resolved.add(locationScope(locationId)));
+                });
+            }
+            scopes.clear();
+            students.clear();
+            return resolved;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // The entities still dirty report their scopes now rather than in Hibernate's flush at commit
+            if (!readOnly) {
+                entityManager.flush();
+            }
+            bump(resolveScopes());
+            bumped = true;
+        }
+    }
+
+    private static String locationScope(long locationId) {
+        return "location:" + locationId;
+    }
+
+    private static String etag(String resource, String scope, String version) {
+        return "\"" + resource + "-" + Integer.toHexString(scope.hashCode()) + "-" + version + "\"";
+    }
+}
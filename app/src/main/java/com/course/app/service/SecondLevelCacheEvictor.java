@@ -0,0 +1,56 @@
+package com.course.app.service;
+
+import com.course.app.entity.Course;
+import com.course.app.entity.CourseLocation;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * Evicts second-level cache entries that Hibernate cannot tell are stale: cached collections that still list a
+ * row deleted through the other side of the association. Entries are evicted once the current transaction
+ * commits, so a concurrent read cannot put the old state back.
+ */
+@Service
+public class SecondLevelCacheEvictor {
+
+    private static final String LOCATION_ADMINS = CourseLocation.class.getName() + ".admins";
+    private static final String COURSE_LOCATIONS = Course.class.getName() + ".courseLocations";
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    /**
+     * The admin lists of these locations changed outside the locations, e.g. an admin was deleted
+     */
+    public void locationAdminsChanged(Collection<Long> locationIds) {
+        afterCommit(() -> locationIds.forEach(locationId -> cache.evictCollectionData(LOCATION_ADMINS, locationId)));
+    }
+
+    /**
+     * Course to location mappings changed outside the courses, e.g. a location was deleted
+     */
+    public void courseLocationsChanged() {
+        afterCommit(() -> cache.evictCollectionData(COURSE_LOCATIONS));
+    }
+
+    private void afterCommit(Runnable evict) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
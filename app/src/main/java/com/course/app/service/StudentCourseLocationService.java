@@ -24,6 +24,8 @@ public class StudentCourseLocationService {
     private final StudentRepository studentRepository;
     private final CourseLocationRepository courseLocationRepository;
     private final UserRepository userRepository;
+    private final StudentLeaderboard studentLeaderboard;
+    private final AdminDashboardService adminDashboardService;
 
     /**
      * Assign a student to a course location
@@ -47,6 +49,8 @@ public class StudentCourseLocationService {
         StudentCourseLocation assignment = new StudentCourseLocation();
         assignment.setStudent(student);
         assignment.setCourseLocation(courseLocation);
+        studentLeaderboard.enroll(studentId, courseLocationId);
+        adminDashboardService.evictLocations(List.of(courseLocationId));
         
         return studentCourseLocationRepository.save(assignment);
     }
@@ -69,6 +73,8 @@ public class StudentCourseLocationService {
             throw new ResourceNotFoundException("Bu admin hiçbir kurs lokasyonuna atanmamış: " + adminId);
         }
         
+        adminDashboardService.evictLocations(adminLocations.stream().map(CourseLocation::getId).toList());
+        
         // Assign student to all admin's locations
         return adminLocations.stream()
                 .map(location -> {
@@ -82,6 +88,7 @@ public class StudentCourseLocationService {
                     StudentCourseLocation assignment = new StudentCourseLocation();
                     assignment.setStudent(student);
                     assignment.setCourseLocation(location);
+                    studentLeaderboard.enroll(studentId, location.getId());
                     return studentCourseLocationRepository.save(assignment);
                 })
                 .collect(Collectors.toList());
@@ -90,6 +97,7 @@ public class StudentCourseLocationService {
     /**
      * Get all course locations for a student
      */
+    @Transactional(readOnly = true)
     public List<CourseLocation> getStudentCourseLocations(Long studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + studentId));
@@ -102,6 +110,7 @@ public class StudentCourseLocationService {
     /**
      * Get all students for a course location
      */
+    @Transactional(readOnly = true)
     public List<Student> getCourseLocationStudents(Long courseLocationId) {
         CourseLocation courseLocation = courseLocationRepository.findById(courseLocationId)
                 .orElseThrow(() -> new ResourceNotFoundException("Kurs lokasyonu bulunamadı: " + courseLocationId));
@@ -126,5 +135,7 @@ public class StudentCourseLocationService {
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bu kurs lokasyonuna atanmamış"));
         
         studentCourseLocationRepository.delete(assignment);
+        studentLeaderboard.unenroll(studentId, courseLocationId);
+        adminDashboardService.evictLocations(List.of(courseLocationId));
     }
 }
@@ -0,0 +1,721 @@
+package com.course.app.service;
+
+import com.course.app.repository.StudentRankingRepository;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory student leaderboard.
+ *
+ * Students are ordered like the ranking queries: total score descending, then average score descending, with
+ * the student ID as the final tie-breaker. Totals and averages count non-null note scores only, and students
+ * without notes stand at zero. One board holds every student, scored by all their notes. One board per course
+ * location holds the students assigned to it, scored like the location ranking query: by their notes in the
+ * courses mapped to the location. Each board is an order-statistic treap keyed by student ID through a primitive
+ * map, so top-N pages, rank lookups and neighbourhoods cost O(log n) plus the size of the page.
+ *
+ * The boards are rebuilt from the database at startup and kept current by the services that write notes,
+ * lessons, course mappings, students and location assignments. Changes are deltas applied after the
+ * surrounding transaction commits. A rebuild holds the commit gate while it reads, so every committed change
+ * is either in what it reads or applied to the rebuilt boards, never both and never neither.
+ *
+ * The deltas only reach the boards of the instance that committed them, so the boards are also rebuilt every
+ * app.leaderboard.rebuild-interval-ms. Changes committed by other instances show up within that interval plus
+ * the rebuild time. Commits of this instance that touch the boards wait at the gate while a rebuild reads.
+ */
+@Slf4j
+@Component
+public class StudentLeaderboard {
+
+    private final StudentRankingRepository studentRankingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "leaderboard-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.leaderboard.rebuild-interval-ms:60000}")
+    private long rebuildIntervalMs;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Held shared by transactions from before their commit until their changes are applied, exclusively by rebuild
+    private final ReadWriteLock commitGate = new ReentrantReadWriteLock();
+    private Boards boards = new Boards();
+
+    public StudentLeaderboard(StudentRankingRepository studentRankingRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.studentRankingRepository = studentRankingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Build the boards once the application is up, then keep rebuilding them in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        rebuilder.scheduleWithFixedDelay(this::scheduledRebuild, rebuildIntervalMs, rebuildIntervalMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    private void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Student leaderboard rebuild failed, keeping the current boards", e);
+        }
+    }
+
+    /**
+     * Rebuild every board from lesson_notes, course_locations_mapping and student_course_locations. Runs in a
+     * read-write transaction so it reads the primary, not a replica that may be behind
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> readBoards());
+    }
+
+    private void readBoards() {
+        long started = System.currentTimeMillis();
+        commitGate.writeLock().lock();
+        try {
+            Boards rebuilt = new Boards();
+            for (Object[] row : studentRankingRepository.findCourseLocationMappings()) {
+                rebuilt.locationsByCourse.computeIfAbsent((long) (Long) row[0], id -> new LongOpenHashSet(2))
+                        .add((long) (Long) row[1]);
+            }
+            List<Object[]> scores = studentRankingRepository.findScoreTotalsByCourse();
+            for (Object[] row : scores) {
+                rebuilt.addStudent((Long) row[0]);
+                if (row[1] != null) {
+                    rebuilt.addToScore((Long) row[0], (Long) row[1], ((Number) row[2]).longValue(),
+                            ((Number) row[3]).intValue());
+                }
+            }
+            for (Object[] row : studentRankingRepository.findLocationAssignments()) {
+                rebuilt.enroll((Long) row[0], (Long) row[1]);
+            }
+
+            lock.writeLock().lock();
+            try {
+                boards = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Student leaderboard rebuilt for {} students in {} ms", rebuilt.global.size(),
+                    System.currentTimeMillis() - started);
+        } finally {
+            commitGate.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of the board, starting after the first {@code offset} students
+     */
+    public List<Standing> top(Long locationId, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            Board board = boards.board(locationId);
+            if (board == null || limit <= 0) {
+                return Collections.emptyList();
+            }
+            int from = Math.max(offset, 0) + 1;
+            int to = (int) Math.min((long) from + limit - 1, board.size());
+            return board.range(from, to);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the rank and scores of a student on a board
+     */
+    public Optional<Standing> standing(Long locationId, Long studentId) {
+        lock.readLock().lock();
+        try {
+            Board board = boards.board(locationId);
+            if (board == null) {
+                return Optional.empty();
+            }
+            int rank = board.rankOf(studentId);
+            return rank > 0 ? Optional.of(board.standingAt(rank)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a student together with up to {@code k} students ranked directly above and below them
+     */
+    public List<Standing> around(Long locationId, Long studentId, int k) {
+        lock.readLock().lock();
+        try {
+            Board board = boards.board(locationId);
+            int rank = board != null ? board.rankOf(studentId) : 0;
+            if (rank == 0) {
+                return Collections.emptyList();
+            }
+            int reach = Math.max(k, 0);
+            return board.range(Math.max(rank - reach, 1), (int) Math.min((long) rank + reach, board.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the locations a course is mapped to, as of the last committed change
+     */
+    public Set<Long> locationsOfCourse(Long courseId) {
+        lock.readLock().lock();
+        try {
+            LongSet locations = boards.locationsByCourse.get(courseId.longValue());
+            return locations != null ? new HashSet<>(locations) : Set.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a newly created student to the global board
+     */
+    public void addStudent(Long studentId) {
+        afterCommit(boards -> boards.addStudent(studentId));
+    }
+
+    /**
+     * Remove a deleted student from every board
+     */
+    public void removeStudent(Long studentId) {
+        afterCommit(boards -> boards.removeStudent(studentId));
+    }
+
+    /**
+     * Apply a created, changed or deleted note score of a course; a missing note is passed as a null score
+     */
+    public void recordScoreChange(Long studentId, Long courseId, Integer oldScore, Integer newScore) {
+        long sumDelta = (newScore != null ? newScore : 0) - (oldScore != null ? oldScore : 0);
+        int countDelta = (newScore != null ? 1 : 0) - (oldScore != null ? 1 : 0);
+        if (sumDelta == 0 && countDelta == 0) {
+            return;
+        }
+        afterCommit(boards -> boards.addToScore(studentId, courseId, sumDelta, countDelta));
+    }
+
+    /**
+     * Move the note scores of a lesson that moved to another course. Reads the scores in the current
+     * transaction, so call it once the lesson is moved and before the transaction commits
+     */
+    public void recordLessonMoved(Long lessonId, Long fromCourseId, Long toCourseId) {
+        if (fromCourseId.equals(toCourseId)) {
+            return;
+        }
+        List<Object[]> scores = studentRankingRepository.findNoteScoresByLessonId(lessonId);
+        if (scores.isEmpty()) {
+            return;
+        }
+        afterCommit(boards -> {
+            for (Object[] row : scores) {
+                long studentId = (Long) row[0];
+                int score = ((Number) row[1]).intValue();
+                boards.addToScore(studentId, fromCourseId, -score, -1);
+                boards.addToScore(studentId, toCourseId, score, 1);
+            }
+        });
+    }
+
+    /**
+     * Set the locations a course is mapped to; its notes count on the boards of these locations only.
+     * A deleted course is passed with no locations
+     */
+    public void mapCourse(Long courseId, Collection<Long> locationIds) {
+        LongOpenHashSet locations = new LongOpenHashSet();
+        locationIds.forEach(id -> locations.add(id.longValue()));
+        afterCommit(boards -> boards.mapCourse(courseId, locations));
+    }
+
+    /**
+     * Put a student on the board of a location they were assigned to
+     */
+    public void enroll(Long studentId, Long locationId) {
+        afterCommit(boards -> boards.enroll(studentId, locationId));
+    }
+
+    /**
+     * Take a student off the board of a location they were removed from
+     */
+    public void unenroll(Long studentId, Long locationId) {
+        afterCommit(boards -> boards.unenroll(studentId, locationId));
+    }
+
+    /**
+     * Drop the board of a deleted location
+     */
+    public void removeLocation(Long locationId) {
+        afterCommit(boards -> boards.removeLocation(locationId));
+    }
+
+    private void afterCommit(Consumer<Boards> change) {
+        Runnable apply = () -> {
+            lock.writeLock().lock();
+            try {
+                change.accept(boards);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply.run();
+            return;
+        }
+        // The gate is taken before the commit and released once the change is applied, so a rebuild either
+        // reads the change's data and never sees the change, or runs before the commit and gets the change
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean gated;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitGate.readLock().lock();
+                gated = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                apply.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (gated) {
+                    commitGate.readLock().unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * A student's position on a board. The percentile is the share of the board ranked at or below the student.
+     */
+    public record Standing(long studentId, int rank, int boardSize, long totalScore, int scoreCount) {
+
+        public double averageScore() {
+            return scoreCount > 0 ? (double) totalScore / scoreCount : 0;
+        }
+
+        public double percentile() {
+            return boardSize > 0 ? (double) (boardSize - rank + 1) / boardSize * 100 : 0;
+        }
+    }
+
+    private static final class Boards {
+        private final Board global = new Board();
+        private final Long2ObjectOpenHashMap<Board> byLocation = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<LongSet> locationsByStudent = new Long2ObjectOpenHashMap<>();
+        private final Long2ObjectOpenHashMap<LongSet> locationsByCourse = new Long2ObjectOpenHashMap<>();
+        // Score sum and count of each student per course, the source of the location scores
+        private final Long2ObjectOpenHashMap<Long2ObjectOpenHashMap<long[]>> courseScores = new Long2ObjectOpenHashMap<>();
+
+        Board board(Long locationId) {
+            return locationId == null ? global : byLocation.get((long) locationId);
+        }
+
+        void addStudent(long studentId) {
+            if (!global.contains(studentId)) {
+                global.put(studentId, 0, 0);
+            }
+        }
+
+        void removeStudent(long studentId) {
+            global.remove(studentId);
+            courseScores.remove(studentId);
+            LongSet locations = locationsByStudent.remove(studentId);
+            if (locations != null) {
+                locations.forEach((long locationId) -> removeFromLocation(studentId, locationId));
+            }
+        }
+
+        void addToScore(long studentId, long courseId, long sumDelta, int countDelta) {
+            addStudent(studentId);
+            long[] course = courseScores.computeIfAbsent(studentId, id -> new Long2ObjectOpenHashMap<>())
+                    .computeIfAbsent(courseId, id -> new long[2]);
+            course[0] += sumDelta;
+            course[1] = Math.max(course[1] + countDelta, 0);
+            if (course[0] == 0 && course[1] == 0) {
+                courseScores.get(studentId).remove(courseId);
+            }
+
+            addTo(global, studentId, sumDelta, countDelta);
+            LongSet locations = locationsByStudent.get(studentId);
+            LongSet courseLocations = locationsByCourse.get(courseId);
+            if (locations != null && courseLocations != null) {
+                locations.forEach((long locationId) -> {
+                    if (courseLocations.contains(locationId)) {
+                        addTo(byLocation.get(locationId), studentId, sumDelta, countDelta);
+                    }
+                });
+            }
+        }
+
+        void enroll(long studentId, long locationId) {
+            addStudent(studentId);
+            if (locationsByStudent.computeIfAbsent(studentId, id -> new LongOpenHashSet(2)).add(locationId)) {
+                long sum = 0;
+                int count = 0;
+                Long2ObjectOpenHashMap<long[]> courses = courseScores.get(studentId);
+                if (courses != null) {
+                    for (Long2ObjectMap.Entry<long[]> course : courses.long2ObjectEntrySet()) {
+                        LongSet courseLocations = locationsByCourse.get(course.getLongKey());
+                        if (courseLocations != null && courseLocations.contains(locationId)) {
+                            sum += course.getValue()[0];
+                            count += (int) course.getValue()[1];
+                        }
+                    }
+                }
+                byLocation.computeIfAbsent(locationId, id -> new Board()).put(studentId, sum, count);
+            }
+        }
+
+        void mapCourse(long courseId, LongSet locationIds) {
+            LongSet previous = locationsByCourse.remove(courseId);
+            if (!locationIds.isEmpty()) {
+                locationsByCourse.put(courseId, locationIds);
+            }
+            if (previous != null) {
+                previous.forEach((long locationId) -> {
+                    if (!locationIds.contains(locationId)) {
+                        moveCourseScores(courseId, locationId, -1);
+                    }
+                });
+            }
+            locationIds.forEach((long locationId) -> {
+                if (previous == null || !previous.contains(locationId)) {
+                    moveCourseScores(courseId, locationId, 1);
+                }
+            });
+        }
+
+        /**
+         * Add (sign 1) or take off (sign -1) the scores of a course for every student on a location's board
+         */
+        private void moveCourseScores(long courseId, long locationId, int sign) {
+            Board board = byLocation.get(locationId);
+            if (board == null) {
+                return;
+            }
+            for (long studentId : board.members()) {
+                Long2ObjectOpenHashMap<long[]> courses = courseScores.get(studentId);
+                long[] course = courses != null ? courses.get(courseId) : null;
+                if (course != null) {
+                    addTo(board, studentId, sign * course[0], sign * (int) course[1]);
+                }
+            }
+        }
+
+        private static void addTo(Board board, long studentId, long sumDelta, int countDelta) {
+            long sum = board.contains(studentId) ? board.sumOf(studentId) : 0;
+            int count = board.contains(studentId) ? board.countOf(studentId) : 0;
+            board.put(studentId, sum + sumDelta, Math.max(count + countDelta, 0));
+        }
+
+        void unenroll(long studentId, long locationId) {
+            LongSet locations = locationsByStudent.get(studentId);
+            if (locations != null && locations.remove(locationId)) {
+                if (locations.isEmpty()) {
+                    locationsByStudent.remove(studentId);
+                }
+                removeFromLocation(studentId, locationId);
+            }
+        }
+
+        void removeLocation(long locationId) {
+            if (byLocation.remove(locationId) != null) {
+                locationsByStudent.values().forEach(locations -> locations.remove(locationId));
+                locationsByStudent.values().removeIf(LongSet::isEmpty);
+            }
+            locationsByCourse.values().forEach(locations -> locations.remove(locationId));
+            locationsByCourse.values().removeIf(LongSet::isEmpty);
+        }
+
+        private void removeFromLocation(long studentId, long locationId) {
+            Board board = byLocation.get(locationId);
+            if (board != null) {
+                board.remove(studentId);
+                if (board.size() == 0) {
+                    byLocation.remove(locationId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Treap over array-backed nodes with subtree sizes, ordered best student first. Node 0 is the empty tree.
+     */
+    static final class Board {
+        private final Long2IntOpenHashMap nodeByStudent = new Long2IntOpenHashMap();
+        private final IntArrayList freeNodes = new IntArrayList();
+        private final SplittableRandom random = new SplittableRandom();
+        private final int[] split = new int[2];
+
+        private long[] studentIds = new long[16];
+        private long[] sums = new long[16];
+        private int[] counts = new int[16];
+        private int[] priorities = new int[16];
+        private int[] left = new int[16];
+        private int[] right = new int[16];
+        private int[] sizes = new int[16];
+        private int nextNode = 1;
+        private int root;
+
+        int size() {
+            return sizes[root];
+        }
+
+        boolean contains(long studentId) {
+            return nodeByStudent.containsKey(studentId);
+        }
+
+        long sumOf(long studentId) {
+            return sums[nodeByStudent.get(studentId)];
+        }
+
+        int countOf(long studentId) {
+            return counts[nodeByStudent.get(studentId)];
+        }
+
+        long[] members() {
+            return nodeByStudent.keySet().toLongArray();
+        }
+
+        /**
+         * Insert a student or move them to their new score
+         */
+        void put(long studentId, long sum, int count) {
+            remove(studentId);
+            int node = allocate();
+            studentIds[node] = studentId;
+            sums[node] = sum;
+            counts[node] = count;
+            priorities[node] = random.nextInt();
+            left[node] = 0;
+            right[node] = 0;
+            sizes[node] = 1;
+            nodeByStudent.put(studentId, node);
+            root = insert(root, node);
+        }
+
+        void remove(long studentId) {
+            int node = nodeByStudent.remove(studentId);
+            if (node != 0) {
+                root = erase(root, node);
+                freeNodes.add(node);
+            }
+        }
+
+        /**
+         * 1-based rank of a student, or 0 when they are not on the board
+         */
+        int rankOf(long studentId) {
+            int node = nodeByStudent.get(studentId);
+            if (node == 0) {
+                return 0;
+            }
+            int before = 0;
+            int current = root;
+            while (current != node) {
+                if (precedes(node, current)) {
+                    current = left[current];
+                } else {
+                    before += sizes[left[current]] + 1;
+                    current = right[current];
+                }
+            }
+            return before + sizes[left[node]] + 1;
+        }
+
+        Standing standingAt(int rank) {
+            int current = root;
+            int remaining = rank;
+            while (true) {
+                int leftSize = sizes[left[current]];
+                if (remaining <= leftSize) {
+                    current = left[current];
+                } else if (remaining == leftSize + 1) {
+                    return standing(current, rank);
+                } else {
+                    remaining -= leftSize + 1;
+                    current = right[current];
+                }
+            }
+        }
+
+        /**
+         * Students ranked from..to (1-based, inclusive) in board order
+         */
+        List<Standing> range(int from, int to) {
+            List<Standing> standings = new ArrayList<>(Math.max(to - from + 1, 0));
+            if (from <= to) {
+                collect(root, 0, from, to, standings);
+            }
+            return standings;
+        }
+
+        private void collect(int node, int before, int from, int to, List<Standing> standings) {
+            if (node == 0) {
+                return;
+            }
+            int rank = before + sizes[left[node]] + 1;
+            if (from < rank) {
+                collect(left[node], before, from, to, standings);
+            }
+            if (from <= rank && rank <= to) {
+                standings.add(standing(node, rank));
+            }
+            if (rank < to) {
+                collect(right[node], rank, from, to, standings);
+            }
+        }
+
+        private Standing standing(int node, int rank) {
+            return new Standing(studentIds[node], rank, size(), sums[node], counts[node]);
+        }
+
+        private int insert(int tree, int node) {
+            if (tree == 0) {
+                return node;
+            }
+            if (priorities[node] > priorities[tree]) {
+                split(tree, node);
+                left[node] = split[0];
+                right[node] = split[1];
+                update(node);
+                return node;
+            }
+            if (precedes(node, tree)) {
+                left[tree] = insert(left[tree], node);
+            } else {
+                right[tree] = insert(right[tree], node);
+            }
+            update(tree);
+            return tree;
+        }
+
+        /**
+         * Split a tree into the nodes ranked before the key node (split[0]) and after it (split[1])
+         */
+        private void split(int tree, int key) {
+            if (tree == 0) {
+                split[0] = 0;
+                split[1] = 0;
+                return;
+            }
+            if (precedes(tree, key)) {
+                split(right[tree], key);
+                right[tree] = split[0];
+                split[0] = tree;
+            } else {
+                split(left[tree], key);
+                left[tree] = split[1];
+                split[1] = tree;
+            }
+            update(tree);
+        }
+
+        private int erase(int tree, int node) {
+            if (tree == node) {
+                return merge(left[node], right[node]);
+            }
+            if (precedes(node, tree)) {
+                left[tree] = erase(left[tree], node);
+            } else {
+                right[tree] = erase(right[tree], node);
+            }
+            update(tree);
+            return tree;
+        }
+
+        private int merge(int first, int second) {
+            if (first == 0 || second == 0) {
+                return first + second;
+            }
+            if (priorities[first] > priorities[second]) {
+                right[first] = merge(right[first], second);
+                update(first);
+                return first;
+            }
+            left[second] = merge(first, left[second]);
+            update(second);
+            return second;
+        }
+
+        private void update(int node) {
+            sizes[node] = sizes[left[node]] + sizes[right[node]] + 1;
+        }
+
+        /**
+         * Whether node a ranks above node b: higher total, then higher average, then lower student ID
+         */
+        private boolean precedes(int a, int b) {
+            if (sums[a] != sums[b]) {
+                return sums[a] > sums[b];
+            }
+            // Compare the averages without division; a student without scores averages zero
+            long averageA = (counts[a] > 0 ? sums[a] : 0) * Math.max(counts[b], 1);
+            long averageB = (counts[b] > 0 ? sums[b] : 0) * Math.max(counts[a], 1);
+            if (averageA != averageB) {
+                return averageA > averageB;
+            }
+            return studentIds[a] < studentIds[b];
+        }
+
+        private int allocate() {
+            if (!freeNodes.isEmpty()) {
+                return freeNodes.popInt();
+            }
+            if (nextNode == studentIds.length) {
+                int capacity = studentIds.length * 2;
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                sums = Arrays.copyOf(sums, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                sizes = Arrays.copyOf(sizes, capacity);
+            }
+            return nextNode++;
+        }
+    }
+}
@@ -8,13 +8,16 @@ import com.course.app.entity.LessonNote;
 import com.course.app.entity.LessonNoteHistory;
 import com.course.app.entity.Student;
 import com.course.app.entity.User;
+import com.course.app.event.ActivityEvent;
 import com.course.app.exception.ResourceNotFoundException;
+import com.course.app.repository.CourseLocationRepository;
 import com.course.app.repository.LessonNoteHistoryRepository;
 import com.course.app.repository.LessonNoteRepository;
 import com.course.app.repository.LessonRepository;
 import com.course.app.repository.StudentLessonNoteRepository;
 import com.course.app.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,7 +33,13 @@ public class StudentLessonNoteService {
     private final LessonNoteRepository lessonNoteRepository;
     private final LessonNoteHistoryRepository lessonNoteHistoryRepository;
     private final UserRepository userRepository;
+    private final CourseLocationRepository courseLocationRepository;
     private final StudentService studentService;
+    private final LessonStatsService lessonStatsService;
+    private final StudentLeaderboard studentLeaderboard;
+    private final AdminDashboardService adminDashboardService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessMetrics businessMetrics;
 
     @Autowired
     public StudentLessonNoteService(
@@ -39,18 +48,31 @@ public class StudentLessonNoteService {
             LessonNoteRepository lessonNoteRepository,
             LessonNoteHistoryRepository lessonNoteHistoryRepository,
             UserRepository userRepository,
-            StudentService studentService) {
+            CourseLocationRepository courseLocationRepository,
+            StudentService studentService,
+            LessonStatsService lessonStatsService,
+            StudentLeaderboard studentLeaderboard,
+            AdminDashboardService adminDashboardService,
+            ApplicationEventPublisher eventPublisher,
+            BusinessMetrics businessMetrics) {
         this.studentLessonNoteRepository = studentLessonNoteRepository;
         this.lessonRepository = lessonRepository;
         this.lessonNoteRepository = lessonNoteRepository;
         this.lessonNoteHistoryRepository = lessonNoteHistoryRepository;
         this.userRepository = userRepository;
+        this.courseLocationRepository = courseLocationRepository;
         this.studentService = studentService;
+        this.lessonStatsService = lessonStatsService;
+        this.studentLeaderboard = studentLeaderboard;
+        this.adminDashboardService = adminDashboardService;
+        this.eventPublisher = eventPublisher;
+        this.businessMetrics = businessMetrics;
     }
 
     /**
      * Get students by course ID with their lesson notes for a specific lesson
      */
+    @Transactional(readOnly = true)
     public List<StudentLessonNoteDTO> getStudentsWithLessonNotes(Long courseId, Long lessonId) {
         // Verify lesson exists
         lessonRepository.findById(lessonId)
@@ -90,8 +112,11 @@ public class StudentLessonNoteService {
         
         // Find existing note or create new one
         LessonNote lessonNote = lessonNoteRepository.findByStudentIdAndLessonId(studentId, lessonId);
+        boolean isNewNote = lessonNote == null;
+        Integer oldScore = isNewNote ? null : lessonNote.getScore();
+        Boolean oldPassed = isNewNote ? null : lessonNote.getPassed();
         
-        if (lessonNote == null) {
+        if (isNewNote) {
             // Create new note
             lessonNote = new LessonNote();
             lessonNote.setStudent(student);
@@ -124,6 +149,19 @@ public class StudentLessonNoteService {
         // Save note
         LessonNote savedNote = lessonNoteRepository.save(lessonNote);
         
+        // Apply the change to the lesson statistics
+        if (isNewNote) {
+            lessonStatsService.recordCreated(savedNote);
+            adminDashboardService.evictCourse(lesson.getCourse().getId());
+        } else {
+            lessonStatsService.recordUpdated(savedNote, oldScore, oldPassed);
+        }
+        studentLeaderboard.recordScoreChange(studentId, lesson.getCourse().getId(), oldScore, savedNote.getScore());
+        eventPublisher.publishEvent(ActivityEvent.noteGraded(isNewNote,
+                student.getFirstName() + " " + student.getLastName(), lesson.getName(), savedNote.getScore(),
+                courseLocationRepository.findIdsByCourseId(lesson.getCourse().getId())));
+        businessMetrics.noteGraded(isNewNote);
+        
         // Update student's total score if passed
         if (Boolean.TRUE.equals(noteData.getPassed())) {
             studentService.updateStudentTotalScore(studentId);
@@ -0,0 +1,317 @@
+package com.course.app.service;
+
+import com.course.app.dto.StudentPerformanceDTO;
+import com.course.app.entity.Student;
+import com.course.app.entity.StudentPerformanceSnapshot;
+import com.course.app.repository.CourseLocationRepository;
+import com.course.app.repository.StudentCourseLocationRepository;
+import com.course.app.repository.StudentPerformanceSnapshotRepository;
+import com.course.app.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the student_performance_snapshot read model behind the public performance page.
+ *
+ * Writes only mark students stale, with a row in performance_snapshot_changes written in their own transaction:
+ * directly for the student's own rows, or through the courses and locations whose lessons, names or admins appear
+ * on the page. A background worker rebuilds the stale students every app.performance-snapshot.rebuild-interval-ms,
+ * one transaction each that also deletes the student's markers, so a burst of writes to one student costs one
+ * rebuild and page reads never run the page's queries. A failed rebuild keeps its markers and is retried on the
+ * next run, up to app.performance-snapshot.max-attempts times. Until its first snapshot is written, a student's
+ * page is computed from the live tables.
+ */
+@Slf4j
+@Service
+public class StudentPerformanceSnapshotService {
+
+    private final StudentPerformanceSnapshotRepository snapshotRepository;
+    private final StudentRepository studentRepository;
+    private final StudentCourseLocationRepository studentCourseLocationRepository;
+    private final CourseLocationRepository courseLocationRepository;
+    private final PublicStudentService publicStudentService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "performance-snapshot-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.performance-snapshot.rebuild-interval-ms:1000}")
+    private long rebuildIntervalMs;
+
+    @Value("${app.performance-snapshot.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.performance-snapshot.max-attempts:10}")
+    private int maxAttempts;
+
+    private enum Scope { STUDENT, COURSE, LOCATION }
+
+    /**
+     * One row of performance_snapshot_changes
+     */
+    private record Change(long id, Scope scope, long scopeId, int attempts) {
+    }
+
+    private static final String MARK_SQL = "INSERT INTO performance_snapshot_changes (scope, scope_id) VALUES (?, ?)";
+
+    public StudentPerformanceSnapshotService(
+            StudentPerformanceSnapshotRepository snapshotRepository,
+            StudentRepository studentRepository,
+            StudentCourseLocationRepository studentCourseLocationRepository,
+            CourseLocationRepository courseLocationRepository,
+            PublicStudentService publicStudentService,
+            ObjectMapper objectMapper,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager) {
+        this.snapshotRepository = snapshotRepository;
+        this.studentRepository = studentRepository;
+        this.studentCourseLocationRepository = studentCourseLocationRepository;
+        this.courseLocationRepository = courseLocationRepository;
+        this.publicStudentService = publicStudentService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        worker.scheduleWithFixedDelay(this::rebuildStale, rebuildIntervalMs, rebuildIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Queue the students without a current snapshot: the first start after the read model was introduced,
+     * or after FORMAT_VERSION changed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillMissingSnapshots() {
+        List<Long> studentIds = snapshotRepository.findStudentIdsWithoutSnapshot(StudentPerformanceSnapshot.FORMAT_VERSION);
+        if (!studentIds.isEmpty()) {
+            log.info("Building {} missing student performance snapshots", studentIds.size());
+            jdbcTemplate.batchUpdate(MARK_SQL, studentIds, batchSize, (statement, studentId) -> {
+                statement.setString(1, Scope.STUDENT.name());
+                statement.setLong(2, studentId);
+            });
+        }
+    }
+
+    /**
+     * Get the snapshot of a student by national ID, empty when it has not been built yet
+     */
+    @Transactional(readOnly = true)
+    public Optional<StudentPerformanceSnapshot> findSnapshot(String nationalId) {
+        return snapshotRepository.findByNationalId(nationalId);
+    }
+
+    /**
+     * Get the ETag of a snapshot; it changes with every rebuild that changed the page
+     */
+    public String etag(StudentPerformanceSnapshot snapshot) {
+        return "\"performance-" + snapshot.getStudentId() + "-" + snapshot.getVersion() + "\"";
+    }
+
+    /**
+     * Get the performance details stored in a snapshot
+     */
+    public StudentPerformanceDTO read(StudentPerformanceSnapshot snapshot) {
+        try {
+            return objectMapper.readValue(snapshot.getPayload(), StudentPerformanceDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable performance snapshot of student " + snapshot.getStudentId(), e);
+        }
+    }
+
+    /**
+     * A student, their enrollment, notes or attendance changed; marked in the current transaction
+     */
+    public void studentChanged(Long studentId) {
+        mark(Scope.STUDENT, studentId);
+    }
+
+    /**
+     * A course or one of its lessons changed; every student at the course's locations is rebuilt
+     */
+    public void courseChanged(Long courseId) {
+        mark(Scope.COURSE, courseId);
+    }
+
+    /**
+     * Locations, their admins or their courses changed; every student enrolled there is rebuilt
+     */
+    public void locationsChanged(Collection<Long> locationIds) {
+        locationIds.forEach(locationId -> mark(Scope.LOCATION, locationId));
+    }
+
+    /**
+     * Rebuild the snapshots of every stale student; run by the background worker
+     */
+    public synchronized void rebuildStale() {
+        try {
+            List<Change> changes = pendingChanges();
+            if (changes.stream().anyMatch(change -> change.scope() != Scope.STUDENT)) {
+                transactionTemplate.executeWithoutResult(status -> expand(changes));
+                changes.clear();
+                changes.addAll(pendingChanges());
+            }
+
+            Map<Long, List<Change>> changesByStudent = new LinkedHashMap<>();
+            for (Change change : changes) {
+                if (change.scope() == Scope.STUDENT) {
+                    changesByStudent.computeIfAbsent(change.scopeId(), id -> new ArrayList<>()).add(change);
+                }
+            }
+            changesByStudent.forEach((studentId, studentChanges) -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        // Another instance's worker may have taken the markers; their row locks are held until it
+                        // commits, so a student is rebuilt by one worker at a time
+                        if (delete(studentChanges) > 0) {
+                            rebuild(studentId);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    failed(studentId, studentChanges, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled worker
+            log.warn("Failed to rebuild student performance snapshots", e);
+        }
+    }
+
+    private List<Change> pendingChanges() {
+        return new ArrayList<>(jdbcTemplate.query(
+                "SELECT id, scope, scope_id, attempts FROM performance_snapshot_changes WHERE attempts < ? " +
+                "ORDER BY id LIMIT ?",
+                (row, rowNum) -> new Change(row.getLong(1), Scope.valueOf(row.getString(2)), row.getLong(3),
+                        row.getInt(4)),
+                maxAttempts, batchSize));
+    }
+
+    /**
+     * Replace the course and location markers by markers of the students enrolled there
+     */
+    private void expand(List<Change> changes) {
+        Set<Long> locationIds = new HashSet<>();
+        List<Change> expanded = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.scope() == Scope.LOCATION) {
+                locationIds.add(change.scopeId());
+            } else if (change.scope() == Scope.COURSE) {
+                locationIds.addAll(courseLocationRepository.findIdsByCourseId(change.scopeId()));
+            } else {
+                continue;
+            }
+            expanded.add(change);
+        }
+        if (delete(expanded) > 0 && !locationIds.isEmpty()) {
+            List<Long> studentIds = studentCourseLocationRepository.findStudentIdsByLocationIds(locationIds);
+            jdbcTemplate.batchUpdate(MARK_SQL, studentIds, batchSize, (statement, studentId) -> {
+                statement.setString(1, Scope.STUDENT.name());
+                statement.setLong(2, studentId);
+            });
+        }
+    }
+
+    /**
+     * Delete the markers that were read, and only those: a marker written meanwhile is for a later state.
+     * Returns how many were still there
+     */
+    private int delete(List<Change> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update("DELETE FROM performance_snapshot_changes WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", changes.stream().map(Change::id).toList()));
+    }
+
+    private void failed(Long studentId, List<Change> changes, RuntimeException e) {
+        int attempts = changes.stream().mapToInt(Change::attempts).max().orElse(0) + 1;
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on the performance snapshot of student {} after {} attempts", studentId, attempts, e);
+        } else {
+            log.warn("Failed to rebuild the performance snapshot of student {}, retrying", studentId, e);
+        }
+        try {
+            namedParameterJdbcTemplate.update(
+                    "UPDATE performance_snapshot_changes SET attempts = attempts + 1 WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", changes.stream().map(Change::id).toList()));
+        } catch (RuntimeException updateFailure) {
+            log.warn("Failed to count the attempt for student {}", studentId, updateFailure);
+        }
+    }
+
+    private void rebuild(Long studentId) {
+        Optional<StudentPerformanceSnapshot> existing = snapshotRepository.findById(studentId);
+        Student student = studentRepository.findById(studentId).orElse(null);
+        if (student == null) {
+            existing.ifPresent(snapshotRepository::delete);
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(publicStudentService.buildStudentPerformance(student));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the performance of student " + studentId, e);
+        }
+        if (existing.isPresent() && existing.get().getFormatVersion() == StudentPerformanceSnapshot.FORMAT_VERSION
+                && existing.get().getPayload().equals(payload)) {
+            // Unchanged page keeps its version, so clients keep their cached copy
+            return;
+        }
+
+        // A national ID moves to another student when a student is deleted or renumbered
+        snapshotRepository.findByNationalId(student.getNationalId())
+                .filter(other -> !other.getStudentId().equals(studentId))
+                .ifPresent(other -> {
+                    snapshotRepository.delete(other);
+                    snapshotRepository.flush();
+                    studentChanged(other.getStudentId());
+                });
+
+        StudentPerformanceSnapshot snapshot = existing.orElseGet(() -> {
+            StudentPerformanceSnapshot created = new StudentPerformanceSnapshot();
+            created.setStudentId(studentId);
+            return created;
+        });
+        snapshot.setNationalId(student.getNationalId());
+        snapshot.setPayload(payload);
+        snapshot.setFormatVersion(StudentPerformanceSnapshot.FORMAT_VERSION);
+        snapshotRepository.save(snapshot);
+    }
+
+    private void mark(Scope scope, Long scopeId) {
+        if (OncePerTransaction.first(this, scope.name() + ":" + scopeId)) {
+            jdbcTemplate.update(MARK_SQL, scope.name(), scopeId);
+        }
+    }
+}
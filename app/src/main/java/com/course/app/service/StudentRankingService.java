@@ -1,60 +1,236 @@
 package com.course.app.service;
 
+import com.course.app.config.CacheConfig;
+import com.course.app.config.PrimaryRead;
 import com.course.app.dto.StudentRankingDTO;
+import com.course.app.entity.CourseLocation;
+import com.course.app.entity.Student;
+import com.course.app.exception.ResourceNotFoundException;
+import com.course.app.repository.CourseLocationRepository;
 import com.course.app.repository.StudentRankingRepository;
+import com.course.app.repository.StudentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StudentRankingService {
 
     private final StudentRankingRepository studentRankingRepository;
+    private final StudentRepository studentRepository;
+    private final CourseLocationRepository courseLocationRepository;
+    private final StudentLeaderboard studentLeaderboard;
+    private final CacheManager cacheManager;
+    
+    // Location and course rankings are computed and cached this deep once per ID; smaller limits are cut from it
+    static final int MAX_RANKING_LIMIT = 100;
+    
+    // Part of every cache key; bumped by evictAll so rankings still being loaded are stored under keys no one reads
+    private final AtomicLong generation = new AtomicLong();
 
-    public List<StudentRankingDTO> getTopStudents(int limit) {
-        List<Object[]> results = studentRankingRepository.findTopStudentsByScore(limit);
+    /**
+     * Get a page of the global leaderboard of at most {@link #MAX_RANKING_LIMIT} students
+     */
+    @Transactional(readOnly = true)
+    public List<StudentRankingDTO> getTopStudents(int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        return toRankings(studentLeaderboard.top(null, offset, Math.min(limit, MAX_RANKING_LIMIT)), null);
+    }
+
+    /**
+     * Get the rank and percentile of a student, globally or within one of their course locations
+     */
+    @Transactional(readOnly = true)
+    public StudentRankingDTO getStudentStanding(String nationalId, Long locationId) {
+        Student student = findStudent(nationalId);
+        StudentLeaderboard.Standing standing = studentLeaderboard.standing(locationId, student.getId())
+                .orElseThrow(() -> notRanked(nationalId, locationId));
+        return toRanking(standing, student, findLocation(locationId));
+    }
+
+    /**
+     * Get a student together with the {@code k} students ranked directly above and below them, {@code k} at most
+     * half of {@link #MAX_RANKING_LIMIT}
+     */
+    @Transactional(readOnly = true)
+    public List<StudentRankingDTO> getStudentsAround(String nationalId, Long locationId, int k) {
+        Student student = findStudent(nationalId);
+        List<StudentLeaderboard.Standing> standings = studentLeaderboard.around(locationId, student.getId(),
+                Math.min(k, MAX_RANKING_LIMIT / 2));
+        if (standings.isEmpty()) {
+            throw notRanked(nationalId, locationId);
+        }
+        return toRankings(standings, findLocation(locationId));
+    }
+
+    /**
+     * Get the top students of a location, scored by the notes of the courses mapped to it; at most
+     * {@link #MAX_RANKING_LIMIT} students
+     */
+    @Transactional(readOnly = true)
+    @PrimaryRead
+    public List<StudentRankingDTO> getTopStudentsByLocation(Long locationId, int limit) {
+        return first(limit, getCache().get(locationKey(locationId), () -> mapRankingRows(
+                studentRankingRepository.findTopStudentsByScoreAndLocation(locationId, MAX_RANKING_LIMIT))));
+    }
+
+    /**
+     * Get the top students of a course, scored by the notes of its lessons; at most {@link #MAX_RANKING_LIMIT}
+     * students
+     */
+    @Transactional(readOnly = true)
+    @PrimaryRead
+    public List<StudentRankingDTO> getTopStudentsByCourse(Long courseId, int limit) {
+        return first(limit, getCache().get(courseKey(courseId), () -> mapRankingRows(
+                studentRankingRepository.findTopStudentsByScoreAndCourse(courseId, MAX_RANKING_LIMIT))));
+    }
+
+    /**
+     * Drop the cached rankings of a course and of the locations it is mapped to once the transaction commits
+     */
+    public void evictCourse(Long courseId) {
+        afterCommit(cache -> {
+            cache.evict(courseKey(courseId));
+            studentLeaderboard.locationsOfCourse(courseId).forEach(locationId -> cache.evict(locationKey(locationId)));
+        });
+    }
+
+    /**
+     * Drop the cached ranking of a location once the transaction commits
+     */
+    public void evictLocation(Long locationId) {
+        afterCommit(cache -> cache.evict(locationKey(locationId)));
+    }
+
+    /**
+     * Drop every cached ranking once the transaction commits
+     */
+    public void evictAll() {
+        afterCommit(cache -> {
+            generation.incrementAndGet();
+            cache.clear();
+        });
+    }
+
+    private void afterCommit(Consumer<Cache> eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(getCache());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.accept(getCache());
+            }
+        });
+    }
+
+    // Evicting a single key waits for a load of that key in flight, so the load cannot outlive the eviction
+    private String locationKey(Long locationId) {
+        return generation.get() + ":location:" + locationId;
+    }
+
+    private String courseKey(Long courseId) {
+        return generation.get() + ":course:" + courseId;
+    }
+
+    private static List<StudentRankingDTO> first(int limit, List<StudentRankingDTO> rankings) {
+        return new ArrayList<>(rankings.subList(0, Math.max(Math.min(limit, rankings.size()), 0)));
+    }
+
+    private Student findStudent(String nationalId) {
+        return studentRepository.findByNationalId(nationalId)
+                .orElseThrow(() -> new ResourceNotFoundException("TC Kimlik No ile öğrenci bulunamadı: " + nationalId));
+    }
+
+    private CourseLocation findLocation(Long locationId) {
+        if (locationId == null) {
+            return null;
+        }
+        return courseLocationRepository.findById(locationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Kurs lokasyonu bulunamadı: " + locationId));
+    }
+
+    private ResourceNotFoundException notRanked(String nationalId, Long locationId) {
+        return new ResourceNotFoundException(locationId == null
+                ? "Öğrenci sıralamada bulunamadı: " + nationalId
+                : "Öğrenci bu kurs lokasyonuna atanmamış");
+    }
+
+    /**
+     * Map ranking query rows (id, first name, last name, national ID, total, average[, location ID, location name])
+     */
+    private List<StudentRankingDTO> mapRankingRows(List<Object[]> results) {
         List<StudentRankingDTO> rankings = new ArrayList<>();
         
         int rank = 1;
         for (Object[] result : results) {
-            StudentRankingDTO dto = StudentRankingDTO.builder()
+            rankings.add(StudentRankingDTO.builder()
                     .id(((Number) result[0]).longValue())
                     .firstName((String) result[1])
                     .lastName((String) result[2])
                     .nationalId((String) result[3])
                     .totalScore(((Number) result[4]).doubleValue())
                     .averageScore(((Number) result[5]).doubleValue())
+                    .courseLocationId(result.length > 6 ? ((Number) result[6]).longValue() : null)
+                    .courseLocationName(result.length > 7 ? (String) result[7] : null)
                     .rank(rank++)
-                    .build();
-            rankings.add(dto);
+                    .build());
         }
         
         return rankings;
     }
 
-    public List<StudentRankingDTO> getTopStudentsByLocation(Long locationId, int limit) {
-        List<Object[]> results = studentRankingRepository.findTopStudentsByScoreAndLocation(locationId, limit);
+    private List<StudentRankingDTO> toRankings(List<StudentLeaderboard.Standing> standings, CourseLocation location) {
+        Map<Long, Student> students = studentRepository.findAllById(standings.stream()
+                        .map(StudentLeaderboard.Standing::studentId)
+                        .collect(Collectors.toList())).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+
         List<StudentRankingDTO> rankings = new ArrayList<>();
-        
-        int rank = 1;
-        for (Object[] result : results) {
-            StudentRankingDTO dto = StudentRankingDTO.builder()
-                    .id(((Number) result[0]).longValue())
-                    .firstName((String) result[1])
-                    .lastName((String) result[2])
-                    .nationalId((String) result[3])
-                    .totalScore(((Number) result[4]).doubleValue())
-                    .averageScore(((Number) result[5]).doubleValue())
-                    .courseLocationId(result[6] != null ? ((Number) result[6]).longValue() : null)
-                    .courseLocationName((String) result[7])
-                    .rank(rank++)
-                    .build();
-            rankings.add(dto);
+        for (StudentLeaderboard.Standing standing : standings) {
+            Student student = students.get(standing.studentId());
+            // Skip students deleted after the page was read from the board
+            if (student != null) {
+                rankings.add(toRanking(standing, student, location));
+            }
         }
-        
         return rankings;
     }
+
+    private StudentRankingDTO toRanking(StudentLeaderboard.Standing standing, Student student, CourseLocation location) {
+        return StudentRankingDTO.builder()
+                .id(student.getId())
+                .firstName(student.getFirstName())
+                .lastName(student.getLastName())
+                .nationalId(student.getNationalId())
+                .totalScore((double) standing.totalScore())
+                .averageScore(standing.averageScore())
+                .rank(standing.rank())
+                .percentile(standing.percentile())
+                .courseLocationId(location != null ? location.getId() : null)
+                .courseLocationName(location != null ? location.getName() : null)
+                .build();
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(CacheConfig.STUDENT_RANKINGS),
+                "Cache not configured: " + CacheConfig.STUDENT_RANKINGS);
+    }
 }
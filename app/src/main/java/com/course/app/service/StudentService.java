@@ -4,10 +4,12 @@ import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.course.app.config.PrimaryRead;
 import com.course.app.dto.CourseLocationDTO;
 import com.course.app.dto.StudentCreateRequest;
 import com.course.app.dto.StudentDTO;
@@ -19,6 +21,7 @@ import com.course.app.entity.Student;
 import com.course.app.entity.StudentCourseLocation;
 import com.course.app.entity.User;
 import com.course.app.entity.Role;
+import com.course.app.event.ActivityEvent;
 import com.course.app.exception.ResourceAlreadyExistsException;
 import com.course.app.exception.ResourceNotFoundException;
 import com.course.app.repository.CourseLocationRepository;
@@ -41,19 +44,29 @@ public class StudentService {
     private final LessonNoteRepository lessonNoteRepository;
     private final LessonNoteHistoryRepository lessonNoteHistoryRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LessonStatsService lessonStatsService;
+    private final StudentLeaderboard studentLeaderboard;
+    private final StudentRankingService studentRankingService;
+    private final AttendanceBitmapIndex attendanceBitmapIndex;
+    private final AdminDashboardService adminDashboardService;
+    private final ApplicationEventPublisher eventPublisher;
     
+    @Transactional(readOnly = true)
+    @PrimaryRead
     public List<StudentDTO> getAllStudents() {
         return studentRepository.findAll().stream()
-                .map(this::convertToDTO)
+                .map(StudentService::convertToDTO)
                 .collect(Collectors.toList());
     }
     
+    @Transactional(readOnly = true)
     public StudentDTO getStudentById(Long id) {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + id));
         return convertToDTO(student);
     }
     
+    @Transactional(readOnly = true)
     public StudentDTO getStudentByNationalId(String nationalId) {
         Student student = studentRepository.findByNationalId(nationalId)
                 .orElseThrow(() -> new ResourceNotFoundException("TC Kimlik No ile öğrenci bulunamadı: " + nationalId));
@@ -115,6 +128,7 @@ public class StudentService {
         student.setUser(savedUser);
         
         Student savedStudent = studentRepository.save(student);
+        studentLeaderboard.addStudent(savedStudent.getId());
         
         // If locationId is provided, assign student to that specific location
         if (request.getLocationId() != null) {
@@ -126,6 +140,10 @@ public class StudentService {
             assignment.setStudent(savedStudent);
             assignment.setCourseLocation(location);
             studentCourseLocationRepository.save(assignment);
+            studentLeaderboard.enroll(savedStudent.getId(), location.getId());
+            adminDashboardService.evictLocations(List.of(location.getId()));
+            eventPublisher.publishEvent(ActivityEvent.studentCreated(
+                    savedStudent.getFirstName(), savedStudent.getLastName(), List.of(location.getId())));
         }
         // If adminId is provided but no locationId, assign student to admin's course locations
         else if (request.getAdminId() != null) {
@@ -151,7 +169,12 @@ public class StudentService {
                 assignment.setStudent(savedStudent);
                 assignment.setCourseLocation(location);
                 studentCourseLocationRepository.save(assignment);
+                studentLeaderboard.enroll(savedStudent.getId(), location.getId());
             }
+            List<Long> adminLocationIds = adminLocations.stream().map(CourseLocation::getId).toList();
+            adminDashboardService.evictLocations(adminLocationIds);
+            eventPublisher.publishEvent(ActivityEvent.studentCreated(
+                    savedStudent.getFirstName(), savedStudent.getLastName(), adminLocationIds));
         }
         
         return convertToDTO(savedStudent);
@@ -211,6 +234,10 @@ public class StudentService {
             // First, clear existing course location assignments
             if (student.getCourseLocations() != null && !student.getCourseLocations().isEmpty()) {
                 studentCourseLocationRepository.deleteAll(student.getCourseLocations());
+                student.getCourseLocations().forEach(existing ->
+                        studentLeaderboard.unenroll(student.getId(), existing.getCourseLocation().getId()));
+                adminDashboardService.evictLocations(student.getCourseLocations().stream()
+                        .map(existing -> existing.getCourseLocation().getId()).toList());
                 student.getCourseLocations().clear();
             }
             
@@ -232,10 +259,14 @@ public class StudentService {
                 assignment.setStudent(student);
                 assignment.setCourseLocation(location);
                 studentCourseLocationRepository.save(assignment);
+                studentLeaderboard.enroll(student.getId(), location.getId());
             }
+            adminDashboardService.evictLocations(adminLocations.stream().map(CourseLocation::getId).toList());
         }
         
         Student updatedStudent = studentRepository.save(student);
+        // Rankings show the student's name and national ID
+        studentRankingService.evictAll();
         return convertToDTO(updatedStudent);
     }
     
@@ -259,13 +290,24 @@ public class StudentService {
         // Ders notlarını sil
         lessonNoteRepository.deleteByStudentId(id);
         
+        // Silinen notları ders istatistiklerinden ve yönetici panellerinden düş
+        lessonStatsService.recordDeleted(lessonNotes);
+        adminDashboardService.evictCourses(lessonNotes.stream()
+                .map(note -> note.getLesson().getCourse().getId())
+                .collect(Collectors.toSet()));
+        
         // Öğrencinin kurs lokasyonlarını temizle
         if (student.getCourseLocations() != null && !student.getCourseLocations().isEmpty()) {
             studentCourseLocationRepository.deleteAll(student.getCourseLocations());
+            adminDashboardService.evictLocations(student.getCourseLocations().stream()
+                    .map(assignment -> assignment.getCourseLocation().getId()).toList());
         }
         
         // Öğrenciyi sil
         studentRepository.delete(student);
+        attendanceBitmapIndex.removeStudent(id);
+        studentLeaderboard.removeStudent(id);
+        studentRankingService.evictAll();
         
         // İlişkili kullanıcıyı sil
         if (user != null) {
@@ -307,6 +349,7 @@ public class StudentService {
      * @param studentId The student ID
      * @return The total score
      */
+    @Transactional(readOnly = true)
     public Integer getStudentTotalScore(Long studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + studentId));
@@ -336,6 +379,7 @@ public class StudentService {
      * @param studentId The student ID
      * @return The admin ID, or null if no admin is assigned
      */
+    @Transactional(readOnly = true)
     public Long getStudentAdminId(Long studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + studentId));
@@ -360,6 +404,7 @@ public class StudentService {
      * @param studentId The student ID
      * @return The admin details as UserSummaryDTO, or null if no admin is assigned
      */
+    @Transactional(readOnly = true)
     public UserSummaryDTO getStudentAdmin(Long studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Öğrenci bulunamadı: " + studentId));
@@ -395,6 +440,8 @@ public class StudentService {
      * @param adminId Admin ID'si
      * @return Öğrenci DTO listesi
      */
+    @Transactional(readOnly = true)
+    @PrimaryRead
     public List<StudentDTO> getStudentsByAdminId(Long adminId) {
         System.out.println("DEBUG StudentService: getStudentsByAdminId called with adminId = " + adminId);
         
@@ -430,7 +477,7 @@ public class StudentService {
         
         // DTO'lara dönüştür
         List<StudentDTO> studentDTOs = students.stream()
-                .map(this::convertToDTO)
+                .map(StudentService::convertToDTO)
                 .collect(Collectors.toList());
         
         System.out.println("DEBUG StudentService: Returning " + studentDTOs.size() + " student DTOs");
@@ -442,6 +489,7 @@ public class StudentService {
      * @param userId Kullanıcı ID'si
      * @return Kullanıcı nesnesi veya null
      */
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
         return userRepository.findById(userId).orElse(null);
     }
@@ -451,6 +499,7 @@ public class StudentService {
      * @param adminId Admin ID'si
      * @return Admin'in lokasyonları
      */
+    @Transactional(readOnly = true)
     public List<CourseLocation> getAdminLocations(Long adminId) {
         User admin = userRepository.findById(adminId).orElse(null);
         if (admin == null) {
@@ -464,6 +513,7 @@ public class StudentService {
      * @param locationId Lokasyon ID'si
      * @return Öğrenci DTO listesi
      */
+    @Transactional(readOnly = true)
     public List<StudentDTO> getStudentsByLocationId(Long locationId) {
         // Lokasyonu kontrol et
         CourseLocation location = courseLocationRepository.findById(locationId)
@@ -479,7 +529,7 @@ public class StudentService {
         
         // DTO'lara dönüştür
         return students.stream()
-                .map(this::convertToDTO)
+                .map(StudentService::convertToDTO)
                 .collect(Collectors.toList());
     }
     
@@ -489,24 +539,12 @@ public class StudentService {
      * @param locationId Lokasyon ID'si
      * @return Erişim yetkisi varsa true, yoksa false
      */
+    @Transactional(readOnly = true)
     public boolean adminHasAccessToLocation(Long adminId, Long locationId) {
-        // Admin kullanıcısını kontrol et
-        User admin = userRepository.findById(adminId).orElse(null);
-        if (admin == null) {
-            return false;
-        }
-        
-        // Lokasyonu kontrol et
-        CourseLocation location = courseLocationRepository.findById(locationId).orElse(null);
-        if (location == null) {
-            return false;
-        }
-        
-        // Admin'in bu lokasyona erişim yetkisi var mı kontrol et
-        return location.getAdmins() != null && location.getAdmins().contains(admin);
+        return courseLocationRepository.isAdminOfLocation(locationId, adminId);
     }
     
-    private StudentDTO convertToDTO(Student student) {
+    public static StudentDTO convertToDTO(Student student) {
         StudentDTO dto = new StudentDTO();
         dto.setId(student.getId());
         dto.setNationalId(student.getNationalId());
@@ -22,13 +22,19 @@ public class SuperadminLessonService {
 
     private final LessonRepository lessonRepository;
     private final CourseRepository courseRepository;
+    private final LessonStatsService lessonStatsService;
+    private final AdminDashboardService adminDashboardService;
 
     @Autowired
     public SuperadminLessonService(
             LessonRepository lessonRepository,
-            CourseRepository courseRepository) {
+            CourseRepository courseRepository,
+            LessonStatsService lessonStatsService,
+            AdminDashboardService adminDashboardService) {
         this.lessonRepository = lessonRepository;
         this.courseRepository = courseRepository;
+        this.lessonStatsService = lessonStatsService;
+        this.adminDashboardService = adminDashboardService;
     }
 
     /**
@@ -61,8 +67,11 @@ public class SuperadminLessonService {
             lesson.setDefaultScore(request.getDefaultScore());
             lesson.setCourse(course);
             
-            createdLessons.add(lessonRepository.save(lesson));
+            Lesson savedLesson = lessonRepository.save(lesson);
+            lessonStatsService.initializeLesson(savedLesson);
+            createdLessons.add(savedLesson);
         }
+        adminDashboardService.evictCourses(request.getCourseIds());
         
         // Convert to DTOs and return
         return LessonDTO.fromEntities(createdLessons);
@@ -71,6 +80,7 @@ public class SuperadminLessonService {
     /**
      * Get all lessons for superadmin
      */
+    @Transactional(readOnly = true)
     public List<LessonDTO> getAllLessons() {
         List<Lesson> lessons = lessonRepository.findAll();
         return LessonDTO.fromEntities(lessons);
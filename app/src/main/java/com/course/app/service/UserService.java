@@ -6,6 +6,7 @@ import com.course.app.dto.UserUpdateRequest;
 import com.course.app.entity.Role;
 import com.course.app.entity.User;
 import com.course.app.exception.ResourceNotFoundException;
+import com.course.app.repository.CourseLocationRepository;
 import com.course.app.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,13 +22,19 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ResourceVersions resourceVersions;
+    private final CourseLocationRepository courseLocationRepository;
+    private final StudentPerformanceSnapshotService studentPerformanceSnapshotService;
+    private final SecondLevelCacheEvictor secondLevelCacheEvictor;
 
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
                 .map(UserDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Kullanıcı bulunamadı: " + id));
@@ -85,6 +92,9 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        // Admin names are part of location listings; logins also write users, so this is not left to the entity listener
+        resourceVersions.catalogChanged();
+        studentPerformanceSnapshotService.locationsChanged(courseLocationRepository.findIdsByAdminId(id));
         return UserDTO.fromEntity(updatedUser);
     }
 
@@ -93,9 +103,15 @@ public class UserService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("Kullanıcı bulunamadı: " + id);
         }
+        List<Long> locationIds = courseLocationRepository.findIdsByAdminId(id);
+        studentPerformanceSnapshotService.locationsChanged(locationIds);
         userRepository.deleteById(id);
+        // The cached admin lists of these locations would still reference the deleted user
+        secondLevelCacheEvictor.locationAdminsChanged(locationIds);
+        resourceVersions.catalogChanged();
     }
     
+    @Transactional(readOnly = true)
     public List<UserDTO> getUsersByRole(Role role) {
         return userRepository.findByRole(role).stream()
                 .map(UserDTO::fromEntity)
@@ -106,6 +122,7 @@ public class UserService {
      * Get all users except students
      * @return List of non-student users
      */
+    @Transactional(readOnly = true)
     public List<UserDTO> getNonStudentUsers() {
         return userRepository.findAll().stream()
                 .filter(user -> user.getRole() != Role.STUDENT)
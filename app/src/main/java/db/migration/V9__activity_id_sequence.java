@@ -0,0 +1,34 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Activity IDs (ActivityFeedService) come from activity_id_seq, so every instance draws from the same counter.
+ * The sequence starts after the IDs already in activity_log; it is a Java migration because the start value is
+ * read from the table and CREATE SEQUENCE only takes a constant.
+ */
+public class V9__activity_id_sequence extends BaseJavaMigration {
+
+    /**
+     * Step between IDs. ActivityFeedService reserved a block of this many IDs per nextval at first and now takes
+     * one nextval per activity; the step is kept so both never hand out the same ID
+     */
+    private static final int INCREMENT = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long start;
+            try (ResultSet max = statement.executeQuery("select coalesce(max(activity_id), 0) + 1 from activity_log")) {
+                max.next();
+                start = max.getLong(1);
+            }
+            statement.execute("create sequence if not exists activity_id_seq start with " + start
+                    + " increment by " + INCREMENT);
+        }
+    }
+}
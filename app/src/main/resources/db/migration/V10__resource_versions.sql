@@ -0,0 +1,12 @@
+-- ETag versions of the large read endpoints (ResourceVersions), bumped in the transaction of every write so all
+-- instances answer conditional GETs from the same committed state. One row per scope: 'catalog' for courses,
+-- lessons, locations and users, 'location:<id>' for the students and notes of a location, 'unassigned' for
+-- students without a location. Location rows are created by their first write.
+
+create table resource_versions (
+    scope varchar(64) not null,
+    version bigint not null,
+    primary key (scope)
+);
+
+insert into resource_versions (scope, version) values ('catalog', 0);
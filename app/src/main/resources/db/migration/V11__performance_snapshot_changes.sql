@@ -0,0 +1,14 @@
+-- Outbox of StudentPerformanceSnapshotService: a row per student, course or location whose performance pages
+-- need a rebuild, written in the transaction of the change and deleted with the rebuild, so no marker is lost to
+-- a restart or a failed rebuild. Courses and locations are expanded to their students by the worker.
+
+create table performance_snapshot_changes (
+    id bigint generated by default as identity,
+    scope varchar(16) not null check (scope in ('STUDENT','COURSE','LOCATION')),
+    scope_id bigint not null,
+    attempts integer not null default 0,
+    primary key (id)
+);
+
+-- The worker's batch: rows below the attempt limit in insertion order
+create index idx_performance_snapshot_changes_attempts on performance_snapshot_changes (attempts, id);
@@ -0,0 +1,150 @@
+-- Baseline: the schema Hibernate maintained with ddl-auto=update in the last release before versioned
+-- migrations. Databases created that way are baselined at this version (spring.flyway.baseline-on-migrate)
+-- and continue with V2; empty databases are created from here. Read models and indexes added since then
+-- belong to the later migrations, never here.
+
+create table attendances (
+    id bigint generated by default as identity,
+    attendance_date date,
+    is_present boolean,
+    course_id bigint,
+    course_location_id bigint,
+    created_at timestamp(6),
+    created_by_id bigint,
+    student_id bigint,
+    updated_at timestamp(6),
+    notes text,
+    primary key (id)
+);
+
+create table course_location_admins (
+    location_id bigint not null,
+    user_id bigint not null
+);
+
+create table course_locations (
+    id bigint generated by default as identity,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    address varchar(255),
+    name varchar(255),
+    phone varchar(255),
+    primary key (id)
+);
+
+create table course_locations_mapping (
+    course_id bigint not null,
+    location_id bigint not null
+);
+
+create table courses (
+    id bigint generated by default as identity,
+    end_date date,
+    start_date date,
+    course_location_id bigint,
+    created_at timestamp(6),
+    created_by_id bigint,
+    updated_at timestamp(6),
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table lesson_note_histories (
+    id bigint generated by default as identity,
+    old_passed boolean,
+    old_score integer,
+    change_date timestamp(6),
+    created_at timestamp(6),
+    lesson_note_id bigint,
+    modified_by_id bigint,
+    updated_at timestamp(6),
+    old_remark varchar(255),
+    primary key (id)
+);
+
+create table lesson_notes (
+    id bigint generated by default as identity,
+    passed boolean,
+    score integer,
+    created_at timestamp(6),
+    lesson_id bigint,
+    student_id bigint,
+    updated_at timestamp(6),
+    remark varchar(255),
+    primary key (id)
+);
+
+create table lessons (
+    id bigint generated by default as identity,
+    date date,
+    default_score integer,
+    course_id bigint,
+    created_at timestamp(6),
+    created_by_id bigint,
+    updated_at timestamp(6),
+    description varchar(255),
+    name varchar(255),
+    primary key (id)
+);
+
+create table student_course_locations (
+    id bigint generated by default as identity,
+    course_location_id bigint,
+    created_at timestamp(6),
+    student_id bigint,
+    updated_at timestamp(6),
+    primary key (id)
+);
+
+create table students (
+    id bigint generated by default as identity,
+    birth_date date,
+    total_score integer,
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    user_id bigint unique,
+    address varchar(255),
+    father_name varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    mother_name varchar(255),
+    national_id varchar(255) unique,
+    phone varchar(255),
+    teacher_comment text,
+    primary key (id)
+);
+
+create table users (
+    id bigint generated by default as identity,
+    created_at timestamp(6),
+    last_login_at timestamp(6),
+    updated_at timestamp(6),
+    first_name varchar(255),
+    last_name varchar(255),
+    password varchar(255) not null,
+    phone varchar(255),
+    role varchar(255) not null check (role in ('SUPERADMIN','ADMIN','STUDENT')),
+    username varchar(255) not null unique,
+    primary key (id)
+);
+
+alter table attendances add constraint FKg8lphmp6k3q3l6gj7vl359tss foreign key (course_id) references courses;
+alter table attendances add constraint FKpuipr0g8xlnxrwp59b31ols1f foreign key (course_location_id) references course_locations;
+alter table attendances add constraint FK1n3cp4djrieq4ueabgaiw7hku foreign key (created_by_id) references users;
+alter table attendances add constraint FK7bm4q4wptspkenhrsjgatdmk0 foreign key (student_id) references students;
+alter table course_location_admins add constraint FKt4binf3wyopvt4nctn2wegip2 foreign key (user_id) references users;
+alter table course_location_admins add constraint FK47m68s4q7h6j1cobj9i5si1ws foreign key (location_id) references course_locations;
+alter table course_locations_mapping add constraint FKh1o75gslm2uaauwmbu74aqs5a foreign key (location_id) references course_locations;
+alter table course_locations_mapping add constraint FKgxvf6dl889ed3ysoc3m510is1 foreign key (course_id) references courses;
+alter table courses add constraint FK73axy9l7q7c2ml1qih7646am8 foreign key (course_location_id) references course_locations;
+alter table courses add constraint FKr3tw25cwui62lwkicwaehrg0n foreign key (created_by_id) references users;
+alter table lesson_note_histories add constraint FKsggdu4fq38o7mhkk376pm0sqc foreign key (lesson_note_id) references lesson_notes;
+alter table lesson_note_histories add constraint FKdbv3xeipn0hj6q6u9884xcdk1 foreign key (modified_by_id) references users;
+alter table lesson_notes add constraint FK2ho9je9c7218j2k616aoe61l3 foreign key (lesson_id) references lessons;
+alter table lesson_notes add constraint FK38rhxxl6q31umjaoolrk6uqih foreign key (student_id) references students;
+alter table lessons add constraint FK17ucc7gjfjddsyi0gvstkqeat foreign key (course_id) references courses;
+alter table lessons add constraint FKh7wl4ncwof1cte315y7aefxrr foreign key (created_by_id) references users;
+alter table student_course_locations add constraint FKl33hjogw8bxdq4g0do7bsu7ks foreign key (course_location_id) references course_locations;
+alter table student_course_locations add constraint FKe69nvr55bepcljwm39wjibyo4 foreign key (student_id) references students;
+alter table students add constraint FKdt1cjx5ve5bdabmuuf3ibrwaq foreign key (user_id) references users;
@@ -0,0 +1,15 @@
+-- Per-lesson note statistics (LessonStatsService), rebuilt at startup for lessons without a row.
+-- "if not exists": databases that ran this release with ddl-auto=update already have the table.
+
+create table if not exists lesson_stats (
+    lesson_id bigint not null,
+    note_count bigint not null,
+    passed_count bigint not null,
+    score_square_sum bigint not null,
+    score_sum bigint not null,
+    scored_count bigint not null,
+    updated_at timestamp(6),
+    score_buckets bigint array,
+    primary key (lesson_id),
+    constraint FKr3qpg6mby0ae1vlvmnlx00icg foreign key (lesson_id) references lessons
+);
@@ -0,0 +1,17 @@
+-- Present/absent counts per location, course and day behind the attendance calendar (AttendanceAggregateService),
+-- rebuilt from attendances at startup when empty.
+-- "if not exists": databases that ran this release with ddl-auto=update already have the table.
+
+create table if not exists attendance_daily_aggregates (
+    id bigint generated by default as identity,
+    attendance_date date not null,
+    absent_count bigint not null,
+    course_id bigint not null,
+    course_location_id bigint not null,
+    present_count bigint not null,
+    updated_at timestamp(6),
+    primary key (id),
+    unique (course_location_id, course_id, attendance_date)
+);
+
+create index if not exists idx_attendance_daily_aggregates_location_date on attendance_daily_aggregates (course_location_id, attendance_date);
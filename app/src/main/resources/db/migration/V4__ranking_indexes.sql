@@ -0,0 +1,8 @@
+-- Location and course rankings (StudentRankingRepository) walk location -> course -> lesson -> note through these
+-- without reading the tables.
+-- "if not exists": databases that ran this release with ddl-auto=update already have the indexes.
+
+create index if not exists idx_course_locations_mapping_location_course on course_locations_mapping (location_id, course_id);
+create index if not exists idx_lesson_notes_lesson_student_score on lesson_notes (lesson_id, student_id, score);
+create index if not exists idx_lessons_course on lessons (course_id, id);
+create index if not exists idx_student_course_locations_location_student on student_course_locations (course_location_id, student_id);
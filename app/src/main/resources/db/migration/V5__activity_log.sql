@@ -0,0 +1,14 @@
+-- Dashboard activity feed (ActivityFeedService), appended in batches and read back per location at startup.
+-- "if not exists": databases that ran this release with ddl-auto=update already have the table.
+
+create table if not exists activity_log (
+    id bigint generated by default as identity,
+    activity_id bigint not null,
+    course_location_id bigint not null,
+    occurred_at timestamp(6) not null,
+    activity_type varchar(32) not null check (activity_type in ('STUDENT_CREATED','NOTE_GRADED','COURSE_CREATED','ATTENDANCE_TAKEN')),
+    message varchar(500) not null,
+    primary key (id)
+);
+
+create index if not exists idx_activity_log_location_activity on activity_log (course_location_id, activity_id);
@@ -0,0 +1,12 @@
+-- Public performance page per student (StudentPerformanceSnapshotService), backfilled at startup.
+-- "if not exists": databases that ran this release with ddl-auto=update already have the table.
+
+create table if not exists student_performance_snapshot (
+    format_version integer not null,
+    student_id bigint not null,
+    updated_at timestamp(6),
+    version bigint,
+    national_id varchar(255) not null unique,
+    payload text not null,
+    primary key (student_id)
+);
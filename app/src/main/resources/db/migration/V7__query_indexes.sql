@@ -0,0 +1,53 @@
+-- Indexes behind the repository queries (RepositoryIndexCoverageTest explains each of them). Single-column
+-- lookups lead with that column; range and order columns come after the equality ones. Foreign keys that
+-- rows get deleted through are indexed too, so the constraint checks of a delete do not scan the child table.
+
+-- LessonNoteRepository.findByStudentId*, countByStudentId, deleteByStudentId, findByStudentIdAndLessonId;
+-- StudentRankingRepository.findScoreTotals; deleting a student
+create index idx_lesson_notes_student_lesson on lesson_notes (student_id, lesson_id);
+
+-- LessonNoteHistoryRepository.findByLessonNoteId*OrderByChangeDateDesc, countByLessonNoteId, deleteByLessonNoteId
+create index idx_lesson_note_histories_note_change_date on lesson_note_histories (lesson_note_id, change_date);
+-- LessonNoteHistoryRepository.findByModifiedById; deleting a user
+create index idx_lesson_note_histories_modified_by on lesson_note_histories (modified_by_id);
+
+-- AttendanceRepository.findByCourseLocationAndAttendanceDate, findByLocationIdsAndDate; deleting a location
+create index idx_attendances_location_date on attendances (course_location_id, attendance_date);
+-- AttendanceRepository.findByStudent*AttendanceDateBetween, findByStudentAndCourseAndAttendanceDate,
+-- count*DaysByStudentId, summarizeByStudentIdGroupByCourse; deleting a student
+create index idx_attendances_student_date on attendances (student_id, attendance_date);
+-- AttendanceRepository.findByCourseAndAttendanceDate, findSessionRecords; deleting a course
+create index idx_attendances_course_date on attendances (course_id, attendance_date);
+-- Deleting a user
+create index idx_attendances_created_by on attendances (created_by_id);
+
+-- StudentCourseLocationRepository.findByStudent*, existsByStudentAndCourseLocation; deleting a student
+create index idx_student_course_locations_student_location on student_course_locations (student_id, course_location_id);
+
+-- CourseLocationRepository.findIdsByCourseId and the locations of a course; deleting a course
+create index idx_course_locations_mapping_course_location on course_locations_mapping (course_id, location_id);
+
+-- CourseLocationRepository.findAllByAdminId, findIdsByAdminId, findDashboardCountsByAdminId,
+-- CourseRepository.findIdsByAdminId, StudentRepository.findByLocationAdminId; deleting a user
+create index idx_course_location_admins_user_location on course_location_admins (user_id, location_id);
+-- The admins of a location; deleting a location
+create index idx_course_location_admins_location_user on course_location_admins (location_id, user_id);
+
+-- CourseLocationRepository.findByName, existsByName
+create index idx_course_locations_name on course_locations (name);
+
+-- CourseRepository.findByCreatedBy; deleting a user
+create index idx_courses_created_by on courses (created_by_id);
+-- Legacy location column; deleting a location
+create index idx_courses_location on courses (course_location_id);
+
+-- LessonRepository.findByCourseIdOrderByDateAsc, LessonStatsRepository.findByCourseId
+create index idx_lessons_course_date on lessons (course_id, date);
+-- Deleting a user
+create index idx_lessons_created_by on lessons (created_by_id);
+
+-- UserRepository.findByRole
+create index idx_users_role on users (role);
+
+-- ActivityLogRepository.findMaxActivityId
+create index idx_activity_log_activity on activity_log (activity_id);
@@ -0,0 +1,9 @@
+-- Courses of older builds only have the legacy courses.course_location_id; every read goes through
+-- course_locations_mapping, so copy the missing links before the application starts serving.
+
+insert into course_locations_mapping (course_id, location_id)
+select c.id, c.course_location_id
+from courses c
+where c.course_location_id is not null
+  and not exists (select 1 from course_locations_mapping m
+                  where m.course_id = c.id and m.location_id = c.course_location_id);
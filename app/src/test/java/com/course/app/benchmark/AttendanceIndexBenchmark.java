@@ -0,0 +1,134 @@
+package com.course.app.benchmark;
+
+import com.course.app.service.AttendanceBitmapIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the attendance bitmap index with the equivalent SQL aggregates on an in-memory H2 database.
+ *
+ * Run with: mvn -Pbenchmark verify -Dbenchmark.include=AttendanceIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttendanceIndexBenchmark {
+
+    private static final int STUDENTS = 2_000;
+    private static final int COURSES = 20;
+    private static final int COURSES_PER_STUDENT = 2;
+    private static final int LOCATIONS = 10;
+    private static final int DAYS = 120;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 9, 1);
+
+    private Connection connection;
+    private PreparedStatement studentRateQuery;
+    private PreparedStatement absenteesQuery;
+    private AttendanceBitmapIndex index;
+    private LocalDate monthStart;
+    private LocalDate monthEnd;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:attendance_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE attendances (id BIGINT AUTO_INCREMENT PRIMARY KEY, student_id BIGINT, "
+                    + "course_id BIGINT, course_location_id BIGINT, attendance_date DATE, is_present BOOLEAN)");
+            statement.execute("CREATE INDEX idx_attendances_student ON attendances (student_id)");
+            statement.execute("CREATE INDEX idx_attendances_course ON attendances (course_id)");
+        }
+
+        index = new AttendanceBitmapIndex(null);
+        Random data = new Random(7);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO attendances "
+                + "(student_id, course_id, course_location_id, attendance_date, is_present) VALUES (?, ?, ?, ?, ?)")) {
+            for (long studentId = 1; studentId <= STUDENTS; studentId++) {
+                long locationId = studentId % LOCATIONS + 1;
+                for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+                    long courseId = (studentId + c * 7) % COURSES + 1;
+                    for (int day = 0; day < DAYS; day++) {
+                        LocalDate date = FIRST_DAY.plusDays(day);
+                        boolean present = data.nextInt(10) != 0;
+                        insert.setLong(1, studentId);
+                        insert.setLong(2, courseId);
+                        insert.setLong(3, locationId);
+                        insert.setDate(4, Date.valueOf(date));
+                        insert.setBoolean(5, present);
+                        insert.addBatch();
+                        index.record(studentId, courseId, locationId, date, present);
+                    }
+                    insert.executeBatch();
+                }
+            }
+        }
+
+        studentRateQuery = connection.prepareStatement("SELECT course_id, COUNT(*), "
+                + "SUM(CASE WHEN is_present THEN 1 ELSE 0 END) FROM attendances "
+                + "WHERE student_id = ? AND attendance_date BETWEEN ? AND ? GROUP BY course_id");
+        absenteesQuery = connection.prepareStatement("SELECT student_id, COUNT(*), "
+                + "SUM(CASE WHEN is_present THEN 1 ELSE 0 END) FROM attendances WHERE course_id = ? "
+                + "GROUP BY student_id HAVING SUM(CASE WHEN is_present THEN 0 ELSE 1 END) >= ?");
+
+        monthStart = FIRST_DAY.plusMonths(1);
+        monthEnd = monthStart.plusMonths(1).minusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void studentMonthlyRateSql(Blackhole blackhole) throws SQLException {
+        studentRateQuery.setLong(1, random.nextInt(STUDENTS) + 1);
+        studentRateQuery.setDate(2, Date.valueOf(monthStart));
+        studentRateQuery.setDate(3, Date.valueOf(monthEnd));
+        try (ResultSet rows = studentRateQuery.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(3) * 100.0 / rows.getLong(2));
+            }
+        }
+    }
+
+    @Benchmark
+    public void studentMonthlyRateIndex(Blackhole blackhole) {
+        Map<Long, AttendanceBitmapIndex.DayCounts> counts =
+                index.countByCourse((long) random.nextInt(STUDENTS) + 1, monthStart, monthEnd);
+        counts.values().forEach(course -> blackhole.consume(course.rate()));
+    }
+
+    @Benchmark
+    public void courseAbsenteesSql(Blackhole blackhole) throws SQLException {
+        absenteesQuery.setLong(1, random.nextInt(COURSES) + 1);
+        absenteesQuery.setInt(2, 15);
+        try (ResultSet rows = absenteesQuery.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void courseAbsenteesIndex(Blackhole blackhole) {
+        index.countByStudent((long) random.nextInt(COURSES) + 1, null, null).forEach((studentId, counts) -> {
+            if (counts.absent() >= 15) {
+                blackhole.consume(studentId);
+            }
+        });
+    }
+
+    @Benchmark
+    public void locationDailyPresenceIndex(Blackhole blackhole) {
+        blackhole.consume(index.countDailyPresence((long) random.nextInt(LOCATIONS) + 1, monthStart, monthEnd));
+    }
+}
@@ -0,0 +1,222 @@
+package com.course.app.benchmark;
+
+import com.course.app.config.JacksonConfig;
+import com.course.app.dto.CourseDTO;
+import com.course.app.dto.LessonNoteDTO;
+import com.course.app.dto.StudentDTO;
+import com.course.app.dto.StudentLessonNoteDTO;
+import com.course.app.entity.*;
+import com.course.app.service.StudentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping, alone and followed by JSON serialization with the application's ObjectMapper, over
+ * detached entity graphs shaped like the list endpoints return them. Every benchmark handles {@value #ELEMENTS}
+ * elements per invocation and is scored per element; the gc profiler of the benchmark profile reports the
+ * bytes allocated per element as gc.alloc.rate.norm. JSON is written to a discarding stream, as the response
+ * stream would take it, so the numbers exclude buffering the whole body.
+ *
+ * Run with: mvn -Pbenchmark verify -Dbenchmark.include=DtoMappingBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private static final int ELEMENTS = 500;
+    private static final int LOCATIONS = 10;
+    private static final int ADMINS_PER_LOCATION = 3;
+    private static final int LESSONS = 40;
+    private static final int NOTES_PER_STUDENT = 20;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 9, 1, 9, 0);
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    // Not OutputStream.nullOutputStream(): the ObjectMapper closes its target after every write
+    private final OutputStream discard = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private List<Student> students;
+    private List<LessonNote> lessonNotes;
+    private List<Course> courses;
+    private Long gradedLessonId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+
+        List<CourseLocation> locations = new ArrayList<>();
+        long userId = 1;
+        for (long id = 1; id <= LOCATIONS; id++) {
+            CourseLocation location = new CourseLocation();
+            location.setId(id);
+            location.setName("Şube " + id);
+            location.setAddress("Atatürk Cad. No:" + id + " Ankara");
+            location.setPhone("0312" + (1_000_000 + id));
+            location.setCreatedAt(CREATED_AT);
+            location.setUpdatedAt(CREATED_AT);
+            for (int a = 0; a < ADMINS_PER_LOCATION; a++) {
+                location.getAdmins().add(user(userId++, Role.ADMIN));
+            }
+            locations.add(location);
+        }
+
+        courses = new ArrayList<>();
+        for (long id = 1; id <= ELEMENTS; id++) {
+            Course course = new Course();
+            course.setId(id);
+            course.setName("Kurs " + id);
+            course.setDescription("Hafta sonu grubu " + id);
+            course.setStartDate(LocalDate.of(2025, 9, 1));
+            course.setEndDate(LocalDate.of(2026, 6, 30));
+            course.setCreatedAt(CREATED_AT);
+            course.setUpdatedAt(CREATED_AT);
+            course.setCreatedBy(locations.get(0).getAdmins().get(0));
+            for (int l = 0; l < 1 + random.nextInt(3); l++) {
+                course.getCourseLocations().add(locations.get(random.nextInt(LOCATIONS)));
+            }
+            courses.add(course);
+        }
+
+        List<Lesson> lessons = new ArrayList<>();
+        for (long id = 1; id <= LESSONS; id++) {
+            Lesson lesson = new Lesson();
+            lesson.setId(id);
+            lesson.setName("Ders " + id);
+            lesson.setDescription("Konu anlatımı ve deneme " + id);
+            lesson.setDate(LocalDate.of(2025, 9, 1).plusDays(id * 3));
+            lesson.setDefaultScore(100);
+            lesson.setCourse(courses.get((int) (id - 1)));
+            lesson.setCreatedBy(courses.get((int) (id - 1)).getCreatedBy());
+            lesson.setCreatedAt(CREATED_AT);
+            lesson.setUpdatedAt(CREATED_AT);
+            lessons.add(lesson);
+        }
+        gradedLessonId = lessons.get(LESSONS - 1).getId();
+
+        students = new ArrayList<>();
+        lessonNotes = new ArrayList<>();
+        long noteId = 1;
+        for (long id = 1; id <= ELEMENTS; id++) {
+            Student student = new Student();
+            student.setId(id);
+            student.setNationalId(String.valueOf(10_000_000_000L + id));
+            student.setFirstName("Öğrenci" + id);
+            student.setLastName("Yılmaz");
+            student.setMotherName("Ayşe");
+            student.setFatherName("Mehmet");
+            student.setAddress("Çankaya Mah. " + id + ". Sok. Ankara");
+            student.setPhone("0532" + (1_000_000 + id));
+            student.setBirthDate(LocalDate.of(2008, 1, 1).plusDays(random.nextInt(1_500)));
+            student.setTotalScore(random.nextInt(2_000));
+            student.setCreatedAt(CREATED_AT);
+            student.setUpdatedAt(CREATED_AT);
+            student.setUser(user(userId++, Role.STUDENT));
+            for (int l = 0; l < 1 + random.nextInt(2); l++) {
+                StudentCourseLocation enrollment = new StudentCourseLocation();
+                enrollment.setId(id * 10 + l);
+                enrollment.setStudent(student);
+                enrollment.setCourseLocation(locations.get(random.nextInt(LOCATIONS)));
+                student.getCourseLocations().add(enrollment);
+            }
+
+            List<LessonNote> notes = new ArrayList<>();
+            for (int n = 0; n < NOTES_PER_STUDENT; n++) {
+                LessonNote note = new LessonNote();
+                note.setId(noteId++);
+                note.setStudent(student);
+                note.setLesson(lessons.get(random.nextInt(LESSONS)));
+                note.setScore(random.nextInt(101));
+                note.setPassed(note.getScore() >= 50);
+                note.setRemark(random.nextInt(4) == 0 ? "Ödevini zamanında teslim etti" : null);
+                note.setCreatedAt(CREATED_AT.plusDays(n));
+                note.setUpdatedAt(CREATED_AT.plusDays(n));
+                notes.add(note);
+            }
+            student.setLessonNotes(notes);
+            students.add(student);
+            lessonNotes.add(notes.get(0));
+        }
+    }
+
+    private static User user(long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6mEmqGJcJ8bW7V6ZV4FQxqK");
+        user.setRole(role);
+        user.setFirstName("Ad" + id);
+        user.setLastName("Soyad" + id);
+        user.setPhone("0555" + (1_000_000 + id));
+        user.setCreatedAt(CREATED_AT);
+        user.setUpdatedAt(CREATED_AT);
+        return user;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public List<StudentDTO> studentsMap() {
+        return students.stream().map(StudentService::convertToDTO).toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void studentsMapAndWrite() throws IOException {
+        objectMapper.writeValue(discard, students.stream().map(StudentService::convertToDTO).toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public List<LessonNoteDTO> lessonNotesMap() {
+        return LessonNoteDTO.fromEntities(lessonNotes);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void lessonNotesMapAndWrite() throws IOException {
+        objectMapper.writeValue(discard, LessonNoteDTO.fromEntities(lessonNotes));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public List<CourseDTO> coursesMap() {
+        return courses.stream().map(CourseDTO::fromEntity).toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void coursesMapAndWrite() throws IOException {
+        objectMapper.writeValue(discard, courses.stream().map(CourseDTO::fromEntity).toList());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public List<StudentLessonNoteDTO> studentLessonNotesMap() {
+        return StudentLessonNoteDTO.fromEntities(students, gradedLessonId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ELEMENTS)
+    public void studentLessonNotesMapAndWrite() throws IOException {
+        objectMapper.writeValue(discard, StudentLessonNoteDTO.fromEntities(students, gradedLessonId));
+    }
+}
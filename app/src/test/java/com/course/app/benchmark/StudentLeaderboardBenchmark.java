@@ -0,0 +1,130 @@
+package com.course.app.benchmark;
+
+import com.course.app.service.StudentLeaderboard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the in-memory student leaderboard with the ranking queries on an in-memory H2 database.
+ *
+ * Run with: mvn -Pbenchmark verify -Dbenchmark.include=StudentLeaderboardBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentLeaderboardBenchmark {
+
+    private static final int STUDENTS = 10_000;
+    private static final int NOTES_PER_STUDENT = 20;
+    private static final int LOCATIONS = 10;
+    // Every note belongs to one course taught at every location
+    private static final long COURSE_ID = 1;
+
+    private Connection connection;
+    private PreparedStatement topStudentsQuery;
+    private PreparedStatement studentRankQuery;
+    private StudentLeaderboard leaderboard;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:leaderboard_benchmark;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE students (id BIGINT PRIMARY KEY, first_name VARCHAR(50), "
+                    + "last_name VARCHAR(50), national_id VARCHAR(11))");
+            statement.execute("CREATE TABLE lesson_notes (id BIGINT AUTO_INCREMENT PRIMARY KEY, student_id BIGINT, "
+                    + "lesson_id BIGINT, score INT)");
+            statement.execute("CREATE INDEX idx_lesson_notes_student ON lesson_notes (student_id)");
+        }
+
+        leaderboard = new StudentLeaderboard(null, null);
+        leaderboard.mapCourse(COURSE_ID, LongStream.rangeClosed(1, LOCATIONS).boxed().toList());
+        Random data = new Random(7);
+        try (PreparedStatement student = connection.prepareStatement(
+                "INSERT INTO students (id, first_name, last_name, national_id) VALUES (?, ?, ?, ?)");
+             PreparedStatement note = connection.prepareStatement(
+                     "INSERT INTO lesson_notes (student_id, lesson_id, score) VALUES (?, ?, ?)")) {
+            for (long studentId = 1; studentId <= STUDENTS; studentId++) {
+                student.setLong(1, studentId);
+                student.setString(2, "Ad" + studentId);
+                student.setString(3, "Soyad" + studentId);
+                student.setString(4, String.format("%011d", studentId));
+                student.addBatch();
+                leaderboard.addStudent(studentId);
+                leaderboard.enroll(studentId, studentId % LOCATIONS + 1);
+
+                for (long lessonId = 1; lessonId <= NOTES_PER_STUDENT; lessonId++) {
+                    int score = data.nextInt(101);
+                    note.setLong(1, studentId);
+                    note.setLong(2, lessonId);
+                    note.setInt(3, score);
+                    note.addBatch();
+                    leaderboard.recordScoreChange(studentId, COURSE_ID, null, score);
+                }
+                note.executeBatch();
+            }
+            student.executeBatch();
+        }
+
+        topStudentsQuery = connection.prepareStatement("SELECT s.id, s.first_name, s.last_name, s.national_id, "
+                + "COALESCE(SUM(ln.score), 0) AS total_score, COALESCE(AVG(ln.score), 0) AS average_score "
+                + "FROM students s LEFT JOIN lesson_notes ln ON s.id = ln.student_id "
+                + "GROUP BY s.id, s.first_name, s.last_name, s.national_id "
+                + "ORDER BY total_score DESC, average_score DESC LIMIT 10");
+        studentRankQuery = connection.prepareStatement("SELECT COUNT(*) + 1 FROM "
+                + "(SELECT student_id, SUM(score) AS total_score FROM lesson_notes GROUP BY student_id) totals "
+                + "WHERE totals.total_score > (SELECT SUM(score) FROM lesson_notes WHERE student_id = ?)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void topStudentsSql(Blackhole blackhole) throws SQLException {
+        try (ResultSet rows = topStudentsQuery.executeQuery()) {
+            while (rows.next()) {
+                blackhole.consume(rows.getLong(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public void topStudentsLeaderboard(Blackhole blackhole) {
+        blackhole.consume(leaderboard.top(null, 0, 10));
+    }
+
+    @Benchmark
+    public void studentRankSql(Blackhole blackhole) throws SQLException {
+        studentRankQuery.setLong(1, random.nextInt(STUDENTS) + 1);
+        try (ResultSet rows = studentRankQuery.executeQuery()) {
+            rows.next();
+            blackhole.consume(rows.getLong(1));
+        }
+    }
+
+    @Benchmark
+    public void studentRankLeaderboard(Blackhole blackhole) {
+        blackhole.consume(leaderboard.standing(null, (long) random.nextInt(STUDENTS) + 1));
+    }
+
+    @Benchmark
+    public void studentsAroundLeaderboard(Blackhole blackhole) {
+        long studentId = random.nextInt(STUDENTS) + 1;
+        blackhole.consume(leaderboard.around(studentId % LOCATIONS + 1, studentId, 5));
+    }
+
+    @Benchmark
+    public void scoreChangeLeaderboard() {
+        leaderboard.recordScoreChange((long) random.nextInt(STUDENTS) + 1, COURSE_ID, 50, random.nextInt(101));
+    }
+}
@@ -0,0 +1,129 @@
+package com.course.app.config;
+
+import com.course.app.service.CourseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routing of {@link ReplicaRoutingDataSource} between two embedded databases: the primary, which has the
+ * schema, and a "replica" that only has the replica_lag table its lag check reads. The lag is checked on demand.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica-urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica-lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.datasource.max-replica-lag=5s",
+        "app.datasource.lag-check-interval=1h"})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private DataSource applicationDataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CourseService courseService;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void replicaCaughtUp() throws SQLException {
+        dataSource = applicationDataSource.unwrap(ReplicaRoutingDataSource.class);
+        setReplicaLag(0);
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertEquals("routing_replica", databaseName(true));
+        assertEquals("routing_primary", databaseName(false));
+    }
+
+    @Test
+    void laggingReplicaFallsBackToThePrimary() throws SQLException {
+        setReplicaLag(60);
+        assertEquals("routing_primary", databaseName(true));
+
+        setReplicaLag(1);
+        assertEquals("routing_replica", databaseName(true));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() throws SQLException {
+        execute("DROP TABLE replica_lag");
+        dataSource.checkReplicas();
+        assertEquals("routing_primary", databaseName(true));
+    }
+
+    @Test
+    void primaryReadsSkipTheReplica() {
+        ReplicaRoutingDataSource.pinPrimary();
+        try {
+            assertEquals("routing_primary", databaseName(true));
+        } finally {
+            ReplicaRoutingDataSource.unpinPrimary();
+        }
+        assertEquals("routing_replica", databaseName(true));
+
+        // A read-only listing served under an ETag; the replica has no courses table
+        assertDoesNotThrow(() -> courseService.getAllCourses());
+    }
+
+    @Test
+    void connectionsAreCountedPerTarget() {
+        double before = replicaConnections();
+        databaseName(true);
+        databaseName(false);
+        assertEquals(before + 1, replicaConnections());
+    }
+
+    private String databaseName(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase());
+    }
+
+    private double replicaConnections() {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTING_METRIC).tag("target", "replica-1").counter().count();
+    }
+
+    private void setReplicaLag(double seconds) throws SQLException {
+        execute("CREATE TABLE IF NOT EXISTS replica_lag (lag_seconds DOUBLE PRECISION)");
+        execute("DELETE FROM replica_lag");
+        execute("INSERT INTO replica_lag VALUES (" + seconds + ")");
+        dataSource.checkReplicas();
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
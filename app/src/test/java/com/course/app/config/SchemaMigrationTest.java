@@ -0,0 +1,56 @@
+package com.course.app.config;
+
+import com.course.app.Application;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upgrade of a database from the last release before the migrations: its schema is V1, created by
+ * ddl-auto=update without a Flyway history. The application has to baseline it at V1, apply every later
+ * migration, including the data ones, and pass Hibernate's validation on boot.
+ */
+class SchemaMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:baseline;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void preMigrationDatabaseIsBaselinedMigratedAndValidated() throws Exception {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__baseline_schema.sql"));
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO course_locations (id, name) VALUES (1, 'Merkez')");
+                // Written by an older build: the legacy column only, no mapping row
+                statement.execute("INSERT INTO courses (id, name, course_location_id) VALUES (1, 'Matematik', 1)");
+            }
+        }
+
+        // Fails to start when a migration does not apply or the migrated schema does not match the entities
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .run("--spring.datasource.url=" + URL, "--server.port=0")) {
+            JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+            List<String> history = jdbcTemplate.query("SELECT version, type, success FROM flyway_schema_history "
+                    + "WHERE version IS NOT NULL ORDER BY installed_rank",
+                    (row, rowNum) -> row.getString(1) + " " + row.getString(2) + (row.getBoolean(3) ? "" : " FAILED"));
+            assertEquals("1 BASELINE", history.get(0));
+            assertTrue(history.size() > 1, "No migrations applied after the baseline: " + history);
+            assertTrue(history.stream().skip(1).noneMatch(entry -> entry.endsWith("FAILED")), "Migrations: " + history);
+            assertEquals(List.of(1L), jdbcTemplate.queryForList(
+                    "SELECT location_id FROM course_locations_mapping WHERE course_id = 1", Long.class));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.course.app.config;
+
+import com.course.app.dto.CourseLocationResponse;
+import com.course.app.dto.UserSummaryResponse;
+import com.course.app.entity.CourseLocation;
+import com.course.app.entity.Role;
+import com.course.app.entity.User;
+import com.course.app.repository.CourseLocationRepository;
+import com.course.app.repository.UserRepository;
+import com.course.app.service.CourseLocationService;
+import com.course.app.support.SqlStatementRecorder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Second-level cache of the reference entities: repeated reads are served without SQL and Hibernate writes
+ * refresh the cached state.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CourseLocationService courseLocationService;
+
+    @Autowired
+    private CourseLocationRepository courseLocationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void clearCache() {
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void locationWithAdminsIsReadFromTheCache() {
+        User admin = saveAdmin();
+        CourseLocation location = saveLocation(List.of(admin));
+        courseLocationService.getLocationById(location.getId());
+
+        double hits = locationHits();
+        SqlStatementRecorder.start();
+        CourseLocationResponse response;
+        try {
+            response = courseLocationService.getLocationById(location.getId());
+        } finally {
+            assertEquals(List.of(), SqlStatementRecorder.stop());
+        }
+        assertEquals(List.of(admin.getId()), response.getAdmins().stream().map(UserSummaryResponse::getId).toList());
+        assertTrue(locationHits() > hits, "No hit recorded for region " + SecondLevelCacheConfig.COURSE_LOCATION);
+    }
+
+    @Test
+    void adminChangesReplaceTheCachedAdmins() {
+        User first = saveAdmin();
+        User second = saveAdmin();
+        CourseLocation location = saveLocation(List.of(first));
+        courseLocationService.getLocationById(location.getId());
+
+        courseLocationService.assignAdminsToLocation(location.getId(), List.of(second.getId()));
+
+        assertEquals(List.of(second.getId()), courseLocationService.getLocationById(location.getId()).getAdmins()
+                .stream().map(UserSummaryResponse::getId).toList());
+    }
+
+    private double locationHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", SecondLevelCacheConfig.COURSE_LOCATION)
+                .tag("result", "hit")
+                .functionCounter().count();
+    }
+
+    private User saveAdmin() {
+        User admin = new User();
+        admin.setUsername("admin-" + UUID.randomUUID());
+        admin.setPassword("secret");
+        admin.setRole(Role.ADMIN);
+        return userRepository.save(admin);
+    }
+
+    private CourseLocation saveLocation(List<User> admins) {
+        CourseLocation location = new CourseLocation();
+        location.setName("Location " + UUID.randomUUID());
+        location.setAdmins(admins);
+        return courseLocationRepository.save(location);
+    }
+}
@@ -0,0 +1,354 @@
+package com.course.app.controller;
+
+import com.course.app.config.QueryDiagnosticsFilter;
+import com.course.app.dto.AttendanceSessionDTO;
+import com.course.app.service.StudentPerformanceSnapshotService;
+import com.course.app.support.SqlStatementRecorder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * SQL statement budgets per endpoint.
+ *
+ * Seeds a representative dataset (two locations, three courses, twelve students with notes and attendance)
+ * through the API into an embedded database, then calls every read endpoint once and counts the statements
+ * Hibernate issues for it. A budget that does not depend on the number of rows is what catches N+1
+ * regressions in the DTO mapping; a failing case prints the statements that were repeated.
+ *
+ * Budgets include the statements of the JWT filter (loading the current user). Lower a budget when an
+ * endpoint gets cheaper; raising one needs a reason.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointStatementBudgetTest {
+
+    private static final String SUPERADMIN = "superadmin";
+    private static final String ADMIN = "admin";
+    private static final int STUDENTS_PER_LOCATION = 6;
+    private static final List<String> SESSION_DATES = List.of("2026-09-01", "2026-09-02", "2026-09-03");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentPerformanceSnapshotService studentPerformanceSnapshotService;
+
+    private final Map<String, String> tokens = new HashMap<>();
+    private long adminId;
+    private long locationId;
+    private long courseId;
+    private long lessonId;
+    private long studentId;
+    private String studentNationalId;
+    private long noteId;
+
+    private record Case(String user, String path, int budget) {
+    }
+
+    @TestConfiguration
+    static class RecordFanOutBranches {
+
+        /** Statements of fan-out branches count towards the budget of the request that forked them */
+        @Bean
+        TaskDecorator sqlStatementRecorderPropagation() {
+            return SqlStatementRecorder::propagate;
+        }
+    }
+
+    @BeforeAll
+    void seed() throws Exception {
+        login(SUPERADMIN, "superadmin123");
+        adminId = login(ADMIN, "admin123").get("userId").asLong();
+
+        long[] locations = new long[2];
+        for (int i = 0; i < locations.length; i++) {
+            locations[i] = send(post("/api/locations"), SUPERADMIN, Map.of("name", "Lokasyon " + i,
+                    "address", "Adres " + i, "phone", "0212000000" + i, "adminIds", List.of(adminId))).get("id").asLong();
+        }
+        locationId = locations[0];
+
+        // Course 0 is at location 0, course 1 at both locations, course 2 at location 1
+        List<List<Long>> courseLocations = List.of(List.of(locations[0]), List.of(locations[0], locations[1]),
+                List.of(locations[1]));
+        Map<Long, List<Long>> lessonsByCourse = new LinkedHashMap<>();
+        for (int i = 0; i < courseLocations.size(); i++) {
+            long id = send(post("/api/courses"), SUPERADMIN, Map.of("name", "Kurs " + i, "description", "Açıklama",
+                    "startDate", "2026-09-01", "endDate", "2027-06-30", "courseLocationIds", courseLocations.get(i)))
+                    .get("id").asLong();
+            List<Long> lessons = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                lessons.add(send(post("/api/lessons"), SUPERADMIN, Map.of("name", "Ders " + i + "." + j,
+                        "courseId", id, "date", "2026-09-0" + (j + 1), "defaultScore", 100)).get("id").asLong());
+            }
+            lessonsByCourse.put(id, lessons);
+        }
+        courseId = lessonsByCourse.keySet().iterator().next();
+        lessonId = lessonsByCourse.get(courseId).get(0);
+
+        Map<Long, List<Long>> rosters = new HashMap<>();
+        for (int l = 0; l < locations.length; l++) {
+            for (int s = 0; s < STUDENTS_PER_LOCATION; s++) {
+                Map<String, Object> student = new HashMap<>(Map.of("nationalId", String.format("100000000%d%d", l, s),
+                        "firstName", "Öğrenci" + s, "lastName", "Soyad" + l, "locationId", locations[l]));
+                if (s % 2 == 0) {
+                    student.put("username", "ogrenci" + l + s);
+                    student.put("password", "sifre123");
+                }
+                JsonNode created = send(post("/api/students"), SUPERADMIN, student);
+                rosters.computeIfAbsent(locations[l], location -> new ArrayList<>()).add(created.get("id").asLong());
+                if (l == 0 && s == 0) {
+                    studentId = created.get("id").asLong();
+                    studentNationalId = created.get("nationalId").asText();
+                }
+
+                for (int c = 0; c < courseLocations.size(); c++) {
+                    if (!courseLocations.get(c).contains(locations[l])) {
+                        continue;
+                    }
+                    for (long lesson : lessonsByCourse.get(new ArrayList<>(lessonsByCourse.keySet()).get(c))) {
+                        JsonNode note = send(post("/api/admin/lesson-notes"), SUPERADMIN, Map.of(
+                                "studentId", created.get("id").asLong(), "lessonId", lesson,
+                                "score", 40 + (int) ((lesson * 7 + s * 13) % 60), "passed", s % 3 != 0));
+                        if (noteId == 0) {
+                            noteId = note.get("id").asLong();
+                        }
+                    }
+                }
+            }
+        }
+        send(put("/api/admin/lesson-notes/" + noteId), SUPERADMIN, Map.of("score", 90, "passed", true));
+
+        for (int c = 0; c < courseLocations.size(); c++) {
+            long course = new ArrayList<>(lessonsByCourse.keySet()).get(c);
+            for (long location : courseLocations.get(c)) {
+                for (int d = 0; d < SESSION_DATES.size(); d++) {
+                    // Everybody present on the first day, then fewer each day
+                    int present = (0b111111 >> (d * 2)) & 0b111111;
+                    send(put("/api/attendance/session"), SUPERADMIN, Map.of("courseId", course,
+                            "courseLocationId", location, "attendanceDate", SESSION_DATES.get(d),
+                            "rosterSize", STUDENTS_PER_LOCATION,
+                            "rosterVersion", AttendanceSessionDTO.rosterVersion(rosters.get(location)),
+                            "presentBitmap", Base64.getEncoder().encodeToString(new byte[]{(byte) present})));
+                }
+            }
+        }
+
+        // Build the performance snapshots now instead of waiting for the background worker
+        studentPerformanceSnapshotService.rebuildStale();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> readEndpointsStayWithinStatementBudget() {
+        List<Case> cases = List.of(
+                // AdminDashboardController
+                // Authentication, then admin, per-location counts and course IDs on a cold cache, for any number of locations
+                new Case(ADMIN, "/api/admin/dashboard", 4),
+                // Authentication and one activity_log page; the admin's locations come from the dashboard cache
+                new Case(ADMIN, "/api/admin/dashboard/activities", 2),
+                // AdminLessonNoteController
+                new Case(SUPERADMIN, "/api/admin/lesson-notes", 5),
+                new Case(ADMIN, "/api/admin/lesson-notes", 8),
+                new Case(ADMIN, "/api/admin/lesson-notes/lesson/" + lessonId, 8),
+                new Case(ADMIN, "/api/admin/lesson-notes/lesson/" + lessonId + "/stats", 2),
+                new Case(ADMIN, "/api/admin/lesson-notes/course/" + courseId + "/stats", 2),
+                new Case(ADMIN, "/api/admin/lesson-notes/student/" + studentId, 9),
+                new Case(ADMIN, "/api/admin/lesson-notes/course/" + courseId, 8),
+                new Case(ADMIN, "/api/admin/lesson-notes/student/" + studentId + "/passed", 5),
+                new Case(ADMIN, "/api/admin/lesson-notes/student/" + studentId + "/failed", 5),
+                new Case(ADMIN, "/api/admin/lesson-notes/" + noteId, 8),
+                new Case(ADMIN, "/api/admin/lesson-notes/" + noteId + "/history", 2),
+                // AdminStudentController
+                new Case(ADMIN, "/api/admin/students/" + studentId + "/details", 9),
+                // Authentication, the admin's locations and the enrollment check, then the query
+                new Case(ADMIN, "/api/admin/students/" + studentId + "/attendance", 4),
+                new Case(ADMIN, "/api/admin/students/" + studentId + "/attendance/records?from=2026-09-01&to=2026-09-30", 4),
+                // AttendanceController
+                new Case(ADMIN, "/api/attendance/session?courseId=" + courseId + "&courseLocationId=" + locationId
+                        + "&date=2026-09-01", 6),
+                new Case(ADMIN, "/api/attendance/location/" + locationId + "/date/2026-09-01", 4),
+                new Case(ADMIN, "/api/attendance/my-locations/date/2026-09-01", 3),
+                // One calendar cache load per location of the admin on a cold cache
+                new Case(ADMIN, "/api/attendance/my-locations/dates", 4),
+                new Case(ADMIN, "/api/attendance/student/" + studentId + "/stats", 0),
+                new Case(ADMIN, "/api/attendance/student/" + studentId + "/rates", 4),
+                new Case(ADMIN, "/api/attendance/course/" + courseId + "/absentees?minAbsences=1", 5),
+                new Case(ADMIN, "/api/attendance/location/" + locationId + "/daily-presence", 3),
+                new Case(ADMIN, "/api/attendance/location/" + locationId + "/calendar?from=2026-09-01&to=2026-09-30", 3),
+                // CourseController
+                new Case(SUPERADMIN, "/api/courses", 2),
+                new Case(ADMIN, "/api/courses", 5),
+                new Case(ADMIN, "/api/courses/admin", 4),
+                new Case(ADMIN, "/api/courses/" + courseId, 6),
+                new Case(ADMIN, "/api/courses/location/" + locationId, 4),
+                // CourseLocationController
+                new Case(ADMIN, "/api/locations", 2),
+                new Case(ADMIN, "/api/locations/" + locationId, 2),
+                new Case(ADMIN, "/api/locations/admin/" + adminId, 2),
+                new Case(ADMIN, "/api/locations/admin", 3),
+                // CourseLocationStudentController
+                new Case(ADMIN, "/api/course-locations/" + locationId + "/students", 8),
+                // LessonController
+                new Case(ADMIN, "/api/lessons", 3),
+                new Case(ADMIN, "/api/lessons/course/" + courseId, 4),
+                new Case(ADMIN, "/api/lessons/" + lessonId, 5),
+                new Case(ADMIN, "/api/lessons/course/" + courseId + "/count", 2),
+                // PublicRankingController
+                new Case(null, "/api/public/rankings/top-students", 1),
+                new Case(null, "/api/public/rankings/top-students?offset=5&limit=5", 1),
+                new Case(null, "/api/public/rankings/top-students/location/" + locationId, 1),
+                new Case(null, "/api/public/rankings/top-students/course/" + courseId, 1),
+                new Case(null, "/api/public/rankings/students/" + studentNationalId, 1),
+                new Case(null, "/api/public/rankings/students/" + studentNationalId + "/around?k=2&locationId="
+                        + locationId, 3),
+                // PublicStudentController
+                // Served from the student's performance snapshot
+                new Case(null, "/api/public/students/performance/" + studentNationalId, 1),
+                // StudentController
+                new Case(SUPERADMIN, "/api/students", 3),
+                new Case(ADMIN, "/api/students", 7),
+                new Case(ADMIN, "/api/students/" + studentId, 5),
+                new Case(ADMIN, "/api/students/national-id/" + studentNationalId, 5),
+                new Case(ADMIN, "/api/students/" + studentId + "/admin", 4),
+                // StudentLessonNoteController
+                new Case(ADMIN, "/api/admin/student-lesson-notes/course/" + courseId + "/lesson/" + lessonId, 7),
+                // SuperadminLessonController
+                new Case(SUPERADMIN, "/api/superadmin/lessons", 3),
+                new Case(SUPERADMIN, "/api/superadmin/lessons/course/" + courseId, 4),
+                new Case(SUPERADMIN, "/api/superadmin/lessons/" + lessonId, 5),
+                new Case(SUPERADMIN, "/api/superadmin/lessons/course/" + courseId + "/count", 2),
+                // UserController
+                new Case(SUPERADMIN, "/api/users", 1),
+                new Case(SUPERADMIN, "/api/users/" + adminId, 1),
+                new Case(ADMIN, "/api/users/admins", 1));
+
+        return cases.stream().map(c -> DynamicTest.dynamicTest(
+                (c.user() != null ? c.user() : "anonymous") + " GET " + c.path(),
+                () -> assertWithinBudget(get(c.path()), c.user(), c.budget())));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> conditionalGetsAreAnsweredBeforeTheQueries() {
+        // Authentication and the resource version lookup, or the snapshot lookup on the public endpoint
+        List<Case> cases = List.of(
+                new Case(SUPERADMIN, "/api/students", 2),
+                new Case(ADMIN, "/api/students", 2),
+                new Case(SUPERADMIN, "/api/courses", 2),
+                new Case(ADMIN, "/api/courses", 2),
+                new Case(SUPERADMIN, "/api/admin/lesson-notes", 2),
+                new Case(ADMIN, "/api/admin/lesson-notes", 2),
+                new Case(null, "/api/public/students/performance/" + studentNationalId, 1));
+
+        return cases.stream().map(c -> DynamicTest.dynamicTest(
+                (c.user() != null ? c.user() : "anonymous") + " conditional GET " + c.path(), () -> {
+                    MockHttpServletRequestBuilder first = get(c.path());
+                    if (c.user() != null) {
+                        first.header("Authorization", "Bearer " + tokens.get(c.user()));
+                    }
+                    String etag = mockMvc.perform(first).andReturn().getResponse().getHeader("ETag");
+                    assertNotNull(etag, "No ETag on " + c.path());
+                    assertWithinBudget(get(c.path()).header("If-None-Match", etag), c.user(), c.budget(), 304);
+                }));
+    }
+
+    @TestFactory
+    Stream<DynamicTest> authEndpointsStayWithinStatementBudget() {
+        // Login loads the user and stores the last login time
+        return Stream.of(DynamicTest.dynamicTest("anonymous POST /api/auth/login", () -> assertWithinBudget(
+                post("/api/auth/login").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(
+                        Map.of("username", ADMIN, "password", "admin123"))), null, 3)));
+    }
+
+    private void assertWithinBudget(MockHttpServletRequestBuilder request, String user, int budget) throws Exception {
+        assertWithinBudget(request, user, budget, 200);
+    }
+
+    private void assertWithinBudget(MockHttpServletRequestBuilder request, String user, int budget, int status)
+            throws Exception {
+        if (user != null) {
+            request.header("Authorization", "Bearer " + tokens.get(user));
+        }
+
+        SqlStatementRecorder.start();
+        MvcResult result;
+        List<String> statements;
+        try {
+            result = mockMvc.perform(request).andReturn();
+        } finally {
+            statements = SqlStatementRecorder.stop();
+        }
+
+        String body = result.getResponse().getContentAsString();
+        assertEquals(status, result.getResponse().getStatus(), () -> "Unexpected status, body: " + body);
+        assertEquals(String.valueOf(statements.size()),
+                result.getResponse().getHeader(QueryDiagnosticsFilter.QUERY_COUNT_HEADER),
+                "Query diagnostics disagree with the recorded statements");
+        if (statements.size() > budget) {
+            fail(describe(statements, budget));
+        }
+    }
+
+    private static String describe(List<String> statements, int budget) {
+        StringBuilder message = new StringBuilder()
+                .append(statements.size()).append(" SQL statements, budget is ").append(budget).append('\n');
+        Map<String, Long> repeated = SqlStatementRecorder.repeated(statements);
+        if (!repeated.isEmpty()) {
+            message.append("Repeated statements:\n");
+            repeated.forEach((sql, count) -> message.append("  ").append(count).append("x ").append(sql).append('\n'));
+        }
+        message.append("All statements:\n").append(statements.stream()
+                .map(sql -> "  " + sql).collect(Collectors.joining("\n")));
+        return message.toString();
+    }
+
+    private JsonNode login(String username, String password) throws Exception {
+        JsonNode response = send(post("/api/auth/login"), null, Map.of("username", username, "password", password));
+        tokens.put(username, response.get("accessToken").asText());
+        return response;
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, String user, Object body) throws Exception {
+        request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        if (user != null) {
+            request.header("Authorization", "Bearer " + tokens.get(user));
+        }
+        MvcResult result = mockMvc.perform(request).andReturn();
+        int status = result.getResponse().getStatus();
+        if (status >= 300) {
+            throw new IllegalStateException("Seeding " + request + " failed with " + status + ": "
+                    + result.getResponse().getContentAsString());
+        }
+        String content = result.getResponse().getContentAsString();
+        return content.isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(content);
+    }
+}
@@ -0,0 +1,92 @@
+package com.course.app.datagen;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Size and distributions of a {@link SyntheticDataGenerator} run. The defaults give the production-like volume:
+ * 100k students over 200 locations, about 10M lesson notes, 50M attendance rows and 2.5M note histories.
+ *
+ * Every location teaches {@code coursesPerLocation} courses on average; a course is taught at one location, or at
+ * a second one with {@code sharedCourseRate}. Students are enrolled at one location (two with
+ * {@code secondLocationRate}) and get a note for each lesson of their courses with {@code noteCoverage} and an
+ * attendance row for every session. Scores are normal around a per-student ability, presence is a per-student
+ * rate, and a note has a history with {@code history.rate}, each further change following with
+ * {@code history.continuation} (a geometric tail capped at {@code history.max}).
+ *
+ * The same seed and partition count give the same data whatever the number of threads.
+ */
+public record DataGeneratorConfig(
+        @DefaultValue("42") long seed,
+        @DefaultValue("200") int locations,
+        @DefaultValue("3") int adminsPerLocation,
+        @DefaultValue("100000") int students,
+        @DefaultValue("5") double coursesPerLocation,
+        @DefaultValue("0.5") double sharedCourseRate,
+        @DefaultValue("25") int lessonsPerCourse,
+        @DefaultValue("100") int sessionsPerCourse,
+        @DefaultValue("2025-09-15") LocalDate termStart,
+        @DefaultValue("36") int termWeeks,
+        @DefaultValue("0.05") double secondLocationRate,
+        @DefaultValue("0.8") double noteCoverage,
+        @DefaultValue Scores scores,
+        @DefaultValue Attendance attendance,
+        @DefaultValue History history,
+        @DefaultValue("16") int partitions,
+        @DefaultValue("4") int threads,
+        @DefaultValue("500") int chunkStudents,
+        @DefaultValue("5000") int batchSize,
+        @DefaultValue("sifre123") String password) {
+
+    /**
+     * Note scores: ability ~ N(mean, abilitySd) per student, score ~ N(ability, sd) clamped to 0..100.
+     * A lesson carries a default score with {@code defaultScoreRate}.
+     */
+    public record Scores(@DefaultValue("65") double mean, @DefaultValue("12") double abilitySd,
+                         @DefaultValue("12") double sd, @DefaultValue("50") int passScore,
+                         @DefaultValue("0.2") double defaultScoreRate, @DefaultValue("10") int defaultScore,
+                         @DefaultValue("0.15") double remarkRate) {
+    }
+
+    /**
+     * Presence: rate ~ N(presenceMean, presenceSd) per student, clamped to 0..1
+     */
+    public record Attendance(@DefaultValue("0.9") double presenceMean, @DefaultValue("0.07") double presenceSd,
+                             @DefaultValue("0.02") double noteRate) {
+    }
+
+    /**
+     * Lesson note histories: share of changed notes and the geometric tail of further changes
+     */
+    public record History(@DefaultValue("0.1") double rate, @DefaultValue("0.6") double continuation,
+                          @DefaultValue("50") int max) {
+    }
+
+    public DataGeneratorConfig {
+        if (locations <= 0 || students <= 0 || coursesPerLocation <= 0 || lessonsPerCourse <= 0
+                || sessionsPerCourse <= 0 || termWeeks <= 0 || adminsPerLocation <= 0) {
+            throw new IllegalArgumentException("Sizes must be positive");
+        }
+        if (partitions <= 0 || threads <= 0 || chunkStudents <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("partitions, threads, chunk-students and batch-size must be positive");
+        }
+        if (sessionsPerCourse > termWeeks * 5) {
+            throw new IllegalArgumentException("sessions-per-course exceeds the weekdays of the term");
+        }
+    }
+
+    /**
+     * Bind from flat options such as {@code students=1000} or {@code scores.mean=70}; unset ones keep their default
+     */
+    public static DataGeneratorConfig bind(Map<String, ?> options) {
+        return new Binder(new MapConfigurationPropertySource(options)).bindOrCreate("", DataGeneratorConfig.class);
+    }
+
+    int courses() {
+        return Math.max(1, (int) Math.round(locations * coursesPerLocation / (1 + sharedCourseRate)));
+    }
+}
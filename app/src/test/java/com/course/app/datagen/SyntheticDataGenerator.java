@@ -0,0 +1,517 @@
+package com.course.app.datagen;
+
+import com.course.app.datagen.TableWriter.Table;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Synthetic dataset for performance work: a consistent graph of locations, admins, courses taught at one or two
+ * locations, lessons, students enrolled at their locations, lesson notes with their change histories and the
+ * attendance of every course session, sized and shaped by {@link DataGeneratorConfig}.
+ *
+ * Rows are appended to an existing schema with explicit IDs above the current maximum, so students are split into
+ * partitions that are generated and written in parallel, each from its own random stream and ID range, and
+ * committed in chunks. PostgreSQL is loaded through COPY, other databases through batched INSERTs (see
+ * {@link TableWriter}). Identity columns are moved past the generated IDs at the end.
+ *
+ * Students' total scores and the attendance daily aggregates are written here; lesson statistics, performance
+ * snapshots and the in-memory indexes are rebuilt by the application when it starts. All accounts get the
+ * configured password; students log in as student_{nationalId}.
+ *
+ * CLI: --jdbc-url=... [--jdbc-username=...] [--jdbc-password=...] plus the kebab-case options of
+ * {@link DataGeneratorConfig}, e.g. --students=1000 --scores.mean=70. Run with:
+ * mvn -Pdatagen verify -Ddatagen.args="--jdbc-url=jdbc:postgresql://localhost:5432/coursedb ..."
+ */
+public final class SyntheticDataGenerator {
+
+    static final Table USERS = new Table("users", "id", "username", "password", "role", "first_name", "last_name",
+            "phone", "created_at", "updated_at");
+    static final Table LOCATIONS = new Table("course_locations", "id", "name", "address", "phone", "created_at",
+            "updated_at");
+    static final Table LOCATION_ADMINS = new Table("course_location_admins", "location_id", "user_id");
+    static final Table COURSES = new Table("courses", "id", "name", "description", "start_date", "end_date",
+            "course_location_id", "created_by_id", "created_at", "updated_at");
+    static final Table COURSE_LOCATIONS = new Table("course_locations_mapping", "course_id", "location_id");
+    static final Table LESSONS = new Table("lessons", "id", "name", "description", "date", "default_score",
+            "course_id", "created_by_id", "created_at", "updated_at");
+    static final Table STUDENTS = new Table("students", "id", "national_id", "first_name", "last_name",
+            "mother_name", "father_name", "address", "phone", "birth_date", "total_score", "user_id", "created_at",
+            "updated_at");
+    static final Table ENROLLMENTS = new Table("student_course_locations", "id", "student_id", "course_location_id",
+            "created_at", "updated_at");
+    static final Table NOTES = new Table("lesson_notes", "id", "score", "passed", "remark", "student_id",
+            "lesson_id", "created_at", "updated_at");
+    static final Table HISTORIES = new Table("lesson_note_histories", "lesson_note_id", "old_score", "old_passed",
+            "old_remark", "change_date", "modified_by_id", "created_at", "updated_at");
+    static final Table ATTENDANCES = new Table("attendances", "student_id", "course_id", "course_location_id",
+            "attendance_date", "is_present", "notes", "created_by_id", "created_at", "updated_at");
+    static final Table AGGREGATES = new Table("attendance_daily_aggregates", "course_location_id", "course_id",
+            "attendance_date", "present_count", "absent_count", "updated_at");
+
+    /**
+     * Tables written with explicit IDs, whose identity has to continue after them
+     */
+    private static final List<String> EXPLICIT_ID_TABLES = List.of(USERS.name(), LOCATIONS.name(), COURSES.name(),
+            LESSONS.name(), STUDENTS.name(), ENROLLMENTS.name(), NOTES.name());
+
+    private static final String[] FIRST_NAMES = {"Ahmet", "Mehmet", "Ayşe", "Fatma", "Mustafa", "Zeynep", "Emre",
+            "Elif", "Burak", "Merve", "Can", "Selin", "Murat", "Esra", "Hakan", "Derya", "Oğuz", "Gizem", "Kerem",
+            "Büşra"};
+    private static final String[] LAST_NAMES = {"Yılmaz", "Kaya", "Demir", "Şahin", "Çelik", "Yıldız", "Yıldırım",
+            "Öztürk", "Aydın", "Özdemir", "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Kara", "Koç", "Kurt",
+            "Özkan", "Şimşek"};
+    private static final String[] CITIES = {"İstanbul", "Ankara", "İzmir", "Bursa", "Antalya", "Konya", "Adana",
+            "Gaziantep", "Kayseri", "Eskişehir"};
+    private static final String[] SUBJECTS = {"Matematik", "Fizik", "Kimya", "Biyoloji", "Türkçe", "Tarih",
+            "Coğrafya", "İngilizce", "Geometri", "Felsefe"};
+    private static final String[] REMARKS = {"Çok iyi", "Başarılı", "Geliştirmeli", "Tekrar etmeli",
+            "Ödevlerini düzenli yapıyor"};
+
+    private final DataSource dataSource;
+    private final DataGeneratorConfig config;
+
+    public SyntheticDataGenerator(DataSource dataSource, DataGeneratorConfig config) {
+        this.dataSource = dataSource;
+        this.config = config;
+    }
+
+    /**
+     * Row counts of a run
+     */
+    public record Result(long locations, long admins, long courses, long lessons, long students, long enrollments,
+                         long notes, long histories, long attendances, long aggregates, Duration elapsed) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d locations, %d admins, %d courses, %d lessons, %d students, "
+                            + "%d enrollments, %d lesson notes, %d histories, %d attendances, %d daily aggregates "
+                            + "in %s", locations, admins, courses, lessons, students, enrollments, notes, histories,
+                    attendances, aggregates, elapsed);
+        }
+    }
+
+    private record Course(long id, int location, int[] locations, long[] lessonIds, LocalDate[] lessonDates,
+                          Integer[] lessonDefaultScores, LocalDate[] sessionDates) {
+    }
+
+    private record AggregateKey(long locationId, long courseId, LocalDate date) {
+    }
+
+    /**
+     * Row counters shared by the partitions
+     */
+    private static final class Counts {
+        final LongAdder students = new LongAdder();
+        final LongAdder enrollments = new LongAdder();
+        final LongAdder notes = new LongAdder();
+        final LongAdder histories = new LongAdder();
+        final LongAdder attendances = new LongAdder();
+    }
+
+    /**
+     * The reference graph every partition draws from
+     */
+    private final class Reference {
+        final long userBase;
+        final long studentBase;
+        final long enrollmentBase;
+        final long noteBase;
+        final long[] locationIds;
+        final long[][] adminIds;
+        final List<Course> courses = new ArrayList<>();
+        final int[][] coursesByLocation;
+        final String passwordHash;
+        long noteStride;
+
+        Reference(Map<String, Long> maxIds) {
+            userBase = maxIds.get(USERS.name()) + (long) config.locations() * config.adminsPerLocation();
+            studentBase = maxIds.get(STUDENTS.name());
+            enrollmentBase = maxIds.get(ENROLLMENTS.name());
+            noteBase = maxIds.get(NOTES.name());
+            locationIds = new long[config.locations()];
+            adminIds = new long[config.locations()][config.adminsPerLocation()];
+            coursesByLocation = new int[config.locations()][];
+            passwordHash = new BCryptPasswordEncoder().encode(config.password());
+        }
+
+        long admin(SplittableRandom random, int location) {
+            long[] admins = adminIds[location];
+            return admins[random.nextInt(admins.length)];
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        String url = options.getProperty("jdbc-url");
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("--jdbc-url is required; the schema has to exist (start the "
+                    + "application against the database once)");
+        }
+        Map<String, String> settings = new HashMap<>();
+        for (String name : options.getPropertyNames()) {
+            if (!name.startsWith("jdbc-")) {
+                settings.put(name, options.getProperty(name));
+            }
+        }
+        DataGeneratorConfig config = DataGeneratorConfig.bind(settings);
+        DataSource dataSource = new DriverManagerDataSource(url, options.getProperty("jdbc-username"),
+                options.getProperty("jdbc-password"));
+        System.out.println("Generating " + config);
+        System.out.println("Generated " + new SyntheticDataGenerator(dataSource, config).generate());
+    }
+
+    public Result generate() throws SQLException, InterruptedException {
+        long startedAt = System.nanoTime();
+        Reference reference;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            Map<String, Long> maxIds = maxIds(connection);
+            reference = new Reference(maxIds);
+            writeReference(connection, reference, maxIds);
+            connection.commit();
+        }
+
+        Counts counts = new Counts();
+        Map<AggregateKey, long[]> aggregates = new HashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(config.threads(), config.partitions()));
+        try {
+            List<Future<Map<AggregateKey, long[]>>> partitions = new ArrayList<>();
+            for (int partition = 0; partition < config.partitions(); partition++) {
+                int index = partition;
+                partitions.add(executor.submit(() -> writePartition(reference, index, counts)));
+            }
+            for (Future<Map<AggregateKey, long[]>> partition : partitions) {
+                partition.get().forEach((key, value) -> aggregates.merge(key, value, (a, b) -> {
+                    a[0] += b[0];
+                    a[1] += b[1];
+                    return a;
+                }));
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Partition failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            TableWriter writer = TableWriter.forConnection(connection, config.batchSize());
+            LocalDateTime now = LocalDateTime.now().withNano(0);
+            List<Object[]> rows = new ArrayList<>(aggregates.size());
+            aggregates.entrySet().stream()
+                    .sorted(Comparator.comparing((Map.Entry<AggregateKey, long[]> entry) -> entry.getKey().locationId())
+                            .thenComparing(entry -> entry.getKey().courseId())
+                            .thenComparing(entry -> entry.getKey().date()))
+                    .forEach(entry -> rows.add(new Object[]{entry.getKey().locationId(), entry.getKey().courseId(),
+                            entry.getKey().date(), entry.getValue()[0], entry.getValue()[1], now}));
+            writer.write(AGGREGATES, rows);
+            restartIdentities(connection);
+            connection.commit();
+        }
+
+        long lessons = reference.courses.stream().mapToLong(course -> course.lessonIds().length).sum();
+        return new Result(config.locations(), (long) config.locations() * config.adminsPerLocation(),
+                reference.courses.size(), lessons, counts.students.sum(), counts.enrollments.sum(),
+                counts.notes.sum(), counts.histories.sum(), counts.attendances.sum(), aggregates.size(),
+                Duration.ofNanos(System.nanoTime() - startedAt).withNanos(0));
+    }
+
+    /**
+     * Locations, their admins, courses with their locations and lessons; small enough for one transaction
+     */
+    private void writeReference(Connection connection, Reference reference, Map<String, Long> maxIds)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        TableWriter writer = TableWriter.forConnection(connection, config.batchSize());
+        LocalDate termStart = config.termStart().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDateTime createdAt = termStart.minusWeeks(2).atTime(9, 0);
+        int weekdays = config.termWeeks() * 5;
+
+        List<Object[]> locations = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> locationAdmins = new ArrayList<>();
+        long userId = maxIds.get(USERS.name());
+        for (int l = 0; l < config.locations(); l++) {
+            long locationId = maxIds.get(LOCATIONS.name()) + l + 1;
+            reference.locationIds[l] = locationId;
+            String city = CITIES[l % CITIES.length];
+            locations.add(new Object[]{locationId, city + " Şube " + locationId, address(random, city),
+                    phone(random), createdAt, createdAt});
+            for (int a = 0; a < config.adminsPerLocation(); a++) {
+                reference.adminIds[l][a] = ++userId;
+                users.add(new Object[]{userId, "admin_" + userId, reference.passwordHash, "ADMIN",
+                        pick(random, FIRST_NAMES), pick(random, LAST_NAMES), phone(random), createdAt, createdAt});
+                locationAdmins.add(new Object[]{locationId, userId});
+            }
+        }
+
+        List<List<Integer>> byLocation = new ArrayList<>();
+        for (int l = 0; l < config.locations(); l++) {
+            byLocation.add(new ArrayList<>());
+        }
+        List<Object[]> courses = new ArrayList<>();
+        List<Object[]> courseLocations = new ArrayList<>();
+        List<Object[]> lessons = new ArrayList<>();
+        int courseCount = config.courses();
+        long lessonId = maxIds.get(LESSONS.name());
+        for (int c = 0; c < courseCount; c++) {
+            long courseId = maxIds.get(COURSES.name()) + c + 1;
+            int location = c % config.locations();
+            int[] courseLocationIndexes = config.locations() > 1 && random.nextDouble() < config.sharedCourseRate()
+                    ? new int[]{location, (location + 1 + random.nextInt(config.locations() - 1)) % config.locations()}
+                    : new int[]{location};
+            long createdBy = reference.admin(random, location);
+            String subject = SUBJECTS[c % SUBJECTS.length];
+            courses.add(new Object[]{courseId, subject + " " + (c / SUBJECTS.length + 1),
+                    subject + " dersi", termStart, termStart.plusWeeks(config.termWeeks()).minusDays(3),
+                    reference.locationIds[location], createdBy, createdAt, createdAt});
+            for (int courseLocation : courseLocationIndexes) {
+                courseLocations.add(new Object[]{courseId, reference.locationIds[courseLocation]});
+                byLocation.get(courseLocation).add(c);
+            }
+
+            int n = config.lessonsPerCourse();
+            long[] lessonIds = new long[n];
+            LocalDate[] lessonDates = new LocalDate[n];
+            Integer[] defaultScores = new Integer[n];
+            for (int k = 0; k < n; k++) {
+                lessonIds[k] = ++lessonId;
+                lessonDates[k] = weekday(termStart, (int) ((long) k * weekdays / n));
+                defaultScores[k] = random.nextDouble() < config.scores().defaultScoreRate()
+                        ? config.scores().defaultScore() : null;
+                lessons.add(new Object[]{lessonId, subject + " - Ders " + (k + 1), null, lessonDates[k],
+                        defaultScores[k], courseId, createdBy, createdAt, createdAt});
+            }
+
+            int spacing = weekdays / config.sessionsPerCourse();
+            LocalDate[] sessionDates = new LocalDate[config.sessionsPerCourse()];
+            for (int s = 0; s < sessionDates.length; s++) {
+                sessionDates[s] = weekday(termStart, (int) ((long) s * weekdays / sessionDates.length)
+                        + c % Math.max(1, spacing));
+            }
+            reference.courses.add(new Course(courseId, location, courseLocationIndexes, lessonIds, lessonDates,
+                    defaultScores, sessionDates));
+        }
+
+        int maxCoursesPerLocation = 0;
+        for (int l = 0; l < config.locations(); l++) {
+            reference.coursesByLocation[l] = byLocation.get(l).stream().mapToInt(Integer::intValue).toArray();
+            maxCoursesPerLocation = Math.max(maxCoursesPerLocation, reference.coursesByLocation[l].length);
+        }
+        int maxStudentsPerPartition = (config.students() + config.partitions() - 1) / config.partitions();
+        reference.noteStride = (long) maxStudentsPerPartition * 2 * maxCoursesPerLocation * config.lessonsPerCourse();
+
+        writer.write(LOCATIONS, locations);
+        writer.write(USERS, users);
+        writer.write(LOCATION_ADMINS, locationAdmins);
+        writer.write(COURSES, courses);
+        writer.write(COURSE_LOCATIONS, courseLocations);
+        writer.write(LESSONS, lessons);
+    }
+
+    /**
+     * Students of one partition with their accounts, enrollments, notes, histories and attendance, committed per
+     * chunk; returns the partition's attendance counts per location, course and day
+     */
+    private Map<AggregateKey, long[]> writePartition(Reference reference, int partition, Counts counts)
+            throws SQLException {
+        int from = (int) ((long) config.students() * partition / config.partitions());
+        int to = (int) ((long) config.students() * (partition + 1) / config.partitions());
+        SplittableRandom random = new SplittableRandom(config.seed() * 31 + partition + 1);
+        long nextNoteId = reference.noteBase + partition * reference.noteStride;
+        Map<AggregateKey, long[]> aggregates = new HashMap<>();
+        DataGeneratorConfig.Scores scores = config.scores();
+        DataGeneratorConfig.History history = config.history();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            TableWriter writer = TableWriter.forConnection(connection, config.batchSize());
+            for (int chunkStart = from; chunkStart < to; chunkStart += config.chunkStudents()) {
+                int chunkEnd = Math.min(to, chunkStart + config.chunkStudents());
+                List<Object[]> users = new ArrayList<>();
+                List<Object[]> students = new ArrayList<>();
+                List<Object[]> enrollments = new ArrayList<>();
+                List<Object[]> notes = new ArrayList<>();
+                List<Object[]> histories = new ArrayList<>();
+                List<Object[]> attendances = new ArrayList<>();
+
+                for (int i = chunkStart; i < chunkEnd; i++) {
+                    long studentId = reference.studentBase + i + 1;
+                    long userId = reference.userBase + i + 1;
+                    String nationalId = String.format("9%010d", studentId);
+                    LocalDateTime enrolledAt = config.termStart().minusDays(1 + random.nextInt(30)).atTime(10, 0);
+
+                    int[] locations = random.nextDouble() < config.secondLocationRate() && config.locations() > 1
+                            ? twoLocations(random) : new int[]{random.nextInt(config.locations())};
+                    for (int k = 0; k < locations.length; k++) {
+                        enrollments.add(new Object[]{reference.enrollmentBase + 2L * i + k + 1, studentId,
+                                reference.locationIds[locations[k]], enrolledAt, enrolledAt});
+                    }
+
+                    double ability = scores.mean() + scores.abilitySd() * random.nextGaussian();
+                    double presence = clamp(config.attendance().presenceMean()
+                            + config.attendance().presenceSd() * random.nextGaussian(), 0, 1);
+                    int totalScore = 0;
+                    Set<Integer> taken = new HashSet<>();
+                    for (int location : locations) {
+                        for (int courseIndex : reference.coursesByLocation[location]) {
+                            if (!taken.add(courseIndex)) {
+                                continue;
+                            }
+                            Course course = reference.courses.get(courseIndex);
+                            long locationId = reference.locationIds[location];
+                            for (int k = 0; k < course.lessonIds().length; k++) {
+                                if (random.nextDouble() >= config.noteCoverage()) {
+                                    continue;
+                                }
+                                long noteId = ++nextNoteId;
+                                int score = (int) clamp(Math.round(ability + scores.sd() * random.nextGaussian()),
+                                        0, 100);
+                                boolean passed = score >= scores.passScore();
+                                String remark = remark(random);
+                                LocalDateTime createdAt = course.lessonDates()[k].atTime(18, random.nextInt(60));
+                                LocalDateTime updatedAt = createdAt;
+                                if (passed) {
+                                    Integer defaultScore = course.lessonDefaultScores()[k];
+                                    totalScore += defaultScore != null ? defaultScore : score;
+                                }
+                                if (random.nextDouble() < history.rate()) {
+                                    int changes = 1;
+                                    while (changes < history.max() && random.nextDouble() < history.continuation()) {
+                                        changes++;
+                                    }
+                                    for (int h = 0; h < changes; h++) {
+                                        updatedAt = updatedAt.plusMinutes(1 + random.nextInt(72 * 60));
+                                        int oldScore = (int) clamp(Math.round(score + 10 * random.nextGaussian()),
+                                                0, 100);
+                                        histories.add(new Object[]{noteId, oldScore, oldScore >= scores.passScore(),
+                                                remark(random), updatedAt, reference.admin(random, location),
+                                                updatedAt, updatedAt});
+                                    }
+                                }
+                                notes.add(new Object[]{noteId, score, passed, remark, studentId,
+                                        course.lessonIds()[k], createdAt, updatedAt});
+                            }
+                            for (LocalDate date : course.sessionDates()) {
+                                boolean present = random.nextDouble() < presence;
+                                String note = random.nextDouble() < config.attendance().noteRate()
+                                        ? (present ? "Geç geldi" : "Mazeretli") : null;
+                                LocalDateTime takenAt = date.atTime(9, random.nextInt(60));
+                                attendances.add(new Object[]{studentId, course.id(), locationId, date, present, note,
+                                        reference.admin(random, location), takenAt, takenAt});
+                                long[] count = aggregates.computeIfAbsent(
+                                        new AggregateKey(locationId, course.id(), date), key -> new long[2]);
+                                count[present ? 0 : 1]++;
+                            }
+                        }
+                    }
+
+                    String firstName = pick(random, FIRST_NAMES);
+                    String lastName = pick(random, LAST_NAMES);
+                    String city = CITIES[locations[0] % CITIES.length];
+                    users.add(new Object[]{userId, "student_" + nationalId, reference.passwordHash, "STUDENT",
+                            firstName, lastName, null, enrolledAt, enrolledAt});
+                    students.add(new Object[]{studentId, nationalId, firstName, lastName, pick(random, FIRST_NAMES),
+                            pick(random, FIRST_NAMES), address(random, city), phone(random),
+                            LocalDate.of(2005 + random.nextInt(8), 1 + random.nextInt(12), 1 + random.nextInt(28)),
+                            totalScore, userId, enrolledAt, enrolledAt});
+                }
+
+                writer.write(USERS, users);
+                writer.write(STUDENTS, students);
+                writer.write(ENROLLMENTS, enrollments);
+                writer.write(NOTES, notes);
+                writer.write(HISTORIES, histories);
+                writer.write(ATTENDANCES, attendances);
+                connection.commit();
+                counts.students.add(students.size());
+                counts.enrollments.add(enrollments.size());
+                counts.notes.add(notes.size());
+                counts.histories.add(histories.size());
+                counts.attendances.add(attendances.size());
+            }
+        }
+        return aggregates;
+    }
+
+    private Map<String, Long> maxIds(Connection connection) throws SQLException {
+        Map<String, Long> maxIds = new HashMap<>();
+        try (Statement statement = connection.createStatement()) {
+            for (String table : EXPLICIT_ID_TABLES) {
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+                    resultSet.next();
+                    maxIds.put(table, resultSet.getLong(1));
+                }
+            }
+        }
+        return maxIds;
+    }
+
+    private void restartIdentities(Connection connection) throws SQLException {
+        boolean postgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+        Map<String, Long> maxIds = maxIds(connection);
+        try (Statement statement = connection.createStatement()) {
+            for (String table : EXPLICIT_ID_TABLES) {
+                if (postgres) {
+                    try (PreparedStatement setval = connection.prepareStatement(
+                            "SELECT setval(pg_get_serial_sequence(?, 'id'), ?)")) {
+                        setval.setString(1, table);
+                        setval.setLong(2, Math.max(1, maxIds.get(table)));
+                        setval.execute();
+                    }
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH "
+                            + (maxIds.get(table) + 1));
+                }
+            }
+        }
+    }
+
+    private int[] twoLocations(SplittableRandom random) {
+        int first = random.nextInt(config.locations());
+        return new int[]{first, (first + 1 + random.nextInt(config.locations() - 1)) % config.locations()};
+    }
+
+    private String remark(SplittableRandom random) {
+        return random.nextDouble() < config.scores().remarkRate() ? pick(random, REMARKS) : null;
+    }
+
+    private static LocalDate weekday(LocalDate monday, int index) {
+        return monday.plusDays(index / 5 * 7L + index % 5);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String address(SplittableRandom random, String city) {
+        return pick(random, LAST_NAMES) + " Mah. No:" + (1 + random.nextInt(200)) + " " + city;
+    }
+
+    private static String phone(SplittableRandom random) {
+        return String.format("05%02d%07d", 30 + random.nextInt(30), random.nextInt(10_000_000));
+    }
+}
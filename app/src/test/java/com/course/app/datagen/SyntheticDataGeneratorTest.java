@@ -0,0 +1,121 @@
+package com.course.app.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The generator as a test fixture on the embedded database: the graph is consistent, derived columns match the
+ * rows they summarize, and the same seed gives the same data whatever the number of threads.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:datagen;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void generatesConsistentDeterministicGraph() throws Exception {
+        long firstStudent = maxId("students");
+        SyntheticDataGenerator.Result sequential = generate(1);
+        long secondStudent = maxId("students");
+        SyntheticDataGenerator.Result parallel = generate(3);
+
+        assertEquals(60, sequential.students());
+        assertTrue(sequential.notes() > 0 && sequential.histories() > 0 && sequential.attendances() > 0);
+        assertEquals(withoutElapsed(sequential), withoutElapsed(parallel));
+        assertEquals(fingerprint(firstStudent, secondStudent), fingerprint(secondStudent, maxId("students")));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM lesson_notes n JOIN lessons l ON l.id = n.lesson_id "
+                + "WHERE NOT EXISTS (SELECT 1 FROM course_locations_mapping m JOIN student_course_locations e "
+                + "ON e.course_location_id = m.location_id WHERE m.course_id = l.course_id "
+                + "AND e.student_id = n.student_id)"), "notes outside the student's courses");
+        assertEquals(0, count("SELECT COUNT(*) FROM attendances a WHERE NOT EXISTS (SELECT 1 FROM "
+                + "course_locations_mapping m JOIN student_course_locations e ON e.course_location_id = m.location_id "
+                + "WHERE m.course_id = a.course_id AND m.location_id = a.course_location_id "
+                + "AND e.student_id = a.student_id)"), "attendance outside the student's courses");
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT student_id, course_id, attendance_date FROM attendances "
+                + "GROUP BY student_id, course_id, attendance_date HAVING COUNT(*) > 1) d"), "duplicate attendance");
+        assertEquals(0, count("SELECT COUNT(*) FROM students s WHERE s.total_score <> (SELECT "
+                + "COALESCE(SUM(CASE WHEN n.passed THEN COALESCE(l.default_score, n.score) ELSE 0 END), 0) "
+                + "FROM lesson_notes n JOIN lessons l ON l.id = n.lesson_id WHERE n.student_id = s.id)"),
+                "total scores");
+        assertEquals(0, count("SELECT COUNT(*) FROM attendance_daily_aggregates g WHERE g.present_count <> "
+                + "(SELECT COUNT(*) FROM attendances a WHERE a.course_location_id = g.course_location_id "
+                + "AND a.course_id = g.course_id AND a.attendance_date = g.attendance_date AND a.is_present) "
+                + "OR g.absent_count <> (SELECT COUNT(*) FROM attendances a WHERE a.course_location_id = "
+                + "g.course_location_id AND a.course_id = g.course_id AND a.attendance_date = g.attendance_date "
+                + "AND NOT a.is_present)"), "daily aggregates");
+
+        String password = jdbcTemplate.queryForObject("SELECT u.password FROM users u JOIN students s "
+                + "ON s.user_id = u.id WHERE s.id = ?", String.class, maxId("students"));
+        assertTrue(passwordEncoder.matches("sifre123", password));
+        jdbcTemplate.update("INSERT INTO lesson_notes (score, passed) VALUES (1, false)");
+        assertEquals(maxId("lesson_notes"), jdbcTemplate.queryForObject(
+                "SELECT id FROM lesson_notes WHERE student_id IS NULL", Long.class));
+    }
+
+    private SyntheticDataGenerator.Result generate(int threads) throws Exception {
+        Map<String, Object> options = new HashMap<>();
+        options.put("seed", "7");
+        options.put("locations", "4");
+        options.put("admins-per-location", "2");
+        options.put("students", "60");
+        options.put("courses-per-location", "2");
+        options.put("lessons-per-course", "5");
+        options.put("sessions-per-course", "6");
+        options.put("term-weeks", "4");
+        options.put("second-location-rate", "0.3");
+        options.put("history.rate", "0.5");
+        options.put("partitions", "3");
+        options.put("chunk-students", "7");
+        options.put("threads", String.valueOf(threads));
+        return new SyntheticDataGenerator(dataSource, DataGeneratorConfig.bind(options)).generate();
+    }
+
+    private static List<Long> withoutElapsed(SyntheticDataGenerator.Result result) {
+        return List.of(result.locations(), result.admins(), result.courses(), result.lessons(), result.students(),
+                result.enrollments(), result.notes(), result.histories(), result.attendances(), result.aggregates());
+    }
+
+    /**
+     * Scores and presence of the students generated after {@code from} up to {@code to}
+     */
+    private List<Long> fingerprint(long from, long to) {
+        return List.of(
+                count("SELECT COALESCE(SUM(total_score), 0) FROM students WHERE id > " + from + " AND id <= " + to),
+                count("SELECT COALESCE(SUM(score), 0) FROM lesson_notes"
+                        + " WHERE student_id > " + from + " AND student_id <= " + to),
+                count("SELECT COUNT(*) FROM attendances WHERE is_present AND student_id > " + from
+                        + " AND student_id <= " + to),
+                count("SELECT COUNT(*) FROM lesson_note_histories h JOIN lesson_notes n ON n.id = h.lesson_note_id "
+                        + "WHERE n.student_id > " + from + " AND n.student_id <= " + to));
+    }
+
+    private long maxId(String table) {
+        return count("SELECT COALESCE(MAX(id), 0) FROM " + table);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,136 @@
+package com.course.app.datagen;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bulk insert of generated rows: COPY ... FROM STDIN (CSV) on PostgreSQL, batched prepared INSERTs elsewhere
+ * (the embedded H2 of the tests). Rows hold the values in column order; null is SQL NULL.
+ */
+abstract class TableWriter {
+
+    /**
+     * Columns of a target table; tables whose IDs nothing references let the database assign them
+     */
+    record Table(String name, String... columns) {
+
+        String columnList() {
+            return String.join(", ", columns);
+        }
+    }
+
+    static TableWriter forConnection(Connection connection, int batchSize) throws SQLException {
+        if (connection.isWrapperFor(PGConnection.class)) {
+            return new Copy(connection.unwrap(PGConnection.class));
+        }
+        return new Batch(connection, batchSize);
+    }
+
+    abstract void write(Table table, List<Object[]> rows) throws SQLException;
+
+    private static final class Copy extends TableWriter {
+
+        private static final int FLUSH_CHARS = 1 << 20;
+        private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+        private final PGConnection connection;
+
+        private Copy(PGConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        void write(Table table, List<Object[]> rows) throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            CopyIn copy = connection.getCopyAPI().copyIn("COPY " + table.name() + " (" + table.columnList()
+                    + ") FROM STDIN WITH (FORMAT csv)");
+            try {
+                StringBuilder csv = new StringBuilder(FLUSH_CHARS + 4096);
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        if (i > 0) {
+                            csv.append(',');
+                        }
+                        append(csv, row[i]);
+                    }
+                    csv.append('\n');
+                    if (csv.length() >= FLUSH_CHARS) {
+                        flush(copy, csv);
+                    }
+                }
+                flush(copy, csv);
+                copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        }
+
+        private static void append(StringBuilder csv, Object value) {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof String text) {
+                csv.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else if (value instanceof LocalDateTime timestamp) {
+                csv.append(TIMESTAMP.format(timestamp));
+            } else {
+                csv.append(value);
+            }
+        }
+
+        private static void flush(CopyIn copy, StringBuilder csv) throws SQLException {
+            byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+            copy.writeToCopy(bytes, 0, bytes.length);
+            csv.setLength(0);
+        }
+    }
+
+    private static final class Batch extends TableWriter {
+
+        private final Connection connection;
+        private final int batchSize;
+
+        private Batch(Connection connection, int batchSize) {
+            this.connection = connection;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        void write(Table table, List<Object[]> rows) throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            String placeholders = String.join(", ", Collections.nCopies(table.columns().length, "?"));
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + table.name() + " ("
+                    + table.columnList() + ") VALUES (" + placeholders + ")")) {
+                int pending = 0;
+                for (Object[] row : rows) {
+                    for (int i = 0; i < row.length; i++) {
+                        statement.setObject(i + 1, row[i]);
+                    }
+                    statement.addBatch();
+                    if (++pending == batchSize) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+}
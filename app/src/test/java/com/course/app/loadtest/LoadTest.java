@@ -0,0 +1,108 @@
+package com.course.app.loadtest;
+
+import com.course.app.Application;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Load test: boots the application on a random port against an in-memory database (the loadtest profile),
+ * seeds {@link LoadTestDataset} through the API and runs the scenario scripts of src/test/resources/loadtest
+ * one after another. Exits with 1 when a step misses its SLO.
+ *
+ * Options: --include=regex (scenario names), --users=N, --warmup=10s and --duration=30s override the scripts,
+ * --locations=N and --students-per-location=N size the dataset, --report=path for the JSON report.
+ *
+ * Run with: mvn -Ploadtest verify [-Dloadtest.include=dashboard] [-Dloadtest.args="--users=20 --duration=10s"]
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        SimpleCommandLinePropertySource options = new SimpleCommandLinePropertySource(args);
+        Pattern include = Pattern.compile(option(options, "include", ".*"));
+        Integer users = options.containsProperty("users") ? Integer.valueOf(options.getProperty("users")) : null;
+        Duration warmup = duration(options, "warmup");
+        Duration duration = duration(options, "duration");
+        int locations = Integer.parseInt(option(options, "locations",
+                String.valueOf(LoadTestDataset.DEFAULT_LOCATIONS)));
+        int studentsPerLocation = Integer.parseInt(option(options, "students-per-location",
+                String.valueOf(LoadTestDataset.DEFAULT_STUDENTS_PER_LOCATION)));
+        Path reportPath = Path.of(option(options, "report", "target/loadtest-report.json"));
+
+        List<Scenario> scenarios = new ArrayList<>();
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources("classpath:loadtest/*.yml");
+        for (Resource resource : resources) {
+            Scenario scenario = Scenario.load(resource);
+            if (include.matcher(scenario.name()).find()) {
+                scenarios.add(scenario.with(users, warmup, duration));
+            }
+        }
+        scenarios.sort(Comparator.comparing(Scenario::name));
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No scenario matches " + include);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+        SpringApplication application = new SpringApplication(Application.class);
+        application.setAdditionalProfiles("loadtest");
+        application.setDefaultProperties(Map.of("server.port", "0"));
+
+        boolean passed;
+        try (ConfigurableApplicationContext context = application.run()) {
+            Environment environment = context.getEnvironment();
+            LoadTestClient client = new LoadTestClient(
+                    URI.create("http://localhost:" + environment.getProperty("local.server.port")), objectMapper);
+            Instant startedAt = Instant.now();
+            LoadTestDataset dataset = LoadTestDataset.seed(client,
+                    environment.getProperty("app.default.superadmin.username"),
+                    environment.getProperty("app.default.superadmin.password"), locations, studentsPerLocation);
+            System.out.println("Seeded " + dataset);
+
+            ScenarioRunner runner = new ScenarioRunner(client, dataset);
+            List<LoadTestReport.ScenarioResult> results = new ArrayList<>();
+            for (Scenario scenario : scenarios) {
+                System.out.printf("Running %s: %d users for %s after %s warm-up%n", scenario.name(),
+                        scenario.users(), scenario.duration(), scenario.warmup());
+                results.add(runner.run(scenario));
+            }
+
+            LoadTestReport report = new LoadTestReport(startedAt, dataset.toString(), results);
+            report.print(System.out);
+            report.write(reportPath, objectMapper);
+            System.out.println("Report written to " + reportPath.toAbsolutePath());
+            passed = report.passed();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static String option(SimpleCommandLinePropertySource options, String name, String defaultValue) {
+        String value = options.getProperty(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+
+    private static Duration duration(SimpleCommandLinePropertySource options, String name) {
+        String value = options.getProperty(name);
+        return value != null ? DurationStyle.detectAndParse(value) : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.course.app.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * JSON over HTTP against the application under test, shared by all virtual users
+ */
+final class LoadTestClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI baseUri;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    LoadTestClient(URI baseUri, ObjectMapper objectMapper) {
+        this.baseUri = baseUri;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Send a request and return the response whatever its status; the response body is discarded
+     */
+    int send(String method, String path, String token, String body) throws IOException, InterruptedException {
+        return httpClient.send(request(method, path, token, body), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+
+    /**
+     * Send a request that has to succeed and read its JSON response, for seeding and logins
+     */
+    JsonNode call(String method, String path, String token, Object body) throws IOException, InterruptedException {
+        String json = body != null ? objectMapper.writeValueAsString(body) : null;
+        HttpResponse<String> response = httpClient.send(request(method, path, token, json),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 300) {
+            throw new IllegalStateException(method + " " + path + " returned " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return response.body().isEmpty() ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+
+    String login(String username, String password) throws IOException, InterruptedException {
+        return call("POST", "/api/auth/login", null, Map.of("username", username, "password", password))
+                .get("accessToken").asText();
+    }
+
+    private HttpRequest request(String method, String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json")
+                .method(method, body != null ? HttpRequest.BodyPublishers.ofString(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        if (body != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+}
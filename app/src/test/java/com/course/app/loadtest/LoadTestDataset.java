@@ -0,0 +1,232 @@
+package com.course.app.loadtest;
+
+import com.course.app.dto.AttendanceSessionDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Synthetic dataset the scenarios run against, seeded through the API so the caches, the leaderboard and the
+ * attendance index see it exactly as they see production writes: a number of locations (20 by default) with
+ * {@value #ADMINS_PER_LOCATION} admins and a number of students (100 by default) each, as many courses taught at
+ * two locations each with {@value #LESSONS_PER_COURSE} lessons, a note for every student and lesson of their
+ * location, and attendance sessions for the last {@value #SESSION_DAYS} days. Seeding is deterministic.
+ *
+ * Variables of the scenario scripts, per virtual user: locationId, courseId (a course taught there, the same one
+ * for the whole run, so virtual users up to twice the locations never share a class), rosterSize, rosterVersion
+ * and presentBitmap (the location's roster with about nine in ten present). Per iteration: lessonId (of the course),
+ * studentId and nationalId (of the location), date (a day with attendance) and today.
+ */
+final class LoadTestDataset {
+
+    static final List<String> VARIABLES = List.of("locationId", "courseId", "lessonId", "studentId", "nationalId",
+            "date", "today", "rosterSize", "rosterVersion", "presentBitmap");
+
+    static final int DEFAULT_LOCATIONS = 20;
+    static final int DEFAULT_STUDENTS_PER_LOCATION = 100;
+
+    private static final int ADMINS_PER_LOCATION = 10;
+    private static final int LESSONS_PER_COURSE = 4;
+    private static final int SESSION_DAYS = 10;
+    private static final String ADMIN_PASSWORD = "yonetici123";
+    // Account and student creation run in parallel, they are dominated by password hashing and do not conflict
+    private static final int SEED_THREADS = 8;
+
+    private final LoadTestClient client;
+    private final int locationCount;
+    private final int studentsPerLocation;
+    private final LocalDate today = LocalDate.now();
+    private final List<LocalDate> sessionDates = new ArrayList<>();
+    private final List<Location> locations = new ArrayList<>();
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    private record Location(long id, List<String> admins, List<Course> courses, List<Student> students) {
+    }
+
+    private record Course(long id, List<Long> lessonIds) {
+    }
+
+    record Student(long id, String nationalId) {
+    }
+
+    /**
+     * A virtual user: its account (null token for anonymous ones) and the class it works with
+     */
+    record VirtualUser(String token, Map<String, String> fixed, List<Long> lessonIds, List<Student> students,
+                       List<LocalDate> sessionDates) {
+
+        Map<String, String> variables(Random random) {
+            Map<String, String> variables = new HashMap<>(fixed);
+            Student student = students.get(random.nextInt(students.size()));
+            variables.put("lessonId", String.valueOf(lessonIds.get(random.nextInt(lessonIds.size()))));
+            variables.put("studentId", String.valueOf(student.id()));
+            variables.put("nationalId", student.nationalId());
+            variables.put("date", sessionDates.get(random.nextInt(sessionDates.size())).toString());
+            return variables;
+        }
+    }
+
+    private LoadTestDataset(LoadTestClient client, int locationCount, int studentsPerLocation) {
+        if (locationCount < 2) {
+            throw new IllegalArgumentException("At least two locations are needed, courses are taught at two");
+        }
+        this.client = client;
+        this.locationCount = locationCount;
+        this.studentsPerLocation = studentsPerLocation;
+    }
+
+    static LoadTestDataset seed(LoadTestClient client, String superadmin, String password, int locations,
+                                int studentsPerLocation) throws Exception {
+        LoadTestDataset dataset = new LoadTestDataset(client, locations, studentsPerLocation);
+        dataset.seed(client.login(superadmin, password));
+        return dataset;
+    }
+
+    /**
+     * Virtual users of a scenario, logged in; user i works at location i mod the number of locations
+     */
+    List<VirtualUser> virtualUsers(String role, int count) throws Exception {
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Location location = locations.get(i % locationCount);
+            int round = i / locationCount;
+            Course course = location.courses().get(round % location.courses().size());
+            String token = null;
+            if (role.equals("admin")) {
+                String admin = location.admins().get(round % location.admins().size());
+                token = tokens.get(admin);
+                if (token == null) {
+                    token = client.login(admin, ADMIN_PASSWORD);
+                    tokens.put(admin, token);
+                }
+            }
+            BitSet present = new BitSet(location.students().size());
+            Random random = new Random(i);
+            for (int s = 0; s < location.students().size(); s++) {
+                present.set(s, random.nextInt(10) != 0);
+            }
+            Map<String, String> fixed = Map.of(
+                    "locationId", String.valueOf(location.id()),
+                    "courseId", String.valueOf(course.id()),
+                    "today", today.toString(),
+                    "rosterSize", String.valueOf(location.students().size()),
+                    "rosterVersion", rosterVersion(location),
+                    "presentBitmap", Base64.getEncoder().encodeToString(present.toByteArray()));
+            users.add(new VirtualUser(token, fixed, course.lessonIds(), location.students(), sessionDates));
+        }
+        return users;
+    }
+
+    private static String rosterVersion(Location location) {
+        return AttendanceSessionDTO.rosterVersion(location.students().stream().map(Student::id).toList());
+    }
+
+    private void seed(String superadmin) throws Exception {
+        Random random = new Random(42);
+        for (int d = SESSION_DAYS; d >= 1; d--) {
+            sessionDates.add(today.minusDays(d));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<JsonNode>> admins = new ArrayList<>();
+            for (int l = 0; l < locationCount; l++) {
+                for (int a = 0; a < ADMINS_PER_LOCATION; a++) {
+                    String username = "yonetici" + l + "_" + a;
+                    admins.add(executor.submit(() -> client.call("POST", "/api/users", superadmin, Map.of(
+                            "username", username, "password", ADMIN_PASSWORD, "role", "ADMIN",
+                            "firstName", "Yönetici", "lastName", username))));
+                }
+            }
+
+            for (int l = 0; l < locationCount; l++) {
+                List<Long> adminIds = new ArrayList<>();
+                List<String> usernames = new ArrayList<>();
+                for (int a = 0; a < ADMINS_PER_LOCATION; a++) {
+                    JsonNode admin = admins.get(l * ADMINS_PER_LOCATION + a).get();
+                    adminIds.add(admin.get("id").asLong());
+                    usernames.add(admin.get("username").asText());
+                }
+                long id = client.call("POST", "/api/locations", superadmin, Map.of("name", "Şube " + l,
+                        "address", "Cumhuriyet Cad. No:" + l, "phone", String.format("0212%07d", l),
+                        "adminIds", adminIds)).get("id").asLong();
+                locations.add(new Location(id, usernames, new ArrayList<>(), new ArrayList<>()));
+            }
+
+            // Course c is taught at locations c and c + 1, so every location has two courses
+            for (int c = 0; c < locationCount; c++) {
+                List<Location> taughtAt = List.of(locations.get(c), locations.get((c + 1) % locationCount));
+                long id = client.call("POST", "/api/courses", superadmin, Map.of("name", "Kurs " + c,
+                        "description", "Dönem kursu " + c, "startDate", today.minusMonths(2).toString(),
+                        "endDate", today.plusMonths(6).toString(),
+                        "courseLocationIds", taughtAt.stream().map(Location::id).toList())).get("id").asLong();
+                List<Long> lessonIds = new ArrayList<>();
+                for (int j = 0; j < LESSONS_PER_COURSE; j++) {
+                    lessonIds.add(client.call("POST", "/api/lessons", superadmin, Map.of("name", "Ders " + c + "." + j,
+                            "courseId", id, "date", today.minusDays(7L * (LESSONS_PER_COURSE - j)).toString(),
+                            "defaultScore", 100)).get("id").asLong());
+                }
+                taughtAt.forEach(location -> location.courses().add(new Course(id, lessonIds)));
+            }
+
+            for (int l = 0; l < locationCount; l++) {
+                Location location = locations.get(l);
+                List<Future<JsonNode>> students = new ArrayList<>();
+                for (int s = 0; s < studentsPerLocation; s++) {
+                    Map<String, Object> request = Map.of("nationalId", String.format("3%04d%06d", l, s),
+                            "firstName", "Öğrenci" + s, "lastName", "Soyad" + l,
+                            "birthDate", today.minusYears(16).minusDays(random.nextInt(1_000)).toString(),
+                            "locationId", location.id());
+                    students.add(executor.submit(() -> client.call("POST", "/api/students", superadmin, request)));
+                }
+                for (Future<JsonNode> student : students) {
+                    location.students().add(new Student(student.get().get("id").asLong(),
+                            student.get().get("nationalId").asText()));
+                }
+                // The attendance roster is ordered by student ID
+                location.students().sort(Comparator.comparingLong(Student::id));
+            }
+
+            // Notes and sessions one at a time: a note write locks its student and the lesson's stats until it commits
+            for (Location location : locations) {
+                for (Course course : location.courses()) {
+                    for (long lessonId : course.lessonIds()) {
+                        List<Map<String, Object>> notes = new ArrayList<>();
+                        for (Student student : location.students()) {
+                            int score = Math.min(100, 30 + random.nextInt(50) + random.nextInt(30));
+                            notes.add(Map.of("studentId", student.id(), "lessonId", lessonId, "score", score,
+                                    "passed", score >= 50));
+                        }
+                        client.call("POST", "/api/admin/student-lesson-notes/batch-update", superadmin,
+                                Map.of("notes", notes));
+                    }
+                    for (LocalDate date : sessionDates) {
+                        BitSet present = new BitSet(location.students().size());
+                        for (int s = 0; s < location.students().size(); s++) {
+                            present.set(s, random.nextInt(8) != 0);
+                        }
+                        client.call("PUT", "/api/attendance/session", superadmin, Map.of("courseId", course.id(),
+                                "courseLocationId", location.id(), "attendanceDate", date.toString(),
+                                "rosterSize", location.students().size(),
+                                "rosterVersion", rosterVersion(location),
+                                "presentBitmap", Base64.getEncoder().encodeToString(present.toByteArray())));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return locationCount + " locations, " + locationCount * ADMINS_PER_LOCATION + " admins, "
+                + locationCount * studentsPerLocation + " students, " + locationCount * 2 * LESSONS_PER_COURSE
+                * studentsPerLocation + " lesson notes, " + locationCount * 2 * SESSION_DAYS + " attendance sessions";
+    }
+}
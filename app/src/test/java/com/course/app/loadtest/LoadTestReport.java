@@ -0,0 +1,120 @@
+package com.course.app.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Results of a load-test run per scenario and step, with the SLO violations. Printed as a table and written as
+ * JSON (target/loadtest-report.json from the loadtest profile). Latencies are in milliseconds and throughput in
+ * requests per second over the measured period.
+ */
+record LoadTestReport(Instant startedAt, String dataset, List<ScenarioResult> scenarios) {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    record ScenarioResult(String name, String description, int users, double measuredSeconds,
+                          List<StepResult> steps) {
+
+        static ScenarioResult of(Scenario scenario, Map<Scenario.Step, ScenarioRunner.StepStats> stats,
+                                 double measuredSeconds) {
+            List<StepResult> steps = new ArrayList<>();
+            stats.forEach((step, stepStats) -> steps.add(StepResult.of(step, stepStats, measuredSeconds,
+                    scenario.slo().get(step.name()))));
+            return new ScenarioResult(scenario.name(), scenario.description(), scenario.users(), measuredSeconds,
+                    steps);
+        }
+    }
+
+    record StepResult(String name, String method, String path, long requests, long errors, double errorRate,
+                      double throughput, Map<String, Double> latency, Map<String, Long> outcomes,
+                      Scenario.Slo slo, List<String> violations) {
+
+        static StepResult of(Scenario.Step step, ScenarioRunner.StepStats stats, double measuredSeconds,
+                             Scenario.Slo slo) {
+            Histogram histogram = stats.histogram();
+            Map<String, Double> latency = new LinkedHashMap<>();
+            for (double percentile : PERCENTILES) {
+                latency.put("p" + format(percentile), histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            latency.put("max", histogram.getMaxValue() / 1000.0);
+            long requests = stats.requests();
+            double errorRate = requests > 0 ? (double) stats.errors() / requests : 0;
+            double throughput = requests / measuredSeconds;
+
+            List<String> violations = new ArrayList<>();
+            if (slo != null) {
+                if (requests == 0) {
+                    violations.add("no requests measured");
+                }
+                check(violations, "p95", slo.p95(), latency.get("p95"));
+                check(violations, "p99", slo.p99(), latency.get("p99"));
+                if (slo.maxErrorRate() != null && errorRate > slo.maxErrorRate()) {
+                    violations.add(String.format(Locale.ROOT, "error rate %.4f > %.4f", errorRate,
+                            slo.maxErrorRate()));
+                }
+                if (slo.minThroughput() != null && throughput < slo.minThroughput()) {
+                    violations.add(String.format(Locale.ROOT, "throughput %.1f/s < %.1f/s", throughput,
+                            slo.minThroughput()));
+                }
+            }
+            return new StepResult(step.name(), step.method() != null ? step.method() : "GET", step.path(),
+                    requests, stats.errors(), errorRate, throughput, latency, stats.outcomes(), slo, violations);
+        }
+
+        private static void check(List<String> violations, String percentile, Duration objective, double actualMs) {
+            if (objective != null && actualMs > objective.toMillis()) {
+                violations.add(String.format(Locale.ROOT, "%s %.1f ms > %d ms", percentile, actualMs,
+                        objective.toMillis()));
+            }
+        }
+    }
+
+    boolean passed() {
+        return scenarios.stream().flatMap(scenario -> scenario.steps().stream())
+                .allMatch(step -> step.violations().isEmpty());
+    }
+
+    void print(PrintStream out) {
+        out.println("Dataset: " + dataset);
+        for (ScenarioResult scenario : scenarios) {
+            out.printf(Locale.ROOT, "%n%s: %s (%d users, %.1f s measured)%n", scenario.name(),
+                    scenario.description(), scenario.users(), scenario.measuredSeconds());
+            out.printf(Locale.ROOT, "  %-24s %9s %9s %8s %9s %9s %9s %9s %9s%n", "step", "requests", "req/s",
+                    "errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (StepResult step : scenario.steps()) {
+                out.printf(Locale.ROOT, "  %-24s %9d %9.1f %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", step.name(),
+                        step.requests(), step.throughput(), step.errorRate() * 100, step.latency().get("p50"),
+                        step.latency().get("p95"), step.latency().get("p99"), step.latency().get("p99.9"),
+                        step.latency().get("max"));
+                if (step.errors() > 0) {
+                    out.println("    outcomes: " + step.outcomes());
+                }
+                step.violations().forEach(violation -> out.println("    SLO VIOLATED: " + violation));
+            }
+        }
+        out.println();
+        out.println(passed() ? "All SLOs met" : "SLOs violated");
+    }
+
+    void write(Path path, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("startedAt", startedAt.toString());
+        json.put("dataset", dataset);
+        json.put("passed", passed());
+        json.put("scenarios", scenarios);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), json);
+    }
+
+    private static String format(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile);
+    }
+}
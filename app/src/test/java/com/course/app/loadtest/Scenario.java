@@ -0,0 +1,93 @@
+package com.course.app.loadtest;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A load-test scenario script (src/test/resources/loadtest/*.yml, under the scenario key).
+ *
+ * Each of the {@code users} virtual users logs in as {@code role} (admin, or anonymous for the public pages)
+ * and runs the steps in order once every {@code pacing}, starting spread over the first pacing period. Results
+ * of the warm-up are discarded, then the steps are measured for {@code duration}. Paths and bodies may use the
+ * ${...} variables of {@link LoadTestDataset}. SLOs are keyed by step name.
+ */
+public record Scenario(String name, String description, String role, int users, Duration pacing, Duration warmup,
+                       Duration duration, List<Step> steps, Map<String, Slo> slo) {
+
+    static final Pattern VARIABLE = Pattern.compile("\\$\\{([a-zA-Z]+)}");
+
+    /**
+     * One request of an iteration; the body is sent as JSON
+     */
+    public record Step(String name, String method, String path, String body) {
+    }
+
+    /**
+     * Objectives of one step over the measured period; unset ones are not checked
+     */
+    public record Slo(Duration p95, Duration p99, Double maxErrorRate, Double minThroughput) {
+    }
+
+    public Scenario {
+        slo = slo != null ? slo : Map.of();
+        if (name == null || steps == null || steps.isEmpty() || users <= 0 || pacing == null || duration == null) {
+            throw new IllegalArgumentException("Scenario " + name + " needs name, users, pacing, duration and steps");
+        }
+        if (!"admin".equals(role) && !"anonymous".equals(role)) {
+            throw new IllegalArgumentException("Scenario " + name + ": role must be admin or anonymous, was " + role);
+        }
+        warmup = warmup != null ? warmup : Duration.ZERO;
+        for (Step step : steps) {
+            checkVariables(step.path());
+            checkVariables(step.body());
+        }
+        for (String step : slo.keySet()) {
+            if (steps.stream().noneMatch(s -> s.name().equals(step))) {
+                throw new IllegalArgumentException("Scenario " + name + ": SLO for unknown step " + step);
+            }
+        }
+    }
+
+    static Scenario load(Resource resource) throws IOException {
+        MutablePropertySources sources = new MutablePropertySources();
+        new YamlPropertySourceLoader().load(resource.getFilename(), resource).forEach(sources::addLast);
+        return new Binder(ConfigurationPropertySources.from(sources)).bind("scenario", Scenario.class)
+                .orElseThrow(() -> new IllegalArgumentException(resource + " has no scenario"));
+    }
+
+    /**
+     * The scenario with overridden settings; throughput objectives scale with the number of users
+     */
+    Scenario with(Integer users, Duration warmup, Duration duration) {
+        Map<String, Slo> scaled = new LinkedHashMap<>();
+        double factor = users != null ? (double) users / this.users : 1;
+        slo.forEach((step, objective) -> scaled.put(step, new Slo(objective.p95(), objective.p99(),
+                objective.maxErrorRate(), objective.minThroughput() != null ? objective.minThroughput() * factor : null)));
+        return new Scenario(name, description, role, users != null ? users : this.users, pacing,
+                warmup != null ? warmup : this.warmup, duration != null ? duration : this.duration, steps, scaled);
+    }
+
+    private void checkVariables(String template) {
+        if (template == null) {
+            return;
+        }
+        Matcher matcher = VARIABLE.matcher(template);
+        while (matcher.find()) {
+            if (!LoadTestDataset.VARIABLES.contains(matcher.group(1))) {
+                throw new IllegalArgumentException("Scenario " + name + ": unknown variable ${" + matcher.group(1)
+                        + "}, expected one of " + LoadTestDataset.VARIABLES);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.course.app.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+
+/**
+ * Runs one {@link Scenario}: a thread per virtual user, each starting an iteration every pacing period.
+ * Latencies are recorded in microseconds with the pacing as the expected interval, so a stalled response
+ * also counts the iterations it held back (coordinated omission); an iteration that overran starts the next
+ * one right away instead of catching up. Requests are measured when they start within the measured period.
+ * Anything other than a 2xx or 304 response is an error.
+ */
+final class ScenarioRunner {
+
+    private final LoadTestClient client;
+    private final LoadTestDataset dataset;
+
+    ScenarioRunner(LoadTestClient client, LoadTestDataset dataset) {
+        this.client = client;
+        this.dataset = dataset;
+    }
+
+    /**
+     * Latencies and outcomes of one step
+     */
+    static final class StepStats {
+        private final Recorder latencies = new Recorder(3);
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+        private void record(long micros, long expectedIntervalMicros, String outcome, boolean error) {
+            latencies.recordValueWithExpectedInterval(micros, expectedIntervalMicros);
+            requests.increment();
+            if (error) {
+                errors.increment();
+            }
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+
+        /**
+         * Drop what was recorded during the warm-up; recordings racing with this may be lost
+         */
+        private void reset() {
+            latencies.reset();
+            requests.reset();
+            errors.reset();
+            outcomes.clear();
+        }
+
+        Histogram histogram() {
+            return latencies.getIntervalHistogram();
+        }
+
+        long requests() {
+            return requests.sum();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        Map<String, Long> outcomes() {
+            Map<String, Long> sorted = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> sorted.put(outcome, count.sum()));
+            return sorted;
+        }
+    }
+
+    LoadTestReport.ScenarioResult run(Scenario scenario) throws Exception {
+        List<LoadTestDataset.VirtualUser> users = dataset.virtualUsers(scenario.role(), scenario.users());
+        Map<Scenario.Step, StepStats> stats = new LinkedHashMap<>();
+        scenario.steps().forEach(step -> stats.put(step, new StepStats()));
+
+        long pacingNanos = scenario.pacing().toNanos();
+        long pacingMicros = TimeUnit.NANOSECONDS.toMicros(pacingNanos);
+        long start = System.nanoTime();
+        long measureFrom = start + scenario.warmup().toNanos();
+        long end = measureFrom + scenario.duration().toNanos();
+
+        ExecutorService executor = Executors.newFixedThreadPool(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            LoadTestDataset.VirtualUser user = users.get(i);
+            Random random = new Random(i);
+            long firstIteration = start + pacingNanos * i / users.size();
+            executor.execute(() -> {
+                long next = firstIteration;
+                while (sleepUntil(next) && System.nanoTime() < end) {
+                    Map<String, String> variables = user.variables(random);
+                    for (Map.Entry<Scenario.Step, StepStats> entry : stats.entrySet()) {
+                        if (System.nanoTime() >= end) {
+                            break;
+                        }
+                        execute(entry.getKey(), entry.getValue(), user.token(), variables, pacingMicros);
+                    }
+                    next = Math.max(next + pacingNanos, System.nanoTime());
+                }
+            });
+        }
+
+        sleepUntil(measureFrom);
+        stats.values().forEach(StepStats::reset);
+        executor.shutdown();
+        if (!executor.awaitTermination(scenario.duration().toSeconds() + 60, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Scenario " + scenario.name() + " did not finish");
+        }
+        return LoadTestReport.ScenarioResult.of(scenario, stats, scenario.duration().toNanos() / 1e9);
+    }
+
+    private void execute(Scenario.Step step, StepStats stats, String token, Map<String, String> variables,
+                         long pacingMicros) {
+        String method = step.method() != null ? step.method() : "GET";
+        String path = substitute(step.path(), variables);
+        String body = substitute(step.body(), variables);
+        long startedAt = System.nanoTime();
+        String outcome;
+        boolean error;
+        try {
+            int status = client.send(method, path, token, body);
+            outcome = String.valueOf(status);
+            error = status >= 300 && status != 304;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+            error = true;
+        }
+        stats.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedAt), pacingMicros, outcome, error);
+    }
+
+    private static String substitute(String template, Map<String, String> variables) {
+        if (template == null) {
+            return null;
+        }
+        Matcher matcher = Scenario.VARIABLE.matcher(template);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(result, Matcher.quoteReplacement(variables.get(matcher.group(1))));
+        }
+        return matcher.appendTail(result).toString();
+    }
+
+    private static boolean sleepUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,213 @@
+package com.course.app.repository;
+
+import com.course.app.support.SqlStatementRecorder;
+import jakarta.persistence.Entity;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Every query method of the repositories has an index behind it.
+ *
+ * Calls each method declared in this package once with placeholder arguments on the migrated embedded
+ * database, records the SQL Hibernate issues for it and asks H2 for the plan of every statement. A table read
+ * without an index condition (a table scan, or an index walked from end to end) fails the method, unless it is
+ * listed in {@link #FULL_SCANS}. A new query needs an index in a db/migration script or an entry there with its
+ * reason.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RepositoryIndexCoverageTest {
+
+    /**
+     * Queries that read whole tables by design, with the tables they read
+     */
+    private static final Map<String, Set<String>> FULL_SCANS = Map.ofEntries(
+            // Overridden findAll: the whole table, with its associations through their keys
+            Map.entry("LessonNoteRepository.findAll", Set.of("lesson_notes")),
+            Map.entry("LessonRepository.findAll", Set.of("lessons")),
+            Map.entry("CourseRepository.findAll", Set.of("courses")),
+            Map.entry("StudentRepository.findAll", Set.of("students")),
+            // Startup rebuilds of the in-memory indexes and read models, once per boot
+            Map.entry("AttendanceRepository.findIndexRows", Set.of("attendances")),
+            Map.entry("AttendanceRepository.summarizeByLocationCourseAndDate", Set.of("attendances")),
+            Map.entry("StudentRankingRepository.findScoreTotalsByCourse", Set.of("students")),
+            Map.entry("StudentRankingRepository.findCourseLocationMappings", Set.of("courses")),
+            Map.entry("StudentRankingRepository.findLocationAssignments", Set.of("student_course_locations")),
+            Map.entry("LessonRepository.findLessonsWithoutStats", Set.of("lessons")),
+            Map.entry("StudentPerformanceSnapshotRepository.findStudentIdsWithoutSnapshot", Set.of("students")),
+            Map.entry("ActivityLogRepository.findLatestPerLocation", Set.of("activity_log")),
+            // ETag of the all-locations listings: one row per location plus the catalog
+            Map.entry("ResourceVersionRepository.sumVersions", Set.of("resource_versions")));
+
+    /**
+     * Access path of a table in an H2 plan: {@code /* public.t.tableScan *\/}, an index read from end to end
+     * {@code /* public.index *\/}, or an index lookup {@code /* public.index: condition *\/}
+     */
+    private static final Pattern ACCESS = Pattern.compile(
+            "/\\* public\\.(\\w+?)(\\.tableScan)?(:| \\*/)(\\s*/\\* direct lookup \\*/)?");
+
+    /** Indexes H2 adds for foreign keys; PostgreSQL has no such thing */
+    private static final Pattern IMPLICIT_INDEX = Pattern.compile("fk\\w+_INDEX_\\w+");
+
+    /** {@code left join students s1_0 on s1_0.id=ln1_0.student_id}: the alias and the foreign key column */
+    private static final Pattern KEY_JOIN = Pattern.compile("left join \\w+ (\\w+) on \\1\\.id=(\\w+\\.\\w+)");
+
+    private record Index(String table, String leadingColumn) {
+    }
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestFactory
+    Stream<DynamicTest> everyRepositoryQueryUsesAnIndex() {
+        Map<String, Index> indexes = new HashMap<>();
+        jdbcTemplate.query("SELECT index_name, table_name, column_name FROM information_schema.index_columns "
+                + "WHERE table_schema = 'public' AND ordinal_position = 1", resultSet -> {
+            indexes.put(resultSet.getString(1), new Index(resultSet.getString(2), resultSet.getString(3)));
+        });
+
+        Map<String, Method> methods = new TreeMap<>();
+        Map<String, Object> repositories = new HashMap<>();
+        for (Object repository : applicationContext.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : repository.getClass().getInterfaces()) {
+                if (!type.getPackageName().equals(getClass().getPackageName())) {
+                    continue;
+                }
+                for (Method method : type.getMethods()) {
+                    if (method.getDeclaringClass().getPackageName().equals(getClass().getPackageName())) {
+                        String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                        methods.putIfAbsent(name, method);
+                        repositories.putIfAbsent(name, repository);
+                    }
+                }
+            }
+        }
+        assertTrue(methods.size() > 50, "Repository query methods not found: " + methods.keySet());
+        assertTrue(methods.keySet().containsAll(FULL_SCANS.keySet()), "Stale FULL_SCANS entries");
+
+        return methods.entrySet().stream().map(entry -> DynamicTest.dynamicTest(entry.getKey(), () -> {
+            List<String> statements = record(repositories.get(entry.getKey()), entry.getValue());
+            assertFalse(statements.isEmpty(), "No SQL recorded");
+            Set<String> allowed = FULL_SCANS.getOrDefault(entry.getKey(), Set.of());
+            for (String sql : statements) {
+                String plan = jdbcTemplate.queryForObject("EXPLAIN " + pushDownKeyComparisons(sql), String.class);
+                Matcher access = ACCESS.matcher(plan);
+                while (access.find()) {
+                    String name = access.group(1);
+                    Index index = indexes.get(name);
+                    String table = index != null ? index.table() : name;
+                    boolean lookup = ":".equals(access.group(3)) || access.group(4) != null;
+                    if (!lookup && !allowed.contains(table)) {
+                        fail(entry.getKey() + " reads all of " + table + " without an index:\n" + sql + "\n" + plan);
+                    }
+                    if (lookup && IMPLICIT_INDEX.matcher(name).matches() && indexes.entrySet().stream()
+                            .noneMatch(other -> other.getValue().equals(index)
+                                    && !IMPLICIT_INDEX.matcher(other.getKey()).matches())) {
+                        fail(entry.getKey() + " looks up " + table + "." + index.leadingColumn()
+                                + " through the foreign key index only H2 creates:\n" + sql + "\n" + plan);
+                    }
+                }
+            }
+        }));
+    }
+
+    /**
+     * Compare the foreign key column instead of the key of the table it joins, as PostgreSQL does through the
+     * join's equivalence class: Spring Data filters findByStudentId on the joined students.id, which PostgreSQL
+     * applies to lesson_notes.student_id while H2 scans lesson_notes for it
+     */
+    private static String pushDownKeyComparisons(String sql) {
+        Matcher join = KEY_JOIN.matcher(sql);
+        String pushed = sql;
+        while (join.find()) {
+            pushed = pushed.replaceAll("\\b" + Pattern.quote(join.group(1)) + "\\.id(=\\?| in \\()",
+                    Matcher.quoteReplacement(join.group(2)) + "$1");
+        }
+        return pushed;
+    }
+
+    /**
+     * SQL of one call with placeholder arguments, rolled back
+     */
+    private List<String> record(Object repository, Method method) {
+        Object[] arguments = Arrays.stream(method.getParameterTypes()).map(RepositoryIndexCoverageTest::argument)
+                .toArray();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<String> statements;
+        SqlStatementRecorder.start();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                try {
+                    method.invoke(repository, arguments);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(method + " failed", e);
+                }
+            });
+        } finally {
+            statements = SqlStatementRecorder.stop();
+        }
+        return statements;
+    }
+
+    private static Object argument(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 10;
+        }
+        if (type == String.class) {
+            return "x";
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(2026, 9, 1);
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(0, 20);
+        }
+        if (type.isAssignableFrom(List.class)) {
+            return List.of(1L, 2L);
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type.isAnnotationPresent(Entity.class)) {
+            try {
+                Object entity = type.getDeclaredConstructor().newInstance();
+                type.getMethod("setId", Long.class).invoke(entity, 1L);
+                return entity;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create a " + type.getSimpleName(), e);
+            }
+        }
+        throw new IllegalArgumentException("No placeholder for " + type);
+    }
+}
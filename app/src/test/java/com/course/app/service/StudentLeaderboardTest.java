@@ -0,0 +1,157 @@
+package com.course.app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Leaderboard ordering, rank, percentile and neighbourhood lookups. Without a transaction every change is applied
+ * immediately, so the boards are driven through the same methods the services call.
+ */
+class StudentLeaderboardTest {
+
+    private static final long MATH = 100;
+    private static final long PHYSICS = 200;
+    private static final long CENTER = 10;
+    private static final long BRANCH = 20;
+
+    private final StudentLeaderboard leaderboard = new StudentLeaderboard(null, null);
+
+    @Test
+    void ranksByTotalThenAverageThenStudentId() {
+        leaderboard.recordScoreChange(1L, MATH, null, 80);
+        leaderboard.recordScoreChange(2L, MATH, null, 90);
+        // Same total as student 2 over two notes: lower average
+        leaderboard.recordScoreChange(3L, MATH, null, 45);
+        leaderboard.recordScoreChange(3L, PHYSICS, null, 45);
+        // Same total and average as student 2: the lower ID wins
+        leaderboard.recordScoreChange(4L, PHYSICS, null, 90);
+        leaderboard.addStudent(5L);
+
+        assertEquals(List.of(2L, 4L, 3L, 1L, 5L), studentIds(leaderboard.top(null, 0, 10)));
+        assertEquals(List.of(3L, 1L), studentIds(leaderboard.top(null, 2, 2)));
+        assertEquals(3, leaderboard.standing(null, 3L).orElseThrow().rank());
+        assertEquals(5, leaderboard.standing(null, 5L).orElseThrow().rank());
+        assertTrue(leaderboard.standing(null, 6L).isEmpty());
+    }
+
+    @Test
+    void scoreChangesMoveTheStudent() {
+        leaderboard.recordScoreChange(1L, MATH, null, 50);
+        leaderboard.recordScoreChange(2L, MATH, null, 60);
+        assertEquals(2, leaderboard.standing(null, 1L).orElseThrow().rank());
+
+        leaderboard.recordScoreChange(1L, MATH, 50, 70);
+        assertEquals(1, leaderboard.standing(null, 1L).orElseThrow().rank());
+
+        leaderboard.recordScoreChange(1L, MATH, 70, null);
+        StudentLeaderboard.Standing standing = leaderboard.standing(null, 1L).orElseThrow();
+        assertEquals(2, standing.rank());
+        assertEquals(0, standing.totalScore());
+        assertEquals(0, standing.scoreCount());
+    }
+
+    @Test
+    void percentileIsTheShareRankedAtOrBelow() {
+        for (long studentId = 1; studentId <= 4; studentId++) {
+            leaderboard.recordScoreChange(studentId, MATH, null, (int) (100 - studentId));
+        }
+
+        assertEquals(100.0, leaderboard.standing(null, 1L).orElseThrow().percentile());
+        assertEquals(75.0, leaderboard.standing(null, 2L).orElseThrow().percentile());
+        assertEquals(25.0, leaderboard.standing(null, 4L).orElseThrow().percentile());
+    }
+
+    @Test
+    void aroundIsClippedAtBothEnds() {
+        for (long studentId = 1; studentId <= 6; studentId++) {
+            leaderboard.recordScoreChange(studentId, MATH, null, (int) (100 - studentId));
+        }
+
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), studentIds(leaderboard.around(null, 4L, 2)));
+        assertEquals(List.of(1L, 2L, 3L), studentIds(leaderboard.around(null, 1L, 2)));
+        assertEquals(List.of(5L, 6L), studentIds(leaderboard.around(null, 6L, 1)));
+        assertEquals(List.of(3L), studentIds(leaderboard.around(null, 3L, 0)));
+        assertTrue(leaderboard.around(null, 7L, 2).isEmpty());
+    }
+
+    @Test
+    void locationBoardsCountTheNotesOfTheirCoursesOnly() {
+        leaderboard.mapCourse(MATH, List.of(CENTER));
+        leaderboard.mapCourse(PHYSICS, List.of(BRANCH));
+        leaderboard.recordScoreChange(1L, MATH, null, 40);
+        leaderboard.recordScoreChange(1L, PHYSICS, null, 90);
+        leaderboard.recordScoreChange(2L, MATH, null, 70);
+        leaderboard.enroll(1L, CENTER);
+        leaderboard.enroll(2L, CENTER);
+
+        // Globally student 1 leads, at the center only the math notes count
+        assertEquals(List.of(1L, 2L), studentIds(leaderboard.top(null, 0, 10)));
+        assertEquals(List.of(2L, 1L), studentIds(leaderboard.top(CENTER, 0, 10)));
+        assertEquals(40, leaderboard.standing(CENTER, 1L).orElseThrow().totalScore());
+
+        // Physics is now taught at the center as well
+        leaderboard.mapCourse(PHYSICS, List.of(CENTER, BRANCH));
+        assertEquals(List.of(1L, 2L), studentIds(leaderboard.top(CENTER, 0, 10)));
+        assertEquals(130, leaderboard.standing(CENTER, 1L).orElseThrow().totalScore());
+
+        leaderboard.recordScoreChange(2L, PHYSICS, null, 80);
+        assertEquals(150, leaderboard.standing(CENTER, 2L).orElseThrow().totalScore());
+
+        leaderboard.mapCourse(PHYSICS, List.of());
+        assertEquals(40, leaderboard.standing(CENTER, 1L).orElseThrow().totalScore());
+        assertEquals(130, leaderboard.standing(null, 1L).orElseThrow().totalScore());
+
+        leaderboard.unenroll(2L, CENTER);
+        assertTrue(leaderboard.standing(CENTER, 2L).isEmpty());
+        assertEquals(1, leaderboard.standing(CENTER, 1L).orElseThrow().boardSize());
+    }
+
+    @Test
+    void boardMatchesASortedListUnderRandomChanges() {
+        StudentLeaderboard.Board board = new StudentLeaderboard.Board();
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int step = 0; step < 5_000; step++) {
+            long studentId = random.nextInt(300);
+            if (random.nextInt(5) == 0) {
+                board.remove(studentId);
+                expected.remove(studentId);
+            } else {
+                // Few distinct scores, so ties on the total and on the average are common
+                long sum = random.nextInt(20) * 10L;
+                int count = random.nextInt(4);
+                board.put(studentId, sum, count);
+                expected.put(studentId, new long[] {sum, count});
+            }
+        }
+
+        List<Long> order = new ArrayList<>(expected.keySet());
+        order.sort(Comparator.<Long>comparingLong(id -> -expected.get(id)[0])
+                .thenComparing((a, b) -> Double.compare(average(expected.get(b)), average(expected.get(a))))
+                .thenComparingLong(id -> id));
+
+        assertEquals(order.size(), board.size());
+        assertEquals(order, studentIds(board.range(1, board.size())));
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(i + 1, board.rankOf(order.get(i)));
+            assertEquals((long) order.get(i), board.standingAt(i + 1).studentId());
+        }
+    }
+
+    private static double average(long[] score) {
+        return score[1] > 0 ? (double) score[0] / score[1] : 0;
+    }
+
+    private static List<Long> studentIds(List<StudentLeaderboard.Standing> standings) {
+        return standings.stream().map(StudentLeaderboard.Standing::studentId).toList();
+    }
+}
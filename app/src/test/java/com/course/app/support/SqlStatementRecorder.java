@@ -0,0 +1,101 @@
+package com.course.app.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Hibernate statement inspector that records the SQL issued by one thread between {@link #start()} and
+ * {@link #stop()}, including tasks that thread hands to an executor decorated with {@link #propagate(Runnable)}.
+ * Registered through hibernate.session_factory.statement_inspector in application-test.yml.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final Object LOCK = new Object();
+    private static final Set<Thread> RECORDING_THREADS = new HashSet<>();
+    private static final List<String> STATEMENTS = new ArrayList<>();
+    private static long recording;
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (LOCK) {
+            if (RECORDING_THREADS.contains(Thread.currentThread())) {
+                STATEMENTS.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Start recording the statements of the current thread, dropping earlier ones
+     */
+    public static void start() {
+        synchronized (LOCK) {
+            recording++;
+            STATEMENTS.clear();
+            RECORDING_THREADS.clear();
+            RECORDING_THREADS.add(Thread.currentThread());
+        }
+    }
+
+    /**
+     * Stop recording and return the statements in execution order
+     */
+    public static List<String> stop() {
+        synchronized (LOCK) {
+            recording++;
+            RECORDING_THREADS.clear();
+            return new ArrayList<>(STATEMENTS);
+        }
+    }
+
+    /**
+     * Task decorator recording the statements of a task submitted by a recording thread, on whichever
+     * thread it runs
+     */
+    public static Runnable propagate(Runnable task) {
+        long submittedIn;
+        synchronized (LOCK) {
+            if (!RECORDING_THREADS.contains(Thread.currentThread())) {
+                return task;
+            }
+            submittedIn = recording;
+        }
+        return () -> {
+            Thread thread = Thread.currentThread();
+            boolean added;
+            synchronized (LOCK) {
+                // A task outliving its recording does not leak into the next one
+                added = submittedIn == recording && RECORDING_THREADS.add(thread);
+            }
+            try {
+                task.run();
+            } finally {
+                if (added) {
+                    synchronized (LOCK) {
+                        if (submittedIn == recording) {
+                            RECORDING_THREADS.remove(thread);
+                        }
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Statements issued more than once, with their counts; the usual signature of an N+1
+     */
+    public static Map<String, Long> repeated(List<String> statements) {
+        return statements.stream()
+                .collect(Collectors.groupingBy(sql -> sql, LinkedHashMap::new, Collectors.counting()))
+                .entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}